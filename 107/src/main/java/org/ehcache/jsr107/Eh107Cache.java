@@ -19,22 +19,36 @@ import org.ehcache.core.InternalCache;
 import org.ehcache.Status;
 import org.ehcache.UserManagedCache;
 import org.ehcache.core.Jsr107Cache;
+import org.ehcache.core.spi.service.ExecutionService;
 import org.ehcache.core.spi.service.StatisticsService;
 import org.ehcache.event.EventFiring;
 import org.ehcache.event.EventOrdering;
 import org.ehcache.core.exceptions.StorePassThroughException;
 import org.ehcache.jsr107.EventListenerAdaptors.EventListenerAdaptor;
+import org.ehcache.jsr107.config.Jsr107Service;
+import org.ehcache.jsr107.config.LoadAllConfiguration;
 import org.ehcache.jsr107.internal.Jsr107CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.CacheLoadingException;
 import org.ehcache.spi.loaderwriter.CacheWritingException;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceProvider;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -66,6 +80,8 @@ class Eh107Cache<K, V> implements Cache<K, V> {
   private final Eh107CacheStatisticsMXBean statisticsBean;
   private final Eh107Configuration<K, V> config;
   private final Jsr107CacheLoaderWriter<? super K, V> cacheLoaderWriter;
+  private final LoadAllConfiguration loadAllConfiguration;
+  private final ExecutorService loadAllExecutor;
 
   Eh107Cache(String name, Eh107Configuration<K, V> config, CacheResources<K, V> cacheResources,
       InternalCache<K, V> ehCache, Eh107CacheManager cacheManager) {
@@ -85,6 +101,18 @@ class Eh107Cache<K, V> implements Cache<K, V> {
     }
 
     this.jsr107Cache = ehCache.getJsr107Cache();
+
+    ServiceProvider<Service> serviceProvider = cacheManager.getEhCacheManager().getServiceProvider();
+    Jsr107Service jsr107Service = serviceProvider.getService(Jsr107Service.class);
+    LoadAllConfiguration loadAll = jsr107Service == null ? null : jsr107Service.getLoadAllConfiguration();
+    if (loadAll != null && cacheLoaderWriter != null) {
+      this.loadAllConfiguration = loadAll;
+      this.loadAllExecutor = serviceProvider.getService(ExecutionService.class)
+        .getUnorderedExecutor(loadAll.getThreadPoolAlias(), new LinkedBlockingQueue<>());
+    } else {
+      this.loadAllConfiguration = null;
+      this.loadAllExecutor = null;
+    }
   }
 
   @Override
@@ -134,25 +162,31 @@ class Eh107Cache<K, V> implements Cache<K, V> {
       return;
     }
 
+    if (loadAllExecutor != null) {
+      new AsyncLoadAll(keys, replaceExistingValues, completionListener).start();
+      return;
+    }
+
     try {
       jsr107Cache.loadAll(keys, replaceExistingValues, this::loadAllFunction);
     } catch (Exception e) {
-      final CacheLoaderException cle;
-      if (e instanceof CacheLoaderException) {
-        cle = (CacheLoaderException) e;
-      } else if (e.getCause() instanceof CacheLoaderException) {
-        cle = (CacheLoaderException) e.getCause();
-      } else {
-        cle = new CacheLoaderException(e);
-      }
-
-      completionListener.onException(cle);
+      completionListener.onException(toCacheLoaderException(e));
       return;
     }
 
     completionListener.onCompletion();
   }
 
+  private static CacheLoaderException toCacheLoaderException(Exception e) {
+    if (e instanceof CacheLoaderException) {
+      return (CacheLoaderException) e;
+    } else if (e.getCause() instanceof CacheLoaderException) {
+      return (CacheLoaderException) e.getCause();
+    } else {
+      return new CacheLoaderException(e);
+    }
+  }
+
   private Map<K, V> loadAllFunction(Iterable<? extends K> keysIterable) {
     try {
       Map<? super K, ? extends V> loadResult = cacheLoaderWriter.loadAllAlways(keysIterable);
@@ -162,16 +196,103 @@ class Eh107Cache<K, V> implements Cache<K, V> {
       }
       return resultMap;
     } catch (Exception e) {
-      final CacheLoaderException cle;
-      if (e instanceof CacheLoaderException) {
-        cle = (CacheLoaderException) e;
-      } else if (e.getCause() instanceof CacheLoaderException) {
-        cle = (CacheLoaderException) e.getCause();
+      throw toCacheLoaderException(e);
+    }
+  }
+
+  /**
+   * A {@code loadAll} running on the {@code loadAll} executor, one chunk of keys per task.
+   * <p>
+   * Each completed chunk submits the next pending one, keeping at most the configured concurrency of chunks loading.
+   * The completion listener is notified once all chunks are done, of the first failure if any.
+   */
+  private class AsyncLoadAll {
+
+    private final boolean replaceExistingValues;
+    private final CompletionListener completionListener;
+    private final Queue<Set<K>> pendingChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger remainingChunks;
+    private final AtomicReference<CacheLoaderException> failure = new AtomicReference<>();
+
+    AsyncLoadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+      this.replaceExistingValues = replaceExistingValues;
+      this.completionListener = completionListener;
+
+      int chunkSize = loadAllConfiguration.getChunkSize();
+      List<Set<K>> chunks = new ArrayList<>(keys.size() / chunkSize + 1);
+      Set<K> chunk = new HashSet<>();
+      for (K key : keys) {
+        chunk.add(key);
+        if (chunk.size() == chunkSize) {
+          chunks.add(chunk);
+          chunk = new HashSet<>();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        chunks.add(chunk);
+      }
+      this.pendingChunks.addAll(chunks);
+      this.remainingChunks = new AtomicInteger(chunks.size());
+    }
+
+    void start() {
+      if (remainingChunks.get() == 0) {
+        completionListener.onCompletion();
       } else {
-        cle = new CacheLoaderException(e);
+        for (int i = 0; i < loadAllConfiguration.getConcurrency(); i++) {
+          submitNextChunk();
+        }
       }
+    }
 
-      throw cle;
+    private void submitNextChunk() {
+      // loops rather than recursing through chunkDone() when rejected, as every pending chunk then gets rejected
+      for (Set<K> chunk; (chunk = pendingChunks.poll()) != null; ) {
+        Set<K> submitted = chunk;
+        try {
+          if (loadAllExecutor.isShutdown()) {
+            throw new RejectedExecutionException("Cache " + name + " is closed");
+          }
+          loadAllExecutor.execute(() -> load(submitted));
+          return;
+        } catch (RejectedExecutionException e) {
+          // the cache got closed: this chunk and the pending ones fail
+          failure.compareAndSet(null, new CacheLoaderException(e));
+          if (remainingChunks.decrementAndGet() == 0) {
+            notifyCompletion();
+            return;
+          }
+        }
+      }
+    }
+
+    private void load(Set<K> chunk) {
+      // once a chunk failed, the remaining ones are not loaded
+      if (failure.get() == null) {
+        try {
+          jsr107Cache.loadAll(chunk, replaceExistingValues, Eh107Cache.this::loadAllFunction);
+        } catch (Exception e) {
+          failure.compareAndSet(null, toCacheLoaderException(e));
+        }
+      }
+      chunkDone();
+    }
+
+    private void chunkDone() {
+      if (remainingChunks.decrementAndGet() == 0) {
+        notifyCompletion();
+      } else {
+        submitNextChunk();
+      }
+    }
+
+    private void notifyCompletion() {
+      CacheLoaderException cle = failure.get();
+      if (cle == null) {
+        completionListener.onCompletion();
+      } else {
+        completionListener.onException(cle);
+      }
     }
   }
 
@@ -390,23 +511,56 @@ class Eh107Cache<K, V> implements Cache<K, V> {
       }
     }
 
-    Map<K, EntryProcessorResult<T>> results = new HashMap<>(keys.size());
-    for (K key : keys) {
-      EntryProcessorResult<T> result = null;
-      try {
-        T invokeResult = invoke(key, entryProcessor, arguments);
-        if (invokeResult != null) {
-          result = newEntryProcessorResult(invokeResult);
+    final Map<K, EntryProcessorResult<T>> results = new HashMap<>(keys.size());
+    final Set<K> processedKeys = new HashSet<>(keys.size());
+    final AtomicReference<MutableEntry> mutableEntryRef = new AtomicReference<>();
+
+    // the suppliers are queried for the entry just processed, as for invoke
+    Map<K, Exception> failures;
+    try {
+      failures = jsr107Cache.bulkCompute(keys, (mappedKey, mappedValue) -> {
+        processedKeys.add(mappedKey);
+        MutableEntry mutableEntry = new MutableEntry(mappedKey, mappedValue);
+        mutableEntryRef.set(mutableEntry);
+
+        T processResult;
+        try {
+          processResult = entryProcessor.process(mutableEntry, arguments);
+        } catch (Exception e) {
+          if (e instanceof EntryProcessorException) {
+            throw new StorePassThroughException(e);
+          }
+          throw new StorePassThroughException(new EntryProcessorException(e));
         }
-      } catch (final Exception e) {
-        result = newErrorThrowingEntryProcessorResult(e);
-      }
 
-      if (result != null) {
-        results.put(key, result);
+        if (processResult != null) {
+          results.put(mappedKey, newEntryProcessorResult(processResult));
+        }
+
+        return mutableEntry.apply(config.isWriteThrough(), cacheLoaderWriter);
+      }, () -> {
+        MutableEntry mutableEntry = mutableEntryRef.get();
+        return mutableEntry.shouldReplace();
+      }, () -> {
+        MutableEntry mutableEntry = mutableEntryRef.get();
+        return mutableEntry.shouldInvokeWriter();
+      }, () -> {
+        MutableEntry mutableEntry = mutableEntryRef.get();
+        return mutableEntry.shouldGenerateEvent();
+      });
+    } catch (Exception e) {
+      // the keys not processed yet share the failure of the whole operation
+      for (K key : keys) {
+        if (!processedKeys.contains(key)) {
+          results.put(key, newErrorThrowingEntryProcessorResult(e));
+        }
       }
+      return results;
     }
 
+    for (Map.Entry<K, Exception> failure : failures.entrySet()) {
+      results.put(failure.getKey(), newErrorThrowingEntryProcessorResult(failure.getValue()));
+    }
     return results;
   }
 
@@ -446,6 +600,10 @@ class Eh107Cache<K, V> implements Cache<K, V> {
         }
       }
 
+      if (loadAllExecutor != null) {
+        loadAllExecutor.shutdown();
+      }
+
       cacheResources.closeResources(closeException);
     }
   }
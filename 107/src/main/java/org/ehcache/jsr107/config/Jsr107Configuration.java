@@ -31,6 +31,7 @@ public class Jsr107Configuration implements ServiceCreationConfiguration<Jsr107S
   private final ConfigurationElementState enableManagementAll;
   private final ConfigurationElementState enableStatisticsAll;
   private final Map<String, String> templates;
+  private final LoadAllConfiguration loadAllConfiguration;
 
   /**
    * Creates a new configuration with the provided parameters.
@@ -42,11 +43,28 @@ public class Jsr107Configuration implements ServiceCreationConfiguration<Jsr107S
    */
   public Jsr107Configuration(final String defaultTemplate, final Map<String, String> templates,
                              boolean jsr107CompliantAtomics, ConfigurationElementState enableManagementAll, ConfigurationElementState enableStatisticsAll) {
+    this(defaultTemplate, templates, jsr107CompliantAtomics, enableManagementAll, enableStatisticsAll, null);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param defaultTemplate the default template
+   * @param templates cache alias to template name map
+   * @param jsr107CompliantAtomics behaviour of loader writer in atomic operations
+   * @param enableManagementAll
+   * @param enableStatisticsAll
+   * @param loadAllConfiguration configuration of asynchronous {@code loadAll}, {@code null} to load synchronously
+   */
+  public Jsr107Configuration(final String defaultTemplate, final Map<String, String> templates,
+                             boolean jsr107CompliantAtomics, ConfigurationElementState enableManagementAll, ConfigurationElementState enableStatisticsAll,
+                             LoadAllConfiguration loadAllConfiguration) {
     this.defaultTemplate = defaultTemplate;
     this.jsr107CompliantAtomics = jsr107CompliantAtomics;
     this.enableManagementAll = enableManagementAll;
     this.enableStatisticsAll = enableStatisticsAll;
     this.templates = new ConcurrentHashMap<>(templates);
+    this.loadAllConfiguration = loadAllConfiguration;
   }
 
   /**
@@ -103,4 +121,13 @@ public class Jsr107Configuration implements ServiceCreationConfiguration<Jsr107S
   public ConfigurationElementState isEnableStatisticsAll() {
     return enableStatisticsAll;
   }
+
+  /**
+   * Returns the configuration of asynchronous {@code loadAll}, or {@code null} if {@code loadAll} is synchronous.
+   *
+   * @return the {@code loadAll} configuration or {@code null}
+   */
+  public LoadAllConfiguration getLoadAllConfiguration() {
+    return loadAllConfiguration;
+  }
 }
@@ -54,4 +54,11 @@ public interface Jsr107Service extends Service {
    */
   ConfigurationElementState isStatisticsEnabledOnAllCaches();
 
+  /**
+   * Returns the configuration of asynchronous {@code loadAll} operations.
+   *
+   * @return the {@code loadAll} configuration, {@code null} if {@code loadAll} is synchronous
+   */
+  LoadAllConfiguration getLoadAllConfiguration();
+
 }
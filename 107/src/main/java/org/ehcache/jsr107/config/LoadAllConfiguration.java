@@ -0,0 +1,92 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.jsr107.config;
+
+/**
+ * Configuration of asynchronous {@link javax.cache.Cache#loadAll loadAll} operations.
+ * <p>
+ * Keys to load are split in chunks, each chunk being loaded by a single {@code loadAll} call on the cache loader.
+ * Chunks are loaded on the configured thread pool, with at most {@code concurrency} chunks of an operation loading at
+ * the same time.
+ */
+public class LoadAllConfiguration {
+
+  /**
+   * Default number of keys loaded by a single cache loader call.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  private final String threadPoolAlias;
+  private final int concurrency;
+  private final int chunkSize;
+
+  /**
+   * Creates a new configuration loading chunks of {@link #DEFAULT_CHUNK_SIZE} keys.
+   *
+   * @param threadPoolAlias the thread pool to load on, {@code null} for the default pool
+   * @param concurrency the maximum number of chunks of an operation loading at the same time
+   */
+  public LoadAllConfiguration(String threadPoolAlias, int concurrency) {
+    this(threadPoolAlias, concurrency, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param threadPoolAlias the thread pool to load on, {@code null} for the default pool
+   * @param concurrency the maximum number of chunks of an operation loading at the same time
+   * @param chunkSize the number of keys loaded by a single cache loader call
+   */
+  public LoadAllConfiguration(String threadPoolAlias, int concurrency, int chunkSize) {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+    }
+    this.threadPoolAlias = threadPoolAlias;
+    this.concurrency = concurrency;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Returns the alias of the thread pool to load on, {@code null} for the default pool.
+   *
+   * @return the thread pool alias
+   */
+  public String getThreadPoolAlias() {
+    return threadPoolAlias;
+  }
+
+  /**
+   * Returns the maximum number of chunks of an operation loading at the same time.
+   *
+   * @return the concurrency
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Returns the number of keys loaded by a single cache loader call.
+   *
+   * @return the chunk size
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+}
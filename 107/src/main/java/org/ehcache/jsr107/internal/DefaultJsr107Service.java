@@ -16,15 +16,17 @@
 
 package org.ehcache.jsr107.internal;
 
+import org.ehcache.core.spi.service.ExecutionService;
 import org.ehcache.core.spi.service.StatisticsService;
 import org.ehcache.jsr107.config.ConfigurationElementState;
 import org.ehcache.jsr107.config.Jsr107Configuration;
 import org.ehcache.jsr107.config.Jsr107Service;
+import org.ehcache.jsr107.config.LoadAllConfiguration;
 import org.ehcache.spi.service.ServiceDependencies;
 import org.ehcache.spi.service.ServiceProvider;
 import org.ehcache.spi.service.Service;
 
-@ServiceDependencies(StatisticsService.class)
+@ServiceDependencies({StatisticsService.class, ExecutionService.class})
 public class DefaultJsr107Service implements Jsr107Service {
 
   private final Jsr107Configuration configuration;
@@ -82,4 +84,13 @@ public class DefaultJsr107Service implements Jsr107Service {
       return configuration.isEnableStatisticsAll();
     }
   }
+
+  @Override
+  public LoadAllConfiguration getLoadAllConfiguration() {
+    if (configuration == null) {
+      return null;
+    } else {
+      return configuration.getLoadAllConfiguration();
+    }
+  }
 }
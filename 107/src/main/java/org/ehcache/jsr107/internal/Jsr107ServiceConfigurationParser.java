@@ -18,6 +18,7 @@ package org.ehcache.jsr107.internal;
 
 import org.ehcache.jsr107.config.ConfigurationElementState;
 import org.ehcache.jsr107.config.Jsr107Configuration;
+import org.ehcache.jsr107.config.LoadAllConfiguration;
 import org.ehcache.xml.CacheManagerServiceConfigurationParser;
 import org.ehcache.jsr107.config.Jsr107Service;
 import org.ehcache.spi.service.ServiceCreationConfiguration;
@@ -34,6 +35,7 @@ import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 
 import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.parseInt;
 
 /**
  * @author Alex Snaps
@@ -48,6 +50,9 @@ public class Jsr107ServiceConfigurationParser implements CacheManagerServiceConf
   private static final String DEFAULT_TEMPLATE_ATTRIBUTE = "default-template";
   private static final String CACHE_NAME_ATTRIBUTE = "name";
   private static final String TEMPLATE_NAME_ATTRIBUTE = "template";
+  private static final String LOAD_ALL_CONCURRENCY_ATTRIBUTE = "load-all-concurrency";
+  private static final String LOAD_ALL_CHUNK_SIZE_ATTRIBUTE = "load-all-chunk-size";
+  private static final String LOAD_ALL_THREAD_POOL_ATTRIBUTE = "load-all-thread-pool";
 
   @Override
   public Source getXmlSchema() throws IOException {
@@ -73,6 +78,16 @@ public class Jsr107ServiceConfigurationParser implements CacheManagerServiceConf
     if (fragment.hasAttribute(ENABLE_STATISTICS_ALL_ATTRIBUTE)) {
       enableStatisticsAll = parseBoolean(fragment.getAttribute(ENABLE_STATISTICS_ALL_ATTRIBUTE)) ? ConfigurationElementState.ENABLED : ConfigurationElementState.DISABLED;
     }
+    LoadAllConfiguration loadAllConfiguration = null;
+    if (fragment.hasAttribute(LOAD_ALL_CONCURRENCY_ATTRIBUTE)) {
+      String threadPool = fragment.hasAttribute(LOAD_ALL_THREAD_POOL_ATTRIBUTE) ? fragment.getAttribute(LOAD_ALL_THREAD_POOL_ATTRIBUTE) : null;
+      int concurrency = parseInt(fragment.getAttribute(LOAD_ALL_CONCURRENCY_ATTRIBUTE));
+      if (fragment.hasAttribute(LOAD_ALL_CHUNK_SIZE_ATTRIBUTE)) {
+        loadAllConfiguration = new LoadAllConfiguration(threadPool, concurrency, parseInt(fragment.getAttribute(LOAD_ALL_CHUNK_SIZE_ATTRIBUTE)));
+      } else {
+        loadAllConfiguration = new LoadAllConfiguration(threadPool, concurrency);
+      }
+    }
     final String defaultTemplate = fragment.getAttribute(DEFAULT_TEMPLATE_ATTRIBUTE);
     final HashMap<String, String> templates = new HashMap<>();
     final NodeList childNodes = fragment.getChildNodes();
@@ -84,6 +99,6 @@ public class Jsr107ServiceConfigurationParser implements CacheManagerServiceConf
       }
     }
 
-    return new Jsr107Configuration(defaultTemplate, templates, jsr107CompliantAtomics, enableManagementAll, enableStatisticsAll);
+    return new Jsr107Configuration(defaultTemplate, templates, jsr107CompliantAtomics, enableManagementAll, enableStatisticsAll, loadAllConfiguration);
   }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.jsr107;
+
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.config.ConfigurationElementState;
+import org.ehcache.jsr107.config.Jsr107Configuration;
+import org.ehcache.jsr107.config.LoadAllConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CompletionListenerFuture;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AsyncLoadAllTest {
+
+  private final AtomicInteger loading = new AtomicInteger();
+  private final AtomicInteger maxLoading = new AtomicInteger();
+  private final List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+  private volatile CountDownLatch release = new CountDownLatch(0);
+  private volatile boolean failing = false;
+
+  private CacheManager cacheManager;
+  private Cache<Long, String> cache;
+
+  @Before
+  public void setUp() {
+    Jsr107Configuration jsr107Configuration = new Jsr107Configuration(null, Collections.emptyMap(), true,
+      ConfigurationElementState.UNSPECIFIED, ConfigurationElementState.UNSPECIFIED, new LoadAllConfiguration(null, 2, 10));
+    cacheManager = new EhcacheCachingProvider().getCacheManager(URI.create("async-load-all"),
+      new DefaultConfiguration(getClass().getClassLoader(), jsr107Configuration));
+
+    cache = cacheManager.createCache("cache", new MutableConfiguration<Long, String>()
+      .setTypes(Long.class, String.class)
+      .setReadThrough(true)
+      .setCacheLoaderFactory(() -> new CacheLoader<Long, String>() {
+        @Override
+        public String load(Long key) {
+          return "value" + key;
+        }
+
+        @Override
+        public Map<Long, String> loadAll(Iterable<? extends Long> keys) {
+          maxLoading.accumulateAndGet(loading.incrementAndGet(), Math::max);
+          try {
+            release.await(10, TimeUnit.SECONDS);
+            if (failing) {
+              throw new CacheLoaderException("failing loader");
+            }
+            Map<Long, String> loaded = new HashMap<>();
+            for (Long key : keys) {
+              loaded.put(key, "value" + key);
+            }
+            chunkSizes.add(loaded.size());
+            return loaded;
+          } catch (InterruptedException e) {
+            throw new CacheLoaderException(e);
+          } finally {
+            loading.decrementAndGet();
+          }
+        }
+      }));
+  }
+
+  @After
+  public void tearDown() {
+    cacheManager.close();
+  }
+
+  @Test
+  public void testLoadAllReturnsBeforeLoading() throws Exception {
+    release = new CountDownLatch(1);
+    Set<Long> keys = keys(95);
+
+    CompletionListenerFuture future = new CompletionListenerFuture();
+    cache.loadAll(keys, false, future);
+    assertThat(future.isDone(), is(false));
+
+    release.countDown();
+    future.get(10, TimeUnit.SECONDS);
+
+    assertThat(chunkSizes.size(), is(10));
+    assertThat(chunkSizes, everyItem(lessThanOrEqualTo(10)));
+    assertThat(maxLoading.get(), lessThanOrEqualTo(2));
+    for (Long key : keys) {
+      assertThat(cache.containsKey(key), is(true));
+    }
+  }
+
+  @Test
+  public void testLoadAllFailureIsReported() throws Exception {
+    failing = true;
+
+    CompletionListenerFuture future = new CompletionListenerFuture();
+    cache.loadAll(keys(50), false, future);
+
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(CacheLoaderException.class));
+    }
+  }
+
+  @Test
+  public void testLoadAllOfManyChunksFailsWhenClosed() throws Exception {
+    release = new CountDownLatch(1);
+
+    CompletionListenerFuture future = new CompletionListenerFuture();
+    cache.loadAll(keys(200_000), false, future);
+    cache.close();
+    // every pending chunk gets rejected once the loading ones complete
+    release.countDown();
+
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(CacheLoaderException.class));
+    }
+  }
+
+  @Test
+  public void testLoadAllOfNoKeysCompletes() throws Exception {
+    CompletionListenerFuture future = new CompletionListenerFuture();
+    cache.loadAll(Collections.emptySet(), false, future);
+
+    assertThat(future.isDone(), is(true));
+  }
+
+  private static Set<Long> keys(int count) {
+    Set<Long> keys = new HashSet<>();
+    for (long i = 0; i < count; i++) {
+      keys.add(i);
+    }
+    return keys;
+  }
+}
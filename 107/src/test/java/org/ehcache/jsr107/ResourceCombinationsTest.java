@@ -20,8 +20,13 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import javax.cache.Cache;
 import javax.cache.CacheManager;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
 
 import org.ehcache.config.Builder;
 import org.ehcache.config.Configuration;
@@ -42,7 +47,9 @@ import static org.ehcache.config.units.EntryUnit.ENTRIES;
 import static org.ehcache.config.units.MemoryUnit.MB;
 import static org.ehcache.jsr107.Eh107Configuration.fromEhcacheCacheConfiguration;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 @RunWith(Parameterized.class)
 public class ResourceCombinationsTest {
@@ -81,4 +88,41 @@ public class ResourceCombinationsTest {
       assertThat(cache.get("foo"), is("bar"));
     }
   }
+
+  @Test
+  public void testInvokeAllIsolatesFailures() throws IOException, URISyntaxException {
+    Configuration config = new DefaultConfiguration(ResourceCombinationsTest.class.getClassLoader(),
+            new DefaultPersistenceConfiguration(diskPath.newFolder()));
+    try (CacheManager cacheManager = new EhcacheCachingProvider().getCacheManager(URI.create("dummy"), config)) {
+      Cache<String, String> cache = cacheManager.createCache("test", fromEhcacheCacheConfiguration(
+        newCacheConfigurationBuilder(String.class, String.class, resources)));
+      Set<String> keys = new HashSet<>();
+      for (int i = 0; i < 64; i++) {
+        cache.put("key" + i, "value" + i);
+        keys.add("key" + i);
+      }
+      keys.add("absent");
+
+      Map<String, EntryProcessorResult<String>> results = cache.invokeAll(keys, (entry, arguments) -> {
+        if (entry.getKey().equals("key7")) {
+          throw new IllegalStateException("failing key");
+        }
+        String old = entry.getValue();
+        entry.setValue(entry.getKey() + "-processed");
+        return old;
+      });
+
+      assertThat(results.size(), is(64));
+      try {
+        results.get("key7").get();
+        fail("Expected EntryProcessorException");
+      } catch (EntryProcessorException e) {
+        assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+      }
+      assertThat(cache.get("key7"), is("value7"));
+      assertThat(results.get("key8").get(), is("value8"));
+      assertThat(cache.get("key8"), is("key8-processed"));
+      assertThat(cache.get("absent"), is("absent-processed"));
+    }
+  }
 }
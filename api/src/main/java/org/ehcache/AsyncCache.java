@@ -0,0 +1,115 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache;
+
+import org.ehcache.spi.loaderwriter.BulkCacheLoadingException;
+import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
+import org.ehcache.spi.loaderwriter.CacheLoadingException;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.CacheWritingException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous view of a {@link Cache}, obtained through {@link Cache#async()}.
+ * <p>
+ * Each method has the same semantics as its {@link Cache} counterpart, but returns a {@link CompletionStage} completed
+ * once the operation is done. Stages of operations served entirely by local tiers are usually already completed when
+ * returned, while operations reaching a remote tier complete when the server replies, without blocking the calling thread.
+ * Failures are reported by completing the stage exceptionally with the exception the {@link Cache} method would have thrown.
+ * <p>
+ * Dependent actions may run on an internal thread of the cache, they should not block.
+ *
+ * @param <K> the key type for the cache
+ * @param <V> the value type for the cache
+ */
+public interface AsyncCache<K, V> {
+
+  /**
+   * Retrieves the value currently mapped to the provided key.
+   *
+   * @param key the key, may not be {@code null}
+   * @return a stage completed with the value mapped to the key, {@code null} if none
+   *
+   * @throws NullPointerException if the provided key is {@code null}
+   *
+   * @see Cache#get(Object)
+   */
+  CompletionStage<V> get(K key);
+
+  /**
+   * Associates the given value to the given key in the underlying {@code Cache}.
+   * <p>
+   * The returned stage completes exceptionally with a {@link CacheWritingException} if the {@link CacheLoaderWriter}
+   * associated with the cache threw an {@link Exception} while writing the value.
+   *
+   * @param key the key, may not be {@code null}
+   * @param value the value, may not be {@code null}
+   * @return a stage completed once the mapping is installed
+   *
+   * @throws NullPointerException if either key or value is {@code null}
+   *
+   * @see Cache#put(Object, Object)
+   */
+  CompletionStage<Void> put(K key, V value);
+
+  /**
+   * Removes the value, if any, associated with the provided key.
+   * <p>
+   * The returned stage completes exceptionally with a {@link CacheWritingException} if the {@link CacheLoaderWriter}
+   * associated with the cache threw an {@link Exception} while removing the value.
+   *
+   * @param key the key to remove the value for, may not be {@code null}
+   * @return a stage completed once the mapping is removed
+   *
+   * @throws NullPointerException if the provided key is {@code null}
+   *
+   * @see Cache#remove(Object)
+   */
+  CompletionStage<Void> remove(K key);
+
+  /**
+   * Retrieves all values associated with the given key set.
+   * <p>
+   * The returned stage completes exceptionally with a {@link BulkCacheLoadingException} if loading some or all values
+   * failed, or a {@link CacheLoadingException} as {@link Cache#getAll(Set)} would throw.
+   *
+   * @param keys keys to query for, may not contain {@code null}
+   * @return a stage completed with a map from keys to values or {@code null} if the key was not mapped
+   *
+   * @throws NullPointerException if the {@code Set} or any of the contained keys are {@code null}.
+   *
+   * @see Cache#getAll(Set)
+   */
+  CompletionStage<Map<K, V>> getAll(Set<? extends K> keys);
+
+  /**
+   * Associates all the provided key:value pairs.
+   * <p>
+   * The returned stage completes exceptionally with a {@link BulkCacheWritingException} if the {@link CacheLoaderWriter}
+   * associated with the cache threw an {@link Exception} while writing given key:value pairs.
+   *
+   * @param entries key:value pairs to associate, keys or values may not be {@code null}
+   * @return a stage completed once all mappings are installed
+   *
+   * @throws NullPointerException if the {@code Map} or any of the contained keys or values are {@code null}.
+   *
+   * @see Cache#putAll(Map)
+   */
+  CompletionStage<Void> putAll(Map<? extends K, ? extends V> entries);
+}
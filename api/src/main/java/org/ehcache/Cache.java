@@ -254,6 +254,18 @@ public interface Cache<K, V> extends Iterable<Cache.Entry<K,V>> {
    */
   CacheRuntimeConfiguration<K, V> getRuntimeConfiguration();
 
+  /**
+   * Exposes an {@link AsyncCache} view of this {@code Cache}, operating on the same mappings.
+   * <p>
+   * The default implementation performs each operation synchronously on the calling thread, through the methods of this
+   * {@code Cache}, and returns an already completed stage.
+   *
+   * @return the asynchronous view of this cache
+   */
+  default AsyncCache<K, V> async() {
+    return new SynchronousAsyncCache<>(this);
+  }
+
 
   /**
    * A mapping of key to value held in a {@link Cache}.
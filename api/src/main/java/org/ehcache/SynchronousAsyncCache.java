@@ -0,0 +1,84 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * {@link AsyncCache} performing every operation synchronously on the calling thread, through the {@link Cache} methods.
+ * <p>
+ * Backs the default {@link Cache#async()}, used when the cache store can't operate asynchronously, for example because
+ * all its tiers are local, or when a {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter} has to be invoked anyway.
+ */
+class SynchronousAsyncCache<K, V> implements AsyncCache<K, V> {
+
+  private final Cache<K, V> cache;
+
+  SynchronousAsyncCache(Cache<K, V> cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public CompletionStage<V> get(K key) {
+    return complete(() -> cache.get(key));
+  }
+
+  @Override
+  public CompletionStage<Void> put(K key, V value) {
+    return complete(() -> {
+      cache.put(key, value);
+      return null;
+    });
+  }
+
+  @Override
+  public CompletionStage<Void> remove(K key) {
+    return complete(() -> {
+      cache.remove(key);
+      return null;
+    });
+  }
+
+  @Override
+  public CompletionStage<Map<K, V>> getAll(Set<? extends K> keys) {
+    return complete(() -> cache.getAll(keys));
+  }
+
+  @Override
+  public CompletionStage<Void> putAll(Map<? extends K, ? extends V> entries) {
+    return complete(() -> {
+      cache.putAll(entries);
+      return null;
+    });
+  }
+
+  private static <T> CompletionStage<T> complete(Supplier<T> operation) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      future.complete(operation.get());
+    } catch (NullPointerException | IllegalStateException e) {
+      // argument and status checks fail on the calling thread, as they do on the asynchronous path
+      throw e;
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.event;
+
+import java.util.List;
+
+/**
+ * A {@link CacheEventListener} able to receive several {@link CacheEvent}s in a single invocation.
+ * <p>
+ * When the cache batches event delivery, {@link EventFiring#ASYNCHRONOUS asynchronous} listeners implementing this
+ * interface receive their events through {@link #onEvents(List)}, while other listeners get the events of a batch
+ * one by one. {@link #onEvent(CacheEvent)} is still used whenever the cache does not batch.
+ *
+ * @param <K> the key type for the observed cache
+ * @param <V> the value type for the observed cache
+ */
+public interface CacheEventBatchListener<K, V> extends CacheEventListener<K, V> {
+
+  /**
+   * Invoked with a batch of {@link CacheEvent}s, all of a type this listener registered for.
+   * <p>
+   * Events are in firing order, and batches are delivered in order if the listener is {@link EventOrdering#ORDERED}.
+   * <p>
+   * Any exception thrown from this listener will be swallowed and logged but will not prevent other listeners to run.
+   *
+   * @param events the {@code CacheEvent}s, never empty
+   */
+  void onEvents(List<CacheEvent<? extends K, ? extends V>> events);
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SynchronousAsyncCacheTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDefaultAsyncDelegatesToCache() throws Exception {
+    Cache<String, String> cache = mock(Cache.class, CALLS_REAL_METHODS);
+    when(cache.get("key")).thenReturn("value");
+
+    CompletableFuture<String> future = cache.async().get("key").toCompletableFuture();
+
+    assertThat(future.isDone(), is(true));
+    assertThat(future.get(), is("value"));
+    verify(cache).get("key");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDefaultAsyncCompletesExceptionally() throws Exception {
+    Cache<String, String> cache = mock(Cache.class, CALLS_REAL_METHODS);
+    doThrow(new UnsupportedOperationException()).when(cache).put("key", "value");
+
+    CompletableFuture<Void> future = cache.async().put("key", "value").toCompletableFuture();
+    try {
+      future.get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(UnsupportedOperationException.class));
+    }
+  }
+}
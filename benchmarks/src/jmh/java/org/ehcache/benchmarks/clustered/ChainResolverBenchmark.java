@@ -0,0 +1,127 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.clustered;
+
+import org.ehcache.clustered.client.internal.store.ChainBuilder;
+import org.ehcache.clustered.client.internal.store.ResolvedChain;
+import org.ehcache.clustered.client.internal.store.operations.ChainResolver;
+import org.ehcache.clustered.client.internal.store.operations.Operation;
+import org.ehcache.clustered.client.internal.store.operations.PutOperation;
+import org.ehcache.clustered.client.internal.store.operations.RemoveOperation;
+import org.ehcache.clustered.client.internal.store.operations.codecs.OperationsCodec;
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.serialization.LongSerializer;
+import org.ehcache.impl.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side resolution of the operation chains stored by a clustered tier, and the encoding of their operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainResolverBenchmark {
+
+  public enum Expiries {
+    NONE {
+      @Override
+      Expiry<Object, Object> expiry() {
+        return Expirations.noExpiration();
+      }
+    },
+    TIME_TO_LIVE {
+      @Override
+      Expiry<Object, Object> expiry() {
+        return Expirations.timeToLiveExpiration(Duration.of(1, TimeUnit.HOURS));
+      }
+    };
+
+    abstract Expiry<Object, Object> expiry();
+  }
+
+  @Param({"1", "8", "64"})
+  public int chainLength;
+
+  @Param("4")
+  public int keys;
+
+  @Param({"NONE", "TIME_TO_LIVE"})
+  public Expiries expiry;
+
+  private OperationsCodec<Long, String> codec;
+  private ChainResolver<Long, String> resolver;
+  private Chain chain;
+  private Operation<Long, String> operation;
+  private ByteBuffer encodedOperation;
+  private long now;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    codec = new OperationsCodec<>(new LongSerializer(), new StringSerializer());
+    resolver = new ChainResolver<>(codec, expiry.expiry());
+    now = System.currentTimeMillis();
+
+    ChainBuilder builder = new ChainBuilder();
+    for (int i = 0; i < chainLength; i++) {
+      long key = i % keys;
+      if (i % 8 == 7) {
+        builder = builder.add(codec.encode(new RemoveOperation<>(key, now)));
+      } else {
+        builder = builder.add(codec.encode(new PutOperation<>(key, "value-" + i, now)));
+      }
+    }
+    chain = builder.build();
+
+    operation = new PutOperation<>(0L, "value", now);
+    encodedOperation = codec.encode(operation);
+  }
+
+  @Benchmark
+  public ResolvedChain<Long, String> resolve() {
+    return resolver.resolve(chain, 0L, now);
+  }
+
+  @Benchmark
+  public ByteBuffer encode() {
+    return codec.encode(operation);
+  }
+
+  @Benchmark
+  public Operation<Long, String> decode() {
+    return codec.decode(encodedOperation.duplicate());
+  }
+}
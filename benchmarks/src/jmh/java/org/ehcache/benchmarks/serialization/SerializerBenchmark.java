@@ -0,0 +1,135 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.serialization;
+
+import org.ehcache.impl.serialization.CompactJavaSerializer;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.impl.serialization.TransientStateRepository;
+import org.ehcache.spi.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization round trips of a small object graph through the Java serialization based serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+  public enum Serializers {
+    COMPACT {
+      @Override
+      Serializer<Serializable> create(ClassLoader classLoader) {
+        CompactJavaSerializer<Serializable> serializer = new CompactJavaSerializer<>(classLoader);
+        serializer.init(new TransientStateRepository());
+        return serializer;
+      }
+    },
+    PLAIN {
+      @Override
+      Serializer<Serializable> create(ClassLoader classLoader) {
+        return new PlainJavaSerializer<>(classLoader);
+      }
+    };
+
+    abstract Serializer<Serializable> create(ClassLoader classLoader);
+  }
+
+  @Param({"COMPACT", "PLAIN"})
+  public Serializers serializers;
+
+  private Serializer<Serializable> serializer;
+  private Person value;
+  private ByteBuffer serialized;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    serializer = serializers.create(getClass().getClassLoader());
+    value = new Person("Jane Doe", 42);
+    value.friends.add(new Person("John Doe", 43));
+    serialized = serializer.serialize(value);
+  }
+
+  @Benchmark
+  public ByteBuffer serialize() {
+    return serializer.serialize(value);
+  }
+
+  @Benchmark
+  public Serializable deserialize() throws ClassNotFoundException {
+    return serializer.read(serialized.duplicate());
+  }
+
+  @Benchmark
+  public boolean equalsSerialized() throws ClassNotFoundException {
+    return serializer.equals(value, serialized.duplicate());
+  }
+
+  @Benchmark
+  public Serializable roundTrip() throws ClassNotFoundException {
+    return serializer.read(serializer.serialize(value));
+  }
+
+  static class Person implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    final String name;
+    final int age;
+    final List<Person> friends = new ArrayList<>();
+
+    Person(String name, int age) {
+      this.name = name;
+      this.age = age;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Person) {
+        Person other = (Person) obj;
+        return name.equals(other.name) && age == other.age && friends.equals(other.friends);
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode() * 31 + age;
+    }
+  }
+}
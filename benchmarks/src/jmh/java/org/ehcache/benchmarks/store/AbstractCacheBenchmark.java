@@ -0,0 +1,89 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.ehcache.Cache;
+import org.ehcache.CachePersistenceException;
+import org.ehcache.PersistentCacheManager;
+import org.ehcache.config.ResourcePools;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.persistence;
+
+/**
+ * Manages the lifecycle of the cache a benchmark runs against.
+ * <p>
+ * Values are shared among keys so that the benchmarks measure the stores, not the creation of values.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractCacheBenchmark {
+
+  private static final String[] VALUES = new String[1024];
+  static {
+    for (int i = 0; i < VALUES.length; i++) {
+      StringBuilder value = new StringBuilder("value-").append(i).append('-');
+      while (value.length() < 128) {
+        value.append('x');
+      }
+      VALUES[i] = value.toString();
+    }
+  }
+
+  private File directory;
+  private PersistentCacheManager cacheManager;
+  protected Cache<Long, String> cache;
+
+  protected void createCache(ResourcePools resourcePools) throws IOException {
+    directory = Files.createTempDirectory("ehcache-benchmark").toFile();
+    cacheManager = newCacheManagerBuilder()
+      .with(persistence(directory))
+      .withCache("benchmark", newCacheConfigurationBuilder(Long.class, String.class, resourcePools))
+      .build(true);
+    cache = cacheManager.getCache("benchmark", Long.class, String.class);
+  }
+
+  protected void populate(long entries) {
+    for (long key = 0; key < entries; key++) {
+      cache.put(key, value(key));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void destroyCache() throws CachePersistenceException {
+    cacheManager.close();
+    cacheManager.destroy();
+    directory.delete();
+  }
+
+  protected static long randomKey(long entries) {
+    return ThreadLocalRandom.current().nextLong(entries);
+  }
+
+  protected static String value(long key) {
+    return VALUES[(int) (key & (VALUES.length - 1))];
+  }
+}
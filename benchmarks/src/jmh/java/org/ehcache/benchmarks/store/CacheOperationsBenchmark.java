@@ -0,0 +1,123 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.Jsr107Cache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Get, put and compute throughput against each tier combination, with all mappings fitting in every tier.
+ * <p>
+ * The single operation benchmarks run with the thread count given to JMH, while the grouped ones mix readers and
+ * writers on the same cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheOperationsBenchmark extends AbstractCacheBenchmark {
+
+  private static final BiFunction<Long, String, String> UPDATE = (key, value) -> value(key + 1);
+  private static final Supplier<Boolean> FALSE = () -> false;
+  private static final Supplier<Boolean> TRUE = () -> true;
+
+  @Param({"HEAP", "OFFHEAP", "DISK", "HEAP_OFFHEAP", "HEAP_OFFHEAP_DISK"})
+  public Tiers tiers;
+
+  @Param("10000")
+  public long entries;
+
+  private Jsr107Cache<Long, String> computingCache;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    createCache(tiers.resourcePools(entries, 64, 128));
+    populate(entries);
+    @SuppressWarnings("unchecked")
+    InternalCache<Long, String> internalCache = (InternalCache<Long, String>) cache;
+    computingCache = internalCache.getJsr107Cache();
+  }
+
+  @Benchmark
+  public String get() {
+    return cache.get(randomKey(entries));
+  }
+
+  @Benchmark
+  public void put() {
+    long key = randomKey(entries);
+    cache.put(key, value(key));
+  }
+
+  @Benchmark
+  public void compute() {
+    computingCache.compute(randomKey(entries), UPDATE, FALSE, FALSE, TRUE);
+  }
+
+  @Benchmark
+  @Group("readMostly")
+  @GroupThreads(3)
+  public String readMostlyGet() {
+    return get();
+  }
+
+  @Benchmark
+  @Group("readMostly")
+  @GroupThreads(1)
+  public void readMostlyPut() {
+    put();
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(2)
+  public String readWriteGet() {
+    return get();
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public void readWritePut() {
+    put();
+  }
+
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(1)
+  public void readWriteCompute() {
+    compute();
+  }
+}
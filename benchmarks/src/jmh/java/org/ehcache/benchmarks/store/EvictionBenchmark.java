@@ -0,0 +1,67 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes over a key space ten times larger than the cache, so that nearly every put evicts a mapping.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvictionBenchmark extends AbstractCacheBenchmark {
+
+  // a mapping takes a little over 300 bytes in the off-heap and disk tiers
+  private static final long OFFHEAP_MEGABYTES = 1;
+  private static final long DISK_MEGABYTES = 2;
+
+  @Param({"HEAP", "OFFHEAP", "DISK", "HEAP_OFFHEAP"})
+  public Tiers tiers;
+
+  @Param("1000")
+  public long heapEntries;
+
+  private long entries;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    createCache(tiers.resourcePools(heapEntries, OFFHEAP_MEGABYTES, DISK_MEGABYTES));
+    entries = 10 * Math.max(heapEntries, DISK_MEGABYTES * 1024 * 1024 / 300);
+    populate(entries);
+  }
+
+  @Benchmark
+  public void evictingPut() {
+    long key = randomKey(entries);
+    cache.put(key, value(key));
+  }
+}
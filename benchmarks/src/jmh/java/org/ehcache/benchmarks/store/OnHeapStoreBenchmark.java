@@ -0,0 +1,96 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.ehcache.core.events.NullStoreEventDispatcher;
+import org.ehcache.core.internal.store.StoreConfigurationImpl;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.store.StoreAccessException;
+import org.ehcache.core.spi.time.SystemTimeSource;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.impl.copy.IdentityCopier;
+import org.ehcache.impl.copy.SerializingCopier;
+import org.ehcache.impl.internal.sizeof.NoopSizeOfEngine;
+import org.ehcache.impl.internal.store.heap.OnHeapStore;
+import org.ehcache.impl.serialization.LongSerializer;
+import org.ehcache.spi.copy.Copier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+
+/**
+ * Hits on a bare {@link OnHeapStore}, with and without key copying.
+ * <p>
+ * Run with the gc profiler, the hit path is expected to allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnHeapStoreBenchmark {
+
+  private static final int ENTRIES = 1024;
+
+  @Param({"false", "true"})
+  public boolean copyKeys;
+
+  private OnHeapStore<Long, String> store;
+  private Long[] keys;
+
+  @Setup(Level.Trial)
+  public void setUp() throws StoreAccessException {
+    Store.Configuration<Long, String> configuration = new StoreConfigurationImpl<>(Long.class, String.class, null,
+      getClass().getClassLoader(), Expirations.noExpiration(), heap(ENTRIES).build(), 0, null, null);
+    Copier<Long> keyCopier = copyKeys ? new SerializingCopier<>(new LongSerializer()) : new IdentityCopier<>();
+    store = new OnHeapStore<>(configuration, SystemTimeSource.INSTANCE, keyCopier, new IdentityCopier<>(),
+      new NoopSizeOfEngine(), NullStoreEventDispatcher.nullStoreEventDispatcher());
+
+    // keys are boxed upfront, so that only the store allocates while benchmarking
+    keys = new Long[ENTRIES];
+    for (int i = 0; i < ENTRIES; i++) {
+      keys[i] = (long) i;
+      store.put(keys[i], "value-" + i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    store.clear();
+  }
+
+  @Benchmark
+  public Store.ValueHolder<String> get() throws StoreAccessException {
+    return store.get(keys[ThreadLocalRandom.current().nextInt(ENTRIES)]);
+  }
+}
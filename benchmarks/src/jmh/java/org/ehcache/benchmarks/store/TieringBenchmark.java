@@ -0,0 +1,68 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads spread over many more mappings than the heap tier holds, so that most of them fault a mapping from the
+ * authoritative tier into the heap, which in turn evicts and flushes another one back.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TieringBenchmark extends AbstractCacheBenchmark {
+
+  @Param({"HEAP_OFFHEAP", "HEAP_OFFHEAP_DISK"})
+  public Tiers tiers;
+
+  @Param("100000")
+  public long entries;
+
+  @Param({"100", "10000"})
+  public long heapEntries;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    createCache(tiers.resourcePools(heapEntries, 64, 128));
+    populate(entries);
+  }
+
+  @Benchmark
+  public String faultingGet() {
+    return cache.get(randomKey(entries));
+  }
+
+  @Benchmark
+  public String hotGet() {
+    return cache.get(randomKey(heapEntries));
+  }
+}
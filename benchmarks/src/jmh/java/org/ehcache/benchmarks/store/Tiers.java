@@ -0,0 +1,71 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+
+import static org.ehcache.config.builders.ResourcePoolsBuilder.newResourcePoolsBuilder;
+import static org.ehcache.config.units.EntryUnit.ENTRIES;
+import static org.ehcache.config.units.MemoryUnit.MB;
+
+/**
+ * The tier combinations benchmarked, each one selecting a different store implementation: {@code OnHeapStore},
+ * {@code OffHeapStore}, {@code OffHeapDiskStore} or a {@code TieredStore} over some of them.
+ */
+public enum Tiers {
+
+  HEAP {
+    @Override
+    ResourcePoolsBuilder tiers(ResourcePoolsBuilder builder, long heapEntries, long offHeapMegabytes, long diskMegabytes) {
+      return builder.heap(heapEntries, ENTRIES);
+    }
+  },
+  OFFHEAP {
+    @Override
+    ResourcePoolsBuilder tiers(ResourcePoolsBuilder builder, long heapEntries, long offHeapMegabytes, long diskMegabytes) {
+      return builder.offheap(offHeapMegabytes, MB);
+    }
+  },
+  DISK {
+    @Override
+    ResourcePoolsBuilder tiers(ResourcePoolsBuilder builder, long heapEntries, long offHeapMegabytes, long diskMegabytes) {
+      return builder.disk(diskMegabytes, MB);
+    }
+  },
+  HEAP_OFFHEAP {
+    @Override
+    ResourcePoolsBuilder tiers(ResourcePoolsBuilder builder, long heapEntries, long offHeapMegabytes, long diskMegabytes) {
+      return builder.heap(heapEntries, ENTRIES).offheap(offHeapMegabytes, MB);
+    }
+  },
+  HEAP_OFFHEAP_DISK {
+    @Override
+    ResourcePoolsBuilder tiers(ResourcePoolsBuilder builder, long heapEntries, long offHeapMegabytes, long diskMegabytes) {
+      return builder.heap(heapEntries, ENTRIES).offheap(offHeapMegabytes, MB).disk(diskMegabytes, MB);
+    }
+  };
+
+  abstract ResourcePoolsBuilder tiers(ResourcePoolsBuilder builder, long heapEntries, long offHeapMegabytes, long diskMegabytes);
+
+  /**
+   * Sizes the tiers of this combination, ignoring the sizes of the tiers it does not use.
+   */
+  public ResourcePools resourcePools(long heapEntries, long offHeapMegabytes, long diskMegabytes) {
+    return tiers(newResourcePoolsBuilder(), heapEntries, offHeapMegabytes, diskMegabytes).build();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.benchmarks.store;
+
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Guards the allocation free hit path of the on-heap store, as measured by the gc profiler.
+ */
+public class OnHeapStoreAllocationTest {
+
+  // leaves room for the few allocations of the harness itself, amortized over millions of operations
+  private static final double MAX_BYTES_PER_GET = 1.0;
+
+  @Test
+  public void testGetHitDoesNotAllocate() throws Exception {
+    Options options = new OptionsBuilder()
+      .include(OnHeapStoreBenchmark.class.getName() + ".get$")
+      .addProfiler(GCProfiler.class)
+      .warmupIterations(3)
+      .warmupTime(TimeValue.seconds(1))
+      .measurementIterations(3)
+      .measurementTime(TimeValue.seconds(1))
+      .forks(1)
+      .build();
+
+    Collection<RunResult> results = new Runner(options).run();
+    assertThat(results.size(), is(2));
+    for (RunResult result : results) {
+      Result allocation = result.getSecondaryResults().get("\u00b7gc.alloc.rate.norm");
+      assertThat("bytes allocated per get with copyKeys=" + result.getParams().getParam("copyKeys"),
+        allocation.getScore(), lessThan(MAX_BYTES_PER_GET));
+    }
+  }
+}
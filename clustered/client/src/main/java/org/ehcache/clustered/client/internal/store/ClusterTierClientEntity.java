@@ -26,6 +26,7 @@ import org.ehcache.clustered.common.internal.messages.StateRepositoryOpMessage;
 import org.terracotta.connection.entity.Entity;
 import org.terracotta.entity.MessageCodecException;
 
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -41,6 +42,14 @@ public interface ClusterTierClientEntity extends Entity {
 
   void invokeServerStoreOperationAsync(ServerStoreOpMessage message, boolean track) throws MessageCodecException;
 
+  /**
+   * Invokes a server store operation without waiting for its response.
+   * <p>
+   * The returned stage completes with the response, or exceptionally with the {@link ClusterException} the server
+   * replied with or a {@link TimeoutException} if the operation timeout elapses first.
+   */
+  CompletionStage<EhcacheEntityResponse> submitServerStoreOperation(ServerStoreOpMessage message, boolean track);
+
   EhcacheEntityResponse invokeStateRepositoryOperation(StateRepositoryOpMessage message, boolean track) throws ClusterException, TimeoutException;
 
   <T extends EhcacheEntityResponse> void addResponseListener(Class<T> responseType, ResponseListener<T> responseListener);
@@ -23,6 +23,7 @@ import org.ehcache.clustered.client.config.ClusteredStoreConfiguration;
 import org.ehcache.clustered.client.internal.store.operations.ChainResolver;
 import org.ehcache.clustered.client.internal.store.operations.ConditionalRemoveOperation;
 import org.ehcache.clustered.client.internal.store.operations.ConditionalReplaceOperation;
+import org.ehcache.clustered.client.internal.store.operations.Operation;
 import org.ehcache.clustered.client.internal.store.operations.PutIfAbsentOperation;
 import org.ehcache.clustered.client.internal.store.operations.PutOperation;
 import org.ehcache.clustered.client.internal.store.operations.RemoveOperation;
@@ -33,11 +34,13 @@ import org.ehcache.clustered.client.service.ClusteringService;
 import org.ehcache.clustered.client.service.ClusteringService.ClusteredCacheIdentifier;
 import org.ehcache.clustered.common.Consistency;
 import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
 import org.ehcache.config.ResourceType;
 import org.ehcache.core.CacheConfigurationChangeListener;
 import org.ehcache.core.Ehcache;
 import org.ehcache.core.events.CacheEventListenerConfiguration;
 import org.ehcache.core.collections.ConcurrentWeakIdentityHashMap;
+import org.ehcache.core.spi.store.AsyncStore;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.StoreAccessTimeoutException;
 import org.ehcache.core.spi.store.events.StoreEventSource;
@@ -71,10 +74,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
@@ -88,14 +96,17 @@ import static org.terracotta.statistics.StatisticBuilder.operation;
 /**
  * Supports a {@link Store} in a clustered environment.
  */
-public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
+public class ClusteredStore<K, V> implements AuthoritativeTier<K, V>, AsyncStore<K, V> {
 
   private static final String STATISTICS_TAG = "Clustered";
   private static final int TIER_HEIGHT = ClusteredResourceType.Types.UNKNOWN.getTierHeight();  //TierHeight is the same for all ClusteredResourceType.Types
   static final String CHAIN_COMPACTION_THRESHOLD_PROP = "ehcache.chain.compaction.threshold";
   static final int DEFAULT_CHAIN_COMPACTION_THRESHOLD = 4;
+  static final String BULK_BATCH_SIZE_PROP = "ehcache.bulk.operation.batch.size";
+  static final int DEFAULT_BULK_BATCH_SIZE = 128;
 
   private final int chainCompactionLimit;
+  private final int bulkBatchSize;
   private final OperationsCodec<K, V> codec;
   private final ChainResolver<K, V> resolver;
 
@@ -118,6 +129,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
 
   private ClusteredStore(final OperationsCodec<K, V> codec, final ChainResolver<K, V> resolver, TimeSource timeSource) {
     this.chainCompactionLimit = Integer.getInteger(CHAIN_COMPACTION_THRESHOLD_PROP, DEFAULT_CHAIN_COMPACTION_THRESHOLD);
+    this.bulkBatchSize = Integer.getInteger(BULK_BATCH_SIZE_PROP, DEFAULT_BULK_BATCH_SIZE);
     this.codec = codec;
     this.resolver = resolver;
     this.timeSource = timeSource;
@@ -170,30 +182,85 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
   private ValueHolder<V> getInternal(K key) throws StoreAccessException, TimeoutException {
     ClusteredValueHolder<V> holder = null;
     try {
-      Chain chain = storeProxy.get(extractLongKey(key));
-      if(!chain.isEmpty()) {
-        ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
+      long extractedKey = extractLongKey(key);
+      holder = resolveValueHolder(key, extractedKey, storeProxy.get(extractedKey));
+    } catch (RuntimeException re) {
+      handleRuntimeException(re);
+    }
+    return holder;
+  }
 
-        if (resolvedChain.isCompacted()) {
-          Chain compactedChain = resolvedChain.getCompactedChain();
-          storeProxy.replaceAtHead(extractLongKey(key), chain, compactedChain);
-        }
+  private ClusteredValueHolder<V> resolveValueHolder(K key, long extractedKey, Chain chain) {
+    if (chain.isEmpty()) {
+      return null;
+    }
+    ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
+
+    if (resolvedChain.isCompacted()) {
+      Chain compactedChain = resolvedChain.getCompactedChain();
+      storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
+    }
+
+    Result<V> resolvedResult = resolvedChain.getResolvedResult(key);
+    if (resolvedResult == null) {
+      return null;
+    }
+    V value = resolvedResult.getValue();
+    long expirationTime = resolvedChain.getExpirationTime();
+    if (expirationTime == Long.MAX_VALUE) {
+      return new ClusteredValueHolder<>(value);
+    } else {
+      return new ClusteredValueHolder<>(value, expirationTime);
+    }
+  }
 
-        Result<V> resolvedResult = resolvedChain.getResolvedResult(key);
-        if (resolvedResult != null) {
-          V value = resolvedResult.getValue();
-          long expirationTime = resolvedChain.getExpirationTime();
-          if (expirationTime == Long.MAX_VALUE) {
-            holder = new ClusteredValueHolder<>(value);
-          } else {
-            holder = new ClusteredValueHolder<>(value, expirationTime);
+  /**
+   * Fetches all chains for the given keys, one server round trip per batch of at most {@code bulkBatchSize} keys, and
+   * resolves them.
+   * A timeout results in all keys of the batch being mapped to {@code null}, which is safe **only** in the context of a
+   * get/read operation!
+   */
+  private Map<K, ValueHolder<V>> getAllInternal(Set<? extends K> keys) throws StoreAccessException {
+    Map<K, ValueHolder<V>> map = new HashMap<>(keys.size());
+    try {
+      for (Map<K, Long> extractedKeys : extractKeyBatches(keys)) {
+        try {
+          Map<Long, Chain> chains = storeProxy.getAll(new HashSet<>(extractedKeys.values()));
+          resolveValueHolders(extractedKeys, chains, map);
+        } catch (TimeoutException e) {
+          for (K key : extractedKeys.keySet()) {
+            map.put(key, null);
           }
         }
       }
     } catch (RuntimeException re) {
       handleRuntimeException(re);
     }
-    return holder;
+    return map;
+  }
+
+  /**
+   * Splits the given keys in batches of at most {@code bulkBatchSize} keys, mapping each key to its hash.
+   */
+  private List<Map<K, Long>> extractKeyBatches(Set<? extends K> keys) {
+    List<Map<K, Long>> batches = new ArrayList<>();
+    Map<K, Long> batch = null;
+    for (K key : keys) {
+      if (batch == null || batch.size() == bulkBatchSize) {
+        batch = new HashMap<>();
+        batches.add(batch);
+      }
+      batch.put(key, extractLongKey(key));
+    }
+    return batches;
+  }
+
+  private void resolveValueHolders(Map<K, Long> extractedKeys, Map<Long, Chain> chains, Map<K, ValueHolder<V>> map) {
+    for (Map.Entry<K, Long> entry : extractedKeys.entrySet()) {
+      K key = entry.getKey();
+      Chain chain = chains.get(entry.getValue());
+      map.put(key, chain == null ? null : resolveValueHolder(key, entry.getValue(), chain));
+    }
   }
 
   private long extractLongKey(K key) {
@@ -235,18 +302,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       ByteBuffer payload = codec.encode(operation);
       long extractedKey = extractLongKey(key);
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
-      ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
-      if(resolvedChain.getResolvedResult(key) == null) {
-        return PutStatus.PUT;
-      } else {
-
-        if (resolvedChain.getCompactionCount() > chainCompactionLimit) {
-          Chain compactedChain = resolvedChain.getCompactedChain();
-          storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
-        }
-
-        return PutStatus.UPDATE;
-      }
+      return resolvePutStatus(key, extractedKey, chain);
     } catch (RuntimeException re) {
       handleRuntimeException(re);
       return PutStatus.NOOP;
@@ -255,6 +311,21 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
     }
   }
 
+  private PutStatus resolvePutStatus(K key, long extractedKey, Chain chain) {
+    ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
+    if(resolvedChain.getResolvedResult(key) == null) {
+      return PutStatus.PUT;
+    } else {
+
+      if (resolvedChain.getCompactionCount() > chainCompactionLimit) {
+        Chain compactedChain = resolvedChain.getCompactedChain();
+        storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
+      }
+
+      return PutStatus.UPDATE;
+    }
+  }
+
   @Override
   public ValueHolder<V> putIfAbsent(final K key, final V value) throws StoreAccessException {
     putIfAbsentObserver.begin();
@@ -304,20 +375,284 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       ByteBuffer payload = codec.encode(operation);
       long extractedKey = extractLongKey(key);
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
-      ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
+      return resolveRemoval(key, extractedKey, chain);
+    } catch (RuntimeException re) {
+      handleRuntimeException(re);
+      return false;
+    } catch (TimeoutException e) {
+      throw new StoreAccessTimeoutException(e);
+    }
+  }
 
-      if(resolvedChain.getResolvedResult(key) != null) {
-        storeProxy.replaceAtHead(extractedKey, chain, resolvedChain.getCompactedChain());
-        return true;
-      } else {
-        return false;
+  private boolean resolveRemoval(K key, long extractedKey, Chain chain) {
+    ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
+
+    if(resolvedChain.getResolvedResult(key) != null) {
+      storeProxy.replaceAtHead(extractedKey, chain, resolvedChain.getCompactedChain());
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Appends the given operations in batches of at most {@code bulkBatchSize} keys, without shipping the chains back:
+   * unlike {@link #silentPut(Object, Object)}, this leaves chain compaction to the operations resolving the chains later.
+   */
+  private void silentAppendAll(Map<K, Operation<K, V>> operations) throws StoreAccessException {
+    try {
+      java.util.Iterator<Map.Entry<K, Operation<K, V>>> iterator = operations.entrySet().iterator();
+      while (iterator.hasNext()) {
+        storeProxy.appendAll(encodeBatch(iterator, new HashMap<>()));
+      }
+    } catch (RuntimeException re) {
+      handleRuntimeException(re);
+    } catch (TimeoutException e) {
+      throw new StoreAccessTimeoutException(e);
+    }
+  }
+
+  /**
+   * Appends the given operations in batches of at most {@code bulkBatchSize} keys and compacts every chain holding a
+   * mapping for its key, as {@link #silentRemove(Object)} does.
+   *
+   * @return the result each key resolved to before its operation got appended
+   */
+  private Map<K, Result<V>> silentGetAndAppendAll(Map<K, Operation<K, V>> operations) throws StoreAccessException {
+    Map<K, Result<V>> results = new HashMap<>(operations.size());
+    try {
+      java.util.Iterator<Map.Entry<K, Operation<K, V>>> iterator = operations.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map<K, Long> extractedKeys = new HashMap<>();
+        Map<Long, List<ByteBuffer>> payloads = encodeBatch(iterator, extractedKeys);
+        Map<Long, Chain> chains = storeProxy.getAndAppendAll(payloads);
+        resolveAppended(extractedKeys, chains, results);
       }
     } catch (RuntimeException re) {
       handleRuntimeException(re);
-      return false;
     } catch (TimeoutException e) {
       throw new StoreAccessTimeoutException(e);
     }
+    return results;
+  }
+
+  /**
+   * Encodes the next batch of at most {@code bulkBatchSize} keys, recording the hash of each key in {@code extractedKeys}.
+   */
+  private Map<Long, List<ByteBuffer>> encodeBatch(java.util.Iterator<Map.Entry<K, Operation<K, V>>> iterator, Map<K, Long> extractedKeys) {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    while (iterator.hasNext() && extractedKeys.size() < bulkBatchSize) {
+      Map.Entry<K, Operation<K, V>> entry = iterator.next();
+      long extractedKey = extractLongKey(entry.getKey());
+      extractedKeys.put(entry.getKey(), extractedKey);
+      payloads.computeIfAbsent(extractedKey, k -> new ArrayList<>()).add(codec.encode(entry.getValue()));
+    }
+    return payloads;
+  }
+
+  private void resolveAppended(Map<K, Long> extractedKeys, Map<Long, Chain> chains, Map<K, Result<V>> results) {
+    long now = timeSource.getTimeMillis();
+    for (Map.Entry<K, Long> entry : extractedKeys.entrySet()) {
+      K key = entry.getKey();
+      long extractedKey = entry.getValue();
+      Chain chain = chains.get(extractedKey);
+      ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, now);
+      Result<V> result = resolvedChain.getResolvedResult(key);
+      if (result != null) {
+        storeProxy.replaceAtHead(extractedKey, chain, resolvedChain.getCompactedChain());
+      }
+      results.put(key, result);
+    }
+  }
+
+  @Override
+  public CompletionStage<ValueHolder<V>> getAsync(K key) {
+    getObserver.begin();
+    long extractedKey = extractLongKey(key);
+    return storeProxy.getAsync(extractedKey).handle((chain, failure) -> {
+      if (failure != null) {
+        if (unwrap(failure) instanceof TimeoutException) {
+          getObserver.end(StoreOperationOutcomes.GetOutcome.TIMEOUT);
+          return null;
+        }
+        throw asyncFailure(failure);
+      }
+      ValueHolder<V> value;
+      try {
+        value = resolveValueHolder(key, extractedKey, chain);
+      } catch (RuntimeException re) {
+        throw asyncFailure(re);
+      }
+      if(value == null) {
+        getObserver.end(StoreOperationOutcomes.GetOutcome.MISS);
+      } else {
+        getObserver.end(StoreOperationOutcomes.GetOutcome.HIT);
+      }
+      return value;
+    });
+  }
+
+  @Override
+  public CompletionStage<PutStatus> putAsync(K key, V value) {
+    putObserver.begin();
+    long extractedKey = extractLongKey(key);
+    return getAndAppendAsync(extractedKey, new PutOperation<>(key, value, timeSource.getTimeMillis())).handle((chain, failure) -> {
+      if (failure != null) {
+        throw asyncFailure(failure);
+      }
+      PutStatus status;
+      try {
+        status = resolvePutStatus(key, extractedKey, chain);
+      } catch (RuntimeException re) {
+        throw asyncFailure(re);
+      }
+      switch (status) {
+        case PUT:
+          putObserver.end(StoreOperationOutcomes.PutOutcome.PUT);
+          break;
+        case UPDATE:
+          putObserver.end(StoreOperationOutcomes.PutOutcome.REPLACED);
+          break;
+        default:
+          throw new AssertionError("Invalid put status: " + status);
+      }
+      return status;
+    });
+  }
+
+  @Override
+  public CompletionStage<Boolean> removeAsync(K key) {
+    removeObserver.begin();
+    long extractedKey = extractLongKey(key);
+    return getAndAppendAsync(extractedKey, new RemoveOperation<>(key, timeSource.getTimeMillis())).handle((chain, failure) -> {
+      if (failure != null) {
+        throw asyncFailure(failure);
+      }
+      boolean removed;
+      try {
+        removed = resolveRemoval(key, extractedKey, chain);
+      } catch (RuntimeException re) {
+        throw asyncFailure(re);
+      }
+      if (removed) {
+        removeObserver.end(StoreOperationOutcomes.RemoveOutcome.REMOVED);
+      } else {
+        removeObserver.end(StoreOperationOutcomes.RemoveOutcome.MISS);
+      }
+      return removed;
+    });
+  }
+
+  /**
+   * Asynchronous version of {@link #getAllInternal(Set)}, a timeout also maps all keys of the batch to {@code null}.
+   * All batches are sent without waiting for the previous ones to complete.
+   */
+  @Override
+  public CompletionStage<Map<K, ValueHolder<V>>> getAllAsync(Set<? extends K> keys) {
+    List<CompletableFuture<Map<K, ValueHolder<V>>>> batches = new ArrayList<>();
+    for (Map<K, Long> extractedKeys : extractKeyBatches(keys)) {
+      batches.add(getAllAsync(extractedKeys).toCompletableFuture());
+    }
+    return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[batches.size()])).thenApply(ignored -> {
+      // batch failures are already mapped
+      Map<K, ValueHolder<V>> map = new HashMap<>(keys.size());
+      for (CompletableFuture<Map<K, ValueHolder<V>>> batch : batches) {
+        map.putAll(batch.join());
+      }
+      return map;
+    });
+  }
+
+  private CompletionStage<Map<K, ValueHolder<V>>> getAllAsync(Map<K, Long> extractedKeys) {
+    CompletionStage<Map<Long, Chain>> chainsFuture;
+    try {
+      chainsFuture = storeProxy.getAllAsync(new HashSet<>(extractedKeys.values()));
+    } catch (RuntimeException re) {
+      chainsFuture = failedFuture(re);
+    }
+    return chainsFuture.handle((chains, failure) -> {
+      Map<K, ValueHolder<V>> map = new HashMap<>(extractedKeys.size());
+      if (failure != null) {
+        if (unwrap(failure) instanceof TimeoutException) {
+          for (K key : extractedKeys.keySet()) {
+            map.put(key, null);
+          }
+          return map;
+        }
+        throw asyncFailure(failure);
+      }
+      try {
+        resolveValueHolders(extractedKeys, chains, map);
+      } catch (RuntimeException re) {
+        throw asyncFailure(re);
+      }
+      return map;
+    });
+  }
+
+  /**
+   * Asynchronous version of the {@code putAll} handling of {@link #bulkCompute(Set, Function)}: all batches are
+   * sent without waiting for the previous ones to complete.
+   */
+  @Override
+  public CompletionStage<Void> putAllAsync(Map<? extends K, ? extends V> entries) {
+    Map<K, Operation<K, V>> operations = new HashMap<>(entries.size());
+    long now = timeSource.getTimeMillis();
+    for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+      operations.put(entry.getKey(), new PutOperation<>(entry.getKey(), entry.getValue(), now));
+    }
+
+    List<CompletableFuture<Void>> batches = new ArrayList<>();
+    try {
+      java.util.Iterator<Map.Entry<K, Operation<K, V>>> iterator = operations.entrySet().iterator();
+      while (iterator.hasNext()) {
+        batches.add(storeProxy.appendAllAsync(encodeBatch(iterator, new HashMap<>())).toCompletableFuture());
+      }
+    } catch (RuntimeException re) {
+      batches.add(failedFuture(re));
+    }
+    return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[batches.size()])).handle((ignored, failure) -> {
+      if (failure != null) {
+        throw asyncFailure(failure);
+      }
+      return null;
+    });
+  }
+
+  private CompletionStage<Chain> getAndAppendAsync(long extractedKey, Operation<K, V> operation) {
+    try {
+      return storeProxy.getAndAppendAsync(extractedKey, codec.encode(operation));
+    } catch (RuntimeException re) {
+      return failedFuture(re);
+    }
+  }
+
+  private static <T> CompletableFuture<T> failedFuture(Throwable failure) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(failure);
+    return future;
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+  }
+
+  /**
+   * Maps the failure of an asynchronous operation the way synchronous operations map theirs: timeouts to a
+   * {@link StoreAccessTimeoutException} and other runtime exceptions through {@code handleRuntimeException}.
+   */
+  private static CompletionException asyncFailure(Throwable failure) {
+    Throwable cause = unwrap(failure);
+    if (cause instanceof TimeoutException) {
+      return new CompletionException(new StoreAccessTimeoutException(cause));
+    } else if (cause instanceof RuntimeException) {
+      try {
+        handleRuntimeException((RuntimeException) cause);
+      } catch (StoreAccessException | RuntimeException e) {
+        return new CompletionException(e);
+      }
+    }
+    return new CompletionException(cause);
   }
 
   @Override
@@ -438,10 +773,83 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
     return new NullStoreEventDispatcher<>();
   }
 
+  /**
+   * Streams the cluster tier content, fetching its chains in batches of the bulk operation batch size and resolving
+   * the keys of each chain as it is reached.
+   * <p>
+   * The iteration is weakly consistent, see {@link ServerStoreProxy#iterator(int)}.
+   */
   @Override
   public Iterator<Cache.Entry<K, ValueHolder<V>>> iterator() {
-    // TODO: Make appropriate ServerStoreProxy call
-    throw new UnsupportedOperationException("Implement me");
+    final ServerStoreProxy.ChainIterator chains = storeProxy.iterator(bulkBatchSize);
+    return new Iterator<Cache.Entry<K, ValueHolder<V>>>() {
+      private java.util.Iterator<Cache.Entry<K, ValueHolder<V>>> entries = Collections.emptyIterator();
+      private StoreAccessException failure;
+
+      @Override
+      public boolean hasNext() {
+        if (failure != null) {
+          return true;
+        }
+        try {
+          while (!entries.hasNext() && chains.hasNext()) {
+            Map.Entry<Long, Chain> chain = chains.next();
+            entries = resolveEntries(chain.getKey(), chain.getValue()).iterator();
+          }
+        } catch (TimeoutException e) {
+          throw new StoreAccessTimeoutException(e);
+        } catch (RuntimeException re) {
+          try {
+            handleRuntimeException(re);
+          } catch (StoreAccessException e) {
+            failure = e;
+            return true;
+          }
+        }
+        return entries.hasNext();
+      }
+
+      @Override
+      public Cache.Entry<K, ValueHolder<V>> next() throws StoreAccessException {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if (failure != null) {
+          StoreAccessException e = failure;
+          failure = null;
+          throw e;
+        }
+        return entries.next();
+      }
+    };
+  }
+
+  /**
+   * Resolves all the keys found in the chain of a hash, hash collisions meaning there can be several.
+   */
+  private List<Cache.Entry<K, ValueHolder<V>>> resolveEntries(long extractedKey, Chain chain) {
+    Set<K> keys = new LinkedHashSet<>();
+    for (Element element : chain) {
+      keys.add(codec.decode(element.getPayload()).getKey());
+    }
+    List<Cache.Entry<K, ValueHolder<V>>> entries = new ArrayList<>(keys.size());
+    for (final K key : keys) {
+      final ValueHolder<V> valueHolder = resolveValueHolder(key, extractedKey, chain);
+      if (valueHolder != null) {
+        entries.add(new Cache.Entry<K, ValueHolder<V>>() {
+          @Override
+          public K getKey() {
+            return key;
+          }
+
+          @Override
+          public ValueHolder<V> getValue() {
+            return valueHolder;
+          }
+        });
+      }
+    }
+    return entries;
   }
 
   @Override
@@ -475,18 +883,25 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
     if(remappingFunction instanceof Ehcache.PutAllFunction) {
       Ehcache.PutAllFunction<K, V> putAllFunction = (Ehcache.PutAllFunction<K, V>)remappingFunction;
       Map<K, V> entriesToRemap = putAllFunction.getEntriesToRemap();
+      Map<K, Operation<K, V>> operations = new HashMap<>(entriesToRemap.size());
+      long now = timeSource.getTimeMillis();
       for(Map.Entry<K, V> entry: entriesToRemap.entrySet()) {
-        PutStatus putStatus = silentPut(entry.getKey(), entry.getValue());
-        if(putStatus == PutStatus.PUT || putStatus == PutStatus.UPDATE) {
-          putAllFunction.getActualPutCount().incrementAndGet();
-          valueHolderMap.put(entry.getKey(), new ClusteredValueHolder<>(entry.getValue()));
-        }
+        operations.put(entry.getKey(), new PutOperation<>(entry.getKey(), entry.getValue(), now));
+      }
+      silentAppendAll(operations);
+      for(Map.Entry<K, V> entry: entriesToRemap.entrySet()) {
+        putAllFunction.getActualPutCount().incrementAndGet();
+        valueHolderMap.put(entry.getKey(), new ClusteredValueHolder<>(entry.getValue()));
       }
     } else if(remappingFunction instanceof Ehcache.RemoveAllFunction) {
       Ehcache.RemoveAllFunction<K, V> removeAllFunction = (Ehcache.RemoveAllFunction<K, V>)remappingFunction;
+      Map<K, Operation<K, V>> operations = new HashMap<>(keys.size());
+      long now = timeSource.getTimeMillis();
       for (K key : keys) {
-        boolean removed = silentRemove(key);
-        if(removed) {
+        operations.put(key, new RemoveOperation<>(key, now));
+      }
+      for (Result<V> previous : silentGetAndAppendAll(operations).values()) {
+        if(previous != null) {
           removeAllFunction.getActualRemoveCount().incrementAndGet();
         }
       }
@@ -510,19 +925,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
   public Map<K, ValueHolder<V>> bulkComputeIfAbsent(final Set<? extends K> keys, final Function<Iterable<? extends K>, Iterable<? extends Map.Entry<? extends K, ? extends V>>> mappingFunction)
       throws StoreAccessException {
     if(mappingFunction instanceof Ehcache.GetAllFunction) {
-      Map<K, ValueHolder<V>> map  = new HashMap<>();
-      for (K key : keys) {
-        ValueHolder<V> value;
-        try {
-          value = getInternal(key);
-        } catch (TimeoutException e) {
-          // This timeout handling is safe **only** in the context of a get/read operation!
-          value = null;
-        }
-        ValueHolder<V> holder = (value != null) ? value : null;
-        map.put(key, holder);
-      }
-      return map;
+      return getAllInternal(keys);
     } else {
       throw new UnsupportedOperationException("This compute method is not yet capable of handling generic computation functions");
     }
@@ -19,16 +19,27 @@ package org.ehcache.clustered.client.internal.store;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
 import org.ehcache.clustered.common.internal.messages.EhcacheResponseType;
 import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * Provides client-side access to the services of a {@code ServerStore}.
@@ -51,6 +62,7 @@ class CommonServerStoreProxy implements ServerStoreProxy {
     this.entity = entity;
     addResponseListeners(EhcacheEntityResponse.ServerInvalidateHash.class, this::serverInvalidateHashResponseListener);
     addResponseListeners(EhcacheEntityResponse.ClientInvalidateHash.class, this::clientInvalidateHashResponseListener);
+    addResponseListeners(EhcacheEntityResponse.ClientInvalidateHashes.class, this::clientInvalidateHashesResponseListener);
     addResponseListeners(EhcacheEntityResponse.ClientInvalidateAll.class, this::clientInvalidateAllResponseListener);
   }
 
@@ -89,6 +101,25 @@ class CommonServerStoreProxy implements ServerStoreProxy {
     }
   }
 
+  private void clientInvalidateHashesResponseListener(EhcacheEntityResponse.ClientInvalidateHashes response) {
+    final Map<Integer, Long> invalidations = response.getInvalidations();
+
+    LOGGER.debug("CLIENT: doing work to invalidate {} hashes from cache {}", invalidations.size(), cacheId);
+    for (long key : invalidations.values()) {
+      for (InvalidationListener listener : invalidationListeners) {
+        listener.onInvalidateHash(key);
+      }
+    }
+
+    try {
+      LOGGER.debug("CLIENT: ack'ing invalidation of {} hashes from cache {} (IDs {})", invalidations.size(), cacheId, invalidations.keySet());
+      entity.invokeServerStoreOperationAsync(messageFactory.clientInvalidationBatchAck(invalidations.keySet()), false);
+    } catch (Exception e) {
+      //TODO: what should be done here?
+      LOGGER.error("error acking client invalidation of {} hashes on cache {}", invalidations.size(), cacheId, e);
+    }
+  }
+
   private void serverInvalidateHashResponseListener(EhcacheEntityResponse.ServerInvalidateHash response) {
     long key = response.getKey();
     LOGGER.debug("CLIENT: on cache {}, server requesting hash {} to be invalidated", cacheId, key);
@@ -141,6 +172,32 @@ class CommonServerStoreProxy implements ServerStoreProxy {
     }
   }
 
+  @Override
+  public Map<Long, Chain> getAll(Set<Long> keys) throws TimeoutException {
+    EhcacheEntityResponse response;
+    try {
+      response = entity.invokeServerStoreOperation(messageFactory.getAllOperation(keys), false);
+    } catch (TimeoutException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ServerStoreProxyException(e);
+    }
+    if (response != null && response.getResponseType() == EhcacheResponseType.GET_ALL_RESPONSE) {
+      return ((EhcacheEntityResponse.GetAllResponse)response).getChains();
+    } else {
+      throw new ServerStoreProxyException("Response for getAll operation was invalid : " +
+                                          (response != null ? response.getResponseType() : "null message"));
+    }
+  }
+
+  @Override
+  public ChainIterator iterator(int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
+    return new BatchingChainIterator(batchSize);
+  }
+
   @Override
   public void append(long key, ByteBuffer payLoad) throws TimeoutException {
     try {
@@ -170,6 +227,101 @@ class CommonServerStoreProxy implements ServerStoreProxy {
     }
   }
 
+  @Override
+  public Map<Long, Chain> getAndAppendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException {
+    return join(getAndAppendAllAsync(payloads));
+  }
+
+  @Override
+  public void appendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException {
+    join(appendAllAsync(payloads));
+  }
+
+  @Override
+  public CompletionStage<Chain> getAsync(long key) {
+    return submit(messageFactory.getOperation(key), false, "get", EhcacheResponseType.GET_RESPONSE,
+      response -> ((EhcacheEntityResponse.GetResponse)response).getChain());
+  }
+
+  @Override
+  public CompletionStage<Map<Long, Chain>> getAllAsync(Set<Long> keys) {
+    return submit(messageFactory.getAllOperation(keys), false, "getAll", EhcacheResponseType.GET_ALL_RESPONSE,
+      response -> ((EhcacheEntityResponse.GetAllResponse)response).getChains());
+  }
+
+  @Override
+  public CompletionStage<Chain> getAndAppendAsync(long key, ByteBuffer payLoad) {
+    return submit(messageFactory.getAndAppendOperation(key, payLoad), true, "getAndAppend", EhcacheResponseType.GET_RESPONSE,
+      response -> ((EhcacheEntityResponse.GetResponse)response).getChain());
+  }
+
+  @Override
+  public CompletionStage<Map<Long, Chain>> getAndAppendAllAsync(Map<Long, List<ByteBuffer>> payloads) {
+    List<CompletableFuture<Map<Long, Chain>>> segments = new ArrayList<>();
+    for (ServerStoreOpMessage message : messageFactory.getAndAppendAllOperations(payloads)) {
+      segments.add(submit(message, true, "getAndAppendAll", EhcacheResponseType.GET_ALL_RESPONSE,
+        response -> ((EhcacheEntityResponse.GetAllResponse)response).getChains()).toCompletableFuture());
+    }
+    return CompletableFuture.allOf(segments.toArray(new CompletableFuture<?>[segments.size()])).thenApply(ignored -> {
+      Map<Long, Chain> chains = new HashMap<>(payloads.size());
+      for (CompletableFuture<Map<Long, Chain>> segment : segments) {
+        chains.putAll(segment.join());
+      }
+      return chains;
+    });
+  }
+
+  @Override
+  public CompletionStage<Void> appendAllAsync(Map<Long, List<ByteBuffer>> payloads) {
+    List<CompletableFuture<Void>> segments = new ArrayList<>();
+    for (ServerStoreOpMessage message : messageFactory.appendAllOperations(payloads)) {
+      segments.add(submit(message, true, "appendAll", null, response -> (Void) null).toCompletableFuture());
+    }
+    return CompletableFuture.allOf(segments.toArray(new CompletableFuture<?>[segments.size()]));
+  }
+
+  /**
+   * Submits the given message, mapping its response through {@code extractor}. A {@code null} {@code expectedType}
+   * accepts any response: appends ignore theirs, which a new active replaying them after a failover answers with the
+   * previous chains.
+   */
+  private <T> CompletionStage<T> submit(ServerStoreOpMessage message, boolean track, String operation,
+                                        EhcacheResponseType expectedType, Function<EhcacheEntityResponse, T> extractor) {
+    return entity.submitServerStoreOperation(message, track).handle((response, failure) -> {
+      if (failure != null) {
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof TimeoutException) {
+          throw new CompletionException(cause);
+        }
+        throw new ServerStoreProxyException(cause);
+      }
+      if (response != null && (expectedType == null || response.getResponseType() == expectedType)) {
+        return extractor.apply(response);
+      } else {
+        throw new ServerStoreProxyException("Response for " + operation + " operation was invalid : " +
+                                            (response != null ? response.getResponseType() : "null message"));
+      }
+    });
+  }
+
+  /**
+   * Waits for an operation submitted through {@link #submit}, rethrowing its failure as the synchronous operations do.
+   */
+  private static <T> T join(CompletionStage<T> stage) throws TimeoutException {
+    try {
+      return stage.toCompletableFuture().join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof TimeoutException) {
+        throw (TimeoutException) cause;
+      } else if (cause instanceof ServerStoreProxyException) {
+        throw (ServerStoreProxyException) cause;
+      } else {
+        throw new ServerStoreProxyException(cause);
+      }
+    }
+  }
+
   @Override
   public void replaceAtHead(long key, Chain expect, Chain update) {
     // TODO: Optimize this method to just send sequences for expect Chain
@@ -190,4 +342,61 @@ class CommonServerStoreProxy implements ServerStoreProxy {
       throw new ServerStoreProxyException(e);
     }
   }
+
+  /**
+   * Opens the server side iterator on the first batch request, and lets the server release it once exhausted.
+   */
+  private class BatchingChainIterator implements ChainIterator {
+
+    private final int batchSize;
+    private Iterator<Map.Entry<Long, Chain>> batch = Collections.emptyIterator();
+    private Integer iteratorId;
+    private boolean last;
+
+    BatchingChainIterator(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() throws TimeoutException {
+      while (!batch.hasNext() && !last) {
+        fetchBatch();
+      }
+      return batch.hasNext();
+    }
+
+    @Override
+    public Map.Entry<Long, Chain> next() throws TimeoutException {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return batch.next();
+    }
+
+    private void fetchBatch() throws TimeoutException {
+      ServerStoreOpMessage message;
+      if (iteratorId == null) {
+        message = messageFactory.iteratorOpenOperation(batchSize);
+      } else {
+        message = messageFactory.iteratorAdvanceOperation(iteratorId, batchSize);
+      }
+      EhcacheEntityResponse response;
+      try {
+        response = entity.invokeServerStoreOperation(message, false);
+      } catch (TimeoutException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new ServerStoreProxyException(e);
+      }
+      if (response != null && response.getResponseType() == EhcacheResponseType.ITERATOR_BATCH) {
+        EhcacheEntityResponse.IteratorBatch iteratorBatch = (EhcacheEntityResponse.IteratorBatch) response;
+        iteratorId = iteratorBatch.getIteratorId();
+        last = iteratorBatch.isLast();
+        batch = iteratorBatch.getChains().entrySet().iterator();
+      } else {
+        throw new ServerStoreProxyException("Response for iterator operation was invalid : " +
+                                            (response != null ? response.getResponseType() : "null message"));
+      }
+    }
+  }
 }
@@ -19,6 +19,10 @@ import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.clustered.common.internal.store.Chain;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeoutException;
 
 public class EventualServerStoreProxy implements ServerStoreProxy {
@@ -54,6 +58,16 @@ public class EventualServerStoreProxy implements ServerStoreProxy {
     return delegate.get(key);
   }
 
+  @Override
+  public Map<Long, Chain> getAll(Set<Long> keys) throws TimeoutException {
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public ChainIterator iterator(int batchSize) {
+    return delegate.iterator(batchSize);
+  }
+
   @Override
   public void append(final long key, final ByteBuffer payLoad) throws TimeoutException {
     delegate.append(key, payLoad);
@@ -64,6 +78,41 @@ public class EventualServerStoreProxy implements ServerStoreProxy {
     return delegate.getAndAppend(key, payLoad);
   }
 
+  @Override
+  public Map<Long, Chain> getAndAppendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException {
+    return delegate.getAndAppendAll(payloads);
+  }
+
+  @Override
+  public void appendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException {
+    delegate.appendAll(payloads);
+  }
+
+  @Override
+  public CompletionStage<Chain> getAsync(long key) {
+    return delegate.getAsync(key);
+  }
+
+  @Override
+  public CompletionStage<Map<Long, Chain>> getAllAsync(Set<Long> keys) {
+    return delegate.getAllAsync(keys);
+  }
+
+  @Override
+  public CompletionStage<Chain> getAndAppendAsync(long key, ByteBuffer payLoad) {
+    return delegate.getAndAppendAsync(key, payLoad);
+  }
+
+  @Override
+  public CompletionStage<Map<Long, Chain>> getAndAppendAllAsync(Map<Long, List<ByteBuffer>> payloads) {
+    return delegate.getAndAppendAllAsync(payloads);
+  }
+
+  @Override
+  public CompletionStage<Void> appendAllAsync(Map<Long, List<ByteBuffer>> payloads) {
+    return delegate.appendAllAsync(payloads);
+  }
+
   @Override
   public void replaceAtHead(long key, Chain expect, Chain update) {
     delegate.replaceAtHead(key, expect, update);
@@ -0,0 +1,140 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.client.internal.store;
+
+import org.terracotta.entity.EntityResponse;
+import org.terracotta.entity.InvokeFuture;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bridges {@link InvokeFuture}s, which only offer blocking retrieval, to {@link CompletionStage}s.
+ * <p>
+ * Each pending invocation is waited upon, up to its deadline, by one of a bounded set of daemon threads, which are
+ * started on demand and retire when idle. Nothing is polled: a waiting thread stays parked until its invocation
+ * completes or times out. Invocations beyond the bound queue up, their timeout still running from submission.
+ * Stages are completed on the waiting threads.
+ */
+class InvokeFutureCompleter {
+
+  private static final int MAX_WAITERS = 32;
+  private static final long IDLE_SECONDS = 30;
+
+  private final String name;
+  private final Set<Pending<?>> pending = ConcurrentHashMap.newKeySet();
+  private final ThreadPoolExecutor waiters;
+  private volatile boolean closed;
+
+  InvokeFutureCompleter(String name) {
+    this.name = name;
+    AtomicInteger count = new AtomicInteger();
+    this.waiters = new ThreadPoolExecutor(MAX_WAITERS, MAX_WAITERS, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread t = new Thread(r, name + "-" + count.getAndIncrement());
+      t.setDaemon(true);
+      return t;
+    });
+    this.waiters.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Returns a stage completed with the response of the given invocation, or with a {@link TimeoutException} if it does
+   * not complete within {@code timeoutNanos}.
+   */
+  <T extends EntityResponse> CompletionStage<T> complete(InvokeFuture<T> future, long timeoutNanos) {
+    Pending<T> invocation = new Pending<>(future, timeoutNanos);
+    if (closed) {
+      invocation.fail(closedException());
+    } else {
+      pending.add(invocation);
+      try {
+        waiters.execute(() -> {
+          try {
+            invocation.await();
+          } catch (InterruptedException e) {
+            invocation.fail(closedException());
+          } finally {
+            pending.remove(invocation);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        pending.remove(invocation);
+        invocation.fail(closedException());
+      }
+    }
+    return invocation.stage;
+  }
+
+  void close() {
+    closed = true;
+    waiters.shutdownNow();
+    for (Pending<?> invocation : pending) {
+      invocation.fail(closedException());
+    }
+    pending.clear();
+  }
+
+  private IllegalStateException closedException() {
+    return new IllegalStateException(name + " is closed");
+  }
+
+  private static final class Pending<T extends EntityResponse> {
+
+    private final InvokeFuture<T> future;
+    private final long start = System.nanoTime();
+    private final long timeoutNanos;
+    private final CompletableFuture<T> stage = new CompletableFuture<>();
+
+    Pending(InvokeFuture<T> future, long timeoutNanos) {
+      this.future = future;
+      this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Waits for the invocation to complete, up to what remains of its timeout, and completes the stage accordingly.
+     */
+    void await() throws InterruptedException {
+      long remaining = timeoutNanos - (System.nanoTime() - start);
+      try {
+        if (remaining > 0) {
+          stage.complete(future.getWithTimeout(remaining, TimeUnit.NANOSECONDS));
+        } else if (future.isDone()) {
+          stage.complete(future.get());
+        } else {
+          throw new TimeoutException();
+        }
+      } catch (TimeoutException e) {
+        stage.completeExceptionally(new TimeoutException("Timeout exceeded after " + timeoutNanos + "ns"));
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        stage.completeExceptionally(e);
+      }
+    }
+
+    void fail(Throwable failure) {
+      stage.completeExceptionally(failure);
+    }
+  }
+}
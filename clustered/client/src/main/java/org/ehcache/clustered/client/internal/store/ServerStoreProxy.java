@@ -15,8 +15,16 @@
  */
 package org.ehcache.clustered.client.internal.store;
 
+import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.ServerStore;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+
 /**
  * @author Ludovic Orban
  */
@@ -39,6 +47,26 @@ public interface ServerStoreProxy extends ServerStore {
     void onInvalidateAll();
   }
 
+  /**
+   * Iterator over the Chains of a {@code ServerStore}, fetched from the server in batches.
+   */
+  interface ChainIterator {
+    /**
+     * @return {@code true} if there is another Chain to iterate over
+     *
+     * @throws TimeoutException if fetching the next batch exceeds the timeout configured for read operations
+     */
+    boolean hasNext() throws TimeoutException;
+
+    /**
+     * @return the next Chain, with the hash it is mapped to
+     *
+     * @throws TimeoutException if fetching the next batch exceeds the timeout configured for read operations
+     * @throws java.util.NoSuchElementException if the iteration has no more Chains
+     */
+    Map.Entry<Long, Chain> next() throws TimeoutException;
+  }
+
   /**
    * Gets the identifier linking a client-side cache to a {@code ServerStore} instance.
    *
@@ -60,6 +88,99 @@ public interface ServerStoreProxy extends ServerStore {
    */
   boolean removeInvalidationListener(InvalidationListener listener);
 
+  /**
+   * Returns the Chains associated with the provided hashes, fetched in a single server round trip.
+   * Each requested hash is mapped to its Chain, an empty Chain if no mapping exists.
+   *
+   * @param keys hashcodes of the keys
+   * @return the {@link Chain}s associated with the hashes
+   *
+   * @throws TimeoutException if the get exceeds the timeout configured for read operations
+   */
+  Map<Long, Chain> getAll(Set<Long> keys) throws TimeoutException;
+
+  /**
+   * Appends the provided payloads to the Chains of their hashes and returns the Chains as they were before this call.
+   * Payloads sharing a hash are appended in list order. One message is sent per server segment, all of them in flight
+   * at once.
+   *
+   * @param payloads payloads to append, by hashcode of their key
+   * @return the {@link Chain}s associated with the hashes before the payloads got appended
+   *
+   * @throws TimeoutException if the operation exceeds the timeout configured for write operations
+   */
+  Map<Long, Chain> getAndAppendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException;
+
+  /**
+   * Appends the provided payloads to the Chains of their hashes, as {@link #getAndAppendAll(Map)} does, without
+   * shipping the previous Chains back.
+   *
+   * @param payloads payloads to append, by hashcode of their key
+   *
+   * @throws TimeoutException if the operation exceeds the timeout configured for write operations
+   */
+  void appendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException;
+
+  /**
+   * Returns an iterator over the non empty Chains of the {@code ServerStore}, fetching {@code batchSize} of them per
+   * server round trip. Only one batch is held at a time on either side.
+   * <p>
+   * The iteration is weakly consistent: Chains are read as they are fetched, and mappings added after the iteration
+   * reached their segment may be missed. An iteration does not survive a failover of the server.
+   *
+   * @param batchSize maximum number of Chains fetched per round trip
+   * @return an iterator over the Chains, keyed by hash
+   */
+  ChainIterator iterator(int batchSize);
+
+  /**
+   * Non-blocking version of {@link #get(long)}.
+   *
+   * @param key hashcode of the key
+   * @return a stage completed with the {@link Chain} associated with the hash, or exceptionally with a
+   *         {@link TimeoutException} if the get exceeds the timeout configured for read operations
+   */
+  CompletionStage<Chain> getAsync(long key);
+
+  /**
+   * Non-blocking version of {@link #getAll(Set)}.
+   *
+   * @param keys hashcodes of the keys
+   * @return a stage completed with the {@link Chain}s associated with the hashes, or exceptionally with a
+   *         {@link TimeoutException} if the get exceeds the timeout configured for read operations
+   */
+  CompletionStage<Map<Long, Chain>> getAllAsync(Set<Long> keys);
+
+  /**
+   * Non-blocking version of {@link #getAndAppend(long, ByteBuffer)}.
+   *
+   * @param key hashcode of the key
+   * @param payLoad payload to append
+   * @return a stage completed with the {@link Chain} associated with the hash before the payload got appended, or
+   *         exceptionally with a {@link TimeoutException} if the operation exceeds the timeout configured for write
+   *         operations
+   */
+  CompletionStage<Chain> getAndAppendAsync(long key, ByteBuffer payLoad);
+
+  /**
+   * Non-blocking version of {@link #getAndAppendAll(Map)}.
+   *
+   * @param payloads payloads to append, by hashcode of their key
+   * @return a stage completed with the {@link Chain}s associated with the hashes before the payloads got appended, or
+   *         exceptionally with a {@link TimeoutException} if the operation exceeds the timeout configured for write
+   *         operations
+   */
+  CompletionStage<Map<Long, Chain>> getAndAppendAllAsync(Map<Long, List<ByteBuffer>> payloads);
+
+  /**
+   * Non-blocking version of {@link #appendAll(Map)}.
+   *
+   * @param payloads payloads to append, by hashcode of their key
+   * @return a stage completed once the payloads got appended, or exceptionally with a {@link TimeoutException} if the
+   *         operation exceeds the timeout configured for write operations
+   */
+  CompletionStage<Void> appendAllAsync(Map<Long, List<ByteBuffer>> payloads);
+
   /**
    * Closes this proxy.
    */
@@ -46,6 +46,9 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
@@ -57,12 +60,14 @@ import java.util.concurrent.TimeoutException;
 public class SimpleClusterTierClientEntity implements InternalClusterTierClientEntity {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SimpleClusterTierClientEntity.class);
-  private static final Set<EhcacheMessageType> GET_STORE_OPS = EnumSet.of(EhcacheMessageType.GET_STORE);
+  private static final Set<EhcacheMessageType> GET_STORE_OPS = EnumSet.of(EhcacheMessageType.GET_STORE, EhcacheMessageType.GET_ALL_STORE,
+    EhcacheMessageType.ITERATOR_OPEN, EhcacheMessageType.ITERATOR_ADVANCE);
 
   private final EntityClientEndpoint<EhcacheEntityMessage, EhcacheEntityResponse> endpoint;
   private final LifeCycleMessageFactory messageFactory;
   private final Object lock = new Object();
   private final ReconnectMessageCodec reconnectMessageCodec = new ReconnectMessageCodec();
+  private final InvokeFutureCompleter completer = new InvokeFutureCompleter("Ehcache [cluster tier] invocation completer");
   private final Map<Class<? extends EhcacheEntityResponse>, List<ResponseListener<? extends EhcacheEntityResponse>>> responseListeners =
     new ConcurrentHashMap<>();
 
@@ -130,6 +135,7 @@ public class SimpleClusterTierClientEntity implements InternalClusterTierClientE
   public void close() {
     reconnectListener = null;
     disconnectionListener = null;
+    completer.close();
     endpoint.close();
   }
 
@@ -192,13 +198,49 @@ public class SimpleClusterTierClientEntity implements InternalClusterTierClientE
     internalInvokeAsync(message, track);
   }
 
+  @Override
+  public CompletionStage<EhcacheEntityResponse> submitServerStoreOperation(ServerStoreOpMessage message, boolean track) {
+    TimeoutDuration timeLimit = timeLimit(message);
+    InvokeFuture<EhcacheEntityResponse> future;
+    try {
+      future = internalInvokeAsync(message, track);
+    } catch (MessageCodecException e) {
+      CompletableFuture<EhcacheEntityResponse> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new RuntimeException(message + " error: " + e.toString(), e));
+      return failed;
+    }
+    return completer.complete(future, timeLimit.toNanos()).handle((response, failure) -> {
+      if (failure == null) {
+        if (EhcacheResponseType.FAILURE.equals(response.getResponseType())) {
+          throw new CompletionException(((Failure)response).getCause());
+        } else {
+          return response;
+        }
+      } else if (failure instanceof TimeoutException) {
+        String msg = "Timeout exceeded for " + message + " message; " + timeLimit;
+        TimeoutException timeoutException = new TimeoutException(msg);
+        timeoutException.initCause(failure);
+        LOGGER.info(msg, timeoutException);
+        throw new CompletionException(timeoutException);
+      } else if (failure instanceof EntityException) {
+        throw new RuntimeException(message + " error: " + failure.toString(), failure);
+      } else {
+        throw new CompletionException(failure);
+      }
+    });
+  }
+
   private EhcacheEntityResponse invoke(EhcacheOperationMessage message, boolean track)
       throws ClusterException, TimeoutException {
-    TimeoutDuration timeLimit = timeouts.getMutativeOperationTimeout();
+    return invokeInternal(timeLimit(message), message, track);
+  }
+
+  private TimeoutDuration timeLimit(EhcacheOperationMessage message) {
     if (GET_STORE_OPS.contains(message.getMessageType())) {
-      timeLimit = timeouts.getReadOperationTimeout();
+      return timeouts.getReadOperationTimeout();
+    } else {
+      return timeouts.getMutativeOperationTimeout();
     }
-    return invokeInternal(timeLimit, message, track);
   }
 
   private EhcacheEntityResponse invokeInternal(TimeoutDuration timeLimit, EhcacheEntityMessage message, boolean track)
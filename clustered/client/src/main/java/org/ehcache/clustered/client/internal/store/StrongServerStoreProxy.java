@@ -19,12 +19,22 @@ import org.ehcache.clustered.common.internal.messages.ClusterTierReconnectMessag
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
 import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
+import org.ehcache.clustered.common.internal.store.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
@@ -32,6 +42,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 public class StrongServerStoreProxy implements ServerStoreProxy {
 
@@ -39,6 +50,7 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
 
   private final CommonServerStoreProxy delegate;
   private final ConcurrentMap<Long, CountDownLatch> hashInvalidationsInProgress = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Long, AppendGroup> pendingAppends = new ConcurrentHashMap<>();
   private final Lock invalidateAllLock = new ReentrantLock();
   private volatile CountDownLatch invalidateAllLatch;
   private final ClusterTierClientEntity entity;
@@ -121,7 +133,7 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
     try {
       T result = c.apply();
       LOGGER.debug("CLIENT: Waiting for invalidations on key {}", key);
-      awaitOnLatch(latch);
+      awaitOnLatch(latch, () -> pollHashInvalidation(key));
       LOGGER.debug("CLIENT: key {} invalidated on all clients, unblocking call", key);
       return result;
     } catch (Exception ex) {
@@ -135,6 +147,200 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
     }
   }
 
+  /**
+   * Appends {@code payLoad} to the chain of {@code key}, returning once the hash got invalidated on all clients.
+   * <p>
+   * When the hash is free the append goes through {@link #performWaitingForHashInvalidation(long, NullaryFunction)}.
+   * Otherwise the writers arriving while it is being invalidated form a group: the first of them waits for the hash,
+   * then sends the payloads of the whole group as a single append, so that the group waits on one invalidation round
+   * instead of one per writer.
+   *
+   * @return the chain as it was before {@code payLoad} got appended, or {@code null} if {@code getChain} is false
+   */
+  private Chain performGroupedAppend(long key, ByteBuffer payLoad, boolean getChain) throws InterruptedException, TimeoutException {
+    while (true) {
+      if (!entity.isConnected()) {
+        throw new IllegalStateException("Cluster tier manager disconnected");
+      }
+      AppendGroup group = pendingAppends.get(key);
+      if (group == null) {
+        CountDownLatch inProgress = hashInvalidationsInProgress.get(key);
+        if (inProgress == null) {
+          return performWaitingForHashInvalidation(key, () -> {
+            if (getChain) {
+              return delegate.getAndAppend(key, payLoad);
+            } else {
+              delegate.append(key, payLoad);
+              return null;
+            }
+          });
+        }
+        AppendGroup newGroup = new AppendGroup();
+        group = pendingAppends.putIfAbsent(key, newGroup);
+        if (group == null) {
+          newGroup.join(payLoad, getChain);
+          return leadAppendGroup(key, newGroup, inProgress);
+        }
+      }
+      int position = group.join(payLoad, getChain);
+      if (position >= 0) {
+        awaitOnLatch(group);
+        return group.chainBefore(position);
+      }
+      // the group was sent already, start over
+    }
+  }
+
+  /**
+   * @return the number of appends to {@code key} grouped to be sent once its invalidation in progress completes
+   */
+  int groupedAppendCount(long key) {
+    AppendGroup group = pendingAppends.get(key);
+    return group == null ? 0 : group.size();
+  }
+
+  private Chain leadAppendGroup(long key, AppendGroup group, CountDownLatch inProgress) throws InterruptedException, TimeoutException {
+    CountDownLatch latch = new CountDownLatch(1);
+    try {
+      awaitOnLatch(inProgress);
+      while (true) {
+        if (!entity.isConnected()) {
+          throw new IllegalStateException("Cluster tier manager disconnected");
+        }
+        CountDownLatch countDownLatch = hashInvalidationsInProgress.putIfAbsent(key, latch);
+        if (countDownLatch == null) {
+          break;
+        }
+        awaitOnLatch(countDownLatch);
+      }
+    } catch (InterruptedException | RuntimeException ex) {
+      pendingAppends.remove(key, group);
+      group.seal();
+      group.fail(ex);
+      throw ex;
+    }
+
+    pendingAppends.remove(key, group);
+    List<ByteBuffer> payloads = group.seal();
+    try {
+      // a group of several payloads goes out as a bulk message holding the one key, fetching the chain only if needed
+      Chain chain;
+      if (group.isChainNeeded()) {
+        if (payloads.size() == 1) {
+          chain = delegate.getAndAppend(key, payloads.get(0));
+        } else {
+          chain = delegate.getAndAppendAll(Collections.singletonMap(key, payloads)).get(key);
+        }
+      } else {
+        if (payloads.size() == 1) {
+          delegate.append(key, payloads.get(0));
+        } else {
+          delegate.appendAll(Collections.singletonMap(key, payloads));
+        }
+        chain = null;
+      }
+      LOGGER.debug("CLIENT: Waiting for invalidations on key {} after appending {} payloads", key, payloads.size());
+      awaitOnLatch(latch, () -> pollHashInvalidation(key));
+      LOGGER.debug("CLIENT: key {} invalidated on all clients, unblocking {} calls", key, payloads.size());
+      group.complete(chain);
+      return group.chainBefore(0);
+    } catch (Exception ex) {
+      hashInvalidationsInProgress.remove(key);
+      latch.countDown();
+
+      Exception failure = ex instanceof TimeoutException ? ex : new RuntimeException(ex);
+      group.fail(failure);
+      if (failure instanceof TimeoutException) {
+        throw (TimeoutException) failure;
+      }
+      throw (RuntimeException) failure;
+    }
+  }
+
+  private <T> T performWaitingForHashInvalidations(Set<Long> keys, NullaryFunction<T> c) throws InterruptedException, TimeoutException {
+    Map<Long, InvalidationLatch> latches = new TreeMap<>();
+    try {
+      claimHashInvalidations(keys, latches);
+
+      T result = c.apply();
+      LOGGER.debug("CLIENT: Waiting for invalidations on {} keys", latches.size());
+      for (Map.Entry<Long, InvalidationLatch> latch : latches.entrySet()) {
+        awaitOnLatch(latch.getValue(), () -> pollHashInvalidation(latch.getKey()));
+      }
+      LOGGER.debug("CLIENT: {} keys invalidated on all clients, unblocking call", latches.size());
+      return result;
+    } catch (Exception ex) {
+      releaseHashInvalidations(latches);
+
+      if (ex instanceof TimeoutException) {
+        throw (TimeoutException)ex;
+      } else if (ex instanceof InterruptedException) {
+        throw (InterruptedException)ex;
+      } else if (ex instanceof IllegalStateException) {
+        throw (IllegalStateException)ex;
+      }
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #performWaitingForHashInvalidations(Set, NullaryFunction)}: the returned stage
+   * completes once the server reported all the hashes invalidated. Claiming a hash already being invalidated still
+   * blocks the caller, as it does for synchronous operations.
+   */
+  private <T> CompletionStage<T> performWaitingForHashInvalidationsAsync(Set<Long> keys, Supplier<CompletionStage<T>> c) {
+    Map<Long, InvalidationLatch> latches = new TreeMap<>();
+    CompletionStage<T> operation;
+    try {
+      claimHashInvalidations(keys, latches);
+      operation = c.get();
+    } catch (Exception ex) {
+      releaseHashInvalidations(latches);
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(ex instanceof InterruptedException ? new RuntimeException(ex) : ex);
+      return failed;
+    }
+
+    LOGGER.debug("CLIENT: Waiting asynchronously for invalidations on {} keys", latches.size());
+    return operation.whenComplete((result, failure) -> {
+      if (failure != null) {
+        releaseHashInvalidations(latches);
+      }
+    }).thenCompose(result -> CompletableFuture.allOf(latches.values().stream().map(InvalidationLatch::released).toArray(CompletableFuture[]::new))
+      .thenApply(done -> {
+        if (!entity.isConnected()) {
+          throw new IllegalStateException("Cluster tier manager disconnected");
+        }
+        LOGGER.debug("CLIENT: {} keys invalidated on all clients, completing call", latches.size());
+        return result;
+      }));
+  }
+
+  private void claimHashInvalidations(Set<Long> keys, Map<Long, InvalidationLatch> latches) throws InterruptedException {
+    // Hashes are claimed in ascending order so that two concurrent batches can't wait on each other
+    for (Long key : new TreeSet<>(keys)) {
+      InvalidationLatch latch = new InvalidationLatch();
+      while (true) {
+        if (!entity.isConnected()) {
+          throw new IllegalStateException("Cluster tier manager disconnected");
+        }
+        CountDownLatch countDownLatch = hashInvalidationsInProgress.putIfAbsent(key, latch);
+        if (countDownLatch == null) {
+          latches.put(key, latch);
+          break;
+        }
+        awaitOnLatch(countDownLatch);
+      }
+    }
+  }
+
+  private void releaseHashInvalidations(Map<Long, ? extends CountDownLatch> latches) {
+    latches.forEach((key, latch) -> {
+      hashInvalidationsInProgress.remove(key, latch);
+      latch.countDown();
+    });
+  }
+
   private <T> T performWaitingForAllInvalidation(NullaryFunction<T> c) throws InterruptedException, TimeoutException {
     CountDownLatch newLatch = new CountDownLatch(1);
     while (true) {
@@ -179,12 +385,20 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
   }
 
   private void awaitOnLatch(CountDownLatch countDownLatch) throws InterruptedException {
+    awaitOnLatch(countDownLatch, () -> { });
+  }
+
+  /**
+   * Waits for {@code countDownLatch}, running {@code poll} each time the wait backs off.
+   */
+  private void awaitOnLatch(CountDownLatch countDownLatch, Runnable poll) throws InterruptedException {
     int totalAwaitTime = 0;
     int backoff = 1;
     while (!countDownLatch.await(backoff, TimeUnit.SECONDS)) {
       totalAwaitTime += backoff;
       backoff = (backoff >= 10) ? 10 : backoff * 2;
       LOGGER.debug("Waiting for the server's InvalidationDone message for {}s, backing off {}s...", totalAwaitTime, backoff);
+      poll.run();
     }
     if (!entity.isConnected()) {
       throw new IllegalStateException("Cluster tier manager disconnected");
@@ -192,6 +406,22 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
   }
 
 
+  /**
+   * The server holds back the invalidations for a client while an ack from it is pending, and only gives up on a lost
+   * or late ack when it processes an operation past the ack timeout. On an otherwise quiet cluster tier that operation
+   * has to come from the client waiting on the invalidation: a get of the hash, which has no side effect.
+   */
+  private void pollHashInvalidation(long key) {
+    if (!entity.isConnected()) {
+      return;
+    }
+    try {
+      delegate.get(key);
+    } catch (TimeoutException | RuntimeException e) {
+      LOGGER.debug("CLIENT: on cache {}, unable to poll the server for the invalidation of hash {}", getCacheId(), key, e);
+    }
+  }
+
   @Override
   public String getCacheId() {
     return delegate.getCacheId();
@@ -217,13 +447,20 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
     return delegate.get(key);
   }
 
+  @Override
+  public Map<Long, Chain> getAll(Set<Long> keys) throws TimeoutException {
+    return delegate.getAll(keys);
+  }
+
+  @Override
+  public ChainIterator iterator(int batchSize) {
+    return delegate.iterator(batchSize);
+  }
+
   @Override
   public void append(final long key, final ByteBuffer payLoad) throws TimeoutException {
     try {
-      performWaitingForHashInvalidation(key, () -> {
-        delegate.append(key, payLoad);
-        return null;
-      });
+      performGroupedAppend(key, payLoad, false);
     } catch (InterruptedException ie) {
       throw new RuntimeException(ie);
     }
@@ -232,12 +469,58 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
   @Override
   public Chain getAndAppend(final long key, final ByteBuffer payLoad) throws TimeoutException {
     try {
-      return performWaitingForHashInvalidation(key, () -> delegate.getAndAppend(key, payLoad));
+      return performGroupedAppend(key, payLoad, true);
+    } catch (InterruptedException ie) {
+      throw new RuntimeException(ie);
+    }
+  }
+
+  @Override
+  public Map<Long, Chain> getAndAppendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException {
+    try {
+      return performWaitingForHashInvalidations(payloads.keySet(), () -> delegate.getAndAppendAll(payloads));
+    } catch (InterruptedException ie) {
+      throw new RuntimeException(ie);
+    }
+  }
+
+  @Override
+  public void appendAll(Map<Long, List<ByteBuffer>> payloads) throws TimeoutException {
+    try {
+      performWaitingForHashInvalidations(payloads.keySet(), () -> {
+        delegate.appendAll(payloads);
+        return null;
+      });
     } catch (InterruptedException ie) {
       throw new RuntimeException(ie);
     }
   }
 
+  @Override
+  public CompletionStage<Chain> getAsync(long key) {
+    return delegate.getAsync(key);
+  }
+
+  @Override
+  public CompletionStage<Map<Long, Chain>> getAllAsync(Set<Long> keys) {
+    return delegate.getAllAsync(keys);
+  }
+
+  @Override
+  public CompletionStage<Chain> getAndAppendAsync(long key, ByteBuffer payLoad) {
+    return performWaitingForHashInvalidationsAsync(Collections.singleton(key), () -> delegate.getAndAppendAsync(key, payLoad));
+  }
+
+  @Override
+  public CompletionStage<Map<Long, Chain>> getAndAppendAllAsync(Map<Long, List<ByteBuffer>> payloads) {
+    return performWaitingForHashInvalidationsAsync(payloads.keySet(), () -> delegate.getAndAppendAllAsync(payloads));
+  }
+
+  @Override
+  public CompletionStage<Void> appendAllAsync(Map<Long, List<ByteBuffer>> payloads) {
+    return performWaitingForHashInvalidationsAsync(payloads.keySet(), () -> delegate.appendAllAsync(payloads));
+  }
+
   @Override
   public void replaceAtHead(long key, Chain expect, Chain update) {
     delegate.replaceAtHead(key, expect, update);
@@ -258,4 +541,115 @@ public class StrongServerStoreProxy implements ServerStoreProxy {
   private interface NullaryFunction<T> {
     T apply() throws Exception;
   }
+
+  /**
+   * The appends to a hash waiting for an invalidation in progress to complete, sent together by the first of them.
+   * The group counts down once its outcome is known.
+   */
+  private static final class AppendGroup extends CountDownLatch {
+
+    private final List<ByteBuffer> payloads = new ArrayList<>();
+    private boolean chainNeeded;
+    private boolean sealed;
+
+    private volatile Chain chain;
+    private volatile Exception failure;
+
+    AppendGroup() {
+      super(1);
+    }
+
+    /**
+     * @return the position of the payload in the group, or -1 if the group was already sent
+     */
+    synchronized int join(ByteBuffer payLoad, boolean getChain) {
+      if (sealed) {
+        return -1;
+      }
+      chainNeeded |= getChain;
+      payloads.add(payLoad.duplicate());
+      return payloads.size() - 1;
+    }
+
+    synchronized List<ByteBuffer> seal() {
+      sealed = true;
+      List<ByteBuffer> sent = new ArrayList<>(payloads.size());
+      for (ByteBuffer payload : payloads) {
+        sent.add(payload.duplicate());
+      }
+      return sent;
+    }
+
+    synchronized boolean isChainNeeded() {
+      return chainNeeded;
+    }
+
+    synchronized int size() {
+      return payloads.size();
+    }
+
+    void complete(Chain chain) {
+      this.chain = chain;
+      countDown();
+    }
+
+    void fail(Exception failure) {
+      this.failure = failure;
+      countDown();
+    }
+
+    /**
+     * The chain as seen by the append at {@code position}: the chain before the group, followed by the payloads of the
+     * group appended ahead of it.
+     */
+    Chain chainBefore(int position) throws TimeoutException {
+      Exception ex = failure;
+      if (ex instanceof TimeoutException) {
+        throw (TimeoutException) ex;
+      } else if (ex instanceof RuntimeException) {
+        throw (RuntimeException) ex;
+      } else if (ex != null) {
+        throw new RuntimeException(ex);
+      }
+
+      Chain before = chain;
+      if (before == null) {
+        return null;
+      } else if (position == 0) {
+        return before;
+      } else {
+        List<Element> elements = new ArrayList<>();
+        for (Element element : before) {
+          elements.add(element);
+        }
+        Iterator<ByteBuffer> appended = payloads.iterator();
+        for (int i = 0; i < position; i++) {
+          elements.add(Util.getElement(appended.next()));
+        }
+        return Util.getChain(elements);
+      }
+    }
+  }
+
+  /**
+   * A latch that also signals its release through a {@link CompletableFuture}, for callers that can't block on it.
+   */
+  private static final class InvalidationLatch extends CountDownLatch {
+
+    private final CompletableFuture<Void> released = new CompletableFuture<>();
+
+    InvalidationLatch() {
+      super(1);
+    }
+
+    @Override
+    public void countDown() {
+      super.countDown();
+      released.complete(null);
+    }
+
+    CompletableFuture<Void> released() {
+      return released;
+    }
+  }
 }
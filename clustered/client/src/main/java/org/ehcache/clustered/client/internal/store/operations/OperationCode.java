@@ -16,43 +16,44 @@
 
 package org.ehcache.clustered.client.internal.store.operations;
 
+import org.ehcache.clustered.common.internal.store.OperationEncoding;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
 
 public enum OperationCode {
 
-  PUT((byte)1) {
+  PUT(OperationEncoding.PUT) {
     @Override
     public <K, V> Operation<K, V> decode(ByteBuffer buffer, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
       return new PutOperation<>(buffer, keySerializer, valueSerializer);
     }
   },
-  REMOVE((byte)2) {
+  REMOVE(OperationEncoding.REMOVE) {
     @Override
     public <K, V> Operation<K, V> decode(final ByteBuffer buffer, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
       return new RemoveOperation<>(buffer, keySerializer);
     }
   },
-  PUT_IF_ABSENT((byte)3) {
+  PUT_IF_ABSENT(OperationEncoding.PUT_IF_ABSENT) {
     @Override
     public <K, V> Operation<K, V> decode(final ByteBuffer buffer, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
       return new PutIfAbsentOperation<>(buffer, keySerializer, valueSerializer);
     }
   },
-  REMOVE_CONDITIONAL((byte)4) {
+  REMOVE_CONDITIONAL(OperationEncoding.REMOVE_CONDITIONAL) {
     @Override
     public <K, V> Operation<K, V> decode(final ByteBuffer buffer, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
       return new ConditionalRemoveOperation<>(buffer, keySerializer, valueSerializer);
     }
   },
-  REPLACE((byte)5) {
+  REPLACE(OperationEncoding.REPLACE) {
     @Override
     public <K, V> Operation<K, V> decode(final ByteBuffer buffer, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
       return new ReplaceOperation<>(buffer, keySerializer, valueSerializer);
     }
   },
-  REPLACE_CONDITIONAL((byte)6) {
+  REPLACE_CONDITIONAL(OperationEncoding.REPLACE_CONDITIONAL) {
     @Override
     public <K, V> Operation<K, V> decode(final ByteBuffer buffer, final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
       return new ConditionalReplaceOperation<>(buffer, keySerializer, valueSerializer);
@@ -73,17 +74,17 @@ public enum OperationCode {
 
   public static OperationCode valueOf(byte value) {
     switch (value) {
-      case 1:
+      case OperationEncoding.PUT:
         return PUT;
-      case 2:
+      case OperationEncoding.REMOVE:
         return REMOVE;
-      case 3:
+      case OperationEncoding.PUT_IF_ABSENT:
         return PUT_IF_ABSENT;
-      case 4:
+      case OperationEncoding.REMOVE_CONDITIONAL:
         return REMOVE_CONDITIONAL;
-      case 5:
+      case OperationEncoding.REPLACE:
         return REPLACE;
-      case 6:
+      case OperationEncoding.REPLACE_CONDITIONAL:
         return REPLACE_CONDITIONAL;
       default:
         throw new IllegalArgumentException("Operation undefined for the value " + value);
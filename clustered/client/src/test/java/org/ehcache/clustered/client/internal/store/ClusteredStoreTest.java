@@ -16,6 +16,7 @@
 
 package org.ehcache.clustered.client.internal.store;
 
+import org.ehcache.Cache;
 import org.ehcache.clustered.client.TestTimeSource;
 import org.ehcache.clustered.client.config.ClusteredResourcePool;
 import org.ehcache.clustered.client.config.builders.ClusteredResourcePoolBuilder;
@@ -42,6 +43,7 @@ import org.ehcache.impl.serialization.StringSerializer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.terracotta.connection.Connection;
 
 import java.net.URI;
@@ -53,25 +55,35 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.stream.LongStream;
 
+import static java.util.stream.Collectors.toSet;
 import static org.ehcache.clustered.client.internal.store.ClusteredStore.DEFAULT_CHAIN_COMPACTION_THRESHOLD;
 import static org.ehcache.clustered.client.internal.store.ClusteredStore.CHAIN_COMPACTION_THRESHOLD_PROP;
+import static org.ehcache.clustered.client.internal.store.ClusteredStore.DEFAULT_BULK_BATCH_SIZE;
 import static org.ehcache.clustered.util.StatisticsTestUtils.validateStat;
 import static org.ehcache.clustered.util.StatisticsTestUtils.validateStats;
 import static org.ehcache.core.spi.store.Store.ValueHolder.NO_EXPIRE;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -170,6 +182,66 @@ public class ClusteredStoreTest {
     validateStats(store, EnumSet.of(StoreOperationOutcomes.GetOutcome.TIMEOUT));
   }
 
+  @Test
+  public void testAsyncPutAndGet() throws Exception {
+    assertThat(store.getAsync(1L).toCompletableFuture().get(), nullValue());
+    assertThat(store.putAsync(1L, "one").toCompletableFuture().get(), is(Store.PutStatus.PUT));
+    assertThat(store.putAsync(1L, "another one").toCompletableFuture().get(), is(Store.PutStatus.UPDATE));
+    assertThat(store.getAsync(1L).toCompletableFuture().get().value(), is("another one"));
+    validateStat(store, StoreOperationOutcomes.PutOutcome.PUT, 1);
+    validateStat(store, StoreOperationOutcomes.PutOutcome.REPLACED, 1);
+    validateStat(store, StoreOperationOutcomes.GetOutcome.MISS, 1);
+    validateStat(store, StoreOperationOutcomes.GetOutcome.HIT, 1);
+
+    assertThat(store.removeAsync(1L).toCompletableFuture().get(), is(true));
+    assertThat(store.removeAsync(1L).toCompletableFuture().get(), is(false));
+    assertThat(store.get(1L), nullValue());
+  }
+
+  @Test
+  public void testAsyncPutAllAndGetAll() throws Exception {
+    Map<Long, String> entries = new HashMap<>();
+    entries.put(1L, "one");
+    entries.put(2L, "two");
+    store.putAllAsync(entries).toCompletableFuture().get();
+
+    Map<Long, Store.ValueHolder<String>> values = store.getAllAsync(new HashSet<>(Arrays.asList(1L, 2L, 3L))).toCompletableFuture().get();
+    assertThat(values.size(), is(3));
+    assertThat(values.get(1L).value(), is("one"));
+    assertThat(values.get(2L).value(), is("two"));
+    assertThat(values.get(3L), nullValue());
+  }
+
+  @Test
+  public void testAsyncGetTimeout() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    long longKey = HashUtils.intHashToLong(new Long(1L).hashCode());
+    CompletableFuture<Chain> timedOut = new CompletableFuture<>();
+    timedOut.completeExceptionally(new TimeoutException());
+    when(proxy.getAsync(longKey)).thenReturn(timedOut);
+    ClusteredStore<Long, String> store = new ClusteredStore<>(null, null, proxy, null);
+    assertThat(store.getAsync(1L).toCompletableFuture().get(), nullValue());
+    validateStats(store, EnumSet.of(StoreOperationOutcomes.GetOutcome.TIMEOUT));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testAsyncPutTimeout() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    OperationsCodec<Long, String> codec = mock(OperationsCodec.class);
+    TimeSource timeSource = mock(TimeSource.class);
+    CompletableFuture<Chain> timedOut = new CompletableFuture<>();
+    timedOut.completeExceptionally(new TimeoutException());
+    when(proxy.getAndAppendAsync(anyLong(), isNull())).thenReturn(timedOut);
+    ClusteredStore<Long, String> store = new ClusteredStore<>(codec, null, proxy, timeSource);
+    try {
+      store.putAsync(1L, "one").toCompletableFuture().get();
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(StoreAccessTimeoutException.class));
+    }
+  }
+
   @Test
   public void testGetThatCompactsInvokesReplace() throws Exception {
     TestTimeSource timeSource = new TestTimeSource();
@@ -251,6 +323,45 @@ public class ClusteredStoreTest {
     validateStats(store, EnumSet.of(StoreOperationOutcomes.RemoveOutcome.MISS, StoreOperationOutcomes.RemoveOutcome.REMOVED));
   }
 
+  @Test
+  public void testIterator() throws Exception {
+    for (long key = 101L; key <= 105L; key++) {
+      store.put(key, "value-" + key);
+    }
+    store.put(101L, "updated");
+    store.remove(103L);
+
+    Map<Long, String> entries = new HashMap<>();
+    Store.Iterator<Cache.Entry<Long, Store.ValueHolder<String>>> iterator = store.iterator();
+    while (iterator.hasNext()) {
+      Cache.Entry<Long, Store.ValueHolder<String>> next = iterator.next();
+      entries.put(next.getKey(), next.getValue().value());
+    }
+
+    assertThat(entries.get(101L), is("updated"));
+    assertThat(entries.get(102L), is("value-102"));
+    assertThat(entries.containsKey(103L), is(false));
+    assertThat(entries.get(104L), is("value-104"));
+    assertThat(entries.get(105L), is("value-105"));
+  }
+
+  @Test
+  public void testIteratorTimeout() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    ServerStoreProxy.ChainIterator chains = mock(ServerStoreProxy.ChainIterator.class);
+    when(chains.hasNext()).thenThrow(new TimeoutException());
+    when(proxy.iterator(anyInt())).thenReturn(chains);
+    ClusteredStore<Long, String> store = new ClusteredStore<>(null, null, proxy, null);
+
+    Store.Iterator<Cache.Entry<Long, Store.ValueHolder<String>>> iterator = store.iterator();
+    try {
+      iterator.hasNext();
+      fail("Expected StoreAccessTimeoutException");
+    } catch (StoreAccessTimeoutException e) {
+      assertThat(e.getCause(), instanceOf(TimeoutException.class));
+    }
+  }
+
   @Test(expected = StoreAccessException.class)
   public void testRemoveThrowsOnlySAE() throws Exception {
     @SuppressWarnings("unchecked")
@@ -489,6 +600,48 @@ public class ClusteredStoreTest {
     validateStats(store, EnumSet.noneOf(StoreOperationOutcomes.RemoveOutcome.class));
   }
 
+  @Test
+  public void testBulkComputeRemoveAllCountsRemovedKeys() throws Exception {
+    store.put(1L, "one");
+    store.put(2L, "two");
+    Ehcache.RemoveAllFunction<Long, String> removeAllFunction = new Ehcache.RemoveAllFunction<>();
+    store.bulkCompute(new HashSet<>(Arrays.asList(1L, 2L, 3L)), removeAllFunction);
+
+    assertThat(removeAllFunction.getActualRemoveCount().get(), is(2));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBulkComputePutAllIsASingleServerCall() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    OperationsCodec<Long, String> codec = new OperationsCodec<>(new LongSerializer(), new StringSerializer());
+    ChainResolver<Long, String> resolver = new ChainResolver<>(codec, Expirations.noExpiration());
+    ClusteredStore<Long, String> store = new ClusteredStore<>(codec, resolver, proxy, new TestTimeSource());
+
+    Map<Long, String> map = new HashMap<>();
+    map.put(1L, "one");
+    map.put(2L, "two");
+    Ehcache.PutAllFunction<Long, String> putAllFunction = new Ehcache.PutAllFunction<>(null, map, null);
+    store.bulkCompute(new HashSet<>(Arrays.asList(1L, 2L)), putAllFunction);
+
+    assertThat(putAllFunction.getActualPutCount().get(), is(2));
+    verify(proxy).appendAll(any());
+    verify(proxy, never()).getAndAppendAll(any());
+    verify(proxy, never()).getAndAppend(anyLong(), any(ByteBuffer.class));
+  }
+
+  @Test(expected = StoreAccessTimeoutException.class)
+  @SuppressWarnings("unchecked")
+  public void testBulkComputePutAllTimeout() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    doThrow(TimeoutException.class).when(proxy).appendAll(any());
+    OperationsCodec<Long, String> codec = new OperationsCodec<>(new LongSerializer(), new StringSerializer());
+    ClusteredStore<Long, String> store = new ClusteredStore<>(codec, null, proxy, new TestTimeSource());
+
+    Ehcache.PutAllFunction<Long, String> putAllFunction = new Ehcache.PutAllFunction<>(null, Collections.singletonMap(1L, "one"), null);
+    store.bulkCompute(Collections.singleton(1L), putAllFunction);
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   public void testBulkComputeThrowsForGenericFunction() throws Exception {
     @SuppressWarnings("unchecked")
@@ -510,6 +663,54 @@ public class ClusteredStoreTest {
     assertThat(store.get(2L).value(), is("two"));
   }
 
+  @Test
+  public void testBulkComputeIfAbsentGetAllMissingKeys() throws Exception {
+    store.put(1L, "one");
+    Ehcache.GetAllFunction<Long, String> getAllAllFunction = new Ehcache.GetAllFunction<>();
+    Map<Long, Store.ValueHolder<String>> valueHolderMap = store.bulkComputeIfAbsent(new HashSet<>(Arrays.asList(1L, 2L, 3L)), getAllAllFunction);
+
+    assertThat(valueHolderMap.size(), is(3));
+    assertThat(valueHolderMap.get(1L).value(), is("one"));
+    assertThat(valueHolderMap.containsKey(2L), is(true));
+    assertThat(valueHolderMap.get(2L), nullValue());
+    assertThat(valueHolderMap.containsKey(3L), is(true));
+    assertThat(valueHolderMap.get(3L), nullValue());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBulkComputeIfAbsentGetAllTimeout() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    when(proxy.getAll(any())).thenThrow(TimeoutException.class);
+    ClusteredStore<Long, String> store = new ClusteredStore<>(null, null, proxy, null);
+    Ehcache.GetAllFunction<Long, String> getAllAllFunction = new Ehcache.GetAllFunction<>();
+    Map<Long, Store.ValueHolder<String>> valueHolderMap = store.bulkComputeIfAbsent(new HashSet<>(Arrays.asList(1L, 2L)), getAllAllFunction);
+
+    assertThat(valueHolderMap.size(), is(2));
+    assertThat(valueHolderMap.get(1L), nullValue());
+    assertThat(valueHolderMap.get(2L), nullValue());
+    verify(proxy, never()).get(anyLong());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBulkComputeIfAbsentGetAllIsBatched() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    when(proxy.getAll(any())).thenThrow(TimeoutException.class).thenReturn(Collections.emptyMap());
+    ClusteredStore<Long, String> store = new ClusteredStore<>(null, null, proxy, null);
+    Set<Long> keys = LongStream.range(0, 2 * DEFAULT_BULK_BATCH_SIZE + 1).boxed().collect(toSet());
+    Ehcache.GetAllFunction<Long, String> getAllAllFunction = new Ehcache.GetAllFunction<>();
+    Map<Long, Store.ValueHolder<String>> valueHolderMap = store.bulkComputeIfAbsent(keys, getAllAllFunction);
+
+    // the timeout of the first batch leaves the other ones alone
+    assertThat(valueHolderMap.keySet(), is(keys));
+    ArgumentCaptor<Set<Long>> batches = ArgumentCaptor.forClass(Set.class);
+    verify(proxy, times(3)).getAll(batches.capture());
+    for (Set<Long> batch : batches.getAllValues()) {
+      assertThat(batch.size(), lessThanOrEqualTo(DEFAULT_BULK_BATCH_SIZE));
+    }
+  }
+
   @Test(expected = UnsupportedOperationException.class)
   public void testBulkComputeIfAbsentThrowsForGenericFunction() throws Exception {
     @SuppressWarnings("unchecked")
@@ -33,14 +33,21 @@ import org.junit.Test;
 import org.terracotta.connection.Connection;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
 import static org.ehcache.clustered.common.internal.store.Util.getChain;
 import static org.ehcache.clustered.common.internal.store.Util.readPayLoad;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 public class CommonServerStoreProxyTest {
@@ -117,6 +124,99 @@ public class CommonServerStoreProxyTest {
     assertChainHas(chain, 3L, 33L, 333l);
   }
 
+  @Test
+  public void testIterator() throws Exception {
+    for (long key = 1000L; key < 1010L; key++) {
+      serverStoreProxy.append(key, createPayload(key));
+    }
+    serverStoreProxy.append(1000L, createPayload(10000L));
+
+    Map<Long, Chain> chains = new HashMap<>();
+    ServerStoreProxy.ChainIterator iterator = serverStoreProxy.iterator(3);
+    while (iterator.hasNext()) {
+      Map.Entry<Long, Chain> next = iterator.next();
+      assertThat(chains.put(next.getKey(), next.getValue()), nullValue());
+    }
+
+    for (long key = 1001L; key < 1010L; key++) {
+      assertChainHas(chains.get(key), key);
+    }
+    assertChainHas(chains.get(1000L), 1000L, 10000L);
+    for (Chain chain : chains.values()) {
+      assertThat(chain.isEmpty(), is(false));
+    }
+  }
+
+  @Test
+  public void testGetAll() throws Exception {
+    serverStoreProxy.append(6L, createPayload(6L));
+    serverStoreProxy.append(6L, createPayload(66L));
+    serverStoreProxy.append(7L, createPayload(7L));
+
+    Map<Long, Chain> chains = serverStoreProxy.getAll(new HashSet<>(Arrays.asList(6L, 7L, 8L)));
+
+    assertThat(chains.size(), is(3));
+    assertChainHas(chains.get(6L), 6L, 66L);
+    assertChainHas(chains.get(7L), 7L);
+    assertThat(chains.get(8L).isEmpty(), is(true));
+  }
+
+  @Test
+  public void testGetAndAppendAll() throws Exception {
+    serverStoreProxy.append(9L, createPayload(9L));
+
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    payloads.put(9L, Arrays.asList(createPayload(99L), createPayload(999L)));
+    payloads.put(10L, Collections.singletonList(createPayload(10L)));
+    Map<Long, Chain> chains = serverStoreProxy.getAndAppendAll(payloads);
+
+    assertThat(chains.size(), is(2));
+    assertChainHas(chains.get(9L), 9L);
+    assertThat(chains.get(10L).isEmpty(), is(true));
+    assertChainHas(serverStoreProxy.get(9L), 9L, 99L, 999L);
+    assertChainHas(serverStoreProxy.get(10L), 10L);
+  }
+
+  @Test
+  public void testAppendAllAcrossSegments() throws Exception {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    payloads.put(14L, Collections.singletonList(createPayload(14L)));
+    payloads.put(30L, Arrays.asList(createPayload(30L), createPayload(300L)));
+    payloads.put(15L, Collections.singletonList(createPayload(15L)));
+    serverStoreProxy.appendAll(payloads);
+
+    Map<Long, Chain> chains = serverStoreProxy.getAll(payloads.keySet());
+    assertChainHas(chains.get(14L), 14L);
+    assertChainHas(chains.get(30L), 30L, 300L);
+    assertChainHas(chains.get(15L), 15L);
+  }
+
+  @Test
+  public void testGetAndAppendAsync() throws Exception {
+    Chain chain = serverStoreProxy.getAndAppendAsync(11L, createPayload(11L)).toCompletableFuture().get();
+    assertThat(chain.isEmpty(), is(true));
+
+    chain = serverStoreProxy.getAndAppendAsync(11L, createPayload(111L)).toCompletableFuture().get();
+    assertChainHas(chain, 11L);
+
+    assertChainHas(serverStoreProxy.getAsync(11L).toCompletableFuture().get(), 11L, 111L);
+  }
+
+  @Test
+  public void testGetAndAppendAllAsync() throws Exception {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    payloads.put(12L, Collections.singletonList(createPayload(12L)));
+    payloads.put(13L, Arrays.asList(createPayload(13L), createPayload(133L)));
+    Map<Long, Chain> chains = serverStoreProxy.getAndAppendAllAsync(payloads).toCompletableFuture().get();
+
+    assertThat(chains.get(12L).isEmpty(), is(true));
+    assertThat(chains.get(13L).isEmpty(), is(true));
+
+    chains = serverStoreProxy.getAllAsync(new HashSet<>(Arrays.asList(12L, 13L))).toCompletableFuture().get();
+    assertChainHas(chains.get(12L), 12L);
+    assertChainHas(chains.get(13L), 13L, 133L);
+  }
+
   @Test
   public void testGetAndAppendKeyNotPresent() throws Exception {
     Chain chain = serverStoreProxy.getAndAppend(4L, createPayload(4L));
@@ -0,0 +1,101 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.client.internal.store;
+
+import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
+import org.junit.After;
+import org.junit.Test;
+import org.terracotta.entity.InvokeFuture;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InvokeFutureCompleterTest {
+
+  private final InvokeFutureCompleter completer = new InvokeFutureCompleter("test completer");
+
+  @After
+  public void tearDown() {
+    completer.close();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCompletesWithResponse() throws Exception {
+    EhcacheEntityResponse response = mock(EhcacheEntityResponse.class);
+    CountDownLatch responded = new CountDownLatch(1);
+    InvokeFuture<EhcacheEntityResponse> future = mock(InvokeFuture.class);
+    when(future.getWithTimeout(anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+      responded.await();
+      return response;
+    });
+
+    CompletableFuture<EhcacheEntityResponse> stage = completer.complete(future, TimeUnit.SECONDS.toNanos(30)).toCompletableFuture();
+    responded.countDown();
+
+    assertThat(stage.get(30, TimeUnit.SECONDS), sameInstance(response));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCompletesWithTimeout() throws Exception {
+    InvokeFuture<EhcacheEntityResponse> future = mock(InvokeFuture.class);
+    when(future.getWithTimeout(anyLong(), any(TimeUnit.class))).thenThrow(new TimeoutException());
+
+    CompletableFuture<EhcacheEntityResponse> stage = completer.complete(future, TimeUnit.MILLISECONDS.toNanos(10)).toCompletableFuture();
+    try {
+      stage.get(30, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(TimeoutException.class));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCloseFailsPendingInvocations() throws Exception {
+    CountDownLatch waiting = new CountDownLatch(1);
+    InvokeFuture<EhcacheEntityResponse> future = mock(InvokeFuture.class);
+    when(future.getWithTimeout(anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+      waiting.countDown();
+      new CountDownLatch(1).await();
+      return null;
+    });
+
+    CompletableFuture<EhcacheEntityResponse> stage = completer.complete(future, TimeUnit.SECONDS.toNanos(30)).toCompletableFuture();
+    waiting.await();
+    completer.close();
+
+    try {
+      stage.get(30, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+}
@@ -23,20 +23,27 @@ import org.ehcache.clustered.client.internal.UnitTestConnectionService.Passthrou
 import org.ehcache.clustered.common.Consistency;
 import org.ehcache.clustered.common.ServerSideConfiguration;
 import org.ehcache.clustered.common.internal.ServerStoreConfiguration;
+import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
+import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponseFactory;
+import org.ehcache.clustered.common.internal.messages.EhcacheMessageType;
 import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.impl.serialization.LongSerializer;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.terracotta.connection.Connection;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -44,15 +51,27 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.ehcache.clustered.common.internal.store.Util.chainsEqual;
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
+import static org.ehcache.clustered.common.internal.store.Util.getChain;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class StrongServerStoreProxyTest {
 
@@ -202,6 +221,7 @@ public class StrongServerStoreProxyTest {
   @Test
   public void testConcurrentHashInvalidationListenerWithAppend() throws Exception {
     final AtomicBoolean invalidating = new AtomicBoolean();
+    final CountDownLatch started = new CountDownLatch(2);
     final CountDownLatch latch = new CountDownLatch(2);
 
     ServerStoreProxy.InvalidationListener listener = new ServerStoreProxy.InvalidationListener() {
@@ -211,7 +231,8 @@ public class StrongServerStoreProxyTest {
           fail("Both threads entered the listener concurrently");
         }
         try {
-          Thread.sleep(100);
+          // keeps the listener busy until both appends are under way
+          started.await(5, TimeUnit.SECONDS);
         } catch (InterruptedException ie) {
           throw new AssertionError(ie);
         }
@@ -227,10 +248,12 @@ public class StrongServerStoreProxyTest {
     serverStoreProxy2.addInvalidationListener(listener);
 
     EXECUTOR_SERVICE.submit(() -> {
+      started.countDown();
       serverStoreProxy1.append(1L, createPayload(1L));
       return null;
     });
     EXECUTOR_SERVICE.submit(() -> {
+      started.countDown();
       serverStoreProxy1.append(1L, createPayload(1L));
       return null;
     });
@@ -241,6 +264,64 @@ public class StrongServerStoreProxyTest {
     serverStoreProxy2.removeInvalidationListener(listener);
   }
 
+  @Test
+  public void testConcurrentAppendsAreGroupedWhileInvalidating() throws Exception {
+    final AtomicInteger invalidations = new AtomicInteger();
+    final CountDownLatch invalidating = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    ServerStoreProxy.InvalidationListener listener = new ServerStoreProxy.InvalidationListener() {
+      @Override
+      public void onInvalidateHash(long hash) {
+        if (invalidations.incrementAndGet() == 1) {
+          invalidating.countDown();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException ie) {
+            throw new AssertionError(ie);
+          }
+        }
+      }
+
+      @Override
+      public void onInvalidateAll() {
+        throw new AssertionError("Should not be called");
+      }
+    };
+    serverStoreProxy2.addInvalidationListener(listener);
+
+    Future<Object> first = EXECUTOR_SERVICE.submit(() -> {
+      serverStoreProxy1.append(42L, createPayload(1L));
+      return null;
+    });
+    assertThat(invalidating.await(5, TimeUnit.SECONDS), is(true));
+
+    List<Future<Chain>> grouped = new ArrayList<>();
+    for (long i = 2L; i <= 4L; i++) {
+      final long value = i;
+      grouped.add(EXECUTOR_SERVICE.submit(() -> serverStoreProxy1.getAndAppend(42L, createPayload(value))));
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (serverStoreProxy1.groupedAppendCount(42L) < 3) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Appends were not grouped");
+      }
+      Thread.yield();
+    }
+    release.countDown();
+
+    first.get(5, TimeUnit.SECONDS);
+    List<Integer> chainLengths = new ArrayList<>();
+    for (Future<Chain> future : grouped) {
+      chainLengths.add(length(future.get(5, TimeUnit.SECONDS)));
+    }
+    assertThat(chainLengths, containsInAnyOrder(1, 2, 3));
+    assertThat(invalidations.get(), is(2));
+    assertThat(length(serverStoreProxy1.get(42L)), is(4));
+
+    serverStoreProxy2.removeInvalidationListener(listener);
+  }
+
   @Test
   public void testHashInvalidationListenerWithGetAndAppend() throws Exception {
     final AtomicReference<Long> invalidatedHash = new AtomicReference<>();
@@ -289,6 +370,7 @@ public class StrongServerStoreProxyTest {
   @Test
   public void testConcurrentAllInvalidationListener() throws Exception {
     final AtomicBoolean invalidating = new AtomicBoolean();
+    final CountDownLatch started = new CountDownLatch(2);
     final CountDownLatch latch = new CountDownLatch(2);
 
     ServerStoreProxy.InvalidationListener listener = new ServerStoreProxy.InvalidationListener() {
@@ -303,7 +385,8 @@ public class StrongServerStoreProxyTest {
           fail("Both threads entered the listener concurrently");
         }
         try {
-          Thread.sleep(100);
+          // keeps the listener busy until both clears are under way
+          started.await(5, TimeUnit.SECONDS);
         } catch (InterruptedException ie) {
           throw new AssertionError(ie);
         }
@@ -314,10 +397,12 @@ public class StrongServerStoreProxyTest {
     serverStoreProxy2.addInvalidationListener(listener);
 
     EXECUTOR_SERVICE.submit(() -> {
+      started.countDown();
       serverStoreProxy1.clear();
       return null;
     });
     EXECUTOR_SERVICE.submit(() -> {
+      started.countDown();
       serverStoreProxy1.clear();
       return null;
     });
@@ -329,6 +414,70 @@ public class StrongServerStoreProxyTest {
     serverStoreProxy2.removeInvalidationListener(listener);
   }
 
+  @Test
+  public void testGroupedAppendsNotNeedingTheChainAreSentAppendOnly() throws Exception {
+    ClusterTierClientEntity entity = mock(ClusterTierClientEntity.class);
+    when(entity.isConnected()).thenReturn(true);
+    when(entity.invokeServerStoreOperation(any(), anyBoolean())).thenReturn(EhcacheEntityResponse.Success.INSTANCE);
+    when(entity.submitServerStoreOperation(any(), anyBoolean())).thenReturn(CompletableFuture.completedFuture(EhcacheEntityResponse.Success.INSTANCE));
+    StrongServerStoreProxy serverStoreProxy = new StrongServerStoreProxy(CACHE_IDENTIFIER, new ServerStoreMessageFactory(), entity);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<ClusterTierClientEntity.ResponseListener<EhcacheEntityResponse.HashInvalidationDone>> invalidationDone =
+      ArgumentCaptor.forClass(ClusterTierClientEntity.ResponseListener.class);
+    verify(entity).addResponseListener(eq(EhcacheEntityResponse.HashInvalidationDone.class), invalidationDone.capture());
+
+    List<Future<Object>> appends = new ArrayList<>();
+    for (long i = 1L; i <= 3L; i++) {
+      final long value = i;
+      appends.add(EXECUTOR_SERVICE.submit(() -> {
+        serverStoreProxy.append(42L, createPayload(value));
+        return null;
+      }));
+      if (i == 1L) {
+        verify(entity, timeout(5000)).invokeServerStoreOperation(argThat(message -> message.getMessageType() == EhcacheMessageType.APPEND), eq(true));
+      }
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (serverStoreProxy.groupedAppendCount(42L) < 2) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Appends were not grouped");
+      }
+      Thread.yield();
+    }
+
+    invalidationDone.getValue().onResponse(EhcacheEntityResponse.hashInvalidationDone(42L));
+    verify(entity, timeout(5000)).submitServerStoreOperation(argThat(message -> message.getMessageType() == EhcacheMessageType.APPEND_ALL), eq(true));
+    invalidationDone.getValue().onResponse(EhcacheEntityResponse.hashInvalidationDone(42L));
+    for (Future<Object> append : appends) {
+      append.get(5, TimeUnit.SECONDS);
+    }
+    verify(entity, never()).submitServerStoreOperation(argThat(message -> message.getMessageType() == EhcacheMessageType.GET_AND_APPEND_ALL), anyBoolean());
+  }
+
+  @Test
+  public void testStalledHashInvalidationIsPolledWithoutFurtherOperations() throws Exception {
+    ClusterTierClientEntity entity = mock(ClusterTierClientEntity.class);
+    when(entity.isConnected()).thenReturn(true);
+    when(entity.invokeServerStoreOperation(any(), anyBoolean())).thenReturn(new EhcacheEntityResponseFactory().response(getChain(false)));
+    StrongServerStoreProxy serverStoreProxy = new StrongServerStoreProxy(CACHE_IDENTIFIER, new ServerStoreMessageFactory(), entity);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<ClusterTierClientEntity.ResponseListener<EhcacheEntityResponse.HashInvalidationDone>> invalidationDone =
+      ArgumentCaptor.forClass(ClusterTierClientEntity.ResponseListener.class);
+    verify(entity).addResponseListener(eq(EhcacheEntityResponse.HashInvalidationDone.class), invalidationDone.capture());
+
+    Future<Object> append = EXECUTOR_SERVICE.submit(() -> {
+      serverStoreProxy.append(1L, createPayload(1L));
+      return null;
+    });
+
+    // the ack of another client got lost: nothing but the waiting writer can get the server to flush its queue
+    verify(entity, timeout(5000)).invokeServerStoreOperation(argThat(message -> message.getMessageType() == EhcacheMessageType.GET_STORE), eq(false));
+    assertThat(append.isDone(), is(false));
+
+    invalidationDone.getValue().onResponse(EhcacheEntityResponse.hashInvalidationDone(1L));
+    append.get(5, TimeUnit.SECONDS);
+  }
+
   @Test
   public void testAppendInvalidationUnblockedByDisconnection() throws Exception {
     ServerStoreProxy.InvalidationListener listener = new ServerStoreProxy.InvalidationListener() {
@@ -380,4 +529,12 @@ public class StrongServerStoreProxyTest {
     serverStoreProxy2.removeInvalidationListener(listener);
     clientEntity1.setConnected(true);
   }
+
+  private static int length(Chain chain) {
+    int length = 0;
+    for (Element element : chain) {
+      length++;
+    }
+    return length;
+  }
 }
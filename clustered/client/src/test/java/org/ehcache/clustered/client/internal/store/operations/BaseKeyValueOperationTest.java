@@ -17,6 +17,7 @@
 package org.ehcache.clustered.client.internal.store.operations;
 
 import org.ehcache.clustered.client.TestTimeSource;
+import org.ehcache.clustered.common.internal.store.OperationEncoding;
 import org.ehcache.impl.serialization.LongSerializer;
 import org.ehcache.impl.serialization.StringSerializer;
 import org.ehcache.spi.serialization.Serializer;
@@ -61,6 +62,18 @@ public abstract class BaseKeyValueOperationTest {
     assertArrayEquals(expected.array(), byteBuffer.array());
   }
 
+  @Test
+  public void testEncodingMatchesTheLayoutTheServerCompactsBy() throws Exception {
+    Long key = 12L;
+    Operation<Long, String> operation = getNewOperation(key, "The value", -42L);
+    ByteBuffer byteBuffer = operation.encode(keySerializer, valueSerializer);
+
+    assertEquals(getOperationCode().getValue(), byteBuffer.get(OperationEncoding.OPERATION_CODE_OFFSET));
+    assertEquals(-42L, byteBuffer.getLong(OperationEncoding.TIMESTAMP_OFFSET));
+    assertEquals(LONG_SIZE_BYTES, byteBuffer.getInt(OperationEncoding.KEY_OFFSET));
+    assertEquals(key.longValue(), byteBuffer.getLong(OperationEncoding.KEY_VALUE_KEY_OFFSET));
+  }
+
   @Test
   public void testDecode() throws Exception {
     Long key = 12L;
@@ -17,6 +17,7 @@
 package org.ehcache.clustered.client.internal.store.operations;
 
 import org.ehcache.clustered.client.TestTimeSource;
+import org.ehcache.clustered.common.internal.store.OperationEncoding;
 import org.ehcache.impl.serialization.LongSerializer;
 import org.ehcache.impl.serialization.StringSerializer;
 import org.ehcache.spi.serialization.Serializer;
@@ -49,6 +50,18 @@ public class RemoveOperationTest {
     assertArrayEquals(expected.array(), byteBuffer.array());
   }
 
+  @Test
+  public void testEncodingMatchesTheLayoutTheServerCompactsBy() throws Exception {
+    Long key = 12L;
+    RemoveOperation<Long, String> operation = new RemoveOperation<>(key, 42L);
+    ByteBuffer byteBuffer = operation.encode(keySerializer, valueSerializer);
+
+    assertEquals(OperationEncoding.REMOVE, byteBuffer.get(OperationEncoding.OPERATION_CODE_OFFSET));
+    assertEquals(42L, byteBuffer.getLong(OperationEncoding.TIMESTAMP_OFFSET));
+    assertEquals(key.longValue(), byteBuffer.getLong(OperationEncoding.KEY_OFFSET));
+    assertEquals(OperationEncoding.KEY_OFFSET + LONG_SIZE_BYTES, byteBuffer.limit());
+  }
+
   @Test
   public void testDecode() throws Exception {
     Long key = 12L;
@@ -24,7 +24,7 @@ public class EhcacheEntityVersion {
   /**
    * Entity version
    */
-  public static final long ENTITY_VERSION = 10L;
+  public static final long ENTITY_VERSION = 11L;
 
   private EhcacheEntityVersion() {
     // Only to be used for the version static field
@@ -23,6 +23,7 @@ public class ClusterTierReconnectMessage {
 
   private final Set<Long> hashInvalidationsInProgress;
   private boolean clearInProgress = false;
+  private boolean invalidationBatchesSupported = true;
 
   public ClusterTierReconnectMessage() {
     hashInvalidationsInProgress = new HashSet<>();
@@ -48,4 +49,12 @@ public class ClusterTierReconnectMessage {
     return clearInProgress;
   }
 
+  public void setInvalidationBatchesSupported(boolean invalidationBatchesSupported) {
+    this.invalidationBatchesSupported = invalidationBatchesSupported;
+  }
+
+  public boolean isInvalidationBatchesSupported() {
+    return invalidationBatchesSupported;
+  }
+
 }
@@ -21,6 +21,7 @@ import org.ehcache.clustered.common.internal.exceptions.ClusterException;
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.terracotta.entity.EntityResponse;
 
+import java.util.Map;
 import java.util.Set;
 
 public abstract class EhcacheEntityResponse implements EntityResponse {
@@ -61,14 +62,32 @@ public abstract class EhcacheEntityResponse implements EntityResponse {
 
   public static class GetResponse extends EhcacheEntityResponse {
 
-    private final Chain chain;
+    private volatile Chain chain;
+    private final byte[] encoded;
 
     GetResponse(Chain chain) {
       this.chain = chain;
+      this.encoded = null;
+    }
+
+    /**
+     * A response already encoded by {@link ResponseCodec#encodeGetResponse(Chain)}, sent as is.
+     */
+    GetResponse(byte[] encoded) {
+      this.chain = null;
+      this.encoded = encoded;
     }
 
     public Chain getChain() {
-      return chain;
+      Chain decoded = chain;
+      if (decoded == null) {
+        chain = decoded = ResponseCodec.decodeGetResponseChain(encoded);
+      }
+      return decoded;
+    }
+
+    byte[] getEncoded() {
+      return encoded;
     }
 
     @Override
@@ -77,6 +96,60 @@ public abstract class EhcacheEntityResponse implements EntityResponse {
     }
   }
 
+  public static class GetAllResponse extends EhcacheEntityResponse {
+
+    private final Map<Long, Chain> chains;
+
+    GetAllResponse(Map<Long, Chain> chains) {
+      this.chains = chains;
+    }
+
+    public Map<Long, Chain> getChains() {
+      return chains;
+    }
+
+    @Override
+    public final EhcacheResponseType getResponseType() {
+      return EhcacheResponseType.GET_ALL_RESPONSE;
+    }
+  }
+
+  public static class IteratorBatch extends EhcacheEntityResponse {
+
+    private final int iteratorId;
+    private final Map<Long, Chain> chains;
+    private final boolean last;
+
+    IteratorBatch(int iteratorId, Map<Long, Chain> chains, boolean last) {
+      this.iteratorId = iteratorId;
+      this.chains = chains;
+      this.last = last;
+    }
+
+    public int getIteratorId() {
+      return iteratorId;
+    }
+
+    /**
+     * @return the non empty chains of the batch, keyed by hash in iteration order
+     */
+    public Map<Long, Chain> getChains() {
+      return chains;
+    }
+
+    /**
+     * @return {@code true} if the server side iterator is exhausted, and was released
+     */
+    public boolean isLast() {
+      return last;
+    }
+
+    @Override
+    public final EhcacheResponseType getResponseType() {
+      return EhcacheResponseType.ITERATOR_BATCH;
+    }
+  }
+
   public static HashInvalidationDone hashInvalidationDone(long key) {
     return new HashInvalidationDone(key);
   }
@@ -161,6 +234,33 @@ public abstract class EhcacheEntityResponse implements EntityResponse {
     }
   }
 
+  public static ClientInvalidateHashes clientInvalidateHashes(Map<Integer, Long> invalidations) {
+    return new ClientInvalidateHashes(invalidations);
+  }
+
+  /**
+   * Several hash invalidations sent together to a client, which acknowledges them all at once.
+   */
+  public static class ClientInvalidateHashes extends EhcacheEntityResponse {
+    private final Map<Integer, Long> invalidations;
+
+    public ClientInvalidateHashes(Map<Integer, Long> invalidations) {
+      this.invalidations = invalidations;
+    }
+
+    /**
+     * @return the invalidated keys, by invalidation id
+     */
+    public Map<Integer, Long> getInvalidations() {
+      return invalidations;
+    }
+
+    @Override
+    public final EhcacheResponseType getResponseType() {
+      return EhcacheResponseType.CLIENT_INVALIDATE_HASHES;
+    }
+  }
+
   public static ClientInvalidateAll clientInvalidateAll(int invalidationId) {
     return new ClientInvalidateAll(invalidationId);
   }
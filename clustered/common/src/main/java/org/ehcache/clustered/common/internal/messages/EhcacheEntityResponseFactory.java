@@ -19,6 +19,8 @@ package org.ehcache.clustered.common.internal.messages;
 import org.ehcache.clustered.common.internal.exceptions.ClusterException;
 import org.ehcache.clustered.common.internal.store.Chain;
 
+import java.util.Map;
+
 public class EhcacheEntityResponseFactory {
 
   public EhcacheEntityResponse success() {
@@ -32,4 +34,20 @@ public class EhcacheEntityResponseFactory {
   public EhcacheEntityResponse response(Chain chain) {
     return new EhcacheEntityResponse.GetResponse(chain);
   }
+
+  /**
+   * Same as {@link #response(Chain)}, but encodes the response right away: {@code chain} can then be a view that
+   * is only valid for the duration of the call.
+   */
+  public EhcacheEntityResponse encodedResponse(Chain chain) {
+    return new EhcacheEntityResponse.GetResponse(ResponseCodec.encodeGetResponse(chain));
+  }
+
+  public EhcacheEntityResponse response(Map<Long, Chain> chains) {
+    return new EhcacheEntityResponse.GetAllResponse(chains);
+  }
+
+  public EhcacheEntityResponse iteratorBatch(int iteratorId, Map<Long, Chain> chains, boolean last) {
+    return new EhcacheEntityResponse.IteratorBatch(iteratorId, chains, last);
+  }
 }
@@ -42,6 +42,12 @@ public enum EhcacheMessageType {
   CLIENT_INVALIDATION_ALL_ACK,
   CLEAR,
   GET_STORE,
+  GET_ALL_STORE,
+  GET_AND_APPEND_ALL,
+  CLIENT_INVALIDATION_BATCH_ACK,
+  ITERATOR_OPEN,
+  ITERATOR_ADVANCE,
+  APPEND_ALL,
 
   // StateRepository operation messages
   GET_STATE_REPO,
@@ -51,7 +57,8 @@ public enum EhcacheMessageType {
   // Passive replication messages
   CHAIN_REPLICATION_OP,
   CLEAR_INVALIDATION_COMPLETE,
-  INVALIDATION_COMPLETE;
+  INVALIDATION_COMPLETE,
+  BULK_CHAIN_REPLICATION_OP;
 
   public static final String MESSAGE_TYPE_FIELD_NAME = "opCode";
   public static final int MESSAGE_TYPE_FIELD_INDEX = 10;
@@ -67,6 +74,12 @@ public enum EhcacheMessageType {
     .mapping(CLIENT_INVALIDATION_ALL_ACK, 25)
     .mapping(CLEAR, 26)
     .mapping(GET_STORE, 27)
+    .mapping(GET_ALL_STORE, 28)
+    .mapping(GET_AND_APPEND_ALL, 29)
+    .mapping(CLIENT_INVALIDATION_BATCH_ACK, 30)
+    .mapping(ITERATOR_OPEN, 31)
+    .mapping(ITERATOR_ADVANCE, 32)
+    .mapping(APPEND_ALL, 33)
 
     .mapping(GET_STATE_REPO, 41)
     .mapping(PUT_IF_ABSENT, 42)
@@ -75,6 +88,7 @@ public enum EhcacheMessageType {
     .mapping(CHAIN_REPLICATION_OP, 61)
     .mapping(CLEAR_INVALIDATION_COMPLETE, 63)
     .mapping(INVALIDATION_COMPLETE, 64)
+    .mapping(BULK_CHAIN_REPLICATION_OP, 65)
     .build();
 
   public static final EnumSet<EhcacheMessageType> LIFECYCLE_MESSAGES = of(VALIDATE, VALIDATE_SERVER_STORE, PREPARE_FOR_DESTROY);
@@ -82,7 +96,7 @@ public enum EhcacheMessageType {
     return LIFECYCLE_MESSAGES.contains(value);
   }
 
-  public static final EnumSet<EhcacheMessageType> STORE_OPERATION_MESSAGES = of(GET_AND_APPEND, APPEND, REPLACE, CLIENT_INVALIDATION_ACK, CLIENT_INVALIDATION_ALL_ACK, CLEAR, GET_STORE);
+  public static final EnumSet<EhcacheMessageType> STORE_OPERATION_MESSAGES = of(GET_AND_APPEND, APPEND, REPLACE, CLIENT_INVALIDATION_ACK, CLIENT_INVALIDATION_ALL_ACK, CLEAR, GET_STORE, GET_ALL_STORE, GET_AND_APPEND_ALL, CLIENT_INVALIDATION_BATCH_ACK, ITERATOR_OPEN, ITERATOR_ADVANCE, APPEND_ALL);
   public static boolean isStoreOperationMessage(EhcacheMessageType value) {
     return STORE_OPERATION_MESSAGES.contains(value);
   }
@@ -97,18 +111,21 @@ public enum EhcacheMessageType {
    * to do it twice. The same list if used for passive and active. However, of course, according to the {@code EhcacheExecutionStrategy}, the following will happen
    * <ul>
    *   <li>{@link #CHAIN_REPLICATION_OP}: Received by the passive. This message will be transformed to look like the original GET_AND_APPEND and its response</li>
+   *   <li>{@link #BULK_CHAIN_REPLICATION_OP}: Received by the passive. This message will be transformed to look like the original GET_AND_APPEND_ALL or APPEND_ALL and its response</li>
    *   <li>{@link #PUT_IF_ABSENT}: Received by both</li>
    *   <li>{@link #GET_AND_APPEND}: Received by the active (which will then send a passive replication message to the passive)</li>
    *   <li>{@link #APPEND}: Received by the active (which will then send a passive replication message to the passive)</li>
+   *   <li>{@link #GET_AND_APPEND_ALL}: Received by the active (which will then send a single passive replication message for the whole batch to the passive)</li>
+   *   <li>{@link #APPEND_ALL}: Received by the active (which will then send a single passive replication message for the whole batch to the passive)</li>
    *   <li>{@link #CLEAR}: Received by both</li>
    * </ul>
    */
-  public static final EnumSet<EhcacheMessageType> TRACKED_OPERATION_MESSAGES = of(CHAIN_REPLICATION_OP, PUT_IF_ABSENT, GET_AND_APPEND, APPEND, CLEAR);
+  public static final EnumSet<EhcacheMessageType> TRACKED_OPERATION_MESSAGES = of(CHAIN_REPLICATION_OP, BULK_CHAIN_REPLICATION_OP, PUT_IF_ABSENT, GET_AND_APPEND, APPEND, GET_AND_APPEND_ALL, APPEND_ALL, CLEAR);
   public static boolean isTrackedOperationMessage(EhcacheMessageType value) {
     return TRACKED_OPERATION_MESSAGES.contains(value);
   }
 
-  public static final EnumSet<EhcacheMessageType> PASSIVE_REPLICATION_MESSAGES = of(CHAIN_REPLICATION_OP, CLEAR_INVALIDATION_COMPLETE, INVALIDATION_COMPLETE);
+  public static final EnumSet<EhcacheMessageType> PASSIVE_REPLICATION_MESSAGES = of(CHAIN_REPLICATION_OP, CLEAR_INVALIDATION_COMPLETE, INVALIDATION_COMPLETE, BULK_CHAIN_REPLICATION_OP);
   public static boolean isPassiveReplicationMessage(EhcacheMessageType value) {
     return PASSIVE_REPLICATION_MESSAGES.contains(value);
   }
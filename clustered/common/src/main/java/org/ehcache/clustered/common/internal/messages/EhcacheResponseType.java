@@ -33,7 +33,10 @@ public enum EhcacheResponseType {
   SERVER_INVALIDATE_HASH,
   MAP_VALUE,
   ALL_INVALIDATION_DONE,
-  PREPARE_FOR_DESTROY;
+  PREPARE_FOR_DESTROY,
+  GET_ALL_RESPONSE,
+  CLIENT_INVALIDATE_HASHES,
+  ITERATOR_BATCH;
 
 
   public static final String RESPONSE_TYPE_FIELD_NAME = "opCode";
@@ -49,5 +52,8 @@ public enum EhcacheResponseType {
     .mapping(EhcacheResponseType.SERVER_INVALIDATE_HASH, 87)
     .mapping(EhcacheResponseType.MAP_VALUE, 88)
     .mapping(EhcacheResponseType.PREPARE_FOR_DESTROY, 89)
+    .mapping(EhcacheResponseType.GET_ALL_RESPONSE, 90)
+    .mapping(EhcacheResponseType.CLIENT_INVALIDATE_HASHES, 91)
+    .mapping(EhcacheResponseType.ITERATOR_BATCH, 92)
     .build();
 }
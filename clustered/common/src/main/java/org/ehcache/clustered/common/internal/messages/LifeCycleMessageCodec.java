@@ -34,6 +34,7 @@ import static org.terracotta.runnel.StructBuilder.newStructBuilder;
 public class LifeCycleMessageCodec {
 
   private static final String CONFIG_PRESENT_FIELD = "configPresent";
+  private static final String INVALIDATION_BATCHES_SUPPORTED_FIELD = "invalidationBatchesSupported";
 
   private final StructBuilder VALIDATE_MESSAGE_STRUCT_BUILDER_PREFIX = newStructBuilder()
     .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
@@ -61,8 +62,11 @@ public class LifeCycleMessageCodec {
     validateMessageStruct = this.configCodec.injectServerSideConfiguration(
       VALIDATE_MESSAGE_STRUCT_BUILDER_PREFIX, CONFIGURE_MESSAGE_NEXT_INDEX).getUpdatedBuilder().build();
 
-    validateStoreMessageStruct = this.configCodec.injectServerStoreConfiguration(
-      VALIDATE_STORE_MESSAGE_STRUCT_BUILDER_PREFIX, VALIDATE_STORE_NEXT_INDEX).getUpdatedBuilder().build();
+    ConfigCodec.InjectTuple validateStoreTuple = this.configCodec.injectServerStoreConfiguration(
+      VALIDATE_STORE_MESSAGE_STRUCT_BUILDER_PREFIX, VALIDATE_STORE_NEXT_INDEX);
+    validateStoreMessageStruct = validateStoreTuple.getUpdatedBuilder()
+      .bool(INVALIDATION_BATCHES_SUPPORTED_FIELD, validateStoreTuple.getLastIndex() + 10)
+      .build();
   }
 
   public byte[] encode(LifecycleMessage message) {
@@ -90,6 +94,7 @@ public class LifeCycleMessageCodec {
 
     encoder.string(SERVER_STORE_NAME_FIELD, message.getName());
     configCodec.encodeServerStoreConfiguration(encoder, message.getStoreConfiguration());
+    encoder.bool(INVALIDATION_BATCHES_SUPPORTED_FIELD, message.isInvalidationBatchesSupported());
     return encoder.encode().array();
   }
 
@@ -128,8 +133,10 @@ public class LifeCycleMessageCodec {
 
     String storeName = decoder.string(SERVER_STORE_NAME_FIELD);
     ServerStoreConfiguration config = configCodec.decodeServerStoreConfiguration(decoder);
+    // absent from the messages of older clients
+    Boolean invalidationBatchesSupported = decoder.bool(INVALIDATION_BATCHES_SUPPORTED_FIELD);
 
-    return new LifecycleMessage.ValidateServerStore(storeName, config);
+    return new LifecycleMessage.ValidateServerStore(storeName, config, invalidationBatchesSupported != null && invalidationBatchesSupported);
   }
 
   private LifecycleMessage.ValidateStoreManager decodeValidateMessage(ByteBuffer messageBuffer) {
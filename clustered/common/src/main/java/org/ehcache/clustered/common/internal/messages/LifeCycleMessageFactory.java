@@ -26,7 +26,7 @@ public class LifeCycleMessageFactory {
   }
 
   public LifecycleMessage validateServerStore(String name, ServerStoreConfiguration serverStoreConfiguration) {
-    return new LifecycleMessage.ValidateServerStore(name, serverStoreConfiguration);
+    return new LifecycleMessage.ValidateServerStore(name, serverStoreConfiguration, true);
   }
 
   public LifecycleMessage prepareForDestroy() {
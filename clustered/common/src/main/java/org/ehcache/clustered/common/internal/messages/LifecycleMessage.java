@@ -48,10 +48,12 @@ public abstract class LifecycleMessage extends EhcacheOperationMessage implement
 
     private final String name;
     private final ServerStoreConfiguration storeConfiguration;
+    private final boolean invalidationBatchesSupported;
 
-    ValidateServerStore(String name, ServerStoreConfiguration storeConfiguration) {
+    ValidateServerStore(String name, ServerStoreConfiguration storeConfiguration, boolean invalidationBatchesSupported) {
       this.name = name;
       this.storeConfiguration = storeConfiguration;
+      this.invalidationBatchesSupported = invalidationBatchesSupported;
     }
 
     public String getName() {
@@ -62,6 +64,16 @@ public abstract class LifecycleMessage extends EhcacheOperationMessage implement
       return storeConfiguration;
     }
 
+    /**
+     * Tells whether the client understands {@code CLIENT_INVALIDATE_HASHES} responses, older clients only being sent
+     * one hash invalidation at a time.
+     *
+     * @return {@code true} if invalidations can be batched for this client
+     */
+    public boolean isInvalidationBatchesSupported() {
+      return invalidationBatchesSupported;
+    }
+
     @Override
     public EhcacheMessageType getMessageType() {
       return EhcacheMessageType.VALIDATE_SERVER_STORE;
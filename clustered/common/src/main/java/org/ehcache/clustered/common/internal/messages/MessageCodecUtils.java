@@ -27,6 +27,7 @@ public class MessageCodecUtils {
 
   public static final String SERVER_STORE_NAME_FIELD = "serverStoreName";
   public static final String KEY_FIELD = "key";
+  public static final String KEYS_FIELD = "keys";
 
   public void encodeMandatoryFields(StructEncoder<Void> encoder, EhcacheOperationMessage message) {
     encoder.enm(EhcacheMessageType.MESSAGE_TYPE_FIELD_NAME, message.getMessageType());
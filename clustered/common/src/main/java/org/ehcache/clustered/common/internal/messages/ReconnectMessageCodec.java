@@ -33,10 +33,12 @@ public class ReconnectMessageCodec {
 
   private static final String HASH_INVALIDATION_IN_PROGRESS_FIELD = "hashInvalidationInProgress";
   private static final String CLEAR_IN_PROGRESS_FIELD = "clearInProgress";
+  private static final String INVALIDATION_BATCHES_SUPPORTED_FIELD = "invalidationBatchesSupported";
 
   private static final Struct CLUSTER_TIER_RECONNECT_MESSAGE_STRUCT = newStructBuilder()
     .int64s(HASH_INVALIDATION_IN_PROGRESS_FIELD, 20)
     .bool(CLEAR_IN_PROGRESS_FIELD, 30)
+    .bool(INVALIDATION_BATCHES_SUPPORTED_FIELD, 40)
     .build();
 
   public byte[] encode(ClusterTierReconnectMessage reconnectMessage) {
@@ -46,6 +48,7 @@ public class ReconnectMessageCodec {
       arrayEncoder.value(hash);
     }
     encoder.bool(CLEAR_IN_PROGRESS_FIELD, reconnectMessage.isClearInProgress());
+    encoder.bool(INVALIDATION_BATCHES_SUPPORTED_FIELD, reconnectMessage.isInvalidationBatchesSupported());
     return encoder.encode().array();
   }
 
@@ -68,6 +71,9 @@ public class ReconnectMessageCodec {
     if (clearInProgress != null && clearInProgress) {
       message.clearInProgress();
     }
+    // absent from the messages of older clients
+    Boolean invalidationBatchesSupported = decoder.bool(INVALIDATION_BATCHES_SUPPORTED_FIELD);
+    message.setInvalidationBatchesSupported(invalidationBatchesSupported != null && invalidationBatchesSupported);
     return message;
   }
 }
@@ -18,17 +18,22 @@ package org.ehcache.clustered.common.internal.messages;
 
 import org.ehcache.clustered.common.internal.exceptions.ClusterException;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.PrepareForDestroy;
+import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.Util;
 import org.terracotta.runnel.Struct;
 import org.terracotta.runnel.StructBuilder;
 import org.terracotta.runnel.decoding.ArrayDecoder;
 import org.terracotta.runnel.decoding.Enm;
+import org.terracotta.runnel.decoding.StructArrayDecoder;
 import org.terracotta.runnel.decoding.StructDecoder;
 import org.terracotta.runnel.encoding.ArrayEncoder;
 import org.terracotta.runnel.encoding.StructEncoder;
 
 import java.nio.ByteBuffer;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import static java.nio.ByteBuffer.wrap;
@@ -36,7 +41,10 @@ import static org.ehcache.clustered.common.internal.messages.ChainCodec.CHAIN_ST
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.AllInvalidationDone;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.ClientInvalidateAll;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.ClientInvalidateHash;
+import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.ClientInvalidateHashes;
+import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.GetAllResponse;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.HashInvalidationDone;
+import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.IteratorBatch;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.ServerInvalidateHash;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.MapValue;
 import static org.ehcache.clustered.common.internal.messages.EhcacheResponseType.EHCACHE_RESPONSE_TYPES_ENUM_MAPPING;
@@ -50,8 +58,12 @@ public class ResponseCodec {
   private static final String EXCEPTION_FIELD = "exception";
   private static final String INVALIDATION_ID_FIELD = "invalidationId";
   private static final String CHAIN_FIELD = "chain";
+  private static final String CHAINS_FIELD = "chains";
   private static final String MAP_VALUE_FIELD = "mapValue";
   private static final String STORES_FIELD = "stores";
+  private static final String INVALIDATIONS_FIELD = "invalidations";
+  private static final String ITERATOR_ID_FIELD = "iteratorId";
+  private static final String LAST_FIELD = "last";
 
   private static final Struct SUCCESS_RESPONSE_STRUCT = StructBuilder.newStructBuilder()
     .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
@@ -64,6 +76,20 @@ public class ResponseCodec {
     .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
     .struct(CHAIN_FIELD, 20, CHAIN_STRUCT)
     .build();
+  private static final Struct CHAIN_ENTRY_STRUCT = StructBuilder.newStructBuilder()
+    .int64(KEY_FIELD, 10)
+    .struct(CHAIN_FIELD, 20, CHAIN_STRUCT)
+    .build();
+  private static final Struct GET_ALL_RESPONSE_STRUCT = StructBuilder.newStructBuilder()
+    .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
+    .structs(CHAINS_FIELD, 20, CHAIN_ENTRY_STRUCT)
+    .build();
+  private static final Struct ITERATOR_BATCH_RESPONSE_STRUCT = StructBuilder.newStructBuilder()
+    .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
+    .int32(ITERATOR_ID_FIELD, 20)
+    .structs(CHAINS_FIELD, 30, CHAIN_ENTRY_STRUCT)
+    .bool(LAST_FIELD, 40)
+    .build();
   private static final Struct HASH_INVALIDATION_DONE_RESPONSE_STRUCT = StructBuilder.newStructBuilder()
     .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
     .int64(KEY_FIELD, 20)
@@ -76,6 +102,14 @@ public class ResponseCodec {
     .int64(KEY_FIELD, 20)
     .int32(INVALIDATION_ID_FIELD, 30)
     .build();
+  private static final Struct INVALIDATION_ENTRY_STRUCT = StructBuilder.newStructBuilder()
+    .int32(INVALIDATION_ID_FIELD, 10)
+    .int64(KEY_FIELD, 20)
+    .build();
+  private static final Struct CLIENT_INVALIDATE_HASHES_RESPONSE_STRUCT = StructBuilder.newStructBuilder()
+    .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
+    .structs(INVALIDATIONS_FIELD, 20, INVALIDATION_ENTRY_STRUCT)
+    .build();
   private static final Struct CLIENT_INVALIDATE_ALL_RESPONSE_STRUCT = StructBuilder.newStructBuilder()
     .enm(RESPONSE_TYPE_FIELD_NAME, RESPONSE_TYPE_FIELD_INDEX, EHCACHE_RESPONSE_TYPES_ENUM_MAPPING)
     .int32(INVALIDATION_ID_FIELD, 20)
@@ -93,6 +127,23 @@ public class ResponseCodec {
     .strings(STORES_FIELD, 20)
     .build();
 
+  /**
+   * Encodes a {@link EhcacheResponseType#GET_RESPONSE GET_RESPONSE} straight from {@code chain}, in a single
+   * allocation sized for it.
+   * <p>
+   * Meant for chains that are only readable for the duration of the call, like views of a store's storage.
+   */
+  static byte[] encodeGetResponse(Chain chain) {
+    return GET_RESPONSE_STRUCT.encoder()
+      .enm(RESPONSE_TYPE_FIELD_NAME, EhcacheResponseType.GET_RESPONSE)
+      .struct(CHAIN_FIELD, chain, ChainCodec::encode)
+      .encode().array();
+  }
+
+  static Chain decodeGetResponseChain(byte[] encoded) {
+    return ChainCodec.decode(GET_RESPONSE_STRUCT.decoder(wrap(encoded)).struct(CHAIN_FIELD));
+  }
+
   public byte[] encode(EhcacheEntityResponse response) {
     switch (response.getResponseType()) {
       case FAILURE:
@@ -107,10 +158,34 @@ public class ResponseCodec {
           .encode().array();
       case GET_RESPONSE:
         final EhcacheEntityResponse.GetResponse getResponse = (EhcacheEntityResponse.GetResponse)response;
-        return GET_RESPONSE_STRUCT.encoder()
-          .enm(RESPONSE_TYPE_FIELD_NAME, getResponse.getResponseType())
-          .struct(CHAIN_FIELD, getResponse.getChain(), ChainCodec::encode)
+        byte[] encoded = getResponse.getEncoded();
+        if (encoded == null) {
+          return encodeGetResponse(getResponse.getChain());
+        } else {
+          return encoded;
+        }
+      case GET_ALL_RESPONSE: {
+        GetAllResponse getAllResponse = (GetAllResponse) response;
+        return GET_ALL_RESPONSE_STRUCT.encoder()
+          .enm(RESPONSE_TYPE_FIELD_NAME, getAllResponse.getResponseType())
+          .structs(CHAINS_FIELD, getAllResponse.getChains().entrySet(), (entryEncoder, entry) -> {
+            entryEncoder.int64(KEY_FIELD, entry.getKey());
+            entryEncoder.struct(CHAIN_FIELD, entry.getValue(), ChainCodec::encode);
+          })
+          .encode().array();
+      }
+      case ITERATOR_BATCH: {
+        IteratorBatch iteratorBatch = (IteratorBatch) response;
+        return ITERATOR_BATCH_RESPONSE_STRUCT.encoder()
+          .enm(RESPONSE_TYPE_FIELD_NAME, iteratorBatch.getResponseType())
+          .int32(ITERATOR_ID_FIELD, iteratorBatch.getIteratorId())
+          .structs(CHAINS_FIELD, iteratorBatch.getChains().entrySet(), (entryEncoder, entry) -> {
+            entryEncoder.int64(KEY_FIELD, entry.getKey());
+            entryEncoder.struct(CHAIN_FIELD, entry.getValue(), ChainCodec::encode);
+          })
+          .bool(LAST_FIELD, iteratorBatch.isLast())
           .encode().array();
+      }
       case HASH_INVALIDATION_DONE: {
         HashInvalidationDone hashInvalidationDone = (HashInvalidationDone) response;
         return HASH_INVALIDATION_DONE_RESPONSE_STRUCT.encoder()
@@ -132,6 +207,16 @@ public class ResponseCodec {
           .int32(INVALIDATION_ID_FIELD, clientInvalidateHash.getInvalidationId())
           .encode().array();
       }
+      case CLIENT_INVALIDATE_HASHES: {
+        ClientInvalidateHashes clientInvalidateHashes = (ClientInvalidateHashes) response;
+        return CLIENT_INVALIDATE_HASHES_RESPONSE_STRUCT.encoder()
+          .enm(RESPONSE_TYPE_FIELD_NAME, clientInvalidateHashes.getResponseType())
+          .structs(INVALIDATIONS_FIELD, clientInvalidateHashes.getInvalidations().entrySet(), (entryEncoder, entry) -> {
+            entryEncoder.int32(INVALIDATION_ID_FIELD, entry.getKey());
+            entryEncoder.int64(KEY_FIELD, entry.getValue());
+          })
+          .encode().array();
+      }
       case CLIENT_INVALIDATE_ALL: {
         ClientInvalidateAll clientInvalidateAll = (ClientInvalidateAll) response;
         return CLIENT_INVALIDATE_ALL_RESPONSE_STRUCT.encoder()
@@ -195,6 +280,38 @@ public class ResponseCodec {
       case GET_RESPONSE:
         decoder = GET_RESPONSE_STRUCT.decoder(buffer);
         return new EhcacheEntityResponse.GetResponse(ChainCodec.decode(decoder.struct(CHAIN_FIELD)));
+      case GET_ALL_RESPONSE: {
+        decoder = GET_ALL_RESPONSE_STRUCT.decoder(buffer);
+        Map<Long, Chain> chains = new HashMap<>();
+        StructArrayDecoder<? extends StructDecoder<?>> chainsDecoder = decoder.structs(CHAINS_FIELD);
+        if (chainsDecoder != null) {
+          for (int i = 0; i < chainsDecoder.length(); i++) {
+            StructDecoder<?> entryDecoder = chainsDecoder.next();
+            Long key = entryDecoder.int64(KEY_FIELD);
+            Chain chain = ChainCodec.decode(entryDecoder.struct(CHAIN_FIELD));
+            chains.put(key, chain);
+            entryDecoder.end();
+          }
+        }
+        return new GetAllResponse(chains);
+      }
+      case ITERATOR_BATCH: {
+        decoder = ITERATOR_BATCH_RESPONSE_STRUCT.decoder(buffer);
+        int iteratorId = decoder.int32(ITERATOR_ID_FIELD);
+        Map<Long, Chain> chains = new LinkedHashMap<>();
+        StructArrayDecoder<? extends StructDecoder<?>> chainsDecoder = decoder.structs(CHAINS_FIELD);
+        if (chainsDecoder != null) {
+          for (int i = 0; i < chainsDecoder.length(); i++) {
+            StructDecoder<?> entryDecoder = chainsDecoder.next();
+            Long key = entryDecoder.int64(KEY_FIELD);
+            Chain chain = ChainCodec.decode(entryDecoder.struct(CHAIN_FIELD));
+            chains.put(key, chain);
+            entryDecoder.end();
+          }
+        }
+        boolean last = decoder.bool(LAST_FIELD);
+        return new IteratorBatch(iteratorId, chains, last);
+      }
       case HASH_INVALIDATION_DONE: {
         decoder = HASH_INVALIDATION_DONE_RESPONSE_STRUCT.decoder(buffer);
         long key = decoder.int64(KEY_FIELD);
@@ -209,6 +326,21 @@ public class ResponseCodec {
         int invalidationId = decoder.int32(INVALIDATION_ID_FIELD);
         return EhcacheEntityResponse.clientInvalidateHash(key, invalidationId);
       }
+      case CLIENT_INVALIDATE_HASHES: {
+        decoder = CLIENT_INVALIDATE_HASHES_RESPONSE_STRUCT.decoder(buffer);
+        Map<Integer, Long> invalidations = new LinkedHashMap<>();
+        StructArrayDecoder<? extends StructDecoder<?>> invalidationsDecoder = decoder.structs(INVALIDATIONS_FIELD);
+        if (invalidationsDecoder != null) {
+          for (int i = 0; i < invalidationsDecoder.length(); i++) {
+            StructDecoder<?> entryDecoder = invalidationsDecoder.next();
+            Integer invalidationId = entryDecoder.int32(INVALIDATION_ID_FIELD);
+            Long key = entryDecoder.int64(KEY_FIELD);
+            invalidations.put(invalidationId, key);
+            entryDecoder.end();
+          }
+        }
+        return EhcacheEntityResponse.clientInvalidateHashes(invalidations);
+      }
       case CLIENT_INVALIDATE_ALL: {
         decoder = CLIENT_INVALIDATE_ALL_RESPONSE_STRUCT.decoder(buffer);
         int invalidationId = decoder.int32(INVALIDATION_ID_FIELD);
@@ -19,13 +19,37 @@ package org.ehcache.clustered.common.internal.messages;
 import org.ehcache.clustered.common.internal.store.Chain;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 public class ServerStoreMessageFactory {
 
+  /**
+   * Number of segments a server store spreads its keys over, each segment having its own concurrency key on the server.
+   */
+  public static final int SERVER_STORE_SEGMENTS = 16;
+
   public ServerStoreOpMessage.GetMessage getOperation(long key) {
     return new ServerStoreOpMessage.GetMessage(key);
   }
 
+  public ServerStoreOpMessage.GetAllMessage getAllOperation(Set<Long> keys) {
+    return new ServerStoreOpMessage.GetAllMessage(keys);
+  }
+
+  public ServerStoreOpMessage.IteratorOpenMessage iteratorOpenOperation(int batchSize) {
+    return new ServerStoreOpMessage.IteratorOpenMessage(batchSize);
+  }
+
+  public ServerStoreOpMessage.IteratorAdvanceMessage iteratorAdvanceOperation(int iteratorId, int batchSize) {
+    return new ServerStoreOpMessage.IteratorAdvanceMessage(iteratorId, batchSize);
+  }
+
   public ServerStoreOpMessage.GetAndAppendMessage getAndAppendOperation(long key, ByteBuffer payload) {
     return new ServerStoreOpMessage.GetAndAppendMessage(key, payload);
   }
@@ -34,6 +58,24 @@ public class ServerStoreMessageFactory {
     return new ServerStoreOpMessage.AppendMessage(key, payload);
   }
 
+  public ServerStoreOpMessage.GetAndAppendAllMessage getAndAppendAllOperation(Map<Long, List<ByteBuffer>> payloads) {
+    return new ServerStoreOpMessage.GetAndAppendAllMessage(payloads);
+  }
+
+  /**
+   * Splits the given payloads into one {@code GET_AND_APPEND_ALL} message per server store segment.
+   */
+  public List<ServerStoreOpMessage.GetAndAppendAllMessage> getAndAppendAllOperations(Map<Long, List<ByteBuffer>> payloads) {
+    return bySegment(payloads, ServerStoreOpMessage.GetAndAppendAllMessage::new);
+  }
+
+  /**
+   * Splits the given payloads into one {@code APPEND_ALL} message per server store segment.
+   */
+  public List<ServerStoreOpMessage.AppendAllMessage> appendAllOperations(Map<Long, List<ByteBuffer>> payloads) {
+    return bySegment(payloads, ServerStoreOpMessage.AppendAllMessage::new);
+  }
+
   public ServerStoreOpMessage.ReplaceAtHeadMessage replaceAtHeadOperation(long key, Chain expect, Chain update) {
     return new ServerStoreOpMessage.ReplaceAtHeadMessage(key, expect, update);
   }
@@ -46,9 +88,30 @@ public class ServerStoreMessageFactory {
     return new ServerStoreOpMessage.ClientInvalidationAllAck(invalidationId);
   }
 
+  public ServerStoreOpMessage.ClientInvalidationBatchAck clientInvalidationBatchAck(Set<Integer> invalidationIds) {
+    return new ServerStoreOpMessage.ClientInvalidationBatchAck(invalidationIds);
+  }
+
   public ServerStoreOpMessage.ClearMessage clearOperation() {
     return new ServerStoreOpMessage.ClearMessage();
   }
 
-}
+  /**
+   * Maps a key to its server store segment, as the server does.
+   */
+  public static int segmentForKey(long key) {
+    return Math.abs((int) (key % SERVER_STORE_SEGMENTS));
+  }
 
+  private static <T> List<T> bySegment(Map<Long, List<ByteBuffer>> payloads, Function<Map<Long, List<ByteBuffer>>, T> messageFactory) {
+    Map<Integer, Map<Long, List<ByteBuffer>>> segments = new HashMap<>();
+    for (Map.Entry<Long, List<ByteBuffer>> entry : payloads.entrySet()) {
+      segments.computeIfAbsent(segmentForKey(entry.getKey()), segment -> new LinkedHashMap<>()).put(entry.getKey(), entry.getValue());
+    }
+    List<T> messages = new ArrayList<>(segments.size());
+    for (Map<Long, List<ByteBuffer>> segmentPayloads : segments.values()) {
+      messages.add(messageFactory.apply(segmentPayloads));
+    }
+    return messages;
+  }
+}
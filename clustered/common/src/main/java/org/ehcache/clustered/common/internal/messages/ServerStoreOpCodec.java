@@ -16,24 +16,42 @@
 
 package org.ehcache.clustered.common.internal.messages;
 
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.AppendAllMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.AppendMessage;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.BulkAppendServerStoreOpMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.ClearMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.ClientInvalidationAck;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.ClientInvalidationAllAck;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.ClientInvalidationBatchAck;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.GetAllMessage;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.GetAndAppendAllMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.GetAndAppendMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.GetMessage;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.IteratorAdvanceMessage;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.IteratorOpenMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage.ReplaceAtHeadMessage;
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.terracotta.runnel.Struct;
+import org.terracotta.runnel.decoding.ArrayDecoder;
+import org.terracotta.runnel.decoding.StructArrayDecoder;
 import org.terracotta.runnel.decoding.StructDecoder;
+import org.terracotta.runnel.encoding.ArrayEncoder;
 import org.terracotta.runnel.encoding.StructEncoder;
 
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.ehcache.clustered.common.internal.messages.ChainCodec.CHAIN_STRUCT;
 import static org.ehcache.clustered.common.internal.messages.EhcacheMessageType.EHCACHE_MESSAGE_TYPES_ENUM_MAPPING;
 import static org.ehcache.clustered.common.internal.messages.EhcacheMessageType.MESSAGE_TYPE_FIELD_INDEX;
 import static org.ehcache.clustered.common.internal.messages.EhcacheMessageType.MESSAGE_TYPE_FIELD_NAME;
+import static org.ehcache.clustered.common.internal.messages.MessageCodecUtils.KEYS_FIELD;
 import static org.ehcache.clustered.common.internal.messages.MessageCodecUtils.KEY_FIELD;
 import static org.terracotta.runnel.StructBuilder.newStructBuilder;
 
@@ -69,6 +87,11 @@ public class ServerStoreOpCodec {
     .int32("invalidationId", 40)
     .build();
 
+  private static final Struct CLIENT_INVALIDATION_BATCH_ACK_MESSAGE_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .int32s("invalidationIds", 20)
+    .build();
+
   private static final Struct CLEAR_MESSAGE_STRUCT = newStructBuilder()
     .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
     .build();
@@ -78,6 +101,37 @@ public class ServerStoreOpCodec {
     .int64(KEY_FIELD, 30)
     .build();
 
+  private static final Struct GET_ALL_MESSAGE_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .int64s(KEYS_FIELD, 30)
+    .build();
+
+  private static final Struct ITERATOR_OPEN_MESSAGE_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .int32("batchSize", 30)
+    .build();
+
+  private static final Struct ITERATOR_ADVANCE_MESSAGE_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .int32("iteratorId", 20)
+    .int32("batchSize", 30)
+    .build();
+
+  private static final Struct KEY_PAYLOAD_STRUCT = newStructBuilder()
+    .int64(KEY_FIELD, 10)
+    .byteBuffer("payload", 20)
+    .build();
+
+  private static final Struct GET_AND_APPEND_ALL_MESSAGE_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .structs("entries", 30, KEY_PAYLOAD_STRUCT)
+    .build();
+
+  private static final Struct APPEND_ALL_MESSAGE_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .structs("entries", 30, KEY_PAYLOAD_STRUCT)
+    .build();
+
   private final MessageCodecUtils messageCodecUtils = new MessageCodecUtils();
 
   public byte[] encode(ServerStoreOpMessage message) {
@@ -92,6 +146,35 @@ public class ServerStoreOpCodec {
           .int64(KEY_FIELD, getMessage.getKey())
           .encode()
           .array();
+      case GET_ALL_STORE: {
+        GetAllMessage getAllMessage = (GetAllMessage) message;
+        encoder = GET_ALL_MESSAGE_STRUCT.encoder();
+        messageCodecUtils.encodeMandatoryFields(encoder, message);
+        ArrayEncoder<Long, StructEncoder<Void>> keysEncoder = encoder.int64s(KEYS_FIELD);
+        for (Long key : getAllMessage.getKeys()) {
+          keysEncoder.value(key);
+        }
+        return encoder
+          .encode()
+          .array();
+      }
+      case ITERATOR_OPEN:
+        IteratorOpenMessage iteratorOpenMessage = (IteratorOpenMessage) message;
+        encoder = ITERATOR_OPEN_MESSAGE_STRUCT.encoder();
+        return encoder
+          .enm(MESSAGE_TYPE_FIELD_NAME, message.getMessageType())
+          .int32("batchSize", iteratorOpenMessage.getBatchSize())
+          .encode()
+          .array();
+      case ITERATOR_ADVANCE:
+        IteratorAdvanceMessage iteratorAdvanceMessage = (IteratorAdvanceMessage) message;
+        encoder = ITERATOR_ADVANCE_MESSAGE_STRUCT.encoder();
+        return encoder
+          .enm(MESSAGE_TYPE_FIELD_NAME, message.getMessageType())
+          .int32("iteratorId", iteratorAdvanceMessage.getIteratorId())
+          .int32("batchSize", iteratorAdvanceMessage.getBatchSize())
+          .encode()
+          .array();
       case APPEND:
         AppendMessage appendMessage = (AppendMessage) message;
         encoder = APPEND_MESSAGE_STRUCT.encoder();
@@ -110,6 +193,10 @@ public class ServerStoreOpCodec {
           .byteBuffer("payload", getAndAppendMessage.getPayload())
           .encode()
           .array();
+      case GET_AND_APPEND_ALL:
+        return encodeBulkAppend(GET_AND_APPEND_ALL_MESSAGE_STRUCT.encoder(), (GetAndAppendAllMessage) message);
+      case APPEND_ALL:
+        return encodeBulkAppend(APPEND_ALL_MESSAGE_STRUCT.encoder(), (AppendAllMessage) message);
       case REPLACE:
         final ReplaceAtHeadMessage replaceAtHeadMessage = (ReplaceAtHeadMessage) message;
         encoder = REPLACE_MESSAGE_STRUCT.encoder();
@@ -136,6 +223,18 @@ public class ServerStoreOpCodec {
           .enm(MESSAGE_TYPE_FIELD_NAME, message.getMessageType())
           .int32("invalidationId", clientInvalidationAllAckMessage.getInvalidationId())
           .encode().array();
+      case CLIENT_INVALIDATION_BATCH_ACK: {
+        ClientInvalidationBatchAck clientInvalidationBatchAckMessage = (ClientInvalidationBatchAck) message;
+        encoder = CLIENT_INVALIDATION_BATCH_ACK_MESSAGE_STRUCT.encoder();
+        encoder.enm(MESSAGE_TYPE_FIELD_NAME, message.getMessageType());
+        ArrayEncoder<Integer, StructEncoder<Void>> idsEncoder = encoder.int32s("invalidationIds");
+        for (Integer invalidationId : clientInvalidationBatchAckMessage.getInvalidationIds()) {
+          idsEncoder.value(invalidationId);
+        }
+        return encoder
+          .encode()
+          .array();
+      }
       case CLEAR:
         encoder = CLEAR_MESSAGE_STRUCT.encoder();
         messageCodecUtils.encodeMandatoryFields(encoder, message);
@@ -155,6 +254,31 @@ public class ServerStoreOpCodec {
         Long key = decoder.int64(KEY_FIELD);
         return new GetMessage(key);
       }
+      case GET_ALL_STORE: {
+        decoder = GET_ALL_MESSAGE_STRUCT.decoder(messageBuffer);
+        ArrayDecoder<Long, StructDecoder<Void>> keysDecoder = decoder.int64s(KEYS_FIELD);
+        Set<Long> keys;
+        if (keysDecoder != null) {
+          keys = new HashSet<>(keysDecoder.length());
+          for (int i = 0; i < keysDecoder.length(); i++) {
+            keys.add(keysDecoder.value());
+          }
+        } else {
+          keys = new HashSet<>(0);
+        }
+        return new GetAllMessage(keys);
+      }
+      case ITERATOR_OPEN: {
+        decoder = ITERATOR_OPEN_MESSAGE_STRUCT.decoder(messageBuffer);
+        Integer batchSize = decoder.int32("batchSize");
+        return new IteratorOpenMessage(batchSize);
+      }
+      case ITERATOR_ADVANCE: {
+        decoder = ITERATOR_ADVANCE_MESSAGE_STRUCT.decoder(messageBuffer);
+        Integer iteratorId = decoder.int32("iteratorId");
+        Integer batchSize = decoder.int32("batchSize");
+        return new IteratorAdvanceMessage(iteratorId, batchSize);
+      }
       case GET_AND_APPEND: {
         decoder = GET_AND_APPEND_MESSAGE_STRUCT.decoder(messageBuffer);
         Long key = decoder.int64(KEY_FIELD);
@@ -167,6 +291,14 @@ public class ServerStoreOpCodec {
         ByteBuffer payload = decoder.byteBuffer("payload");
         return new AppendMessage(key, payload);
       }
+      case GET_AND_APPEND_ALL: {
+        decoder = GET_AND_APPEND_ALL_MESSAGE_STRUCT.decoder(messageBuffer);
+        return new GetAndAppendAllMessage(decodeBulkAppendPayloads(decoder));
+      }
+      case APPEND_ALL: {
+        decoder = APPEND_ALL_MESSAGE_STRUCT.decoder(messageBuffer);
+        return new AppendAllMessage(decodeBulkAppendPayloads(decoder));
+      }
       case REPLACE: {
         decoder = REPLACE_MESSAGE_STRUCT.decoder(messageBuffer);
         Long key = decoder.int64(KEY_FIELD);
@@ -186,6 +318,20 @@ public class ServerStoreOpCodec {
         Integer invalidationId = decoder.int32("invalidationId");
         return new ClientInvalidationAllAck(invalidationId);
       }
+      case CLIENT_INVALIDATION_BATCH_ACK: {
+        decoder = CLIENT_INVALIDATION_BATCH_ACK_MESSAGE_STRUCT.decoder(messageBuffer);
+        ArrayDecoder<Integer, StructDecoder<Void>> idsDecoder = decoder.int32s("invalidationIds");
+        Set<Integer> invalidationIds;
+        if (idsDecoder != null) {
+          invalidationIds = new HashSet<>(idsDecoder.length());
+          for (int i = 0; i < idsDecoder.length(); i++) {
+            invalidationIds.add(idsDecoder.value());
+          }
+        } else {
+          invalidationIds = new HashSet<>(0);
+        }
+        return new ClientInvalidationBatchAck(invalidationIds);
+      }
       case CLEAR: {
         return new ClearMessage();
       }
@@ -194,4 +340,35 @@ public class ServerStoreOpCodec {
     }
   }
 
+  private byte[] encodeBulkAppend(StructEncoder<Void> encoder, BulkAppendServerStoreOpMessage message) {
+    messageCodecUtils.encodeMandatoryFields(encoder, message);
+    List<Map.Entry<Long, ByteBuffer>> entries = new ArrayList<>();
+    for (Map.Entry<Long, List<ByteBuffer>> entry : message.getPayloads().entrySet()) {
+      for (ByteBuffer payload : entry.getValue()) {
+        entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), payload));
+      }
+    }
+    encoder.structs("entries", entries, (entryEncoder, entry) -> {
+      entryEncoder.int64(KEY_FIELD, entry.getKey());
+      entryEncoder.byteBuffer("payload", entry.getValue());
+    });
+    return encoder
+      .encode()
+      .array();
+  }
+
+  private static Map<Long, List<ByteBuffer>> decodeBulkAppendPayloads(StructDecoder<Void> decoder) {
+    Map<Long, List<ByteBuffer>> payloads = new LinkedHashMap<>();
+    StructArrayDecoder<StructDecoder<Void>> entriesDecoder = decoder.structs("entries");
+    if (entriesDecoder != null) {
+      for (int i = 0; i < entriesDecoder.length(); i++) {
+        StructDecoder<StructArrayDecoder<StructDecoder<Void>>> entryDecoder = entriesDecoder.next();
+        Long key = entryDecoder.int64(KEY_FIELD);
+        ByteBuffer payload = entryDecoder.byteBuffer("payload");
+        payloads.computeIfAbsent(key, k -> new ArrayList<>()).add(payload);
+        entryDecoder.end();
+      }
+    }
+    return payloads;
+  }
 }
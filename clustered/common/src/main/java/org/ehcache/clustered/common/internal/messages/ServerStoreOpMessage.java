@@ -19,6 +19,9 @@ package org.ehcache.clustered.common.internal.messages;
 import org.ehcache.clustered.common.internal.store.Chain;
 
 import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class ServerStoreOpMessage extends EhcacheOperationMessage {
 
@@ -55,6 +58,66 @@ public abstract class ServerStoreOpMessage extends EhcacheOperationMessage {
     }
   }
 
+  public static class GetAllMessage extends ServerStoreOpMessage {
+
+    private final Set<Long> keys;
+
+    GetAllMessage(Set<Long> keys) {
+      this.keys = keys;
+    }
+
+    public Set<Long> getKeys() {
+      return keys;
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.GET_ALL_STORE;
+    }
+  }
+
+  public static class IteratorOpenMessage extends ServerStoreOpMessage {
+
+    private final int batchSize;
+
+    IteratorOpenMessage(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.ITERATOR_OPEN;
+    }
+  }
+
+  public static class IteratorAdvanceMessage extends ServerStoreOpMessage {
+
+    private final int iteratorId;
+    private final int batchSize;
+
+    IteratorAdvanceMessage(int iteratorId, int batchSize) {
+      this.iteratorId = iteratorId;
+      this.batchSize = batchSize;
+    }
+
+    public int getIteratorId() {
+      return iteratorId;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.ITERATOR_ADVANCE;
+    }
+  }
+
   public static class GetAndAppendMessage extends KeyBasedServerStoreOpMessage {
 
     private final ByteBuffer payload;
@@ -95,6 +158,51 @@ public abstract class ServerStoreOpMessage extends EhcacheOperationMessage {
 
   }
 
+  /**
+   * Base class of the messages appending to several keys at once. The client sends one such message per server store
+   * segment (see {@link ServerStoreMessageFactory#SERVER_STORE_SEGMENTS}), so that it runs under the concurrency key of
+   * that segment rather than exclusively.
+   */
+  public static abstract class BulkAppendServerStoreOpMessage extends ServerStoreOpMessage {
+
+    private final Map<Long, List<ByteBuffer>> payloads;
+
+    BulkAppendServerStoreOpMessage(Map<Long, List<ByteBuffer>> payloads) {
+      this.payloads = payloads;
+    }
+
+    /**
+     * @return the payloads to append, grouped by key in append order
+     */
+    public Map<Long, List<ByteBuffer>> getPayloads() {
+      return payloads;
+    }
+  }
+
+  public static class GetAndAppendAllMessage extends BulkAppendServerStoreOpMessage {
+
+    GetAndAppendAllMessage(Map<Long, List<ByteBuffer>> payloads) {
+      super(payloads);
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.GET_AND_APPEND_ALL;
+    }
+  }
+
+  public static class AppendAllMessage extends BulkAppendServerStoreOpMessage {
+
+    AppendAllMessage(Map<Long, List<ByteBuffer>> payloads) {
+      super(payloads);
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.APPEND_ALL;
+    }
+  }
+
   public static class ReplaceAtHeadMessage extends KeyBasedServerStoreOpMessage {
 
     private final Chain expect;
@@ -158,6 +266,25 @@ public abstract class ServerStoreOpMessage extends EhcacheOperationMessage {
     }
   }
 
+  public static class ClientInvalidationBatchAck extends ServerStoreOpMessage {
+
+    private final Set<Integer> invalidationIds;
+
+    ClientInvalidationBatchAck(Set<Integer> invalidationIds) {
+      super();
+      this.invalidationIds = invalidationIds;
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.CLIENT_INVALIDATION_BATCH_ACK;
+    }
+
+    public Set<Integer> getInvalidationIds() {
+      return invalidationIds;
+    }
+  }
+
   public static class ClearMessage extends ServerStoreOpMessage {
 
     @Override
@@ -0,0 +1,50 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.clustered.common.internal.store;
+
+/**
+ * Operation codes and layout of the clustered store operations the client appends to chains, shared with the server
+ * so that it can inspect chain payloads without the client codec.
+ * <p>
+ * An operation starts with its code, followed by its timestamp, negative for an already resolved expiration time. A
+ * remove then holds the serialized key up to its end; the other operations hold the size of the serialized key, the
+ * key, then the serialized value.
+ */
+public final class OperationEncoding {
+
+  public static final byte PUT = 1;
+  public static final byte REMOVE = 2;
+  public static final byte PUT_IF_ABSENT = 3;
+  public static final byte REMOVE_CONDITIONAL = 4;
+  public static final byte REPLACE = 5;
+  public static final byte REPLACE_CONDITIONAL = 6;
+
+  public static final int OPERATION_CODE_OFFSET = 0;
+  public static final int TIMESTAMP_OFFSET = 1;
+  /**
+   * Offset of the key of a remove, or of the key size of the other operations.
+   */
+  public static final int KEY_OFFSET = 9;
+  /**
+   * Offset of the key of all operations but removes.
+   */
+  public static final int KEY_VALUE_KEY_OFFSET = 13;
+
+  private OperationEncoding() {
+    //static
+  }
+}
@@ -71,6 +71,7 @@ public class LifeCycleMessageCodecTest {
     LifecycleMessage.ValidateServerStore decodedMessage = (LifecycleMessage.ValidateServerStore) codec.decode(message.getMessageType(), wrap(encoded));
 
     assertThat(decodedMessage.getMessageType(), is(EhcacheMessageType.VALIDATE_SERVER_STORE));
+    assertThat(decodedMessage.isInvalidationBatchesSupported(), is(true));
     validateCommonServerStoreConfig(decodedMessage, configuration);
     PoolAllocation.Dedicated decodedPoolAllocation = (PoolAllocation.Dedicated) decodedMessage.getStoreConfiguration().getPoolAllocation();
     assertThat(decodedPoolAllocation.getResourceName(), is(dedicated.getResourceName()));
@@ -54,6 +54,16 @@ public class ReconnectMessageCodecTest {
     assertThat(decoded, notNullValue());
     assertThat(decoded.getInvalidationsInProgress(), containsInAnyOrder(setToInvalidate.toArray()));
     assertThat(decoded.isClearInProgress(), is(true));
+    assertThat(decoded.isInvalidationBatchesSupported(), is(true));
+  }
+
+  @Test
+  public void testInvalidationBatchesNotSupported() {
+    ClusterTierReconnectMessage reconnectMessage = new ClusterTierReconnectMessage();
+    reconnectMessage.setInvalidationBatchesSupported(false);
+
+    ClusterTierReconnectMessage decoded = reconnectMessageCodec.decode(reconnectMessageCodec.encode(reconnectMessage));
+    assertThat(decoded.isInvalidationBatchesSupported(), is(false));
   }
 
 }
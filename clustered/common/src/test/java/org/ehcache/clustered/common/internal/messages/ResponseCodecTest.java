@@ -22,11 +22,15 @@ import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
 import static org.ehcache.clustered.common.internal.store.Util.getChain;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
@@ -59,6 +63,49 @@ public class ResponseCodecTest {
     Util.assertChainHas(decodedChain, 1L, 11L, 111L);
   }
 
+  @Test
+  public void testEncodedGetResponseCodec() {
+    Chain chain = getChain(true, createPayload(1L), createPayload(11L));
+    EhcacheEntityResponse.GetResponse getResponse = (EhcacheEntityResponse.GetResponse) RESPONSE_FACTORY.encodedResponse(chain);
+
+    Util.assertChainHas(getResponse.getChain(), 1L, 11L);
+    assertThat(RESPONSE_CODEC.encode(getResponse), is(RESPONSE_CODEC.encode(RESPONSE_FACTORY.response(chain))));
+
+    EhcacheEntityResponse decoded = RESPONSE_CODEC.decode(RESPONSE_CODEC.encode(getResponse));
+    Util.assertChainHas(((EhcacheEntityResponse.GetResponse) decoded).getChain(), 1L, 11L);
+  }
+
+  @Test
+  public void testGetAllResponseCodec() {
+    Map<Long, Chain> chains = new HashMap<>();
+    chains.put(1L, getChain(false, createPayload(1L), createPayload(11L)));
+    chains.put(2L, getChain(false));
+    EhcacheEntityResponse getAllResponse = RESPONSE_FACTORY.response(chains);
+
+    EhcacheEntityResponse decoded = RESPONSE_CODEC.decode(RESPONSE_CODEC.encode(getAllResponse));
+
+    Map<Long, Chain> decodedChains = ((EhcacheEntityResponse.GetAllResponse) decoded).getChains();
+    assertThat(decodedChains.size(), is(2));
+    Util.assertChainHas(decodedChains.get(1L), 1L, 11L);
+    assertThat(decodedChains.get(2L).isEmpty(), is(true));
+  }
+
+  @Test
+  public void testIteratorBatchCodec() {
+    Map<Long, Chain> chains = new LinkedHashMap<>();
+    chains.put(2L, getChain(false, createPayload(2L)));
+    chains.put(1L, getChain(false, createPayload(1L), createPayload(11L)));
+    EhcacheEntityResponse iteratorBatch = RESPONSE_FACTORY.iteratorBatch(7, chains, true);
+
+    EhcacheEntityResponse.IteratorBatch decoded = (EhcacheEntityResponse.IteratorBatch) RESPONSE_CODEC.decode(RESPONSE_CODEC.encode(iteratorBatch));
+
+    assertThat(decoded.getIteratorId(), is(7));
+    assertThat(decoded.isLast(), is(true));
+    assertThat(decoded.getChains().keySet(), contains(2L, 1L));
+    Util.assertChainHas(decoded.getChains().get(2L), 2L);
+    Util.assertChainHas(decoded.getChains().get(1L), 1L, 11L);
+  }
+
   @Test
   public void testMapValueCodec() throws Exception {
     Object subject = new Date();
@@ -105,6 +152,19 @@ public class ResponseCodecTest {
     assertThat(decodedResponse.getInvalidationId(), is(INVALIDATION_ID));
   }
 
+  @Test
+  public void testClientInvalidateHashes() throws Exception {
+    Map<Integer, Long> invalidations = new HashMap<>();
+    invalidations.put(INVALIDATION_ID, KEY);
+    invalidations.put(INVALIDATION_ID + 1, KEY + 1);
+    EhcacheEntityResponse.ClientInvalidateHashes response = new EhcacheEntityResponse.ClientInvalidateHashes(invalidations);
+    byte[] encoded = RESPONSE_CODEC.encode(response);
+    EhcacheEntityResponse.ClientInvalidateHashes decodedResponse = (EhcacheEntityResponse.ClientInvalidateHashes) RESPONSE_CODEC.decode(encoded);
+
+    assertThat(decodedResponse.getResponseType(), is(EhcacheResponseType.CLIENT_INVALIDATE_HASHES));
+    assertThat(decodedResponse.getInvalidations(), equalTo(invalidations));
+  }
+
   @Test
   public void testClientInvalidateAll() throws Exception {
     EhcacheEntityResponse.ClientInvalidateAll response = new EhcacheEntityResponse.ClientInvalidateAll(INVALIDATION_ID);
@@ -18,6 +18,13 @@ package org.ehcache.clustered.common.internal.messages;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.Assert.assertThat;
@@ -53,6 +60,27 @@ public class ServerStoreMessageFactoryTest {
     assertThat(readPayLoad(getAndAppendMessage.getPayload()), is(10L));
   }
 
+  @Test
+  public void testBulkAppendOperationsAreSplitPerSegment() {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    for (long key = 0; key < 40; key++) {
+      payloads.put(key, Collections.singletonList(createPayload(key)));
+    }
+
+    List<ServerStoreOpMessage.GetAndAppendAllMessage> messages = MESSAGE_FACTORY.getAndAppendAllOperations(payloads);
+
+    assertThat(messages.size(), is(ServerStoreMessageFactory.SERVER_STORE_SEGMENTS));
+    Set<Long> keys = new HashSet<>();
+    for (ServerStoreOpMessage.GetAndAppendAllMessage message : messages) {
+      int segment = ServerStoreMessageFactory.segmentForKey(message.getPayloads().keySet().iterator().next());
+      for (Long key : message.getPayloads().keySet()) {
+        assertThat(ServerStoreMessageFactory.segmentForKey(key), is(segment));
+        keys.add(key);
+      }
+    }
+    assertThat(keys, is(payloads.keySet()));
+  }
+
   @Test
   public void testReplaceAtHeadMessage() {
     ServerStoreOpMessage.ReplaceAtHeadMessage replaceAtHeadMessage = MESSAGE_FACTORY.replaceAtHeadOperation(10L,
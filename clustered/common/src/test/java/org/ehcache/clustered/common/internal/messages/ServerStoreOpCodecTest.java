@@ -18,10 +18,20 @@ package org.ehcache.clustered.common.internal.messages;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static java.nio.ByteBuffer.wrap;
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
 import static org.ehcache.clustered.common.internal.store.Util.getChain;
 import static org.ehcache.clustered.common.internal.store.Util.readPayLoad;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -56,6 +66,85 @@ public class ServerStoreOpCodecTest {
     assertThat(decodedGetMessage.getMessageType(), is(EhcacheMessageType.GET_STORE));
   }
 
+  @Test
+  public void testGetAllMessageCodec() {
+    Set<Long> keys = new HashSet<>(Arrays.asList(1L, 2L, 42L));
+    ServerStoreOpMessage getAllMessage = MESSAGE_FACTORY.getAllOperation(keys);
+
+    byte[] encoded = STORE_OP_CODEC.encode(getAllMessage);
+    EhcacheEntityMessage decodedMsg = STORE_OP_CODEC.decode(getAllMessage.getMessageType(), wrap(encoded));
+    ServerStoreOpMessage.GetAllMessage decodedGetAllMessage = (ServerStoreOpMessage.GetAllMessage) decodedMsg;
+
+    assertThat(decodedGetAllMessage.getKeys(), containsInAnyOrder(1L, 2L, 42L));
+    assertThat(decodedGetAllMessage.getMessageType(), is(EhcacheMessageType.GET_ALL_STORE));
+  }
+
+  @Test
+  public void testIteratorOpenMessageCodec() {
+    ServerStoreOpMessage iteratorOpenMessage = MESSAGE_FACTORY.iteratorOpenOperation(128);
+
+    byte[] encoded = STORE_OP_CODEC.encode(iteratorOpenMessage);
+    EhcacheEntityMessage decodedMsg = STORE_OP_CODEC.decode(iteratorOpenMessage.getMessageType(), wrap(encoded));
+    ServerStoreOpMessage.IteratorOpenMessage decodedIteratorOpenMessage = (ServerStoreOpMessage.IteratorOpenMessage) decodedMsg;
+
+    assertThat(decodedIteratorOpenMessage.getBatchSize(), is(128));
+    assertThat(decodedIteratorOpenMessage.getMessageType(), is(EhcacheMessageType.ITERATOR_OPEN));
+  }
+
+  @Test
+  public void testIteratorAdvanceMessageCodec() {
+    ServerStoreOpMessage iteratorAdvanceMessage = MESSAGE_FACTORY.iteratorAdvanceOperation(42, 128);
+
+    byte[] encoded = STORE_OP_CODEC.encode(iteratorAdvanceMessage);
+    EhcacheEntityMessage decodedMsg = STORE_OP_CODEC.decode(iteratorAdvanceMessage.getMessageType(), wrap(encoded));
+    ServerStoreOpMessage.IteratorAdvanceMessage decodedIteratorAdvanceMessage = (ServerStoreOpMessage.IteratorAdvanceMessage) decodedMsg;
+
+    assertThat(decodedIteratorAdvanceMessage.getIteratorId(), is(42));
+    assertThat(decodedIteratorAdvanceMessage.getBatchSize(), is(128));
+    assertThat(decodedIteratorAdvanceMessage.getMessageType(), is(EhcacheMessageType.ITERATOR_ADVANCE));
+  }
+
+  @Test
+  public void testGetAndAppendAllMessageCodec() {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    payloads.put(10L, Arrays.asList(createPayload(10L), createPayload(11L)));
+    payloads.put(42L, Collections.singletonList(createPayload(42L)));
+    ServerStoreOpMessage getAndAppendAllMessage = MESSAGE_FACTORY.getAndAppendAllOperation(payloads);
+
+    byte[] encoded = STORE_OP_CODEC.encode(getAndAppendAllMessage);
+    EhcacheEntityMessage decodedMsg = STORE_OP_CODEC.decode(getAndAppendAllMessage.getMessageType(), wrap(encoded));
+    ServerStoreOpMessage.GetAndAppendAllMessage decodedGetAndAppendAllMessage = (ServerStoreOpMessage.GetAndAppendAllMessage) decodedMsg;
+
+    Map<Long, List<ByteBuffer>> decodedPayloads = decodedGetAndAppendAllMessage.getPayloads();
+    assertThat(decodedPayloads.keySet(), containsInAnyOrder(10L, 42L));
+    assertThat(decodedPayloads.get(10L).size(), is(2));
+    assertThat(readPayLoad(decodedPayloads.get(10L).get(0)), is(10L));
+    assertThat(readPayLoad(decodedPayloads.get(10L).get(1)), is(11L));
+    assertThat(decodedPayloads.get(42L).size(), is(1));
+    assertThat(readPayLoad(decodedPayloads.get(42L).get(0)), is(42L));
+    assertThat(decodedGetAndAppendAllMessage.getMessageType(), is(EhcacheMessageType.GET_AND_APPEND_ALL));
+  }
+
+  @Test
+  public void testAppendAllMessageCodec() {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    payloads.put(10L, Arrays.asList(createPayload(10L), createPayload(11L)));
+    payloads.put(26L, Collections.singletonList(createPayload(26L)));
+    List<ServerStoreOpMessage.AppendAllMessage> appendAllMessages = MESSAGE_FACTORY.appendAllOperations(payloads);
+    assertThat(appendAllMessages.size(), is(1));
+
+    byte[] encoded = STORE_OP_CODEC.encode(appendAllMessages.get(0));
+    EhcacheEntityMessage decodedMsg = STORE_OP_CODEC.decode(EhcacheMessageType.APPEND_ALL, wrap(encoded));
+    ServerStoreOpMessage.AppendAllMessage decodedAppendAllMessage = (ServerStoreOpMessage.AppendAllMessage) decodedMsg;
+
+    Map<Long, List<ByteBuffer>> decodedPayloads = decodedAppendAllMessage.getPayloads();
+    assertThat(decodedPayloads.keySet(), containsInAnyOrder(10L, 26L));
+    assertThat(readPayLoad(decodedPayloads.get(10L).get(0)), is(10L));
+    assertThat(readPayLoad(decodedPayloads.get(10L).get(1)), is(11L));
+    assertThat(readPayLoad(decodedPayloads.get(26L).get(0)), is(26L));
+    assertThat(decodedAppendAllMessage.getMessageType(), is(EhcacheMessageType.APPEND_ALL));
+  }
+
   @Test
   public void testGetAndAppendMessageCodec() {
     ServerStoreOpMessage getAndAppendMessage = MESSAGE_FACTORY.getAndAppendOperation(10L, createPayload(10L));
@@ -107,4 +196,16 @@ public class ServerStoreOpCodecTest {
     assertThat(decodedInvalidationAckMessage.getInvalidationId(), is(123));
     assertThat(decodedInvalidationAckMessage.getMessageType(), is(EhcacheMessageType.CLIENT_INVALIDATION_ACK));
   }
+
+  @Test
+  public void testClientInvalidationBatchAckMessageCodec() throws Exception {
+    ServerStoreOpMessage invalidationBatchAckMessage = MESSAGE_FACTORY.clientInvalidationBatchAck(new HashSet<>(Arrays.asList(123, 124, 125)));
+
+    byte[] encoded = STORE_OP_CODEC.encode(invalidationBatchAckMessage);
+    EhcacheEntityMessage decodedMsg = STORE_OP_CODEC.decode(invalidationBatchAckMessage.getMessageType(), wrap(encoded));
+    ServerStoreOpMessage.ClientInvalidationBatchAck decodedInvalidationBatchAckMessage = (ServerStoreOpMessage.ClientInvalidationBatchAck)decodedMsg;
+
+    assertThat(decodedInvalidationBatchAckMessage.getInvalidationIds(), containsInAnyOrder(123, 124, 125));
+    assertThat(decodedInvalidationBatchAckMessage.getMessageType(), is(EhcacheMessageType.CLIENT_INVALIDATION_BATCH_ACK));
+  }
 }
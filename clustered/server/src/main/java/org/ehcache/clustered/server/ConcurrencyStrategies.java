@@ -16,12 +16,14 @@
 package org.ehcache.clustered.server;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.ehcache.clustered.common.internal.messages.ConcurrentEntityMessage;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
+import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.BulkChainReplicationMessage;
 import org.terracotta.entity.ConcurrencyStrategy;
 
 import static java.util.Collections.singleton;
@@ -64,8 +66,15 @@ public final class ConcurrencyStrategies {
 
     @Override
     public int concurrencyKey(EhcacheEntityMessage entityMessage) {
-      if (entityMessage instanceof ServerStoreOpMessage.GetMessage) {
+      if (entityMessage instanceof ServerStoreOpMessage.GetMessage || entityMessage instanceof ServerStoreOpMessage.GetAllMessage) {
         return UNIVERSAL_KEY;
+      } else if (entityMessage instanceof ServerStoreOpMessage.IteratorOpenMessage || entityMessage instanceof ServerStoreOpMessage.IteratorAdvanceMessage) {
+        // reads only, each segment being snapshotted under its own lock
+        return UNIVERSAL_KEY;
+      } else if (entityMessage instanceof ServerStoreOpMessage.BulkAppendServerStoreOpMessage) {
+        return concurrencyKey(((ServerStoreOpMessage.BulkAppendServerStoreOpMessage) entityMessage).getPayloads().keySet());
+      } else if (entityMessage instanceof BulkChainReplicationMessage) {
+        return concurrencyKey(((BulkChainReplicationMessage) entityMessage).getChains().keySet());
       } else if (entityMessage instanceof ConcurrentEntityMessage) {
         ConcurrentEntityMessage concurrentEntityMessage = (ConcurrentEntityMessage) entityMessage;
         return DATA_CONCURRENCY_KEY_OFFSET + mapper.getSegmentForKey(concurrentEntityMessage.concurrencyKey());
@@ -74,6 +83,25 @@ public final class ConcurrencyStrategies {
       }
     }
 
+    /**
+     * Clients send one bulk message per segment, which then runs under the concurrency key of that segment. A message
+     * spanning several segments runs exclusively instead, so the active and the passive apply it in the same order
+     * relative to the per-segment mutations.
+     */
+    private int concurrencyKey(Set<Long> keys) {
+      Iterator<Long> iterator = keys.iterator();
+      if (!iterator.hasNext()) {
+        return DEFAULT_KEY;
+      }
+      int segment = mapper.getSegmentForKey(iterator.next());
+      while (iterator.hasNext()) {
+        if (mapper.getSegmentForKey(iterator.next()) != segment) {
+          return MANAGEMENT_KEY;
+        }
+      }
+      return DATA_CONCURRENCY_KEY_OFFSET + segment;
+    }
+
     @Override
     public Set<Integer> getKeysForSynchronization() {
       Set<Integer> result = new LinkedHashSet<>();
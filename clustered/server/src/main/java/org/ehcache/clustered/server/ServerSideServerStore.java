@@ -24,11 +24,29 @@ import com.tc.classloader.CommonComponent;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 @CommonComponent
 public interface ServerSideServerStore extends ServerStore, MapInternals {
   void setEvictionListener(ServerStoreEvictionListener listener);
   ServerStoreConfiguration getStoreConfiguration();
   List<Set<Long>> getSegmentKeySets();
+
+  /**
+   * Snapshots the keys of a segment, consistently with the mutations concurrently applied to it.
+   */
+  long[] getSegmentKeys(int segment);
+
   void put(long key, Chain chain);
+
+  /**
+   * Hands the chain of {@code key} to {@code reader} without copying it: the chain is only valid during the call.
+   */
+  <T> T read(long key, Function<Chain, T> reader);
+
+  /**
+   * Compacts the chain of {@code key} if the last {@code appended} appends made it long enough to. Appends never
+   * compact chains by themselves, so that the chain read right after them ends with the appended elements.
+   */
+  void compactIfNeeded(long key, int appended);
 }
@@ -28,6 +28,7 @@ import java.nio.ByteBuffer;
 import java.util.AbstractList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 @CommonComponent
 public class ServerStoreImpl implements ServerSideServerStore {
@@ -64,6 +65,16 @@ public class ServerStoreImpl implements ServerSideServerStore {
     return store.get(key);
   }
 
+  @Override
+  public <T> T read(long key, Function<Chain, T> reader) {
+    return store.read(key, reader);
+  }
+
+  @Override
+  public void compactIfNeeded(long key, int appended) {
+    store.compactIfNeeded(key, appended);
+  }
+
   @Override
   public void append(long key, ByteBuffer payLoad) {
     store.append(key, payLoad);
@@ -107,6 +118,11 @@ public class ServerStoreImpl implements ServerSideServerStore {
     };
   }
 
+  @Override
+  public long[] getSegmentKeys(int segment) {
+    return store.getSegmentKeys(segment);
+  }
+
   // stats
 
 
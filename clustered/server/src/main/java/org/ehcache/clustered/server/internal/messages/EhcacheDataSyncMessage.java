@@ -28,9 +28,15 @@ import java.util.Map;
 public class EhcacheDataSyncMessage extends EhcacheSyncMessage {
 
   private final Map<Long, Chain> chainMap;
+  private final boolean compressed;
 
   public EhcacheDataSyncMessage(final Map<Long, Chain> chainMap) {
+    this(chainMap, false);
+  }
+
+  public EhcacheDataSyncMessage(final Map<Long, Chain> chainMap, boolean compressed) {
     this.chainMap = Collections.unmodifiableMap(chainMap);
+    this.compressed = compressed;
   }
 
   @Override
@@ -41,4 +47,13 @@ public class EhcacheDataSyncMessage extends EhcacheSyncMessage {
   public Map<Long, Chain> getChainMap() {
     return chainMap;
   }
+
+  /**
+   * Whether the chains are deflated on the wire.
+   *
+   * @return {@code true} if the chains are compressed
+   */
+  public boolean isCompressed() {
+    return compressed;
+  }
 }
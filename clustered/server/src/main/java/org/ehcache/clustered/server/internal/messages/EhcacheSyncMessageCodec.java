@@ -30,11 +30,15 @@ import org.terracotta.runnel.decoding.StructArrayDecoder;
 import org.terracotta.runnel.decoding.StructDecoder;
 import org.terracotta.runnel.encoding.StructEncoder;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import static java.nio.ByteBuffer.wrap;
 import static org.ehcache.clustered.common.internal.messages.ChainCodec.CHAIN_STRUCT;
@@ -56,6 +60,8 @@ public class EhcacheSyncMessageCodec implements SyncMessageCodec<EhcacheEntityMe
 
   private static final String CHAIN_FIELD = "chain";
   private static final String CHAIN_MAP_ENTRIES_SUB_STRUCT = "entries";
+  private static final String COMPRESSED_ENTRIES_FIELD = "compressedEntries";
+  private static final String UNCOMPRESSED_SIZE_FIELD = "uncompressedSize";
   private static final String STATE_REPO_ENTRIES_SUB_STRUCT = "mappings";
   private static final String STATE_REPO_VALUE_FIELD = "value";
   private static final String STATE_REPO_MAP_NAME_FIELD = "mapName";
@@ -72,6 +78,13 @@ public class EhcacheSyncMessageCodec implements SyncMessageCodec<EhcacheEntityMe
 
   private static final Struct DATA_SYNC_STRUCT = newStructBuilder()
     .enm(SYNC_MESSAGE_TYPE_FIELD_NAME, SYNC_MESSAGE_TYPE_FIELD_INDEX, SYNC_MESSAGE_TYPE_MAPPING)
+    .structs(CHAIN_MAP_ENTRIES_SUB_STRUCT, 20, CHAIN_MAP_ENTRY_STRUCT)
+    .byteBuffer(COMPRESSED_ENTRIES_FIELD, 30)
+    .int32(UNCOMPRESSED_SIZE_FIELD, 40)
+    .build();
+
+  // Deflated as a whole into the compressed entries of DATA_SYNC_STRUCT
+  private static final Struct CHAIN_MAP_STRUCT = newStructBuilder()
     .structs(CHAIN_MAP_ENTRIES_SUB_STRUCT, 20, CHAIN_MAP_ENTRY_STRUCT)
     .build();
 
@@ -168,12 +181,66 @@ public class EhcacheSyncMessageCodec implements SyncMessageCodec<EhcacheEntityMe
     StructEncoder<Void> encoder;
     encoder = DATA_SYNC_STRUCT.encoder();
     encoder.enm(SYNC_MESSAGE_TYPE_FIELD_NAME, DATA);
+    if (syncMessage.isCompressed()) {
+      StructEncoder<Void> chainMapEncoder = CHAIN_MAP_STRUCT.encoder();
+      encodeChainMapEntries(chainMapEncoder, syncMessage.getChainMap());
+      byte[] entries = chainMapEncoder.encode().array();
+      encoder.byteBuffer(COMPRESSED_ENTRIES_FIELD, deflate(entries))
+        .int32(UNCOMPRESSED_SIZE_FIELD, entries.length);
+    } else {
+      encodeChainMapEntries(encoder, syncMessage.getChainMap());
+    }
+    return encoder.encode().array();
+  }
+
+  private static void encodeChainMapEntries(StructEncoder<Void> encoder, Map<Long, Chain> chainMap) {
     encoder.structs(CHAIN_MAP_ENTRIES_SUB_STRUCT,
-      syncMessage.getChainMap().entrySet(), (entryEncoder, entry) -> {
+      chainMap.entrySet(), (entryEncoder, entry) -> {
         entryEncoder.int64(KEY_FIELD, entry.getKey());
         entryEncoder.struct(CHAIN_FIELD, entry.getValue(), ChainCodec::encode);
       });
-    return encoder.encode().array();
+  }
+
+  private static ByteBuffer deflate(byte[] bytes) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+      byte[] chunk = new byte[8192];
+      while (!deflater.finished()) {
+        out.write(chunk, 0, deflater.deflate(chunk));
+      }
+      return wrap(out.toByteArray());
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static ByteBuffer inflate(ByteBuffer buffer, int uncompressedSize) {
+    byte[] compressed = new byte[buffer.remaining()];
+    buffer.get(compressed);
+    byte[] uncompressed = new byte[uncompressedSize];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      int length = 0;
+      while (length < uncompressedSize && !inflater.finished()) {
+        int inflated = inflater.inflate(uncompressed, length, uncompressedSize - length);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += inflated;
+      }
+      if (length != uncompressedSize || !inflater.finished()) {
+        throw new AssertionError("Invalid message format - compressed entries are truncated");
+      }
+      return wrap(uncompressed);
+    } catch (DataFormatException e) {
+      throw new AssertionError("Invalid message format - compressed entries are corrupted", e);
+    } finally {
+      inflater.end();
+    }
   }
 
   @Override
@@ -256,7 +323,18 @@ public class EhcacheSyncMessageCodec implements SyncMessageCodec<EhcacheEntityMe
   private EhcacheSyncMessage decodeDataSync(ByteBuffer message) {
     StructDecoder<Void> decoder = DATA_SYNC_STRUCT.decoder(message);
     Map<Long, Chain> chainMap = decodeChainMapEntries(decoder);
-    return new EhcacheDataSyncMessage(chainMap);
+    ByteBuffer compressedEntries = decoder.byteBuffer(COMPRESSED_ENTRIES_FIELD);
+    if (compressedEntries == null) {
+      return new EhcacheDataSyncMessage(chainMap);
+    } else {
+      Integer uncompressedSize = decoder.int32(UNCOMPRESSED_SIZE_FIELD);
+      if (uncompressedSize == null) {
+        throw new AssertionError("Invalid message format - misses the uncompressed size of the compressed entries");
+      }
+      StructDecoder<Void> chainMapDecoder = CHAIN_MAP_STRUCT.decoder(inflate(compressedEntries, uncompressedSize));
+      chainMap.putAll(decodeChainMapEntries(chainMapDecoder));
+      return new EhcacheDataSyncMessage(chainMap, true);
+    }
   }
 
   private Map<Long, Chain> decodeChainMapEntries(StructDecoder<Void> decoder) {
@@ -23,7 +23,9 @@ import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.Element;
 import org.ehcache.clustered.common.internal.store.Util;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -32,27 +34,20 @@ import java.util.stream.StreamSupport;
  */
 public abstract class PassiveReplicationMessage extends EhcacheOperationMessage {
 
-  public static class ChainReplicationMessage extends PassiveReplicationMessage implements ConcurrentEntityMessage {
+  /**
+   * Base class of the replication messages standing in, on the passive, for a tracked message received by the active.
+   * They carry the original client and transaction ids so the passive can track the original message.
+   */
+  public abstract static class ClientTrackedReplicationMessage extends PassiveReplicationMessage {
 
     private final long clientId;
-    private final long key;
-    private final Chain chain;
     private final long transactionId;
     private final long oldestTransactionId;
 
-    public ChainReplicationMessage(long key, Chain chain, long transactionId, long oldestTransactionId, long clientId) {
+    ClientTrackedReplicationMessage(long transactionId, long oldestTransactionId, long clientId) {
       this.clientId = clientId;
       this.transactionId = transactionId;
       this.oldestTransactionId = oldestTransactionId;
-      this.key = key;
-      this.chain = chain;
-    }
-
-    private Chain dropLastElement(Chain chain) {
-      List<Element> elements = StreamSupport.stream(chain.spliterator(), false)
-        .collect(Collectors.toList());
-      elements.remove(elements.size() -1); // remove last
-      return Util.getChain(elements);
     }
 
     public long getClientId() {
@@ -63,6 +58,28 @@ public abstract class PassiveReplicationMessage extends EhcacheOperationMessage
       return transactionId;
     }
 
+    public long getOldestTransactionId() {
+      return oldestTransactionId;
+    }
+
+    static Chain dropLastElements(Chain chain, int count) {
+      List<Element> elements = StreamSupport.stream(chain.spliterator(), false)
+        .collect(Collectors.toList());
+      return Util.getChain(elements.subList(0, elements.size() - count)); // remove last ones
+    }
+  }
+
+  public static class ChainReplicationMessage extends ClientTrackedReplicationMessage implements ConcurrentEntityMessage {
+
+    private final long key;
+    private final Chain chain;
+
+    public ChainReplicationMessage(long key, Chain chain, long transactionId, long oldestTransactionId, long clientId) {
+      super(transactionId, oldestTransactionId, clientId);
+      this.key = key;
+      this.chain = chain;
+    }
+
     public long getKey() {
       return key;
     }
@@ -78,11 +95,7 @@ public abstract class PassiveReplicationMessage extends EhcacheOperationMessage
      * @return result that should be returned is the original message is sent again to this server after a failover
      */
     public Chain getResult() {
-      return dropLastElement(chain);
-    }
-
-    public long getOldestTransactionId() {
-      return oldestTransactionId;
+      return dropLastElements(chain, 1);
     }
 
     @Override
@@ -96,6 +109,46 @@ public abstract class PassiveReplicationMessage extends EhcacheOperationMessage
     }
   }
 
+  public static class BulkChainReplicationMessage extends ClientTrackedReplicationMessage {
+
+    private final Map<Long, Chain> chains;
+    private final Map<Long, Integer> appendCounts;
+
+    public BulkChainReplicationMessage(Map<Long, Chain> chains, Map<Long, Integer> appendCounts, long transactionId, long oldestTransactionId, long clientId) {
+      super(transactionId, oldestTransactionId, clientId);
+      this.chains = chains;
+      this.appendCounts = appendCounts;
+    }
+
+    /**
+     * @return chains that need to be saved in the store
+     */
+    public Map<Long, Chain> getChains() {
+      return chains;
+    }
+
+    /**
+     * @return number of elements appended by the original message at the tail of each chain
+     */
+    public Map<Long, Integer> getAppendCounts() {
+      return appendCounts;
+    }
+
+    /**
+     * @return result that should be returned is the original message is sent again to this server after a failover
+     */
+    public Map<Long, Chain> getResults() {
+      Map<Long, Chain> results = new HashMap<>();
+      chains.forEach((key, chain) -> results.put(key, dropLastElements(chain, appendCounts.get(key))));
+      return results;
+    }
+
+    @Override
+    public EhcacheMessageType getMessageType() {
+      return EhcacheMessageType.BULK_CHAIN_REPLICATION_OP;
+    }
+  }
+
   public static class ClearInvalidationCompleteMessage extends PassiveReplicationMessage {
 
     public ClearInvalidationCompleteMessage() {
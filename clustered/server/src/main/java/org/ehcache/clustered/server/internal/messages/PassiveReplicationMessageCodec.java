@@ -22,10 +22,13 @@ import org.ehcache.clustered.common.internal.messages.EhcacheMessageType;
 import org.ehcache.clustered.common.internal.messages.MessageCodecUtils;
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.terracotta.runnel.Struct;
+import org.terracotta.runnel.decoding.StructArrayDecoder;
 import org.terracotta.runnel.decoding.StructDecoder;
 import org.terracotta.runnel.encoding.StructEncoder;
 
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.ehcache.clustered.common.internal.messages.EhcacheMessageType.EHCACHE_MESSAGE_TYPES_ENUM_MAPPING;
@@ -52,6 +55,23 @@ public class PassiveReplicationMessageCodec {
     .struct(CHAIN_FIELD, 45, ChainCodec.CHAIN_STRUCT)
     .build();
 
+  private static final String CHAINS_FIELD = "chains";
+  private static final String APPEND_COUNT_FIELD = "appended";
+
+  private static final Struct BULK_CHAIN_ENTRY_STRUCT = newStructBuilder()
+    .int64(KEY_FIELD, 10)
+    .struct(CHAIN_FIELD, 20, ChainCodec.CHAIN_STRUCT)
+    .int32(APPEND_COUNT_FIELD, 30)
+    .build();
+
+  private static final Struct BULK_CHAIN_REPLICATION_STRUCT = newStructBuilder()
+    .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
+    .int64(TRANSACTION_ID_FIELD, 15)
+    .int64(CLIENT_ID_FIELD, 20)
+    .int64(OLDEST_TRANSACTION_ID_FIELD, 35)
+    .structs(CHAINS_FIELD, 40, BULK_CHAIN_ENTRY_STRUCT)
+    .build();
+
   private static final Struct CLEAR_INVALIDATION_COMPLETE_STRUCT = newStructBuilder()
     .enm(MESSAGE_TYPE_FIELD_NAME, MESSAGE_TYPE_FIELD_INDEX, EHCACHE_MESSAGE_TYPES_ENUM_MAPPING)
     .build();
@@ -72,6 +92,8 @@ public class PassiveReplicationMessageCodec {
     switch (message.getMessageType()) {
       case CHAIN_REPLICATION_OP:
         return encodeChainReplicationMessage((PassiveReplicationMessage.ChainReplicationMessage) message);
+      case BULK_CHAIN_REPLICATION_OP:
+        return encodeBulkChainReplicationMessage((PassiveReplicationMessage.BulkChainReplicationMessage) message);
       case CLEAR_INVALIDATION_COMPLETE:
         return encodeClearInvalidationCompleteMessage((PassiveReplicationMessage.ClearInvalidationCompleteMessage) message);
       case INVALIDATION_COMPLETE:
@@ -112,11 +134,30 @@ public class PassiveReplicationMessageCodec {
     return encoder.encode().array();
   }
 
+  private byte[] encodeBulkChainReplicationMessage(PassiveReplicationMessage.BulkChainReplicationMessage message) {
+    StructEncoder<Void> encoder = BULK_CHAIN_REPLICATION_STRUCT.encoder();
+
+    messageCodecUtils.encodeMandatoryFields(encoder, message);
+
+    encoder.int64(TRANSACTION_ID_FIELD, message.getTransactionId());
+    encoder.int64(CLIENT_ID_FIELD, message.getClientId());
+    encoder.int64(OLDEST_TRANSACTION_ID_FIELD, message.getOldestTransactionId());
+    encoder.structs(CHAINS_FIELD, message.getChains().entrySet(), (entryEncoder, entry) -> {
+      entryEncoder.int64(KEY_FIELD, entry.getKey());
+      entryEncoder.struct(CHAIN_FIELD, entry.getValue(), ChainCodec::encode);
+      entryEncoder.int32(APPEND_COUNT_FIELD, message.getAppendCounts().get(entry.getKey()));
+    });
+
+    return encoder.encode().array();
+  }
+
   public EhcacheEntityMessage decode(EhcacheMessageType messageType, ByteBuffer messageBuffer) {
 
     switch (messageType) {
       case CHAIN_REPLICATION_OP:
         return decodeChainReplicationMessage(messageBuffer);
+      case BULK_CHAIN_REPLICATION_OP:
+        return decodeBulkChainReplicationMessage(messageBuffer);
       case CLEAR_INVALIDATION_COMPLETE:
         return decodeClearInvalidationCompleteMessage(messageBuffer);
       case INVALIDATION_COMPLETE:
@@ -152,4 +193,27 @@ public class PassiveReplicationMessageCodec {
     return new PassiveReplicationMessage.ChainReplicationMessage(key, chain, currentTransactionId, oldestTransactionId, clientId);
   }
 
+  private PassiveReplicationMessage.BulkChainReplicationMessage decodeBulkChainReplicationMessage(ByteBuffer messageBuffer) {
+    StructDecoder<Void> decoder = BULK_CHAIN_REPLICATION_STRUCT.decoder(messageBuffer);
+
+    Long currentTransactionId = decoder.int64(TRANSACTION_ID_FIELD);
+    Long clientId = decoder.int64(CLIENT_ID_FIELD);
+    Long oldestTransactionId = decoder.int64(OLDEST_TRANSACTION_ID_FIELD);
+
+    Map<Long, Chain> chains = new HashMap<>();
+    Map<Long, Integer> appendCounts = new HashMap<>();
+    StructArrayDecoder<StructDecoder<Void>> entriesDecoder = decoder.structs(CHAINS_FIELD);
+    if (entriesDecoder != null) {
+      for (int i = 0; i < entriesDecoder.length(); i++) {
+        StructDecoder<StructArrayDecoder<StructDecoder<Void>>> entryDecoder = entriesDecoder.next();
+        Long key = entryDecoder.int64(KEY_FIELD);
+        chains.put(key, ChainCodec.decode(entryDecoder.struct(CHAIN_FIELD)));
+        appendCounts.put(key, entryDecoder.int32(APPEND_COUNT_FIELD));
+        entryDecoder.end();
+      }
+    }
+
+    return new PassiveReplicationMessage.BulkChainReplicationMessage(chains, appendCounts, currentTransactionId, oldestTransactionId, clientId);
+  }
+
 }
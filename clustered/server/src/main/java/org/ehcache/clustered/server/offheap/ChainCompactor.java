@@ -0,0 +1,120 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.clustered.server.offheap;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
+import org.ehcache.clustered.common.internal.store.Util;
+
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.KEY_OFFSET;
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.KEY_VALUE_KEY_OFFSET;
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.OPERATION_CODE_OFFSET;
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.PUT;
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.REMOVE;
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.REPLACE_CONDITIONAL;
+import static org.ehcache.clustered.common.internal.store.OperationEncoding.TIMESTAMP_OFFSET;
+
+/**
+ * Compacts chains of clustered store operations, as laid out by {@link org.ehcache.clustered.common.internal.store.OperationEncoding},
+ * without a client round trip.
+ * <p>
+ * The server knows neither the keys, only their serialized form, nor the expiry of the cache. So it only drops the
+ * operations whose outcome no longer matters whatever the expiry: the ones preceding an unconditional remove of their
+ * key, together with that remove, and the ones preceding a put whose expiration time was already resolved by a client.
+ */
+final class ChainCompactor {
+
+  private ChainCompactor() {
+    //static
+  }
+
+  /**
+   * @return the compacted chain, or {@code null} if nothing can be dropped from {@code chain}
+   */
+  static Chain compact(Chain chain) {
+    List<ByteBuffer> payloads = new ArrayList<>();
+    for (Element element : chain) {
+      payloads.add(element.getPayload());
+    }
+
+    boolean[] dropped = new boolean[payloads.size()];
+    int droppedCount = 0;
+    Set<ByteBuffer> supersededKeys = new HashSet<>();
+    try {
+      for (int i = payloads.size() - 1; i >= 0; i--) {
+        ByteBuffer payload = payloads.get(i);
+        byte operation = payload.get(payload.position() + OPERATION_CODE_OFFSET);
+        if (operation < PUT || operation > REPLACE_CONDITIONAL) {
+          return null;
+        }
+        ByteBuffer key = key(payload, operation);
+        if (supersededKeys.contains(key)) {
+          dropped[i] = true;
+          droppedCount++;
+        } else if (operation == REMOVE) {
+          supersededKeys.add(key);
+          dropped[i] = true;
+          droppedCount++;
+        } else if (operation == PUT && payload.getLong(payload.position() + TIMESTAMP_OFFSET) < 0) {
+          supersededKeys.add(key);
+        }
+      }
+    } catch (IndexOutOfBoundsException | IllegalArgumentException | BufferUnderflowException e) {
+      // not an operation chain
+      return null;
+    }
+
+    if (droppedCount == payloads.size()) {
+      // the chain resolves to no mapping at all: keep its last remove rather than the chain
+      dropped[payloads.size() - 1] = false;
+      droppedCount--;
+    }
+    if (droppedCount == 0) {
+      return null;
+    }
+
+    List<ByteBuffer> compacted = new ArrayList<>(payloads.size() - droppedCount);
+    for (int i = 0; i < payloads.size(); i++) {
+      if (!dropped[i]) {
+        compacted.add(payloads.get(i));
+      }
+    }
+    return Util.getChain(false, compacted.toArray(new ByteBuffer[compacted.size()]));
+  }
+
+  private static ByteBuffer key(ByteBuffer payload, byte operation) {
+    ByteBuffer key = payload.duplicate();
+    if (operation == REMOVE) {
+      key.position(key.position() + KEY_OFFSET);
+    } else {
+      int keySize = payload.getInt(payload.position() + KEY_OFFSET);
+      int keyStart = payload.position() + KEY_VALUE_KEY_OFFSET;
+      if (keySize < 0 || keySize > payload.limit() - keyStart) {
+        throw new IllegalArgumentException("Invalid key size " + keySize);
+      }
+      key.position(keyStart).limit(keyStart + keySize);
+    }
+    return key.slice();
+  }
+}
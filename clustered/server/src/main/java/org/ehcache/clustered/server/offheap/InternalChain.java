@@ -24,6 +24,18 @@ interface InternalChain extends Closeable {
 
   Chain detach();
 
+  /**
+   * A view of this chain reading its elements from storage instead of copying them. It is only valid as long as this
+   * chain is open and its map locked, and its iterators hand out a single element instance, moved along at each
+   * {@code next()} call.
+   */
+  Chain view();
+
+  /**
+   * @return the number of elements of this chain, as tracked in its header
+   */
+  int length();
+
   boolean append(ByteBuffer element);
 
   boolean replace(Chain expected, Chain replacement);
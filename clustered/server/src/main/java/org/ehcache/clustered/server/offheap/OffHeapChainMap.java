@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.Element;
@@ -46,6 +47,7 @@ public class OffHeapChainMap<K> implements MapInternals {
   private final ReadWriteLockedOffHeapClockCache<K, InternalChain> heads;
   private final OffHeapChainStorageEngine<K> chainStorage;
   private volatile ChainMapEvictionListener<K> evictionListener;
+  private volatile int compactionThreshold;
 
   public OffHeapChainMap(PageSource source, Portability<? super K> keyPortability, int minPageSize, int maxPageSize, boolean shareByThieving) {
     this.chainStorage = new OffHeapChainStorageEngine<>(source, keyPortability, minPageSize, maxPageSize, shareByThieving, shareByThieving);
@@ -79,6 +81,17 @@ public class OffHeapChainMap<K> implements MapInternals {
     evictionListener = listener;
   }
 
+  /**
+   * Makes {@link #compactIfNeeded(Object, int)} compact a chain through {@link ChainCompactor} each time its length
+   * reaches a multiple of {@code threshold}. A threshold of zero disables compaction.
+   */
+  void setCompactionThreshold(int threshold) {
+    if (threshold < 0) {
+      throw new IllegalArgumentException("Compaction threshold can not be negative: " + threshold);
+    }
+    compactionThreshold = threshold;
+  }
+
   public Chain get(K key) {
     final Lock lock = heads.readLock();
     lock.lock();
@@ -98,6 +111,31 @@ public class OffHeapChainMap<K> implements MapInternals {
     }
   }
 
+  /**
+   * Hands a view of the chain of {@code key} to {@code reader}, under the read lock.
+   * <p>
+   * The view reads the elements straight from the off-heap storage, so it must not be used once {@code reader}
+   * returned. See {@link InternalChain#view()}.
+   */
+  public <T> T read(K key, Function<Chain, T> reader) {
+    final Lock lock = heads.readLock();
+    lock.lock();
+    try {
+      InternalChain chain = heads.get(key);
+      if (chain == null) {
+        return reader.apply(EMPTY_CHAIN);
+      } else {
+        try {
+          return reader.apply(chain.view());
+        } finally {
+          chain.close();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
   public Chain getAndAppend(K key, ByteBuffer element) {
     final Lock lock = heads.writeLock();
     lock.lock();
@@ -152,6 +190,40 @@ public class OffHeapChainMap<K> implements MapInternals {
 
   }
 
+  /**
+   * Compacts the chain of {@code key} if its length went past a multiple of the compaction threshold over the last
+   * {@code appended} appends.
+   * <p>
+   * Appends never compact by themselves: callers compact once they are done with the chain resulting from the appends,
+   * replicating it for instance, so that the appended elements are always found at its tail.
+   */
+  public void compactIfNeeded(K key, int appended) {
+    int threshold = compactionThreshold;
+    if (threshold > 0) {
+      final Lock lock = heads.writeLock();
+      lock.lock();
+      try {
+        InternalChain chain = heads.get(key);
+        if (chain != null) {
+          try {
+            if (chain.length() % threshold < appended) {
+              Chain current = chain.detach();
+              Chain compacted = ChainCompactor.compact(current);
+              if (compacted != null) {
+                // best effort: the chain is left as is if the compacted one can't be allocated
+                chain.replace(current, compacted);
+              }
+            }
+          } finally {
+            chain.close();
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
   public void replaceAtHead(K key, Chain expected, Chain replacement) {
     final Lock lock = heads.writeLock();
     lock.lock();
@@ -220,6 +292,19 @@ public class OffHeapChainMap<K> implements MapInternals {
     }
   }
 
+  /**
+   * Copies the keys of this map, under the read lock so that the copy can not race with mutations.
+   */
+  public List<K> keySnapshot() {
+    final Lock lock = heads.readLock();
+    lock.lock();
+    try {
+      return new ArrayList<>(heads.keySet());
+    } finally {
+      lock.unlock();
+    }
+  }
+
   private void evict() {
     int evictionIndex = heads.getEvictionIndex();
     if (evictionIndex < 0) {
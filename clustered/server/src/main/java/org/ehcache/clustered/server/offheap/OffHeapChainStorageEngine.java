@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
@@ -46,7 +47,8 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
   private static final int CHAIN_HEADER_KEY_LENGTH_OFFSET = 0;
   private static final int CHAIN_HEADER_KEY_HASH_OFFSET = 4;
   private static final int CHAIN_HEADER_TAIL_OFFSET = 8;
-  private static final int CHAIN_HEADER_SIZE = 16;
+  private static final int CHAIN_HEADER_LENGTH_OFFSET = 16;
+  private static final int CHAIN_HEADER_SIZE = 20;
 
   private final OffHeapStorageArea storage;
   private final Portability<? super K> keyPortability;
@@ -210,6 +212,16 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
       throw new AssertionError("primordial chains cannot be detached");
     }
 
+    @Override
+    public Chain view() {
+      throw new AssertionError("primordial chains cannot be viewed");
+    }
+
+    @Override
+    public int length() {
+      return 1;
+    }
+
     @Override
     public boolean append(ByteBuffer element) {
       throw new AssertionError("primordial chains cannot be appended");
@@ -251,6 +263,32 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
       return new DetachedChain(buffers);
     }
 
+    @Override
+    public Chain view() {
+      final long address = chain;
+      return new Chain() {
+        @Override
+        public Iterator<Element> reverseIterator() {
+          throw new UnsupportedOperationException("Chain views can only be iterated forward");
+        }
+
+        @Override
+        public boolean isEmpty() {
+          return false;
+        }
+
+        @Override
+        public Iterator<Element> iterator() {
+          return new ElementCursor(address);
+        }
+      };
+    }
+
+    @Override
+    public int length() {
+      return storage.readInt(chain + CHAIN_HEADER_LENGTH_OFFSET);
+    }
+
     @Override
     public boolean append(ByteBuffer element) {
       long newTail = createElement(element);
@@ -265,6 +303,7 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
           throw e;
         }
         storage.writeLong(chain + CHAIN_HEADER_TAIL_OFFSET, newTail);
+        storage.writeInt(chain + CHAIN_HEADER_LENGTH_OFFSET, length() + 1);
         return true;
       }
     }
@@ -283,12 +322,14 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
     public boolean removeHeader(Chain header) {
       long suffixHead = chain + CHAIN_HEADER_SIZE;
       long prefixTail;
+      int removed = 0;
 
       Iterator<Element> iterator = header.iterator();
       do {
         if (!compare(iterator.next(), suffixHead)) {
           return true;
         }
+        removed++;
         prefixTail = suffixHead;
         suffixHead = storage.readLong(suffixHead + ELEMENT_HEADER_NEXT_OFFSET);
       } while (iterator.hasNext());
@@ -313,7 +354,7 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
             long next = storage.readLong(suffixHead + ELEMENT_HEADER_NEXT_OFFSET);
             long tail = storage.readLong(chain + CHAIN_HEADER_TAIL_OFFSET);
             if (next != chain) {
-              newChain.append(next, tail);
+              newChain.append(next, tail, length() - removed - 1);
             }
 
             if (owner.updateEncoding(hash, chain, newChainAddress, ~0)) {
@@ -332,12 +373,14 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
     public boolean replaceHeader(Chain expected, Chain replacement) {
       long suffixHead = chain + CHAIN_HEADER_SIZE;
       long prefixTail;
+      int replaced = 0;
 
       Iterator<Element> expectedIt = expected.iterator();
       do {
         if (!compare(expectedIt.next(), suffixHead)) {
           return true;
         }
+        replaced++;
         prefixTail = suffixHead;
         suffixHead = storage.readLong(suffixHead + ELEMENT_HEADER_NEXT_OFFSET);
       } while (expectedIt.hasNext());
@@ -350,7 +393,7 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
         try (AttachedInternalChain newChain = new AttachedInternalChain(newChainAddress)) {
           //copy remaining elements from old chain (by reference)
           if (suffixHead != chain) {
-            newChain.append(suffixHead, storage.readLong(chain + CHAIN_HEADER_TAIL_OFFSET));
+            newChain.append(suffixHead, storage.readLong(chain + CHAIN_HEADER_TAIL_OFFSET), length() - replaced);
           }
 
           if (owner.updateEncoding(hash, chain, newChainAddress, ~0)) {
@@ -394,12 +437,16 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
       }
     }
 
-    private void append(long head, long tail) {
+    /**
+     * Links the {@code count} elements from {@code head} to {@code tail} at the end of this chain.
+     */
+    private void append(long head, long tail, int count) {
       long oldTail = storage.readLong(chain + CHAIN_HEADER_TAIL_OFFSET);
 
       storage.writeLong(oldTail + ELEMENT_HEADER_NEXT_OFFSET, head);
       storage.writeLong(tail + ELEMENT_HEADER_NEXT_OFFSET, chain);
       storage.writeLong(chain + CHAIN_HEADER_TAIL_OFFSET, tail);
+      storage.writeInt(chain + CHAIN_HEADER_LENGTH_OFFSET, length() + count);
     }
 
     private Element element(ByteBuffer attachedBuffer, final long sequence) {
@@ -428,6 +475,46 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
       return storage.readLong(address + ELEMENT_HEADER_SEQUENCE_OFFSET);
     }
 
+    /**
+     * Walks the elements of a chain, being itself the element last returned.
+     */
+    private final class ElementCursor implements Iterator<Element>, SequencedElement {
+
+      private final long chain;
+      private long next;
+      private long current;
+
+      ElementCursor(long chain) {
+        this.chain = chain;
+        this.next = chain + CHAIN_HEADER_SIZE;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != chain;
+      }
+
+      @Override
+      public Element next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        current = next;
+        next = storage.readLong(current + ELEMENT_HEADER_NEXT_OFFSET);
+        return this;
+      }
+
+      @Override
+      public ByteBuffer getPayload() {
+        return readElementBuffer(current).asReadOnlyBuffer();
+      }
+
+      @Override
+      public long getSequenceNumber() {
+        return readElementSequenceNumber(current);
+      }
+    }
+
     public void moved(long from, long to) {
       if (from == chain) {
         chain = to;
@@ -466,6 +553,7 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
     writeElement(element, elemBuffer);
     storage.writeLong(element + ELEMENT_HEADER_NEXT_OFFSET, chain);
     storage.writeLong(chain + CHAIN_HEADER_TAIL_OFFSET, element);
+    storage.writeInt(chain + CHAIN_HEADER_LENGTH_OFFSET, 1);
     return chain;
   }
 
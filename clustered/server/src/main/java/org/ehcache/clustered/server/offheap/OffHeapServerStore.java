@@ -18,6 +18,7 @@ package org.ehcache.clustered.server.offheap;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.ServerStore;
@@ -36,6 +37,12 @@ public class OffHeapServerStore implements ServerStore, MapInternals {
 
   private static final long MAX_PAGE_SIZE_IN_KB = KILOBYTES.convert(8, MEGABYTES);
 
+  /**
+   * Chain length at which chains are compacted on the server after appends, see {@link ChainCompactor}. Compaction
+   * is disabled unless set.
+   */
+  public static final String CHAIN_COMPACTION_THRESHOLD_PROP = "ehcache.server.chain.compaction.threshold";
+
   private final List<OffHeapChainMap<Long>> segments;
   private final KeySegmentMapper mapper;
 
@@ -54,12 +61,26 @@ public class OffHeapServerStore implements ServerStore, MapInternals {
     for (int i = 0; i < mapper.getSegments(); i++) {
       segments.add(new OffHeapChainMap<>(source, LongPortability.INSTANCE, KILOBYTES.toBytes(4), (int) KILOBYTES.toBytes(maxSize), false));
     }
+    setCompactionThreshold(Integer.getInteger(CHAIN_COMPACTION_THRESHOLD_PROP, 0));
+  }
+
+  void setCompactionThreshold(int threshold) {
+    for (OffHeapChainMap<Long> segment : segments) {
+      segment.setCompactionThreshold(threshold);
+    }
   }
 
   public List<OffHeapChainMap<Long>> getSegments() {
     return segments;
   }
 
+  /**
+   * @return a snapshot of the keys held by the given segment
+   */
+  public long[] getSegmentKeys(int segment) {
+    return segments.get(segment).keySnapshot().stream().mapToLong(Long::longValue).toArray();
+  }
+
   static long getMaxSize(long poolSize) {
     long l = Long.highestOneBit(poolSize);
     long sizeInKb = KILOBYTES.convert(l, BYTES);
@@ -83,6 +104,14 @@ public class OffHeapServerStore implements ServerStore, MapInternals {
     return segmentFor(key).get(key);
   }
 
+  public <T> T read(long key, Function<Chain, T> reader) {
+    return segmentFor(key).read(key, reader);
+  }
+
+  public void compactIfNeeded(long key, int appended) {
+    segmentFor(key).compactIfNeeded(key, appended);
+  }
+
   @Override
   public void append(long key, ByteBuffer payLoad) {
     try {
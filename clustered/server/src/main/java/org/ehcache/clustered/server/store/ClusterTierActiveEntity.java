@@ -71,26 +71,33 @@ import org.terracotta.entity.ServiceException;
 import org.terracotta.entity.ServiceRegistry;
 import org.terracotta.entity.StateDumpCollector;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.allInvalidationDone;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.clientInvalidateAll;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.clientInvalidateHash;
+import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.clientInvalidateHashes;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.hashInvalidationDone;
 import static org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse.serverInvalidateHash;
 import static org.ehcache.clustered.common.internal.messages.EhcacheMessageType.isLifecycleMessage;
@@ -107,6 +114,14 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
   private static final Logger LOGGER = LoggerFactory.getLogger(ClusterTierActiveEntity.class);
   static final String SYNC_DATA_SIZE_PROP = "ehcache.sync.data.size.threshold";
   private static final long DEFAULT_SYNC_DATA_SIZE_THRESHOLD = 4 * 1024 * 1024;
+  // Off by default: passives not knowing about compression would silently drop compressed data sync messages
+  static final String SYNC_DATA_COMPRESSION_PROP = "ehcache.sync.data.compression";
+  static final String INVALIDATION_ACK_TIMEOUT_PROP = "ehcache.invalidation.ack.timeout.millis";
+  private static final long DEFAULT_INVALIDATION_ACK_TIMEOUT_MILLIS = 1000L;
+  static final String ITERATOR_IDLE_TIMEOUT_PROP = "ehcache.iterator.idle.timeout.millis";
+  private static final long DEFAULT_ITERATOR_IDLE_TIMEOUT_MILLIS = 60_000L;
+  static final String MAX_ITERATORS_PER_CLIENT_PROP = "ehcache.iterator.max.per.client";
+  private static final int DEFAULT_MAX_ITERATORS_PER_CLIENT = 16;
 
   private final String storeIdentifier;
   private final ServerStoreConfiguration configuration;
@@ -125,6 +140,14 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
   private final Object inflightInvalidationsMutex = new Object();
   private volatile List<InvalidationTuple> inflightInvalidations;
   private final Set<ClientDescriptor> connectedClients = ConcurrentHashMap.newKeySet();
+  private final ConcurrentMap<ClientDescriptor, ClientInvalidationQueue> clientInvalidationQueues = new ConcurrentHashMap<>();
+  private final long invalidationAckTimeoutNanos =
+    TimeUnit.MILLISECONDS.toNanos(Long.getLong(INVALIDATION_ACK_TIMEOUT_PROP, DEFAULT_INVALIDATION_ACK_TIMEOUT_MILLIS));
+  private final AtomicInteger iteratorIdGenerator = new AtomicInteger();
+  private final ConcurrentMap<Integer, ChainIterator> iterators = new ConcurrentHashMap<>();
+  private final long iteratorIdleTimeoutNanos =
+    TimeUnit.MILLISECONDS.toNanos(Long.getLong(ITERATOR_IDLE_TIMEOUT_PROP, DEFAULT_ITERATOR_IDLE_TIMEOUT_MILLIS));
+  private final int maxIteratorsPerClient = Integer.getInteger(MAX_ITERATORS_PER_CLIENT_PROP, DEFAULT_MAX_ITERATORS_PER_CLIENT);
 
   @SuppressWarnings("unchecked")
   public ClusterTierActiveEntity(ServiceRegistry registry, ClusterTierEntityConfiguration entityConfiguration, KeySegmentMapper defaultMapper) throws ConfigurationException {
@@ -231,6 +254,8 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     }
 
     connectedClients.remove(clientDescriptor);
+    clientInvalidationQueues.remove(clientDescriptor);
+    iterators.values().removeIf(iterator -> iterator.owner.equals(clientDescriptor));
   }
 
   @Override
@@ -269,7 +294,10 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     ActiveInvokeContext activeInvokeContext = (ActiveInvokeContext)context;
     switch (message.getMessageType()) {
       case VALIDATE_SERVER_STORE:
-        validateServerStore(activeInvokeContext.getClientDescriptor(), (ValidateServerStore) message);
+        ValidateServerStore validateServerStore = (ValidateServerStore) message;
+        validateServerStore(activeInvokeContext.getClientDescriptor(), validateServerStore);
+        clientInvalidationQueues.put(activeInvokeContext.getClientDescriptor(),
+          new ClientInvalidationQueue(validateServerStore.isInvalidationBatchesSupported()));
         break;
       default:
         throw new AssertionError("Unsupported LifeCycle operation " + message);
@@ -298,6 +326,9 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
       throw new LifecycleException("cluster tier does not exist : '" + storeIdentifier + "'");
     }
 
+    flushOverdueHashInvalidations();
+    releaseIdleIterators();
+
     if (inflightInvalidations != null) {
       synchronized (inflightInvalidationsMutex) {
         // This logic totally counts on the fact that invokes will only happen
@@ -320,11 +351,37 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     switch (message.getMessageType()) {
       case GET_STORE: {
         ServerStoreOpMessage.GetMessage getMessage = (ServerStoreOpMessage.GetMessage) message;
+        // encoded under the segment lock, straight from the off-heap chain
+        return cacheStore.read(getMessage.getKey(), responseFactory::encodedResponse);
+      }
+      case GET_ALL_STORE: {
+        ServerStoreOpMessage.GetAllMessage getAllMessage = (ServerStoreOpMessage.GetAllMessage) message;
+        Map<Long, Chain> chains = new HashMap<>(getAllMessage.getKeys().size());
         try {
-          return responseFactory.response(cacheStore.get(getMessage.getKey()));
+          for (Long key : getAllMessage.getKeys()) {
+            chains.put(key, cacheStore.get(key));
+          }
         } catch (TimeoutException e) {
           throw new AssertionError("Server side store is not expected to throw timeout exception");
         }
+        return responseFactory.response(chains);
+      }
+      case ITERATOR_OPEN: {
+        ServerStoreOpMessage.IteratorOpenMessage iteratorOpenMessage = (ServerStoreOpMessage.IteratorOpenMessage) message;
+        int iteratorId = iteratorIdGenerator.incrementAndGet();
+        releaseIteratorsOverLimit(clientDescriptor);
+        ChainIterator iterator = new ChainIterator(clientDescriptor, cacheStore);
+        iterators.put(iteratorId, iterator);
+        return nextIteratorBatch(iteratorId, iterator, iteratorOpenMessage.getBatchSize());
+      }
+      case ITERATOR_ADVANCE: {
+        ServerStoreOpMessage.IteratorAdvanceMessage iteratorAdvanceMessage = (ServerStoreOpMessage.IteratorAdvanceMessage) message;
+        int iteratorId = iteratorAdvanceMessage.getIteratorId();
+        ChainIterator iterator = iterators.get(iteratorId);
+        if (iterator == null || !iterator.owner.equals(clientDescriptor)) {
+          throw new InvalidOperationException("Unknown iterator " + iteratorId + " on cluster tier '" + storeIdentifier + "'");
+        }
+        return nextIteratorBatch(iteratorId, iterator, iteratorAdvanceMessage.getBatchSize());
       }
       case APPEND: {
         ServerStoreOpMessage.AppendMessage appendMessage = (ServerStoreOpMessage.AppendMessage)message;
@@ -342,6 +399,7 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
           throw new AssertionError("Server side store is not expected to throw timeout exception");
         }
         sendMessageToSelfAndDeferRetirement(activeInvokeContext, appendMessage, newChain);
+        cacheStore.compactIfNeeded(appendMessage.getKey(), 1);
         invalidateHashForClient(clientDescriptor, appendMessage.getKey());
         return responseFactory.success();
       }
@@ -363,10 +421,22 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
           throw new AssertionError("Server side store is not expected to throw timeout exception");
         }
         sendMessageToSelfAndDeferRetirement(activeInvokeContext, getAndAppendMessage, newChain);
+        cacheStore.compactIfNeeded(getAndAppendMessage.getKey(), 1);
         LOGGER.debug("Send invalidations for key {}", getAndAppendMessage.getKey());
         invalidateHashForClient(clientDescriptor, getAndAppendMessage.getKey());
         return responseFactory.response(result);
       }
+      case GET_AND_APPEND_ALL: {
+        ServerStoreOpMessage.GetAndAppendAllMessage getAndAppendAllMessage = (ServerStoreOpMessage.GetAndAppendAllMessage) message;
+        LOGGER.trace("Message {} : GET_AND_APPEND_ALL on {} keys from client {}", message, getAndAppendAllMessage.getPayloads().size(), context.getClientSource().toLong());
+        return responseFactory.response(appendAll(activeInvokeContext, clientDescriptor, cacheStore, getAndAppendAllMessage));
+      }
+      case APPEND_ALL: {
+        ServerStoreOpMessage.AppendAllMessage appendAllMessage = (ServerStoreOpMessage.AppendAllMessage) message;
+        LOGGER.trace("Message {} : APPEND_ALL on {} keys from client {}", message, appendAllMessage.getPayloads().size(), context.getClientSource().toLong());
+        appendAll(activeInvokeContext, clientDescriptor, cacheStore, appendAllMessage);
+        return responseFactory.success();
+      }
       case REPLACE: {
         ServerStoreOpMessage.ReplaceAtHeadMessage replaceAtHeadMessage = (ServerStoreOpMessage.ReplaceAtHeadMessage) message;
         cacheStore.replaceAtHead(replaceAtHeadMessage.getKey(), replaceAtHeadMessage.getExpect(), replaceAtHeadMessage.getUpdate());
@@ -377,6 +447,17 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
         int invalidationId = clientInvalidationAck.getInvalidationId();
         LOGGER.debug("SERVER: got notification of invalidation ack in cache {} from {} (ID {})", storeIdentifier, clientDescriptor, invalidationId);
         clientInvalidated(clientDescriptor, invalidationId);
+        clientHashInvalidationsAcked(clientDescriptor);
+        return responseFactory.success();
+      }
+      case CLIENT_INVALIDATION_BATCH_ACK: {
+        ServerStoreOpMessage.ClientInvalidationBatchAck clientInvalidationBatchAck = (ServerStoreOpMessage.ClientInvalidationBatchAck) message;
+        Set<Integer> invalidationIds = clientInvalidationBatchAck.getInvalidationIds();
+        LOGGER.debug("SERVER: got notification of invalidation acks in cache {} from {} (IDs {})", storeIdentifier, clientDescriptor, invalidationIds);
+        for (Integer invalidationId : invalidationIds) {
+          clientInvalidated(clientDescriptor, invalidationId);
+        }
+        clientHashInvalidationsAcked(clientDescriptor);
         return responseFactory.success();
       }
       case CLIENT_INVALIDATION_ALL_ACK: {
@@ -431,6 +512,51 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     }
   }
 
+  private EhcacheEntityResponse nextIteratorBatch(int iteratorId, ChainIterator iterator, int batchSize) {
+    Map<Long, Chain> chains = iterator.next(batchSize);
+    boolean last = !iterator.hasNext();
+    if (last) {
+      iterators.remove(iteratorId);
+    }
+    return responseFactory.iteratorBatch(iteratorId, chains, last);
+  }
+
+  /**
+   * Entities have no timer of their own: cursors left behind by clients that stopped iterating are released on the next
+   * store operation once idle for the configured timeout. Advancing them fails as for any unknown cursor.
+   */
+  private void releaseIdleIterators() {
+    if (!iterators.isEmpty()) {
+      long now = System.nanoTime();
+      iterators.entrySet().removeIf(entry -> {
+        if (now - entry.getValue().lastUsed >= iteratorIdleTimeoutNanos) {
+          LOGGER.debug("SERVER: releasing iterator {} of client {} on cache {}, idle for too long", entry.getKey(), entry.getValue().owner,
+            storeIdentifier);
+          return true;
+        } else {
+          return false;
+        }
+      });
+    }
+  }
+
+  /**
+   * Makes room for a new cursor of {@code clientDescriptor} by releasing its least recently used ones beyond the
+   * per client limit.
+   */
+  private void releaseIteratorsOverLimit(ClientDescriptor clientDescriptor) {
+    List<Map.Entry<Integer, ChainIterator>> owned = iterators.entrySet().stream()
+      .filter(entry -> entry.getValue().owner.equals(clientDescriptor))
+      .sorted(Comparator.comparingLong((Map.Entry<Integer, ChainIterator> entry) -> entry.getValue().lastUsed))
+      .collect(toList());
+    for (Map.Entry<Integer, ChainIterator> entry : owned.subList(0, Math.max(0, owned.size() - maxIteratorsPerClient + 1))) {
+      if (iterators.remove(entry.getKey(), entry.getValue())) {
+        LOGGER.warn("SERVER: releasing iterator {} of client {} on cache {}, the client has more than {} open iterators", entry.getKey(),
+          clientDescriptor, storeIdentifier, maxIteratorsPerClient);
+      }
+    }
+  }
+
   private void clientInvalidated(ClientDescriptor clientDescriptor, int invalidationId) {
     InvalidationHolder invalidationHolder = clientsWaitingForInvalidation.get(invalidationId);
 
@@ -489,11 +615,14 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
 
     LOGGER.debug("SERVER: requesting {} client(s) invalidation of hash {} in cache {} (ID {})", clientsToInvalidate.size(), key, storeIdentifier, invalidationId);
     for (ClientDescriptor clientDescriptorThatHasToInvalidate : clientsToInvalidate) {
-      LOGGER.debug("SERVER: asking client {} to invalidate hash {} from cache {} (ID {})", clientDescriptorThatHasToInvalidate, key, storeIdentifier, invalidationId);
-      try {
-        clientCommunicator.sendNoResponse(clientDescriptorThatHasToInvalidate, clientInvalidateHash(key, invalidationId));
-      } catch (MessageCodecException mce) {
-        throw new AssertionError("Codec error", mce);
+      // a client that did not validate the tier is not known to understand batches
+      ClientInvalidationQueue queue = clientInvalidationQueues.computeIfAbsent(clientDescriptorThatHasToInvalidate, c -> new ClientInvalidationQueue(false));
+      Map<Integer, Long> invalidations = queue.offer(invalidationId, key);
+      if (invalidations == null) {
+        LOGGER.debug("SERVER: queueing invalidation of hash {} from cache {} for client {} (ID {})", key, storeIdentifier, clientDescriptorThatHasToInvalidate, invalidationId);
+      } else {
+        LOGGER.debug("SERVER: asking client {} to invalidate hash {} from cache {} (ID {})", clientDescriptorThatHasToInvalidate, key, storeIdentifier, invalidationId);
+        sendHashInvalidations(clientDescriptorThatHasToInvalidate, queue, invalidations);
       }
     }
 
@@ -502,6 +631,95 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     }
   }
 
+  private void clientHashInvalidationsAcked(ClientDescriptor clientDescriptor) {
+    ClientInvalidationQueue queue = clientInvalidationQueues.get(clientDescriptor);
+    if (queue != null) {
+      Map<Integer, Long> invalidations = queue.acknowledged(System.nanoTime());
+      if (invalidations != null) {
+        LOGGER.debug("SERVER: asking client {} to invalidate {} queued hashes from cache {}", clientDescriptor, invalidations.size(), storeIdentifier);
+        sendHashInvalidations(clientDescriptor, queue, invalidations);
+      }
+    }
+  }
+
+  /**
+   * Entities have no timer of their own: the queues of clients whose ack is overdue, lost or delayed, are flushed on
+   * the next store operation instead. On an otherwise quiet tier, that is the get a strong client waiting on the
+   * invalidation of a hash polls it with whenever its wait backs off.
+   */
+  private void flushOverdueHashInvalidations() {
+    long now = System.nanoTime();
+    for (Map.Entry<ClientDescriptor, ClientInvalidationQueue> entry : clientInvalidationQueues.entrySet()) {
+      Map<Integer, Long> invalidations = entry.getValue().expire(now, invalidationAckTimeoutNanos);
+      if (invalidations != null) {
+        LOGGER.warn("SERVER: no invalidation ack from client {} for cache {} in time, sending its {} queued hashes", entry.getKey(),
+          storeIdentifier, invalidations.size());
+        sendHashInvalidations(entry.getKey(), entry.getValue(), invalidations);
+      }
+    }
+  }
+
+  private void sendHashInvalidations(ClientDescriptor clientDescriptor, ClientInvalidationQueue queue, Map<Integer, Long> invalidations) {
+    try {
+      if (queue.isBatching() && invalidations.size() > 1) {
+        clientCommunicator.sendNoResponse(clientDescriptor, clientInvalidateHashes(invalidations));
+      } else {
+        for (Map.Entry<Integer, Long> invalidation : invalidations.entrySet()) {
+          clientCommunicator.sendNoResponse(clientDescriptor, clientInvalidateHash(invalidation.getValue(), invalidation.getKey()));
+        }
+      }
+    } catch (MessageCodecException mce) {
+      queue.sendFailed();
+      throw new AssertionError("Codec error", mce);
+    } catch (RuntimeException e) {
+      // the client is most likely going away: its disconnection releases whoever waits on its acks
+      queue.sendFailed();
+      LOGGER.warn("SERVER: unable to send hash invalidations from cache {} to client {}", storeIdentifier, clientDescriptor, e);
+    }
+  }
+
+  /**
+   * Appends the payloads of a bulk message, replicates the resulting chains to the passive as a single message, compacts
+   * them and sends the invalidations of the appended hashes.
+   *
+   * @return the chains as they were before the appends, collected for a {@code GET_AND_APPEND_ALL} only
+   */
+  private Map<Long, Chain> appendAll(ActiveInvokeContext context, ClientDescriptor clientDescriptor, ServerSideServerStore cacheStore,
+                                     ServerStoreOpMessage.BulkAppendServerStoreOpMessage message) {
+    Map<Long, List<ByteBuffer>> payloads = message.getPayloads();
+    boolean getChains = message instanceof ServerStoreOpMessage.GetAndAppendAllMessage;
+
+    InvalidationTracker invalidationTracker = stateService.getInvalidationTracker(storeIdentifier);
+    if (invalidationTracker != null) {
+      payloads.keySet().forEach(invalidationTracker::trackHashInvalidation);
+    }
+
+    Map<Long, Chain> results = new HashMap<>(payloads.size());
+    Map<Long, Chain> newChains = new HashMap<>(payloads.size());
+    Map<Long, Integer> appendCounts = new HashMap<>(payloads.size());
+    try {
+      for (Map.Entry<Long, List<ByteBuffer>> entry : payloads.entrySet()) {
+        long key = entry.getKey();
+        Iterator<ByteBuffer> keyPayloads = entry.getValue().iterator();
+        if (getChains) {
+          results.put(key, cacheStore.getAndAppend(key, keyPayloads.next()));
+        }
+        while (keyPayloads.hasNext()) {
+          cacheStore.append(key, keyPayloads.next());
+        }
+        newChains.put(key, cacheStore.get(key));
+        appendCounts.put(key, entry.getValue().size());
+      }
+    } catch (TimeoutException e) {
+      throw new AssertionError("Server side store is not expected to throw timeout exception");
+    }
+    sendMessageToSelfAndDeferRetirement(context, message, newChains, appendCounts);
+    appendCounts.forEach(cacheStore::compactIfNeeded);
+    LOGGER.debug("Send invalidations for {} keys", payloads.size());
+    payloads.keySet().forEach(key -> invalidateHashForClient(clientDescriptor, key));
+    return results;
+  }
+
   /**
    * Send a {@link PassiveReplicationMessage} to the passive, reuse the same transaction id and client id as the original message since this
    * original message won't ever be sent to the passive and these ids will be used to prevent duplication if the active goes down and the
@@ -521,6 +739,26 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     }
   }
 
+  /**
+   * Send a single {@link PassiveReplicationMessage} for a whole batch of appends to the passive, reusing the transaction id and
+   * client id of the original message as in {@link #sendMessageToSelfAndDeferRetirement(ActiveInvokeContext, KeyBasedServerStoreOpMessage, Chain)}.
+   *
+   * @param context context of the message
+   * @param message message to be forwarded
+   * @param newChains resulting chains to send
+   * @param appendCounts number of elements appended to each chain
+   */
+  private void sendMessageToSelfAndDeferRetirement(ActiveInvokeContext context, ServerStoreOpMessage.BulkAppendServerStoreOpMessage message,
+                                                   Map<Long, Chain> newChains, Map<Long, Integer> appendCounts) {
+    try {
+      long clientId = context.getClientSource().toLong();
+      entityMessenger.messageSelfAndDeferRetirement(message, new PassiveReplicationMessage.BulkChainReplicationMessage(newChains, appendCounts,
+        context.getCurrentTransactionId(), context.getOldestTransactionId(), clientId));
+    } catch (MessageCodecException e) {
+      throw new AssertionError("Codec error", e);
+    }
+  }
+
   private void addInflightInvalidationsForEventualCaches() {
     InvalidationTracker invalidationTracker = stateService.getInvalidationTracker(storeIdentifier);
     if (invalidationTracker != null) {
@@ -544,6 +782,9 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     ServerSideServerStore serverStore = stateService.getStore(storeIdentifier);
     addInflightInvalidationsForStrongCache(clientDescriptor, reconnectMessage, serverStore);
 
+    // nothing sent by the former active can still be acked
+    clientInvalidationQueues.put(clientDescriptor, new ClientInvalidationQueue(reconnectMessage.isInvalidationBatchesSupported()));
+
     LOGGER.info("Client '{}' successfully reconnected to newly promoted ACTIVE after failover.", clientDescriptor);
 
     connectedClients.add(clientDescriptor);
@@ -566,6 +807,7 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     } else {
       int segmentId = concurrencyKey - DEFAULT_KEY - 1;
       Long dataSizeThreshold = Long.getLong(SYNC_DATA_SIZE_PROP, DEFAULT_SYNC_DATA_SIZE_THRESHOLD);
+      boolean compressed = Boolean.getBoolean(SYNC_DATA_COMPRESSION_PROP);
       AtomicLong size = new AtomicLong(0);
       ServerSideServerStore store = stateService.getStore(storeIdentifier);
       final AtomicReference<Map<Long, Chain>> mappingsToSend = new AtomicReference<>(new HashMap<>());
@@ -582,13 +824,13 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
           }
           mappingsToSend.get().put(key, chain);
           if (size.get() > dataSizeThreshold) {
-            syncChannel.synchronizeToPassive(new EhcacheDataSyncMessage(mappingsToSend.get()));
+            syncChannel.synchronizeToPassive(new EhcacheDataSyncMessage(mappingsToSend.get(), compressed));
             mappingsToSend.set(new HashMap<>());
             size.set(0);
           }
         });
       if (!mappingsToSend.get().isEmpty()) {
-        syncChannel.synchronizeToPassive(new EhcacheDataSyncMessage(mappingsToSend.get()));
+        syncChannel.synchronizeToPassive(new EhcacheDataSyncMessage(mappingsToSend.get(), compressed));
         mappingsToSend.set(new HashMap<>());
         size.set(0);
       }
@@ -645,6 +887,135 @@ public class ClusterTierActiveEntity implements ActiveServerEntity<EhcacheEntity
     }
   }
 
+  /**
+   * Hash invalidations a client still has to be sent. While the client did not acknowledge the last invalidations sent
+   * to it, the following ones are held back, to be sent together once it does: under load, a client gets one message and
+   * sends one ack per round trip instead of one per hash.
+   * <p>
+   * Clients predating {@code CLIENT_INVALIDATE_HASHES} get every invalidation right away, one message per hash. A send
+   * failure or an ack overdue by the configured timeout stops the holding back, so that a lost ack can't stall a client.
+   */
+  static class ClientInvalidationQueue {
+    private final boolean batching;
+    private Map<Integer, Long> pending = new LinkedHashMap<>();
+    private boolean awaitingAck;
+    private long sentAt;
+
+    ClientInvalidationQueue(boolean batching) {
+      this.batching = batching;
+    }
+
+    boolean isBatching() {
+      return batching;
+    }
+
+    /**
+     * @return the invalidations to send right away, or {@code null} if queued
+     */
+    synchronized Map<Integer, Long> offer(int invalidationId, long key) {
+      if (!batching) {
+        return singletonMap(invalidationId, key);
+      } else if (awaitingAck) {
+        pending.put(invalidationId, key);
+        return null;
+      } else {
+        awaitingAck = true;
+        sentAt = System.nanoTime();
+        return singletonMap(invalidationId, key);
+      }
+    }
+
+    /**
+     * @return the queued invalidations to send now, or {@code null} if there are none
+     */
+    synchronized Map<Integer, Long> acknowledged(long now) {
+      if (pending.isEmpty()) {
+        awaitingAck = false;
+        return null;
+      } else {
+        Map<Integer, Long> invalidations = pending;
+        pending = new LinkedHashMap<>();
+        sentAt = now;
+        return invalidations;
+      }
+    }
+
+    /**
+     * Treats the awaited ack as received if it is overdue.
+     *
+     * @return the queued invalidations to send now, or {@code null} if there are none
+     */
+    synchronized Map<Integer, Long> expire(long now, long timeoutNanos) {
+      if (awaitingAck && now - sentAt >= timeoutNanos) {
+        return acknowledged(now);
+      } else {
+        return null;
+      }
+    }
+
+    /**
+     * Stops awaiting an ack for invalidations that could not be sent.
+     */
+    synchronized void sendFailed() {
+      awaitingAck = false;
+    }
+  }
+
+  /**
+   * Server side state of a client iteration over the chains of the cluster tier.
+   * <p>
+   * Segments are walked one after the other, from a snapshot of the keys of the current segment only: chains are read
+   * when a batch is requested, so mappings removed in the meantime are skipped and mappings added to a segment after
+   * its snapshot are missed.
+   * <p>
+   * Cursors are released once exhausted, when their client disconnects, once idle for too long, or when their client
+   * opens too many of them.
+   */
+  private static class ChainIterator {
+    private final ClientDescriptor owner;
+    private final ServerSideServerStore store;
+    private final int segments;
+    private int segment = -1;
+    private long[] keys = new long[0];
+    private int position;
+    private volatile long lastUsed = System.nanoTime();
+
+    ChainIterator(ClientDescriptor owner, ServerSideServerStore store) {
+      this.owner = owner;
+      this.store = store;
+      this.segments = store.getSegmentKeySets().size();
+    }
+
+    synchronized Map<Long, Chain> next(int batchSize) {
+      lastUsed = System.nanoTime();
+      Map<Long, Chain> chains = new LinkedHashMap<>();
+      while (chains.size() < batchSize && hasNext()) {
+        long key = keys[position++];
+        Chain chain;
+        try {
+          chain = store.get(key);
+        } catch (TimeoutException e) {
+          throw new AssertionError("Server side store is not expected to throw timeout exception");
+        }
+        if (!chain.isEmpty()) {
+          chains.put(key, chain);
+        }
+      }
+      return chains;
+    }
+
+    synchronized boolean hasNext() {
+      while (position == keys.length) {
+        if (segment + 1 == segments) {
+          return false;
+        }
+        keys = store.getSegmentKeys(++segment);
+        position = 0;
+      }
+      return true;
+    }
+  }
+
   private static class InvalidationTuple {
     private final ClientDescriptor clientDescriptor;
     private final Set<Long> invalidationsInProgress;
@@ -36,9 +36,12 @@ import org.ehcache.clustered.server.internal.messages.EhcacheStateRepoSyncMessag
 import org.ehcache.clustered.server.internal.messages.EhcacheSyncMessage;
 import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage;
 import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.InvalidationCompleteMessage;
+import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.BulkChainReplicationMessage;
 import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.ChainReplicationMessage;
+import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.ClientTrackedReplicationMessage;
 import org.ehcache.clustered.server.management.ClusterTierManagement;
 import org.ehcache.clustered.server.state.EhcacheStateService;
+import org.ehcache.clustered.server.state.InvalidationTracker;
 import org.ehcache.clustered.server.state.config.EhcacheStoreStateServiceConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -121,24 +124,25 @@ public class ClusterTierPassiveEntity implements PassiveServerEntity<EhcacheEnti
   @Override
   public void invokePassive(InvokeContext context, EhcacheEntityMessage message) throws EntityUserException {
     InvokeContext realContext = context;
-    // For ChainReplicationMessage, we need to recreate the real client context from the one stored in the message. Because the current
+    // For ChainReplicationMessage and BulkChainReplicationMessage, we need to recreate the real client context from the one stored in the message. Because the current
     // context comes from the active message. That's not what we want. So instead we recreate a new context using the original client
     // id and transaction id stored in the message
-    if (message instanceof ChainReplicationMessage) {
+    if (message instanceof ClientTrackedReplicationMessage) {
+      ClientTrackedReplicationMessage replicationMessage = (ClientTrackedReplicationMessage) message;
       realContext = new InvokeContext() {
         @Override
         public ClientSourceId getClientSource() {
-          return context.makeClientSourceId(((ChainReplicationMessage) message).getClientId());
+          return context.makeClientSourceId(replicationMessage.getClientId());
         }
 
         @Override
         public long getCurrentTransactionId() {
-          return ((ChainReplicationMessage) message).getTransactionId();
+          return replicationMessage.getTransactionId();
         }
 
         @Override
         public long getOldestTransactionId() {
-          return ((ChainReplicationMessage)message).getOldestTransactionId();
+          return replicationMessage.getOldestTransactionId();
         }
 
         @Override
@@ -237,6 +241,22 @@ public class ClusterTierPassiveEntity implements PassiveServerEntity<EhcacheEnti
         // Returns the real original result of the operation. We consider that it's always a GET_AND_APPEND since APPEND
         // is unused right now. Other types of messages are not tracked so we don't care that they return the right result
         return new EhcacheEntityResponseFactory().response(retirementMessage.getResult());
+      case BULK_CHAIN_REPLICATION_OP: {
+        BulkChainReplicationMessage bulkRetirementMessage = (BulkChainReplicationMessage) message;
+        LOGGER.debug("Bulk Chain Replication message for transactionId {} & clientId {}", bulkRetirementMessage.getTransactionId(), bulkRetirementMessage.getClientId());
+        ServerSideServerStore store = stateService.getStore(storeIdentifier);
+        if (store == null) {
+          // An operation on a non-existent store should never get out of the client
+          throw new LifecycleException("cluster tier does not exist : '" + storeIdentifier + "'");
+        }
+        if (isEventual()) {
+          InvalidationTracker invalidationTracker = stateService.getInvalidationTracker(storeIdentifier);
+          bulkRetirementMessage.getChains().keySet().forEach(invalidationTracker::trackHashInvalidation);
+        }
+        bulkRetirementMessage.getChains().forEach(store::put);
+        // Returns the real original result of the GET_AND_APPEND_ALL. The response of an APPEND_ALL is ignored by clients
+        return new EhcacheEntityResponseFactory().response(bulkRetirementMessage.getResults());
+      }
       case INVALIDATION_COMPLETE:
         if (isEventual()) {
           InvalidationCompleteMessage invalidationCompleteMessage = (InvalidationCompleteMessage) message;
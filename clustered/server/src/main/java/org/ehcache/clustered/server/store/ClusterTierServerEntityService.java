@@ -16,6 +16,7 @@
 
 package org.ehcache.clustered.server.store;
 
+import org.ehcache.clustered.common.EhcacheEntityVersion;
 import org.ehcache.clustered.common.internal.messages.CommonConfigCodec;
 import org.ehcache.clustered.common.internal.messages.ConfigCodec;
 import org.ehcache.clustered.common.internal.messages.EhcacheCodec;
@@ -24,6 +25,7 @@ import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
 import org.ehcache.clustered.common.internal.messages.EntityConfigurationCodec;
 import org.ehcache.clustered.common.internal.messages.LifeCycleMessageCodec;
 import org.ehcache.clustered.common.internal.messages.ResponseCodec;
+import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpCodec;
 import org.ehcache.clustered.common.internal.messages.StateRepositoryOpCodec;
 import org.ehcache.clustered.common.internal.store.ClusterTierEntityConfiguration;
@@ -48,8 +50,8 @@ import static org.ehcache.clustered.server.ConcurrencyStrategies.clusterTierConc
  */
 public class ClusterTierServerEntityService implements EntityServerService<EhcacheEntityMessage, EhcacheEntityResponse> {
 
-  private static final long ENTITY_VERSION = 10L;
-  private static final int DEFAULT_CONCURRENCY = 16;
+  // clients split their bulk appends per segment accordingly
+  private static final int DEFAULT_CONCURRENCY = ServerStoreMessageFactory.SERVER_STORE_SEGMENTS;
   private static final KeySegmentMapper DEFAULT_MAPPER = new KeySegmentMapper(DEFAULT_CONCURRENCY);
   private static final ConfigCodec CONFIG_CODEC = new CommonConfigCodec();
 
@@ -57,7 +59,7 @@ public class ClusterTierServerEntityService implements EntityServerService<Ehcac
 
   @Override
   public long getVersion() {
-    return ENTITY_VERSION;
+    return EhcacheEntityVersion.ENTITY_VERSION;
   }
 
   @Override
@@ -17,6 +17,7 @@
 package org.ehcache.clustered.server.store;
 
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityMessage;
+import org.ehcache.clustered.server.ConcurrencyStrategies;
 import org.terracotta.entity.ConcurrencyStrategy;
 
 import java.util.function.ToIntFunction;
@@ -34,7 +35,12 @@ class MessageToTrackerSegmentFunction implements ToIntFunction<EhcacheEntityMess
   }
   @Override
   public int applyAsInt(EhcacheEntityMessage value) {
+    int concurrencyKey = concurrencyStrategy.concurrencyKey(value);
+    if (concurrencyKey == ConcurrencyStrategy.MANAGEMENT_KEY) {
+      // Exclusive messages are tracked along with the default key ones
+      return ConcurrencyStrategies.DEFAULT_KEY - 1;
+    }
     // Concurrency is 1 based, segments are 0 based
-    return concurrencyStrategy.concurrencyKey(value) - 1;
+    return concurrencyKey - 1;
   }
 }
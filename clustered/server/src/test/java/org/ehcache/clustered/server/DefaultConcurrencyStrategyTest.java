@@ -17,21 +17,33 @@ package org.ehcache.clustered.server;
 
 import org.ehcache.clustered.common.internal.messages.ConcurrentEntityMessage;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityMessage;
+import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.BulkChainReplicationMessage;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 import org.terracotta.entity.ConcurrencyStrategy;
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static java.util.Collections.singletonList;
+import static org.ehcache.clustered.common.internal.store.Util.createPayload;
+import static org.ehcache.clustered.common.internal.store.Util.getChain;
 import static org.ehcache.clustered.server.ConcurrencyStrategies.DEFAULT_KEY;
+import static org.ehcache.clustered.server.ConcurrencyStrategies.DefaultConcurrencyStrategy.DATA_CONCURRENCY_KEY_OFFSET;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.mock;
+import static org.terracotta.entity.ConcurrencyStrategy.MANAGEMENT_KEY;
 import static org.terracotta.entity.ConcurrencyStrategy.UNIVERSAL_KEY;
 
 /**
@@ -60,6 +72,63 @@ public class DefaultConcurrencyStrategyTest {
     assertThat(strategy.concurrencyKey(getMessage), is(UNIVERSAL_KEY));
   }
 
+  @Test
+  public void testConcurrencyKeyForServerStoreGetAllOperation() throws Exception {
+    ConcurrencyStrategy<EhcacheEntityMessage> strategy = ConcurrencyStrategies.clusterTierConcurrency(DEFAULT_MAPPER);
+    ServerStoreOpMessage.GetAllMessage getAllMessage = mock(ServerStoreOpMessage.GetAllMessage.class);
+    assertThat(strategy.concurrencyKey(getAllMessage), is(UNIVERSAL_KEY));
+  }
+
+  @Test
+  public void testConcurrencyKeyForServerStoreIteratorOperations() throws Exception {
+    ConcurrencyStrategy<EhcacheEntityMessage> strategy = ConcurrencyStrategies.clusterTierConcurrency(DEFAULT_MAPPER);
+    assertThat(strategy.concurrencyKey(mock(ServerStoreOpMessage.IteratorOpenMessage.class)), is(UNIVERSAL_KEY));
+    assertThat(strategy.concurrencyKey(mock(ServerStoreOpMessage.IteratorAdvanceMessage.class)), is(UNIVERSAL_KEY));
+  }
+
+  @Test
+  public void testConcurrencyKeyForServerStoreBulkAppendOperations() throws Exception {
+    ConcurrencyStrategy<EhcacheEntityMessage> strategy = ConcurrencyStrategies.clusterTierConcurrency(DEFAULT_MAPPER);
+    ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+    Map<Long, List<ByteBuffer>> sameSegment = payloads(1L, 17L);
+    Map<Long, List<ByteBuffer>> twoSegments = payloads(1L, 2L);
+
+    int segmentKey = DATA_CONCURRENCY_KEY_OFFSET + DEFAULT_MAPPER.getSegmentForKey(1L);
+    assertThat(strategy.concurrencyKey(messageFactory.getAndAppendAllOperation(sameSegment)), is(segmentKey));
+    assertThat(strategy.concurrencyKey(messageFactory.appendAllOperations(sameSegment).get(0)), is(segmentKey));
+    assertThat(strategy.concurrencyKey(messageFactory.getAndAppendAllOperation(twoSegments)), is(MANAGEMENT_KEY));
+  }
+
+  @Test
+  public void testConcurrencyKeyForBulkChainReplicationMessage() throws Exception {
+    ConcurrencyStrategy<EhcacheEntityMessage> strategy = ConcurrencyStrategies.clusterTierConcurrency(DEFAULT_MAPPER);
+    Map<Long, Chain> sameSegment = new HashMap<>();
+    sameSegment.put(1L, getChain(false, createPayload(1L)));
+    sameSegment.put(17L, getChain(false, createPayload(17L)));
+    Map<Long, Chain> twoSegments = new HashMap<>();
+    twoSegments.put(1L, getChain(false, createPayload(1L)));
+    twoSegments.put(2L, getChain(false, createPayload(2L)));
+
+    assertThat(strategy.concurrencyKey(new BulkChainReplicationMessage(sameSegment, appendCounts(sameSegment), 2L, 1L, 1L)),
+      is(DATA_CONCURRENCY_KEY_OFFSET + DEFAULT_MAPPER.getSegmentForKey(1L)));
+    assertThat(strategy.concurrencyKey(new BulkChainReplicationMessage(twoSegments, appendCounts(twoSegments), 2L, 1L, 1L)),
+      is(MANAGEMENT_KEY));
+  }
+
+  private static Map<Long, List<ByteBuffer>> payloads(long... keys) {
+    Map<Long, List<ByteBuffer>> payloads = new HashMap<>();
+    for (long key : keys) {
+      payloads.put(key, singletonList(createPayload(key)));
+    }
+    return payloads;
+  }
+
+  private static Map<Long, Integer> appendCounts(Map<Long, Chain> chains) {
+    Map<Long, Integer> appendCounts = new HashMap<>();
+    chains.keySet().forEach(key -> appendCounts.put(key, 1));
+    return appendCounts;
+  }
+
   @Test
   public void testKeysForSynchronization() throws Exception {
     final int concurrency = 111;
@@ -55,6 +55,26 @@ public class EhcacheSyncMessageCodecTest {
     assertThat(chainsEqual(decodedChainMap.get(3L), chain)).isTrue();
   }
 
+  @Test
+  public void testCompressedDataSyncMessageEncodeDecode() throws Exception {
+    Map<Long, Chain> chainMap = new HashMap<>();
+    Chain chain = getChain(true, createPayload(10L), createPayload(100L), createPayload(1000L));
+    for (long key = 0; key < 100; key++) {
+      chainMap.put(key, chain);
+    }
+    byte[] uncompressedMessage = codec.encode(0, new EhcacheDataSyncMessage(chainMap));
+    byte[] encodedMessage = codec.encode(0, new EhcacheDataSyncMessage(chainMap, true));
+    assertThat(encodedMessage.length).isLessThan(uncompressedMessage.length);
+
+    EhcacheDataSyncMessage decoded = (EhcacheDataSyncMessage) codec.decode(0, encodedMessage);
+    assertThat(decoded.isCompressed()).isTrue();
+    Map<Long, Chain> decodedChainMap = decoded.getChainMap();
+    assertThat(decodedChainMap).hasSize(100);
+    for (long key = 0; key < 100; key++) {
+      assertThat(chainsEqual(decodedChainMap.get(key), chain)).isTrue();
+    }
+  }
+
   @Test
   public void testMessageTrackerSyncEncodeDecode_emptyMessage() throws Exception {
     EhcacheMessageTrackerMessage message = new EhcacheMessageTrackerMessage(1, new HashMap<>());
@@ -18,11 +18,15 @@ package org.ehcache.clustered.server.internal.messages;
 
 import org.ehcache.clustered.common.internal.messages.EhcacheMessageType;
 import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.BulkChainReplicationMessage;
 import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.ChainReplicationMessage;
 import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.ClearInvalidationCompleteMessage;
 import org.ehcache.clustered.server.internal.messages.PassiveReplicationMessage.InvalidationCompleteMessage;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static java.nio.ByteBuffer.wrap;
 import static org.ehcache.clustered.common.internal.store.Util.chainsEqual;
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
@@ -53,6 +57,30 @@ public class PassiveReplicationMessageCodecTest {
 
   }
 
+  @Test
+  public void testBulkChainReplicationMessageCodec() {
+    Map<Long, Chain> chains = new HashMap<>();
+    chains.put(2L, getChain(false, createPayload(2L), createPayload(20L)));
+    chains.put(3L, getChain(false, createPayload(3L)));
+    Map<Long, Integer> appendCounts = new HashMap<>();
+    appendCounts.put(2L, 1);
+    appendCounts.put(3L, 1);
+    BulkChainReplicationMessage bulkChainReplicationMessage = new BulkChainReplicationMessage(chains, appendCounts, 200L, 100L, 1L);
+
+    byte[] encoded = codec.encode(bulkChainReplicationMessage);
+    BulkChainReplicationMessage decodedMsg = (BulkChainReplicationMessage) codec.decode(EhcacheMessageType.BULK_CHAIN_REPLICATION_OP, wrap(encoded));
+
+    assertThat(decodedMsg.getClientId(), is(bulkChainReplicationMessage.getClientId()));
+    assertThat(decodedMsg.getTransactionId(), is(bulkChainReplicationMessage.getTransactionId()));
+    assertThat(decodedMsg.getOldestTransactionId(), is(bulkChainReplicationMessage.getOldestTransactionId()));
+    assertThat(decodedMsg.getAppendCounts(), is(appendCounts));
+    assertThat(decodedMsg.getChains().keySet(), is(chains.keySet()));
+    assertTrue(chainsEqual(decodedMsg.getChains().get(2L), chains.get(2L)));
+    assertTrue(chainsEqual(decodedMsg.getChains().get(3L), chains.get(3L)));
+    assertTrue(chainsEqual(decodedMsg.getResults().get(2L), getChain(false, createPayload(2L))));
+    assertThat(decodedMsg.getResults().get(3L).isEmpty(), is(true));
+  }
+
   @Test
   public void testClearInvalidationCompleteMessage() {
     ClearInvalidationCompleteMessage clearInvalidationCompleteMessage = new ClearInvalidationCompleteMessage();
@@ -0,0 +1,136 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.clustered.server.offheap;
+
+import java.nio.ByteBuffer;
+
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
+import org.ehcache.clustered.common.internal.store.OperationEncoding;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.junit.Test;
+import org.terracotta.offheapstore.buffersource.OffHeapBufferSource;
+import org.terracotta.offheapstore.paging.UnlimitedPageSource;
+import org.terracotta.offheapstore.storage.portability.StringPortability;
+
+import static org.ehcache.clustered.common.internal.store.Util.getChain;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ChainCompactorTest {
+
+  @Test
+  public void testUnconditionalOperationsAreKept() {
+    Chain chain = getChain(false, put(1, 10L), put(1, 20L), put(2, 30L));
+    assertThat(ChainCompactor.compact(chain), nullValue());
+  }
+
+  @Test
+  public void testOperationsBeforeRemoveAreDropped() {
+    ByteBuffer other = put(2, 20L);
+    ByteBuffer last = put(1, 40L);
+    Chain chain = getChain(false, put(1, 10L), other, remove(1, 30L), last);
+
+    assertThat(ChainCompactor.compact(chain), contains(payload(other), payload(last)));
+  }
+
+  @Test
+  public void testOperationsBeforeResolvedPutAreDropped() {
+    ByteBuffer resolved = put(1, -100L);
+    ByteBuffer next = put(1, 50L);
+    Chain chain = getChain(false, put(1, 10L), remove(1, 20L), put(1, 30L), resolved, next);
+
+    assertThat(ChainCompactor.compact(chain), contains(payload(resolved), payload(next)));
+  }
+
+  @Test
+  public void testLastRemoveIsKeptWhenNothingElseRemains() {
+    ByteBuffer remove = remove(1, 20L);
+    Chain chain = getChain(false, put(1, 10L), remove);
+
+    assertThat(ChainCompactor.compact(chain), contains(payload(remove)));
+  }
+
+  @Test
+  public void testUnknownPayloadsAreNotCompacted() {
+    Chain chain = getChain(false, put(1, 10L), remove(1, 20L), ByteBuffer.wrap(new byte[] {42, 1, 2}));
+    assertThat(ChainCompactor.compact(chain), nullValue());
+  }
+
+  @Test
+  public void testChainsReachingTheThresholdAreCompacted() {
+    OffHeapChainMap<String> map = new OffHeapChainMap<>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, 4096, 4096, false);
+    map.setCompactionThreshold(4);
+
+    ByteBuffer last = put(1, 40L);
+    map.append("foo", put(1, 10L));
+    map.append("foo", remove(1, 20L));
+    map.append("foo", put(1, 30L));
+    map.compactIfNeeded("foo", 1);
+    assertThat(map.get("foo"), contains(payload(put(1, 10L)), payload(remove(1, 20L)), payload(put(1, 30L))));
+
+    map.getAndAppend("foo", last);
+    assertThat(map.get("foo"), contains(payload(put(1, 10L)), payload(remove(1, 20L)), payload(put(1, 30L)), payload(last)));
+
+    map.compactIfNeeded("foo", 1);
+    assertThat(map.get("foo"), contains(payload(put(1, 30L)), payload(last)));
+  }
+
+  @Test
+  public void testBulkAppendsCrossingTheThresholdAreCompacted() {
+    OffHeapChainMap<String> map = new OffHeapChainMap<>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, 4096, 4096, false);
+    map.setCompactionThreshold(4);
+
+    ByteBuffer last = put(1, 50L);
+    map.append("foo", put(1, 10L));
+    map.append("foo", remove(1, 20L));
+    map.append("foo", put(1, 30L));
+    map.append("foo", put(2, 40L));
+    map.append("foo", last);
+    map.compactIfNeeded("foo", 3);
+    assertThat(map.get("foo"), contains(payload(put(1, 30L)), payload(put(2, 40L)), payload(last)));
+  }
+
+  private static ByteBuffer put(int key, long timestamp) {
+    ByteBuffer buffer = ByteBuffer.allocate(OperationEncoding.KEY_VALUE_KEY_OFFSET + 4 + 8);
+    buffer.put(OperationEncoding.PUT).putLong(timestamp).putInt(4).putInt(key).putLong(timestamp);
+    return (ByteBuffer) buffer.flip();
+  }
+
+  private static ByteBuffer remove(int key, long timestamp) {
+    ByteBuffer buffer = ByteBuffer.allocate(OperationEncoding.KEY_OFFSET + 4);
+    buffer.put(OperationEncoding.REMOVE).putLong(timestamp).putInt(key);
+    return (ByteBuffer) buffer.flip();
+  }
+
+  private static Matcher<Element> payload(final ByteBuffer payload) {
+    return new TypeSafeMatcher<Element>() {
+      @Override
+      protected boolean matchesSafely(Element item) {
+        return item.getPayload().equals(payload);
+      }
+
+      @Override
+      public void describeTo(Description description) {
+        description.appendText("element containing ").appendValue(payload);
+      }
+    };
+  }
+}
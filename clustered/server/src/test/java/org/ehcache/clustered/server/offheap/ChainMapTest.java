@@ -96,6 +96,24 @@ public class ChainMapTest {
     assertThat(map.get("foo"), contains(element(1)));
   }
 
+  @Test
+  public void testReadChainView() {
+    OffHeapChainMap<String> map = new OffHeapChainMap<>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, minPageSize, maxPageSize, steal);
+    map.append("foo", buffer(1));
+    map.append("foo", buffer(2));
+    map.append("foo", buffer(3));
+
+    List<ByteBuffer> read = map.read("foo", chain -> {
+      List<ByteBuffer> payloads = new ArrayList<>();
+      for (Element element : chain) {
+        payloads.add(element.getPayload());
+      }
+      return payloads;
+    });
+    assertThat(read, contains(buffer(1), buffer(2), buffer(3)));
+    assertThat(map.read("bar", chain -> chain.isEmpty()), is(true));
+  }
+
   @Test
   public void testAppendToSingletonChain() {
     OffHeapChainMap<String> map = new OffHeapChainMap<>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, minPageSize, maxPageSize, steal);
@@ -392,6 +410,41 @@ public class ChainMapTest {
 
   }
 
+  @Test
+  public void testChainLengthIsTrackedThroughMutations() {
+    UnlimitedPageSource source = new UnlimitedPageSource(new OffHeapBufferSource());
+    OffHeapChainStorageEngine<String> chainStorage = new OffHeapChainStorageEngine<>(source, StringPortability.INSTANCE, minPageSize, maxPageSize, steal, steal);
+
+    ReadWriteLockedOffHeapClockCache<String, InternalChain> heads = new EvictionListeningReadWriteLockedOffHeapClockCache<>(callable -> {}, source, chainStorage);
+
+    OffHeapChainMap<String> map = new OffHeapChainMap<>(heads, chainStorage);
+
+    map.append("foo", buffer(1));
+    map.append("foo", buffer(2));
+    map.getAndAppend("foo", buffer(3));
+    map.append("foo", buffer(4));
+    assertThat(length(heads, "foo"), is(4));
+
+    map.replaceAtHead("foo", chain(buffer(1), buffer(2)), chain(buffer(5)));
+    assertThat(length(heads, "foo"), is(3));
+
+    map.replaceAtHead("foo", chain(buffer(5)), chain());
+    assertThat(length(heads, "foo"), is(2));
+
+    map.replaceAtHead("foo", chain(buffer(3)), chain(buffer(6), buffer(7), buffer(8)));
+    assertThat(map.get("foo"), contains(element(6), element(7), element(8), element(4)));
+    assertThat(length(heads, "foo"), is(4));
+  }
+
+  private static int length(ReadWriteLockedOffHeapClockCache<String, InternalChain> heads, String key) {
+    InternalChain chain = heads.get(key);
+    try {
+      return chain.length();
+    } finally {
+      chain.close();
+    }
+  }
+
   private static ByteBuffer buffer(int i) {
     ByteBuffer buffer = ByteBuffer.allocate(i);
     while (buffer.hasRemaining()) {
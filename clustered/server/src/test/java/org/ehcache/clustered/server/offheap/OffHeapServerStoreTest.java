@@ -16,7 +16,9 @@
 package org.ehcache.clustered.server.offheap;
 
 import java.nio.ByteBuffer;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.Element;
@@ -205,6 +207,25 @@ public class OffHeapServerStoreTest extends ServerStoreTest {
     }
   }
 
+  @Test
+  public void testSegmentKeysCoverAllMappings() {
+    OffHeapServerStore store = new OffHeapServerStore(new UnlimitedPageSource(new OffHeapBufferSource()), DEFAULT_MAPPER);
+    Set<Long> keys = new HashSet<>();
+    for (long key = 0; key < 100; key++) {
+      store.append(key, ByteBuffer.allocate(8).putLong(0, key));
+      keys.add(key);
+    }
+
+    Set<Long> segmentKeys = new HashSet<>();
+    for (int segment = 0; segment < store.getSegments().size(); segment++) {
+      for (long key : store.getSegmentKeys(segment)) {
+        assertThat(DEFAULT_MAPPER.getSegmentForKey(key), is(segment));
+        segmentKeys.add(key);
+      }
+    }
+    assertThat(segmentKeys, is(keys));
+  }
+
   @Test
   public void testServerSideUsageStats() {
 
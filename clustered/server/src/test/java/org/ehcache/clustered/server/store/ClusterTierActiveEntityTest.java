@@ -22,13 +22,16 @@ import org.ehcache.clustered.common.PoolAllocation.Dedicated;
 import org.ehcache.clustered.common.PoolAllocation.Shared;
 import org.ehcache.clustered.common.ServerSideConfiguration;
 import org.ehcache.clustered.common.internal.ServerStoreConfiguration;
+import org.ehcache.clustered.common.internal.exceptions.InvalidOperationException;
 import org.ehcache.clustered.common.internal.exceptions.InvalidServerStoreConfigurationException;
 import org.ehcache.clustered.common.internal.exceptions.LifecycleException;
 import org.ehcache.clustered.common.internal.messages.ConcurrentEntityMessage;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityMessage;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
+import org.ehcache.clustered.common.internal.messages.EhcacheMessageType;
 import org.ehcache.clustered.common.internal.messages.EhcacheResponseType;
 import org.ehcache.clustered.common.internal.messages.LifeCycleMessageFactory;
+import org.ehcache.clustered.common.internal.messages.LifecycleMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
 import org.ehcache.clustered.common.internal.store.ClusterTierEntityConfiguration;
@@ -66,6 +69,7 @@ import org.terracotta.offheapresource.OffHeapResources;
 import org.terracotta.offheapstore.util.MemoryUnit;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -74,6 +78,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
@@ -86,10 +91,12 @@ import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNotNull;
 import static org.mockito.Mockito.atLeast;
@@ -284,6 +291,216 @@ public class ClusterTierActiveEntityTest {
     assertThat(activeEntity.getClientsWaitingForInvalidation().size(), is(0));
   }
 
+  @Test
+  public void testHashInvalidationsAreBatchedWhileAwaitingAck() throws Exception {
+    ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
+    activeEntity.createNew();
+
+    TestInvokeContext context1 = new TestInvokeContext();
+    TestInvokeContext context2 = new TestInvokeContext();
+    activeEntity.connected(context1.getClientDescriptor());
+    activeEntity.connected(context2.getClientDescriptor());
+
+    ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+
+    assertSuccess(
+        activeEntity.invokeActive(context1, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration))
+    );
+    assertSuccess(
+        activeEntity.invokeActive(context2, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration))
+    );
+
+    ClientCommunicator clientCommunicator = defaultRegistry.getClientCommunicator();
+
+    // the first invalidation is sent right away
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(1L, createPayload(1L))));
+    int firstInvalidationId = activeEntity.getClientsWaitingForInvalidation().keySet().iterator().next();
+    verify(clientCommunicator).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHash.class));
+
+    // the following ones wait for client 2 to ack it
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(2L, createPayload(2L))));
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(3L, createPayload(3L))));
+    verify(clientCommunicator).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHash.class));
+    verify(clientCommunicator, times(0)).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHashes.class));
+    assertThat(activeEntity.getClientsWaitingForInvalidation().size(), is(3));
+
+    // and are sent together once it does
+    assertSuccess(activeEntity.invokeActive(context2, messageFactory.clientInvalidationAck(1L, firstInvalidationId)));
+    assertThat(activeEntity.getClientsWaitingForInvalidation().size(), is(2));
+    Set<Integer> queuedInvalidationIds = new HashSet<>(activeEntity.getClientsWaitingForInvalidation().keySet());
+    verify(clientCommunicator).sendNoResponse(eq(context2.getClientDescriptor()), argThat(response ->
+        response instanceof EhcacheEntityResponse.ClientInvalidateHashes
+        && ((EhcacheEntityResponse.ClientInvalidateHashes) response).getInvalidations().keySet().equals(queuedInvalidationIds)
+        && ((EhcacheEntityResponse.ClientInvalidateHashes) response).getInvalidations().values().containsAll(Arrays.asList(2L, 3L))));
+
+    // a single ack covers the whole batch
+    assertSuccess(activeEntity.invokeActive(context2, messageFactory.clientInvalidationBatchAck(queuedInvalidationIds)));
+    assertThat(activeEntity.getClientsWaitingForInvalidation().size(), is(0));
+
+    // nothing left in flight: the next invalidation is sent right away again
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(4L, createPayload(4L))));
+    verify(clientCommunicator, times(2)).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHash.class));
+  }
+
+  @Test
+  public void testHashInvalidationsAreNotBatchedForOlderClients() throws Exception {
+    ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
+    activeEntity.createNew();
+
+    TestInvokeContext context1 = new TestInvokeContext();
+    TestInvokeContext context2 = new TestInvokeContext();
+    activeEntity.connected(context1.getClientDescriptor());
+    activeEntity.connected(context2.getClientDescriptor());
+
+    ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+
+    assertSuccess(
+        activeEntity.invokeActive(context1, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration))
+    );
+    // as decoded from a client not sending the invalidation batches flag
+    LifecycleMessage.ValidateServerStore legacyValidate = mock(LifecycleMessage.ValidateServerStore.class);
+    when(legacyValidate.getMessageType()).thenReturn(EhcacheMessageType.VALIDATE_SERVER_STORE);
+    when(legacyValidate.getName()).thenReturn(defaultStoreName);
+    when(legacyValidate.getStoreConfiguration()).thenReturn(defaultStoreConfiguration);
+    when(legacyValidate.isInvalidationBatchesSupported()).thenReturn(false);
+    assertSuccess(activeEntity.invokeActive(context2, legacyValidate));
+
+    ClientCommunicator clientCommunicator = defaultRegistry.getClientCommunicator();
+
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(1L, createPayload(1L))));
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(2L, createPayload(2L))));
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(3L, createPayload(3L))));
+
+    verify(clientCommunicator, times(3)).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHash.class));
+    verify(clientCommunicator, times(0)).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHashes.class));
+  }
+
+  @Test
+  public void testGetFromWaitingClientFlushesOverdueHashInvalidations() throws Exception {
+    System.setProperty(ClusterTierActiveEntity.INVALIDATION_ACK_TIMEOUT_PROP, "100");
+    ClusterTierActiveEntity activeEntity;
+    try {
+      activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
+    } finally {
+      System.clearProperty(ClusterTierActiveEntity.INVALIDATION_ACK_TIMEOUT_PROP);
+    }
+    activeEntity.createNew();
+
+    TestInvokeContext context1 = new TestInvokeContext();
+    TestInvokeContext context2 = new TestInvokeContext();
+    activeEntity.connected(context1.getClientDescriptor());
+    activeEntity.connected(context2.getClientDescriptor());
+
+    ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+
+    assertSuccess(
+        activeEntity.invokeActive(context1, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration))
+    );
+    assertSuccess(
+        activeEntity.invokeActive(context2, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration))
+    );
+
+    ClientCommunicator clientCommunicator = defaultRegistry.getClientCommunicator();
+
+    // client 2 never acks the first invalidation, the second one is queued behind it
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(1L, createPayload(1L))));
+    assertSuccess(activeEntity.invokeActive(context1, messageFactory.appendOperation(2L, createPayload(2L))));
+    verify(clientCommunicator).sendNoResponse(eq(context2.getClientDescriptor()), any(EhcacheEntityResponse.ClientInvalidateHash.class));
+
+    // the writer waiting on it polls the hash once the ack is overdue, no other operation reaches the tier
+    Thread.sleep(200);
+    activeEntity.invokeActive(context1, messageFactory.getOperation(2L));
+    verify(clientCommunicator).sendNoResponse(eq(context2.getClientDescriptor()), argThat(response ->
+        response instanceof EhcacheEntityResponse.ClientInvalidateHash
+        && ((EhcacheEntityResponse.ClientInvalidateHash) response).getKey() == 2L));
+  }
+
+  @Test
+  public void testClientInvalidationQueueFlushesOverdueAck() {
+    ClusterTierActiveEntity.ClientInvalidationQueue queue = new ClusterTierActiveEntity.ClientInvalidationQueue(true);
+    assertThat(queue.offer(1, 1L).keySet(), contains(1));
+    assertThat(queue.offer(2, 2L), nullValue());
+    assertThat(queue.offer(3, 3L), nullValue());
+
+    long now = System.nanoTime();
+    assertThat(queue.expire(now, TimeUnit.HOURS.toNanos(1)), nullValue());
+    assertThat(queue.expire(now + TimeUnit.HOURS.toNanos(1), TimeUnit.HOURS.toNanos(1)).keySet(), contains(2, 3));
+
+    // the flushed batch is awaited in turn
+    assertThat(queue.offer(4, 4L), nullValue());
+    assertThat(queue.acknowledged(now).keySet(), contains(4));
+    assertThat(queue.acknowledged(now), nullValue());
+    assertThat(queue.offer(5, 5L).keySet(), contains(5));
+  }
+
+  @Test
+  public void testClientInvalidationQueueStopsAwaitingAfterSendFailure() {
+    ClusterTierActiveEntity.ClientInvalidationQueue queue = new ClusterTierActiveEntity.ClientInvalidationQueue(true);
+    assertThat(queue.offer(1, 1L).keySet(), contains(1));
+    queue.sendFailed();
+    assertThat(queue.offer(2, 2L).keySet(), contains(2));
+  }
+
+  @Test
+  public void testIteratorsBeyondClientLimitAreReleased() throws Exception {
+    System.setProperty(ClusterTierActiveEntity.MAX_ITERATORS_PER_CLIENT_PROP, "2");
+    try {
+      ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
+      activeEntity.createNew();
+
+      TestInvokeContext context = new TestInvokeContext();
+      activeEntity.connected(context.getClientDescriptor());
+      assertSuccess(activeEntity.invokeActive(context, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration)));
+
+      ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+      for (long key = 1L; key <= 3L; key++) {
+        assertSuccess(activeEntity.invokeActive(context, messageFactory.appendOperation(key, createPayload(key))));
+      }
+
+      int first = openIterator(activeEntity, context, messageFactory);
+      int second = openIterator(activeEntity, context, messageFactory);
+      int third = openIterator(activeEntity, context, messageFactory);
+
+      assertFailure(activeEntity.invokeActive(context, messageFactory.iteratorAdvanceOperation(first, 1)), InvalidOperationException.class,
+        "Unknown iterator");
+      assertThat(activeEntity.invokeActive(context, messageFactory.iteratorAdvanceOperation(second, 1)), instanceOf(EhcacheEntityResponse.IteratorBatch.class));
+      assertThat(activeEntity.invokeActive(context, messageFactory.iteratorAdvanceOperation(third, 1)), instanceOf(EhcacheEntityResponse.IteratorBatch.class));
+    } finally {
+      System.clearProperty(ClusterTierActiveEntity.MAX_ITERATORS_PER_CLIENT_PROP);
+    }
+  }
+
+  @Test
+  public void testIdleIteratorsAreReleased() throws Exception {
+    System.setProperty(ClusterTierActiveEntity.ITERATOR_IDLE_TIMEOUT_PROP, "0");
+    try {
+      ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
+      activeEntity.createNew();
+
+      TestInvokeContext context = new TestInvokeContext();
+      activeEntity.connected(context.getClientDescriptor());
+      assertSuccess(activeEntity.invokeActive(context, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration)));
+
+      ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+      assertSuccess(activeEntity.invokeActive(context, messageFactory.appendOperation(1L, createPayload(1L))));
+      assertSuccess(activeEntity.invokeActive(context, messageFactory.appendOperation(2L, createPayload(2L))));
+
+      int iteratorId = openIterator(activeEntity, context, messageFactory);
+
+      assertFailure(activeEntity.invokeActive(context, messageFactory.iteratorAdvanceOperation(iteratorId, 1)), InvalidOperationException.class,
+        "Unknown iterator");
+    } finally {
+      System.clearProperty(ClusterTierActiveEntity.ITERATOR_IDLE_TIMEOUT_PROP);
+    }
+  }
+
+  private static int openIterator(ClusterTierActiveEntity activeEntity, TestInvokeContext context, ServerStoreMessageFactory messageFactory)
+    throws Exception {
+    EhcacheEntityResponse.IteratorBatch batch = (EhcacheEntityResponse.IteratorBatch) activeEntity.invokeActive(context, messageFactory.iteratorOpenOperation(1));
+    assertThat(batch.isLast(), is(false));
+    return batch.getIteratorId();
+  }
+
   @Test
   public void testClearInvalidationAcksTakenIntoAccount() throws Exception {
     ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
@@ -916,6 +1133,35 @@ public class ClusterTierActiveEntityTest {
     }
   }
 
+  @Test
+  public void testDataSyncToPassiveCompressed() throws Exception {
+    ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
+    activeEntity.createNew();
+
+    TestInvokeContext context = new TestInvokeContext();
+    activeEntity.connected(context.getClientDescriptor());
+
+    assertSuccess(activeEntity.invokeActive(context, MESSAGE_FACTORY.validateServerStore(defaultStoreName, defaultStoreConfiguration)));
+
+    ServerStoreMessageFactory messageFactory = new ServerStoreMessageFactory();
+
+    ServerStoreOpMessage.AppendMessage testMessage = messageFactory.appendOperation(1L, ByteBuffer.allocate(512));
+    assertSuccess(activeEntity.invokeActive(context, testMessage));
+
+    System.setProperty(ClusterTierActiveEntity.SYNC_DATA_COMPRESSION_PROP, "true");
+    ConcurrencyStrategies.DefaultConcurrencyStrategy concurrencyStrategy = new ConcurrencyStrategies.DefaultConcurrencyStrategy(DEFAULT_MAPPER);
+    int concurrencyKey = concurrencyStrategy.concurrencyKey(testMessage);
+    try {
+      @SuppressWarnings("unchecked")
+      PassiveSynchronizationChannel<EhcacheEntityMessage> syncChannel = mock(PassiveSynchronizationChannel.class);
+      activeEntity.synchronizeKeyToPassive(syncChannel, concurrencyKey);
+
+      verify(syncChannel).synchronizeToPassive(argThat(message -> message instanceof EhcacheDataSyncMessage && ((EhcacheDataSyncMessage) message).isCompressed()));
+    } finally {
+      System.clearProperty(ClusterTierActiveEntity.SYNC_DATA_COMPRESSION_PROP);
+    }
+  }
+
   @Test
   public void testLoadExistingRecoversInflightInvalidationsForEventualCache() throws Exception {
     ClusterTierActiveEntity activeEntity = new ClusterTierActiveEntity(defaultRegistry, defaultConfiguration, DEFAULT_MAPPER);
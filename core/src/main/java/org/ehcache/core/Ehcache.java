@@ -28,12 +28,16 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.ehcache.AsyncCache;
 import org.ehcache.Cache;
 import org.ehcache.Status;
 import org.ehcache.config.CacheConfiguration;
@@ -43,6 +47,7 @@ import org.ehcache.core.internal.resilience.LoggingRobustResilienceStrategy;
 import org.ehcache.core.internal.resilience.RecoveryCache;
 import org.ehcache.core.internal.resilience.ResilienceStrategy;
 import org.ehcache.core.spi.LifeCycled;
+import org.ehcache.core.spi.store.AsyncStore;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.Store.PutStatus;
 import org.ehcache.core.spi.store.Store.RemoveStatus;
@@ -90,6 +95,7 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
   private final ResilienceStrategy<K, V> resilienceStrategy;
   private final EhcacheRuntimeConfiguration<K, V> runtimeConfiguration;
   private final Jsr107CacheImpl jsr107Cache;
+  private final AsyncCache<K, V> asyncCache;
   protected final Logger logger;
 
   private final OperationObserver<GetOutcome> getObserver = operation(GetOutcome.class).named("get").of(this).tag("cache").build();
@@ -131,6 +137,11 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
     this.runtimeConfiguration = runtimeConfiguration;
     runtimeConfiguration.addCacheConfigurationListener(eventDispatcher.getConfigurationChangeListeners());
     this.jsr107Cache = new Jsr107CacheImpl();
+    if (store instanceof AsyncStore) {
+      this.asyncCache = new AsyncCacheImpl(castToAsyncStore(store));
+    } else {
+      this.asyncCache = InternalCache.super.async();
+    }
 
     this.logger=logger;
     this.statusTransitioner = statusTransitioner;
@@ -152,6 +163,11 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
     return (RecoveryCache<K>) store;
   }
 
+  @SuppressWarnings("unchecked")
+  private AsyncStore<K, V> castToAsyncStore(Store<K, V> store) {
+    return (AsyncStore<K, V>) store;
+  }
+
   private V getNoLoader(K key) {
     return get(key);
   }
@@ -559,6 +575,14 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
     return runtimeConfiguration;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AsyncCache<K, V> async() {
+    return asyncCache;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -634,6 +658,181 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
     return null;
   }
 
+  /**
+   * Unwraps the {@link StoreAccessException} to hand over to the resilience strategy, rethrowing any other failure.
+   */
+  private static StoreAccessException storeAccessException(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+    if (cause instanceof StoreAccessException) {
+      return (StoreAccessException) cause;
+    } else if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    } else if (cause instanceof Error) {
+      throw (Error) cause;
+    } else {
+      throw new CompletionException(cause);
+    }
+  }
+
+  private final class AsyncCacheImpl implements AsyncCache<K, V> {
+
+    private final AsyncStore<K, V> asyncStore;
+
+    AsyncCacheImpl(AsyncStore<K, V> asyncStore) {
+      this.asyncStore = asyncStore;
+    }
+
+    @Override
+    public CompletionStage<V> get(K key) {
+      getObserver.begin();
+      statusTransitioner.checkAvailable();
+      checkNonNull(key);
+
+      return asyncStore.getAsync(key).handle((valueHolder, failure) -> {
+        if (failure == null) {
+          if (valueHolder == null) {
+            getObserver.end(GetOutcome.MISS);
+            return null;
+          } else {
+            getObserver.end(GetOutcome.HIT);
+            return valueHolder.value();
+          }
+        } else {
+          StoreAccessException e = storeAccessException(failure);
+          try {
+            return resilienceStrategy.getFailure(key, e);
+          } finally {
+            getObserver.end(GetOutcome.FAILURE);
+          }
+        }
+      });
+    }
+
+    @Override
+    public CompletionStage<Void> put(K key, V value) {
+      putObserver.begin();
+      statusTransitioner.checkAvailable();
+      checkNonNull(key, value);
+
+      return asyncStore.putAsync(key, value).handle((status, failure) -> {
+        if (failure == null) {
+          switch (status) {
+            case PUT:
+              putObserver.end(PutOutcome.PUT);
+              break;
+            case UPDATE:
+              putObserver.end(PutOutcome.UPDATED);
+              break;
+            case NOOP:
+              putObserver.end(PutOutcome.NOOP);
+              break;
+            default:
+              throw new AssertionError("Invalid Status.");
+          }
+        } else {
+          StoreAccessException e = storeAccessException(failure);
+          try {
+            resilienceStrategy.putFailure(key, value, e);
+          } finally {
+            putObserver.end(PutOutcome.FAILURE);
+          }
+        }
+        return null;
+      });
+    }
+
+    @Override
+    public CompletionStage<Void> remove(K key) {
+      removeObserver.begin();
+      statusTransitioner.checkAvailable();
+      checkNonNull(key);
+
+      return asyncStore.removeAsync(key).handle((removed, failure) -> {
+        if (failure == null) {
+          if (removed) {
+            removeObserver.end(RemoveOutcome.SUCCESS);
+          } else {
+            removeObserver.end(RemoveOutcome.NOOP);
+          }
+        } else {
+          StoreAccessException e = storeAccessException(failure);
+          try {
+            resilienceStrategy.removeFailure(key, e);
+          } finally {
+            removeObserver.end(RemoveOutcome.FAILURE);
+          }
+        }
+        return null;
+      });
+    }
+
+    @Override
+    public CompletionStage<Map<K, V>> getAll(Set<? extends K> keys) {
+      getAllObserver.begin();
+      statusTransitioner.checkAvailable();
+      checkNonNullContent(keys);
+      if(keys.isEmpty()) {
+        getAllObserver.end(GetAllOutcome.SUCCESS);
+        return CompletableFuture.completedFuture(Collections.emptyMap());
+      }
+
+      return asyncStore.getAllAsync(keys).handle((computedMap, failure) -> {
+        if (failure == null) {
+          Map<K, V> result = new HashMap<>();
+          int hits = 0;
+          for (Map.Entry<K, Store.ValueHolder<V>> entry : computedMap.entrySet()) {
+            if (entry.getValue() != null) {
+              result.put(entry.getKey(), entry.getValue().value());
+              hits++;
+            } else {
+              result.put(entry.getKey(), null);
+            }
+          }
+          addBulkMethodEntriesCount(BulkOps.GET_ALL_HITS, hits);
+          addBulkMethodEntriesCount(BulkOps.GET_ALL_MISS, computedMap.size() - hits);
+          getAllObserver.end(GetAllOutcome.SUCCESS);
+          return result;
+        } else {
+          StoreAccessException e = storeAccessException(failure);
+          try {
+            return resilienceStrategy.getAllFailure(keys, e);
+          } finally {
+            getAllObserver.end(GetAllOutcome.FAILURE);
+          }
+        }
+      });
+    }
+
+    @Override
+    public CompletionStage<Void> putAll(Map<? extends K, ? extends V> entries) {
+      putAllObserver.begin();
+      statusTransitioner.checkAvailable();
+      checkNonNull(entries);
+      if(entries.isEmpty()) {
+        putAllObserver.end(PutAllOutcome.SUCCESS);
+        return CompletableFuture.completedFuture(null);
+      }
+      for (Map.Entry<? extends K, ? extends V> entry: entries.entrySet()) {
+        checkNonNull(entry.getKey(), entry.getValue());
+      }
+
+      return asyncStore.putAllAsync(entries).handle((ignored, failure) -> {
+        if (failure == null) {
+          addBulkMethodEntriesCount(BulkOps.PUT_ALL, entries.size());
+          putAllObserver.end(PutAllOutcome.SUCCESS);
+        } else {
+          StoreAccessException e = storeAccessException(failure);
+          try {
+            resilienceStrategy.putAllFailure(entries, e);
+          } finally {
+            putAllObserver.end(PutAllOutcome.FAILURE);
+          }
+        }
+        return null;
+      });
+    }
+  }
+
   private final class Jsr107CacheImpl implements Jsr107Cache<K, V> {
     @Override
     public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, Function<Iterable<? extends K>, Map<K, V>> loadFunction) {
@@ -707,40 +906,61 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
       getObserver.begin();
 
       try {
-        BiFunction<K, V, V> fn = (mappedKey, mappedValue) -> {
-          if (mappedValue == null) {
-            getObserver.end(GetOutcome.MISS);
-          } else {
-            getObserver.end(GetOutcome.HIT);
-          }
+        store.compute(key, computeFunction(computeFunction, replaceEqual, withStatsAndEvents), replaceEqual);
+      } catch (StoreAccessException e) {
+        throw new RuntimeException(e);
+      }
+    }
 
-          V newValue = computeFunction.apply(mappedKey, mappedValue);
+    @Override
+    public Map<K, Exception> bulkCompute(Set<? extends K> keys, final BiFunction<? super K, ? super V, ? extends V> computeFunction,
+        final Supplier<Boolean> replaceEqual, final Supplier<Boolean> invokeWriter, final Supplier<Boolean> withStatsAndEvents) {
+      Jsr107BulkComputeFunction<K, V> bulkFunction = new Jsr107BulkComputeFunction<>(
+          computeFunction(computeFunction, replaceEqual, withStatsAndEvents), () -> {
+            putObserver.begin();
+            removeObserver.begin();
+            getObserver.begin();
+          });
 
-          if (newValue == mappedValue) {
-            if (! replaceEqual.get()) {
-              return mappedValue;
-            }
-          }
+      try {
+        store.bulkCompute(keys, bulkFunction, () -> !bulkFunction.lastFailed() && replaceEqual.get());
+      } catch (StoreAccessException e) {
+        throw new RuntimeException(e);
+      }
+      return bulkFunction.getFailures();
+    }
 
-          if (newValueAlreadyExpired(mappedKey, mappedValue, newValue)) {
-            return null;
-          }
+    private BiFunction<K, V, V> computeFunction(final BiFunction<? super K, ? super V, ? extends V> computeFunction,
+        final Supplier<Boolean> replaceEqual, final Supplier<Boolean> withStatsAndEvents) {
+      return (mappedKey, mappedValue) -> {
+        if (mappedValue == null) {
+          getObserver.end(GetOutcome.MISS);
+        } else {
+          getObserver.end(GetOutcome.HIT);
+        }
 
-          if (withStatsAndEvents.get()) {
-            if (newValue == null) {
-              removeObserver.end(RemoveOutcome.SUCCESS);
-            } else {
-              putObserver.end(mappedValue == null ? PutOutcome.PUT : PutOutcome.UPDATED);
-            }
+        V newValue = computeFunction.apply(mappedKey, mappedValue);
+
+        if (newValue == mappedValue) {
+          if (! replaceEqual.get()) {
+            return mappedValue;
           }
+        }
+
+        if (newValueAlreadyExpired(mappedKey, mappedValue, newValue)) {
+          return null;
+        }
 
-          return newValue;
-        };
+        if (withStatsAndEvents.get()) {
+          if (newValue == null) {
+            removeObserver.end(RemoveOutcome.SUCCESS);
+          } else {
+            putObserver.end(mappedValue == null ? PutOutcome.PUT : PutOutcome.UPDATED);
+          }
+        }
 
-        store.compute(key, fn, replaceEqual);
-      } catch (StoreAccessException e) {
-        throw new RuntimeException(e);
-      }
+        return newValue;
+      };
     }
 
     @Override
@@ -16,6 +16,7 @@
 
 package org.ehcache.core;
 
+import org.ehcache.AsyncCache;
 import org.ehcache.Cache;
 import org.ehcache.Status;
 import org.ehcache.config.CacheConfiguration;
@@ -94,6 +95,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
   private final ResilienceStrategy<K, V> resilienceStrategy;
   private final EhcacheRuntimeConfiguration<K, V> runtimeConfiguration;
   private final Jsr107CacheImpl jsr107Cache;
+  private final AsyncCache<K, V> asyncCache;
   private final boolean useLoaderInAtomics;
   protected final Logger logger;
 
@@ -152,6 +154,8 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     this.runtimeConfiguration = runtimeConfiguration;
     runtimeConfiguration.addCacheConfigurationListener(eventDispatcher.getConfigurationChangeListeners());
     this.jsr107Cache = new Jsr107CacheImpl();
+    // the loader-writer is blocking anyhow, hence operations complete on the calling thread
+    this.asyncCache = InternalCache.super.async();
 
     this.useLoaderInAtomics = useLoaderInAtomics;
     this.logger=logger;
@@ -1026,6 +1030,14 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AsyncCache<K, V> async() {
+    return asyncCache;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -1182,52 +1194,73 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
       getObserver.begin();
 
       try {
-        BiFunction<K, V, V> fn = (mappedKey, mappedValue) -> {
-          if (mappedValue == null) {
-            getObserver.end(GetOutcome.MISS);
-          } else {
-            getObserver.end(GetOutcome.HIT);
-          }
+        store.compute(key, computeFunction(computeFunction, replaceEqual, invokeWriter, withStatsAndEvents), replaceEqual);
+      } catch (StoreAccessException e) {
+        throw new RuntimeException(e);
+      }
+    }
 
-          V newValue = computeFunction.apply(mappedKey, mappedValue);
+    @Override
+    public Map<K, Exception> bulkCompute(Set<? extends K> keys, final BiFunction<? super K, ? super V, ? extends V> computeFunction,
+        final Supplier<Boolean> replaceEqual, final Supplier<Boolean> invokeWriter, final Supplier<Boolean> withStatsAndEvents) {
+      Jsr107BulkComputeFunction<K, V> bulkFunction = new Jsr107BulkComputeFunction<>(
+          computeFunction(computeFunction, replaceEqual, invokeWriter, withStatsAndEvents), () -> {
+            putObserver.begin();
+            removeObserver.begin();
+            getObserver.begin();
+          });
 
-          if (newValue == mappedValue) {
-            if (! replaceEqual.get()) {
-              return mappedValue;
-            }
-          }
+      try {
+        store.bulkCompute(keys, bulkFunction, () -> !bulkFunction.lastFailed() && replaceEqual.get());
+      } catch (StoreAccessException e) {
+        throw new RuntimeException(e);
+      }
+      return bulkFunction.getFailures();
+    }
 
-          if (invokeWriter.get()) {
-            try {
-              if (newValue != null) {
-                cacheLoaderWriter.write(mappedKey, newValue);
-              } else {
-                cacheLoaderWriter.delete(mappedKey);
-              }
-            } catch (Exception e) {
-              throw new StorePassThroughException(newCacheWritingException(e));
-            }
-          }
+    private BiFunction<K, V, V> computeFunction(final BiFunction<? super K, ? super V, ? extends V> computeFunction,
+        final Supplier<Boolean> replaceEqual, final Supplier<Boolean> invokeWriter, final Supplier<Boolean> withStatsAndEvents) {
+      return (mappedKey, mappedValue) -> {
+        if (mappedValue == null) {
+          getObserver.end(GetOutcome.MISS);
+        } else {
+          getObserver.end(GetOutcome.HIT);
+        }
 
-          if (newValueAlreadyExpired(mappedKey, mappedValue, newValue)) {
-            return null;
+        V newValue = computeFunction.apply(mappedKey, mappedValue);
+
+        if (newValue == mappedValue) {
+          if (! replaceEqual.get()) {
+            return mappedValue;
           }
+        }
 
-          if (withStatsAndEvents.get()) {
-            if (newValue == null) {
-              removeObserver.end(RemoveOutcome.SUCCESS);
+        if (invokeWriter.get()) {
+          try {
+            if (newValue != null) {
+              cacheLoaderWriter.write(mappedKey, newValue);
             } else {
-              putObserver.end(PutOutcome.PUT);
+              cacheLoaderWriter.delete(mappedKey);
             }
+          } catch (Exception e) {
+            throw new StorePassThroughException(newCacheWritingException(e));
           }
+        }
 
-          return newValue;
-        };
+        if (newValueAlreadyExpired(mappedKey, mappedValue, newValue)) {
+          return null;
+        }
 
-        store.compute(key, fn, replaceEqual);
-      } catch (StoreAccessException e) {
-        throw new RuntimeException(e);
-      }
+        if (withStatsAndEvents.get()) {
+          if (newValue == null) {
+            removeObserver.end(RemoveOutcome.SUCCESS);
+          } else {
+            putObserver.end(PutOutcome.PUT);
+          }
+        }
+
+        return newValue;
+      };
     }
 
     @Override
@@ -0,0 +1,83 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.core;
+
+import org.ehcache.core.exceptions.StorePassThroughException;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Bulk remapping function applying a {@link Jsr107Cache#compute} function to each entry, capturing failures per key.
+ * <p>
+ * A key whose computation failed is remapped to its current value, {@link #lastFailed()} tells the store it must not
+ * be replaced.
+ */
+final class Jsr107BulkComputeFunction<K, V> implements Function<Iterable<? extends Map.Entry<? extends K, ? extends V>>, Iterable<? extends Map.Entry<? extends K, ? extends V>>> {
+
+  private final BiFunction<K, V, V> computeFunction;
+  private final Runnable beforeEach;
+  private final Map<K, Exception> failures = new HashMap<>();
+  private boolean lastFailed;
+
+  Jsr107BulkComputeFunction(BiFunction<K, V, V> computeFunction, Runnable beforeEach) {
+    this.computeFunction = computeFunction;
+    this.beforeEach = beforeEach;
+  }
+
+  @Override
+  public Iterable<? extends Map.Entry<? extends K, ? extends V>> apply(Iterable<? extends Map.Entry<? extends K, ? extends V>> entries) {
+    Collection<Map.Entry<K, V>> computed = new ArrayList<>();
+    for (Map.Entry<? extends K, ? extends V> entry : entries) {
+      K key = entry.getKey();
+      V value = entry.getValue();
+      beforeEach.run();
+      try {
+        computed.add(new AbstractMap.SimpleImmutableEntry<>(key, computeFunction.apply(key, value)));
+        lastFailed = false;
+      } catch (StorePassThroughException e) {
+        Throwable cause = e.getCause();
+        failures.put(key, cause instanceof Exception ? (Exception) cause : e);
+        computed.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+        lastFailed = true;
+      } catch (RuntimeException e) {
+        failures.put(key, e);
+        computed.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+        lastFailed = true;
+      }
+    }
+    return computed;
+  }
+
+  /**
+   * Tells whether computing the last key failed, in which case its mapping must be left as is.
+   *
+   * @return {@code true} if the last computation failed
+   */
+  boolean lastFailed() {
+    return lastFailed;
+  }
+
+  Map<K, Exception> getFailures() {
+    return failures;
+  }
+}
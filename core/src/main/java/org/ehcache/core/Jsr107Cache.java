@@ -88,6 +88,23 @@ public interface Jsr107Cache<K, V> {
       Supplier<Boolean> replaceEqual, final Supplier<Boolean> invokeWriter,
       final Supplier<Boolean> withStatsAndEvents);
 
+  /**
+   * Invokes the {@code computeFunction} for each of the provided keys, as {@link #compute} would, in a single bulk
+   * operation on the underlying store.
+   * <p>
+   * The suppliers are queried for the key being computed, right after the {@code computeFunction} was invoked for it.
+   * A failure computing a key leaves its mapping untouched and does not prevent computing the other keys.
+   *
+   * @param keys the keys to compute
+   * @param computeFunction the function potentially mutating the mappings
+   * @param replaceEqual should equal value be replaced
+   * @param invokeWriter should the writer be invoked
+   * @param withStatsAndEvents should statistics be updated and events fired
+   * @return the failures, per key
+   */
+  Map<K, Exception> bulkCompute(Set<? extends K> keys, BiFunction<? super K, ? super V, ? extends V> computeFunction,
+      Supplier<Boolean> replaceEqual, Supplier<Boolean> invokeWriter, Supplier<Boolean> withStatsAndEvents);
+
   /**
    * Invokes the cache loader for the given keys, optionally replacing the cache mappings with the loaded values.
    *
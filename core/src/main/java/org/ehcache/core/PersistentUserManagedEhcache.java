@@ -16,6 +16,7 @@
 
 package org.ehcache.core;
 
+import org.ehcache.AsyncCache;
 import org.ehcache.PersistentUserManagedCache;
 import org.ehcache.Status;
 import org.ehcache.config.CacheConfiguration;
@@ -235,6 +236,14 @@ public class PersistentUserManagedEhcache<K, V> implements PersistentUserManaged
     return cache.replace(key, oldValue, newValue);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AsyncCache<K, V> async() {
+    return cache.async();
+  }
+
   /**
    * {@inheritDoc}
    */
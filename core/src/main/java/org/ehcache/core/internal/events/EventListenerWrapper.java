@@ -17,12 +17,14 @@
 package org.ehcache.core.internal.events;
 
 import org.ehcache.event.CacheEvent;
+import org.ehcache.event.CacheEventBatchListener;
 import org.ehcache.event.CacheEventListener;
 import org.ehcache.event.EventFiring;
 import org.ehcache.event.EventOrdering;
 import org.ehcache.event.EventType;
 
 import java.util.EnumSet;
+import java.util.List;
 
 /**
  * Internal wrapper for {@link CacheEventListener} and their configuration.
@@ -82,6 +84,21 @@ public final class EventListenerWrapper<K, V> implements CacheEventListener<K, V
     listener.onEvent(event);
   }
 
+  /**
+   * Delivers several events in one call, the wrapped listener being a {@link CacheEventBatchListener}.
+   *
+   * @param events the events
+   * @see #isBatchListener()
+   */
+  @SuppressWarnings("unchecked")
+  public void onEvents(List<CacheEvent<? extends K, ? extends V>> events) {
+    ((CacheEventBatchListener<K, V>) listener).onEvents(events);
+  }
+
+  public boolean isBatchListener() {
+    return listener instanceof CacheEventBatchListener;
+  }
+
   public CacheEventListener getListener() {
     return listener;
   }
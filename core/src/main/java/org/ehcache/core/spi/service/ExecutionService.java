@@ -20,6 +20,7 @@ import org.ehcache.spi.service.Service;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -53,6 +54,22 @@ public interface ExecutionService extends Service {
    */
   ExecutorService getOrderedExecutor(String poolAlias, BlockingQueue<Runnable> queue) throws IllegalArgumentException;
 
+  /**
+   * Get a pre-configured {@link ExecutorService} instance that guarantees execution in submission order, with an
+   * unbounded queue of pending tasks.
+   * <p>
+   * Implementations are free to use a queue better suited to many concurrent submitters than a {@link BlockingQueue}.
+   *
+   * @param poolAlias the requested pool alias.
+   *
+   * @return the {@link ExecutorService} instance.
+   *
+   * @throws IllegalArgumentException if the requested pool alias does not exist.
+   */
+  default ExecutorService getOrderedExecutor(String poolAlias) throws IllegalArgumentException {
+    return getOrderedExecutor(poolAlias, new LinkedBlockingQueue<>());
+  }
+
   /**
    * Get a pre-configured {@link ExecutorService} instance.
    *
@@ -0,0 +1,78 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.core.spi.store;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Optional capability of a {@link Store} able to perform operations without blocking the calling thread.
+ * <p>
+ * Stages returned by these methods complete exceptionally with a {@link StoreAccessException} where the matching
+ * {@link Store} method would have thrown one, and with a {@link StoreAccessTimeoutException} on timeout of a mutative
+ * operation. Stages of operations served by local tiers may already be completed when returned.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ *
+ * @see org.ehcache.AsyncCache
+ */
+public interface AsyncStore<K, V> {
+
+  /**
+   * Asynchronous version of {@link Store#get(Object)}.
+   *
+   * @param key key to which the value is associated
+   * @return a stage completed with the value holder, {@code null} if no mapping exists
+   */
+  CompletionStage<Store.ValueHolder<V>> getAsync(K key);
+
+  /**
+   * Asynchronous version of {@link Store#put(Object, Object)}.
+   *
+   * @param key key with which the specified value is to be associated
+   * @param value value to be associated with the specified key
+   * @return a stage completed with the put status
+   */
+  CompletionStage<Store.PutStatus> putAsync(K key, V value);
+
+  /**
+   * Asynchronous version of {@link Store#remove(Object)}.
+   *
+   * @param key key whose mapping is to be removed
+   * @return a stage completed with {@code true} if there was a mapping to remove
+   */
+  CompletionStage<Boolean> removeAsync(K key);
+
+  /**
+   * Asynchronous equivalent of the {@link Store#bulkComputeIfAbsent(Set, java.util.function.Function)} done by
+   * {@link org.ehcache.Cache#getAll(Set)}.
+   *
+   * @param keys keys to retrieve
+   * @return a stage completed with a map of every key to its value holder, {@code null} if no mapping exists
+   */
+  CompletionStage<Map<K, Store.ValueHolder<V>>> getAllAsync(Set<? extends K> keys);
+
+  /**
+   * Asynchronous equivalent of the {@link Store#bulkCompute(Set, java.util.function.Function)} done by
+   * {@link org.ehcache.Cache#putAll(Map)}.
+   *
+   * @param entries mappings to install
+   * @return a stage completed once all mappings are installed
+   */
+  CompletionStage<Void> putAllAsync(Map<? extends K, ? extends V> entries);
+}
@@ -37,6 +37,13 @@ public interface CacheStatistics {
    */
   Map<String, TierStatistics> getTierStatistics();
 
+  /**
+   * Latency histograms of the operations on this cache and its underlying tiers. Per statistic name
+   *
+   * @return latency histograms per name
+   */
+  Map<String, LatencyHistogram> getLatencyHistograms();
+
   /**
    * Reset the values for this cache and its underlying tiers.
    * <p>
@@ -0,0 +1,48 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.core.statistics;
+
+/**
+ * Distribution of the latencies of an operation, in nanoseconds.
+ * <p>
+ * Latencies are recorded in buckets of bounded relative precision, the reported percentiles are thus the upper bound
+ * of the bucket holding them.
+ */
+public interface LatencyHistogram {
+
+  /**
+   * How many latencies were recorded since the creation of the histogram or the latest {@link CacheStatistics#clear()}
+   *
+   * @return recorded latency count
+   */
+  long getCount();
+
+  /**
+   * The latency, in nanoseconds, below which the given fraction of the recorded latencies fall
+   *
+   * @param fraction the percentile, between {@code 0} and {@code 1}
+   * @return the latency at that percentile, {@code 0} if nothing was recorded
+   */
+  long getPercentile(double fraction);
+
+  /**
+   * The highest recorded latency, in nanoseconds
+   *
+   * @return maximum latency, {@code 0} if nothing was recorded
+   */
+  long getMaximum();
+}
@@ -30,6 +30,13 @@ public interface TierStatistics {
    */
   Map<String, TypedValueStatistic> getKnownStatistics();
 
+  /**
+   * Latency histograms of the operations on this tier. Per statistic name
+   *
+   * @return latency histograms per name
+   */
+  Map<String, LatencyHistogram> getLatencyHistograms();
+
   /**
    * Reset the values for this tier. However, note that {@code mapping, maxMappings, allocatedMemory, occupiedMemory}
    * won't be reset since it doesn't make sense.
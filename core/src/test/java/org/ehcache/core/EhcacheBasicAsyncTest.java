@@ -0,0 +1,141 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.core;
+
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+
+import org.ehcache.Status;
+import org.ehcache.core.spi.store.AsyncStore;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.store.StoreAccessException;
+import org.ehcache.core.statistics.CacheOperationOutcomes;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Provides testing of the {@link org.ehcache.AsyncCache} view of an {@code Ehcache}.
+ */
+public class EhcacheBasicAsyncTest extends EhcacheBasicCrudBase {
+
+  @Test
+  public void testAsyncGetNull() {
+    final Ehcache<String, String> ehcache = this.getEhcache();
+
+    try {
+      ehcache.async().get(null);
+      fail();
+    } catch (NullPointerException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests {@link org.ehcache.AsyncCache#get(Object)} falls back to the synchronous path for a {@code Store} that is not
+   * an {@link AsyncStore}.
+   */
+  @Test
+  public void testAsyncGetSynchronousStore() throws Exception {
+    final Ehcache<String, String> ehcache = this.getEhcache();
+
+    assertThat(ehcache.async().get("key").toCompletableFuture().isDone(), is(true));
+    assertThat(ehcache.async().get("key").toCompletableFuture().get(), is(nullValue()));
+    verify(this.store, times(2)).get(eq("key"));
+  }
+
+  @Test
+  public void testAsyncGetHasStoreEntry() throws Exception {
+    AsyncStore<String, String> asyncStore = asyncStore();
+    @SuppressWarnings("unchecked")
+    Store.ValueHolder<String> valueHolder = mock(Store.ValueHolder.class);
+    when(valueHolder.value()).thenReturn("value");
+    when(asyncStore.getAsync("key")).thenReturn(CompletableFuture.completedFuture(valueHolder));
+
+    final Ehcache<String, String> ehcache = this.getEhcache();
+
+    assertThat(ehcache.async().get("key").toCompletableFuture().get(), equalTo("value"));
+    verifyZeroInteractions(this.spiedResilienceStrategy);
+    validateStats(ehcache, EnumSet.of(CacheOperationOutcomes.GetOutcome.HIT));
+  }
+
+  @Test
+  public void testAsyncGetStoreAccessException() throws Exception {
+    AsyncStore<String, String> asyncStore = asyncStore();
+    CompletableFuture<Store.ValueHolder<String>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new StoreAccessException(""));
+    when(asyncStore.getAsync("key")).thenReturn(failed);
+
+    final Ehcache<String, String> ehcache = this.getEhcache();
+
+    assertThat(ehcache.async().get("key").toCompletableFuture().get(), is(nullValue()));
+    verify(this.spiedResilienceStrategy).getFailure(eq("key"), any(StoreAccessException.class));
+    validateStats(ehcache, EnumSet.of(CacheOperationOutcomes.GetOutcome.FAILURE));
+  }
+
+  @Test
+  public void testAsyncPut() throws Exception {
+    AsyncStore<String, String> asyncStore = asyncStore();
+    CompletableFuture<Store.PutStatus> pending = new CompletableFuture<>();
+    when(asyncStore.putAsync("key", "value")).thenReturn(pending);
+
+    final Ehcache<String, String> ehcache = this.getEhcache();
+
+    CompletableFuture<Void> put = ehcache.async().put("key", "value").toCompletableFuture();
+    assertThat(put.isDone(), is(false));
+    pending.complete(Store.PutStatus.PUT);
+    assertThat(put.isDone(), is(true));
+    verifyZeroInteractions(this.spiedResilienceStrategy);
+    validateStats(ehcache, EnumSet.of(CacheOperationOutcomes.PutOutcome.PUT));
+  }
+
+  /**
+   * Replaces the mocked {@code Store} with one that also implements {@link AsyncStore}.
+   */
+  @SuppressWarnings("unchecked")
+  private AsyncStore<String, String> asyncStore() {
+    this.store = mock(Store.class, withSettings().extraInterfaces(AsyncStore.class));
+    return (AsyncStore<String, String>) this.store;
+  }
+
+  /**
+   * Gets an initialized {@link Ehcache Ehcache} instance
+   *
+   * @return a new {@code Ehcache} instance
+   */
+  private Ehcache<String, String> getEhcache() {
+    final Ehcache<String, String> ehcache = new Ehcache<>(CACHE_CONFIGURATION, this.store, cacheEventDispatcher, LoggerFactory
+      .getLogger(Ehcache.class + "-" + "EhcacheBasicAsyncTest"));
+    ehcache.init();
+    assertThat("cache not initialized", ehcache.getStatus(), CoreMatchers.is(Status.AVAILABLE));
+    this.spiedResilienceStrategy = this.setResilienceStrategySpy(ehcache);
+    return ehcache;
+  }
+}
@@ -34,6 +34,9 @@ import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
 import org.ehcache.impl.copy.SerializingCopier;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapExpiryReaperConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
 import org.ehcache.spi.copy.Copier;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.spi.serialization.Serializer;
@@ -43,6 +46,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration.DEFAULT_MAX_OBJECT_SIZE;
 import static org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration.DEFAULT_OBJECT_GRAPH_SIZE;
@@ -567,16 +571,45 @@ public class CacheConfigurationBuilder<K, V> implements Builder<CacheConfigurati
    * @return a new builder with the added configuration
    */
   public CacheConfigurationBuilder<K, V> withEventListenersThreadPool(String threadPoolAlias) {
-    DefaultCacheEventDispatcherConfiguration configuration = new DefaultCacheEventDispatcherConfiguration(threadPoolAlias);
     CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<>(this);
     DefaultCacheEventDispatcherConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(DefaultCacheEventDispatcherConfiguration.class);
+    DefaultCacheEventDispatcherConfiguration configuration;
     if (existingServiceConfiguration != null) {
       otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+      configuration = new DefaultCacheEventDispatcherConfiguration(threadPoolAlias, existingServiceConfiguration.getMaxBatchSize(),
+          existingServiceConfiguration.getMaxBatchDelay(), existingServiceConfiguration.getMaxBatchDelayUnit());
+    } else {
+      configuration = new DefaultCacheEventDispatcherConfiguration(threadPoolAlias);
     }
     otherBuilder.serviceConfigurations.add(configuration);
     return otherBuilder;
   }
 
+  /**
+   * Adds a {@link ServiceConfiguration} for the {@link org.ehcache.core.events.CacheEventDispatcherFactory} batching
+   * the events delivered to asynchronous listeners.
+   * <p>
+   * A batch is delivered once it holds {@code maxBatchSize} events, or once its first event waited for
+   * {@code maxBatchDelay}. Listeners implementing {@link org.ehcache.event.CacheEventBatchListener} receive the whole
+   * batch at once.
+   *
+   * @param maxBatchSize the maximum number of events in a batch
+   * @param maxBatchDelay the maximum delay an event waits for its batch to fill
+   * @param timeUnit the unit of the maximum delay
+   * @return a new builder with the added configuration
+   */
+  public CacheConfigurationBuilder<K, V> withEventBatching(int maxBatchSize, long maxBatchDelay, TimeUnit timeUnit) {
+    CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<>(this);
+    DefaultCacheEventDispatcherConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(DefaultCacheEventDispatcherConfiguration.class);
+    String threadPoolAlias = null;
+    if (existingServiceConfiguration != null) {
+      otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+      threadPoolAlias = existingServiceConfiguration.getThreadPoolAlias();
+    }
+    otherBuilder.serviceConfigurations.add(new DefaultCacheEventDispatcherConfiguration(threadPoolAlias, maxBatchSize, maxBatchDelay, timeUnit));
+    return otherBuilder;
+  }
+
   /**
    * Adds a {@link ServiceConfiguration} for the {@link org.ehcache.impl.internal.store.disk.OffHeapDiskStore.Provider}
    * indicating thread pool alias and write concurrency.
@@ -596,6 +629,65 @@ public class CacheConfigurationBuilder<K, V> implements Builder<CacheConfigurati
     return otherBuilder;
   }
 
+  /**
+   * Adds a {@link ServiceConfiguration} for the {@link org.ehcache.impl.internal.store.heap.OnHeapStore.Provider}
+   * indicating the eviction policy of the heap tier.
+   *
+   * @param evictionPolicy the heap eviction policy
+   * @return a new builder with the added configuration
+   */
+  public CacheConfigurationBuilder<K, V> withHeapEvictionPolicy(OnHeapStoreConfiguration.EvictionPolicy evictionPolicy) {
+    OnHeapStoreConfiguration configuration = new OnHeapStoreConfiguration(evictionPolicy);
+    CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<>(this);
+    OnHeapStoreConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(OnHeapStoreConfiguration.class);
+    if (existingServiceConfiguration != null) {
+      otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+    }
+    otherBuilder.serviceConfigurations.add(configuration);
+    return otherBuilder;
+  }
+
+  /**
+   * Adds a {@link ServiceConfiguration} for the {@link org.ehcache.impl.internal.store.heap.OnHeapStore.Provider}
+   * enabling the background reclaiming of expired heap mappings every {@code interval}.
+   *
+   * @param interval the delay between two reclaiming runs
+   * @param unit the interval unit
+   * @return a new builder with the added configuration
+   *
+   * @see OnHeapExpiryReaperConfiguration
+   */
+  public CacheConfigurationBuilder<K, V> withHeapExpiryReaper(long interval, TimeUnit unit) {
+    OnHeapExpiryReaperConfiguration configuration = new OnHeapExpiryReaperConfiguration(interval, unit);
+    CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<>(this);
+    OnHeapExpiryReaperConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(OnHeapExpiryReaperConfiguration.class);
+    if (existingServiceConfiguration != null) {
+      otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+    }
+    otherBuilder.serviceConfigurations.add(configuration);
+    return otherBuilder;
+  }
+
+  /**
+   * Adds a {@link ServiceConfiguration} for the {@link org.ehcache.impl.internal.store.offheap.OffHeapStore.Provider}
+   * indicating how the offheap and disk tiers compress values.
+   *
+   * @param compression the value compression
+   * @return a new builder with the added configuration
+   *
+   * @see OffHeapStoreConfiguration
+   */
+  public CacheConfigurationBuilder<K, V> withValueCompression(OffHeapStoreConfiguration.Compression compression) {
+    OffHeapStoreConfiguration configuration = new OffHeapStoreConfiguration(compression);
+    CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<>(this);
+    OffHeapStoreConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(OffHeapStoreConfiguration.class);
+    if (existingServiceConfiguration != null) {
+      otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+    }
+    otherBuilder.serviceConfigurations.add(configuration);
+    return otherBuilder;
+  }
+
   /**
    * Adds or updates the {@link DefaultSizeOfEngineConfiguration} with the specified object graph maximum size to the configured
    * builder.
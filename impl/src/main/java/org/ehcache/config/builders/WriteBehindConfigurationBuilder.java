@@ -21,8 +21,10 @@ import java.util.concurrent.TimeUnit;
 import org.ehcache.config.Builder;
 import org.ehcache.impl.config.loaderwriter.writebehind.DefaultBatchingConfiguration;
 import org.ehcache.impl.config.loaderwriter.writebehind.DefaultWriteBehindConfiguration;
+import org.ehcache.impl.config.loaderwriter.writebehind.DurableWriteBehindConfiguration;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration.BatchingConfiguration;
+import org.ehcache.spi.serialization.Serializer;
 
 /**
  * The {@code WriteBehindConfigurationBuilder} enables building {@link WriteBehindConfiguration}s using a fluent style.
@@ -36,6 +38,9 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
   protected int concurrency = 1;
   protected int queueSize = Integer.MAX_VALUE;
   protected String threadPoolAlias = null;
+  protected String durableQueueName = null;
+  protected Serializer<?> keySerializer = null;
+  protected Serializer<?> valueSerializer = null;
 
   private WriteBehindConfigurationBuilder() {
   }
@@ -44,6 +49,9 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
     concurrency = other.concurrency;
     queueSize = other.queueSize;
     threadPoolAlias = other.threadPoolAlias;
+    durableQueueName = other.durableQueueName;
+    keySerializer = other.keySerializer;
+    valueSerializer = other.valueSerializer;
   }
 
   /**
@@ -191,6 +199,16 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
       return otherBuilder;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchedWriteBehindConfigurationBuilder durable(String queueName, Serializer<?> keySerializer, Serializer<?> valueSerializer) {
+      BatchedWriteBehindConfigurationBuilder otherBuilder = new BatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.setDurable(queueName, keySerializer, valueSerializer);
+      return otherBuilder;
+    }
+
     /**
      * Builds the {@link WriteBehindConfiguration}
      *
@@ -259,10 +277,34 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
       otherBuilder.threadPoolAlias = alias;
       return otherBuilder;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UnBatchedWriteBehindConfigurationBuilder durable(String queueName, Serializer<?> keySerializer, Serializer<?> valueSerializer) {
+      UnBatchedWriteBehindConfigurationBuilder otherBuilder = new UnBatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.setDurable(queueName, keySerializer, valueSerializer);
+      return otherBuilder;
+    }
   }
 
   WriteBehindConfiguration buildWith(BatchingConfiguration batching) {
-    return new DefaultWriteBehindConfiguration(threadPoolAlias, concurrency, queueSize, batching);
+    if (durableQueueName == null) {
+      return new DefaultWriteBehindConfiguration(threadPoolAlias, concurrency, queueSize, batching);
+    } else {
+      return new DurableWriteBehindConfiguration(threadPoolAlias, concurrency, queueSize, batching,
+          durableQueueName, keySerializer, valueSerializer, DurableWriteBehindConfiguration.DEFAULT_SEGMENT_SIZE);
+    }
+  }
+
+  void setDurable(String queueName, Serializer<?> keySerializer, Serializer<?> valueSerializer) {
+    if (queueName == null || keySerializer == null || valueSerializer == null) {
+      throw new NullPointerException("Durable write-behind requires a queue name, a key serializer and a value serializer");
+    }
+    this.durableQueueName = queueName;
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
   }
 
   /**
@@ -294,4 +336,20 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
    * @see PooledExecutionServiceConfigurationBuilder
    */
   public abstract WriteBehindConfigurationBuilder useThreadPool(String alias);
+
+  /**
+   * Makes the write-behind queue durable on the returned builder.
+   * <p>
+   * Pending operations are then appended to files in the local persistence directory instead of being kept on heap,
+   * and the ones not yet written by the {@code CacheLoaderWriter} are replayed when a queue with the same name is
+   * created again. The queue size then bounds the number of pending operations on disk.
+   *
+   * @param queueName the name identifying the queue across restarts
+   * @param keySerializer the serializer used to write keys to disk
+   * @param valueSerializer the serializer used to write values to disk
+   * @return a new builder with a durable queue
+   *
+   * @see CacheManagerBuilder#persistence(String)
+   */
+  public abstract WriteBehindConfigurationBuilder durable(String queueName, Serializer<?> keySerializer, Serializer<?> valueSerializer);
 }
@@ -19,15 +19,20 @@ package org.ehcache.impl.config.event;
 import org.ehcache.core.events.CacheEventDispatcherFactory;
 import org.ehcache.spi.service.ServiceConfiguration;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * {@link ServiceConfiguration} for the default {@link CacheEventDispatcherFactory} implementation.
  * <p>
  * Enables configuring the thread pool to be used by a {@link org.ehcache.core.events.CacheEventDispatcher} for
- * a given cache.
+ * a given cache, and whether events to asynchronous listeners are delivered in batches.
  */
 public class DefaultCacheEventDispatcherConfiguration implements ServiceConfiguration<CacheEventDispatcherFactory> {
 
   private final String threadPoolAlias;
+  private final int maxBatchSize;
+  private final long maxBatchDelay;
+  private final TimeUnit maxBatchDelayUnit;
 
   /**
    * Creates a new configuration with the provided pool alias
@@ -35,7 +40,34 @@ public class DefaultCacheEventDispatcherConfiguration implements ServiceConfigur
    * @param threadPoolAlias the pool alias
    */
   public DefaultCacheEventDispatcherConfiguration(String threadPoolAlias) {
+    this(threadPoolAlias, 1, 0, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a new configuration with the provided pool alias, batching events to asynchronous listeners.
+   * <p>
+   * A batch is delivered once it holds {@code maxBatchSize} events, or once its first event waited for
+   * {@code maxBatchDelay}. A {@code maxBatchSize} of {@code 1} disables batching.
+   *
+   * @param threadPoolAlias the pool alias
+   * @param maxBatchSize the maximum number of events in a batch
+   * @param maxBatchDelay the maximum delay an event waits for its batch to fill
+   * @param maxBatchDelayUnit the unit of the maximum delay
+   */
+  public DefaultCacheEventDispatcherConfiguration(String threadPoolAlias, int maxBatchSize, long maxBatchDelay, TimeUnit maxBatchDelayUnit) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be a positive integer, was: " + maxBatchSize);
+    }
+    if (maxBatchDelay < 0) {
+      throw new IllegalArgumentException("Max batch delay must not be negative, was: " + maxBatchDelay + " " + maxBatchDelayUnit);
+    }
+    if (maxBatchDelayUnit == null) {
+      throw new NullPointerException("Max batch delay unit cannot be null");
+    }
     this.threadPoolAlias = threadPoolAlias;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchDelay = maxBatchDelay;
+    this.maxBatchDelayUnit = maxBatchDelayUnit;
   }
 
   /**
@@ -54,4 +86,31 @@ public class DefaultCacheEventDispatcherConfiguration implements ServiceConfigur
   public String getThreadPoolAlias() {
     return threadPoolAlias;
   }
+
+  /**
+   * Returns the maximum number of events delivered in a batch, {@code 1} meaning batching is disabled.
+   *
+   * @return the maximum batch size
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Returns the maximum delay an event waits for its batch to fill.
+   *
+   * @return the maximum batch delay
+   */
+  public long getMaxBatchDelay() {
+    return maxBatchDelay;
+  }
+
+  /**
+   * Returns the unit of the maximum batch delay.
+   *
+   * @return the maximum batch delay unit
+   */
+  public TimeUnit getMaxBatchDelayUnit() {
+    return maxBatchDelayUnit;
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.loaderwriter.writebehind;
+
+import org.ehcache.spi.serialization.Serializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link org.ehcache.spi.service.ServiceConfiguration} for a write-behind whose pending operations are appended to
+ * segment files in the local persistence directory instead of being kept on heap.
+ * <p>
+ * Operations not yet acknowledged by the {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter} when the cache is
+ * closed, or when the process dies, are replayed the next time a write-behind with the same queue name is created.
+ * This requires a {@link org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration} to be configured.
+ * <p>
+ * Operations the {@code CacheLoaderWriter} keeps failing on are retried with an exponential backoff, then moved to a
+ * dead-letter file next to the segments so that the queue moves on.
+ */
+public class DurableWriteBehindConfiguration extends DefaultWriteBehindConfiguration {
+
+  /**
+   * Default size beyond which a new segment file is started, in bytes.
+   */
+  public static final long DEFAULT_SEGMENT_SIZE = 16L * 1024 * 1024;
+
+  /**
+   * Default number of retries of a failing batch before it is moved to the dead-letter file.
+   */
+  public static final int DEFAULT_MAX_RETRIES = 10;
+
+  /**
+   * Default delay before the first retry of a failing batch, in milliseconds.
+   */
+  public static final long DEFAULT_RETRY_DELAY_MS = 1000L;
+
+  private final String queueName;
+  private final Serializer<?> keySerializer;
+  private final Serializer<?> valueSerializer;
+  private final long segmentSize;
+  private final int maxRetries;
+  private final long retryDelay;
+  private final TimeUnit retryDelayUnit;
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param executorAlias the thread pool alias
+   * @param concurrency the write-behind concurrency
+   * @param queueSize the maximum number of pending operations
+   * @param batchingConfig optional batching configuration
+   * @param queueName the name of the persistent queue, usually the cache alias
+   * @param keySerializer the serializer used to write keys to disk
+   * @param valueSerializer the serializer used to write values to disk
+   * @param segmentSize the size beyond which a new segment file is started, in bytes
+   */
+  public DurableWriteBehindConfiguration(String executorAlias, int concurrency, int queueSize, BatchingConfiguration batchingConfig,
+                                         String queueName, Serializer<?> keySerializer, Serializer<?> valueSerializer, long segmentSize) {
+    this(executorAlias, concurrency, queueSize, batchingConfig, queueName, keySerializer, valueSerializer, segmentSize,
+        DEFAULT_MAX_RETRIES, DEFAULT_RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param executorAlias the thread pool alias
+   * @param concurrency the write-behind concurrency
+   * @param queueSize the maximum number of pending operations
+   * @param batchingConfig optional batching configuration
+   * @param queueName the name of the persistent queue, usually the cache alias
+   * @param keySerializer the serializer used to write keys to disk
+   * @param valueSerializer the serializer used to write values to disk
+   * @param segmentSize the size beyond which a new segment file is started, in bytes
+   * @param maxRetries the number of retries of a failing batch before it is moved to the dead-letter file
+   * @param retryDelay the delay before the first retry, doubled on every subsequent one
+   * @param retryDelayUnit the retry delay unit
+   */
+  public DurableWriteBehindConfiguration(String executorAlias, int concurrency, int queueSize, BatchingConfiguration batchingConfig,
+                                         String queueName, Serializer<?> keySerializer, Serializer<?> valueSerializer, long segmentSize,
+                                         int maxRetries, long retryDelay, TimeUnit retryDelayUnit) {
+    super(executorAlias, concurrency, queueSize, batchingConfig);
+    if (queueName == null || keySerializer == null || valueSerializer == null) {
+      throw new NullPointerException("Durable write-behind requires a queue name, a key serializer and a value serializer");
+    }
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Segment size must be positive, was: " + segmentSize);
+    }
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("Max retries must not be negative, was: " + maxRetries);
+    }
+    if (retryDelay <= 0) {
+      throw new IllegalArgumentException("Retry delay must be positive, was: " + retryDelay);
+    }
+    if (retryDelayUnit == null) {
+      throw new NullPointerException("Retry delay unit can't be null");
+    }
+    this.queueName = queueName;
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+    this.segmentSize = segmentSize;
+    this.maxRetries = maxRetries;
+    this.retryDelay = retryDelay;
+    this.retryDelayUnit = retryDelayUnit;
+  }
+
+  /**
+   * Returns the name identifying the persistent queue across restarts.
+   *
+   * @return the queue name
+   */
+  public String getQueueName() {
+    return queueName;
+  }
+
+  /**
+   * Returns the serializer used to write keys to disk.
+   *
+   * @return the key serializer
+   */
+  public Serializer<?> getKeySerializer() {
+    return keySerializer;
+  }
+
+  /**
+   * Returns the serializer used to write values to disk.
+   *
+   * @return the value serializer
+   */
+  public Serializer<?> getValueSerializer() {
+    return valueSerializer;
+  }
+
+  /**
+   * Returns the size beyond which a new segment file is started.
+   *
+   * @return the segment size in bytes
+   */
+  public long getSegmentSize() {
+    return segmentSize;
+  }
+
+  /**
+   * Returns the number of retries of a failing batch before it is moved to the dead-letter file.
+   *
+   * @return the maximum number of retries
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Returns the delay before the first retry of a failing batch, doubled on every subsequent retry.
+   *
+   * @return the retry delay
+   */
+  public long getRetryDelay() {
+    return retryDelay;
+  }
+
+  /**
+   * Returns the unit of the retry delay.
+   *
+   * @return the retry delay unit
+   */
+  public TimeUnit getRetryDelayUnit() {
+    return retryDelayUnit;
+  }
+}
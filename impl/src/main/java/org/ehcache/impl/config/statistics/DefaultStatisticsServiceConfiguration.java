@@ -0,0 +1,67 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.statistics;
+
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+
+/**
+ * {@link ServiceCreationConfiguration} class for the default {@link StatisticsService}.
+ * <p>
+ * Enables configuring the fraction of operations whose latency is recorded in the latency histograms, which are
+ * disabled by default.
+ */
+public class DefaultStatisticsServiceConfiguration implements ServiceCreationConfiguration<StatisticsService> {
+
+  /**
+   * Default latency sampling ratio: no latency histogram is recorded.
+   */
+  public static final double DEFAULT_LATENCY_SAMPLING_RATIO = 0.0;
+
+  private final double latencySamplingRatio;
+
+  /**
+   * Creates a new configuration with the provided latency sampling ratio.
+   * <p>
+   * A ratio of {@code 0} disables the latency histograms.
+   *
+   * @param latencySamplingRatio the fraction of operations to record, between {@code 0} and {@code 1}
+   */
+  public DefaultStatisticsServiceConfiguration(double latencySamplingRatio) {
+    if (latencySamplingRatio < 0 || latencySamplingRatio > 1) {
+      throw new IllegalArgumentException("Latency sampling ratio must be between 0 and 1: " + latencySamplingRatio);
+    }
+    this.latencySamplingRatio = latencySamplingRatio;
+  }
+
+  /**
+   * Returns the latency sampling ratio.
+   *
+   * @return the latency sampling ratio
+   */
+  public double getLatencySamplingRatio() {
+    return latencySamplingRatio;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<StatisticsService> getServiceType() {
+    return StatisticsService.class;
+  }
+}
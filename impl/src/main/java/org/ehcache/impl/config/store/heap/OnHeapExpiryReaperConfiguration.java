@@ -0,0 +1,122 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.store.heap;
+
+import org.ehcache.impl.internal.store.heap.OnHeapStore;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ServiceConfiguration} enabling the background reclaiming of expired mappings by the default
+ * {@link org.ehcache.core.spi.store.Store on heap store}.
+ * <p>
+ * Without it, expired mappings are only removed when accessed or evicted. With it, the store indexes the expiration
+ * times of its mappings and periodically removes those that expired, firing the matching expiry events, on a thread of
+ * the configured pool.
+ */
+public class OnHeapExpiryReaperConfiguration implements ServiceConfiguration<OnHeapStore.Provider> {
+
+  /**
+   * Default maximum number of mappings examined per run
+   */
+  public static final int DEFAULT_MAX_EXPIRATIONS_PER_RUN = 10_000;
+
+  private final long interval;
+  private final TimeUnit unit;
+  private final int maxExpirationsPerRun;
+  private final String threadPoolAlias;
+
+  /**
+   * Creates a new configuration reaping every {@code interval} on the default thread pool, examining at most
+   * {@link #DEFAULT_MAX_EXPIRATIONS_PER_RUN} mappings per run.
+   *
+   * @param interval the delay between two runs, which is also the precision of the expiration index
+   * @param unit the interval unit
+   */
+  public OnHeapExpiryReaperConfiguration(long interval, TimeUnit unit) {
+    this(interval, unit, DEFAULT_MAX_EXPIRATIONS_PER_RUN, null);
+  }
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param interval the delay between two runs, which is also the precision of the expiration index
+   * @param unit the interval unit
+   * @param maxExpirationsPerRun the maximum number of mappings examined per run, bounding its duration
+   * @param threadPoolAlias the thread pool to run on, {@code null} for the default one
+   */
+  public OnHeapExpiryReaperConfiguration(long interval, TimeUnit unit, int maxExpirationsPerRun, String threadPoolAlias) {
+    if (unit == null) {
+      throw new NullPointerException("Interval unit cannot be null");
+    }
+    if (interval <= 0 || unit.toMillis(interval) <= 0) {
+      throw new IllegalArgumentException("Interval must be at least a millisecond: " + interval + " " + unit);
+    }
+    if (maxExpirationsPerRun <= 0) {
+      throw new IllegalArgumentException("Max expirations per run must be positive: " + maxExpirationsPerRun);
+    }
+    this.interval = interval;
+    this.unit = unit;
+    this.maxExpirationsPerRun = maxExpirationsPerRun;
+    this.threadPoolAlias = threadPoolAlias;
+  }
+
+  /**
+   * Returns the delay between two runs.
+   *
+   * @return the interval
+   */
+  public long getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the unit of the interval.
+   *
+   * @return the interval unit
+   */
+  public TimeUnit getUnit() {
+    return unit;
+  }
+
+  /**
+   * Returns the maximum number of mappings examined per run.
+   *
+   * @return the max expirations per run
+   */
+  public int getMaxExpirationsPerRun() {
+    return maxExpirationsPerRun;
+  }
+
+  /**
+   * Returns the alias of the thread pool to run on.
+   *
+   * @return the thread pool alias, {@code null} for the default one
+   */
+  public String getThreadPoolAlias() {
+    return threadPoolAlias;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<OnHeapStore.Provider> getServiceType() {
+    return OnHeapStore.Provider.class;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.config.store.heap;
+
+import org.ehcache.impl.internal.store.heap.OnHeapStore;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} for the default {@link org.ehcache.core.spi.store.Store on heap store}.
+ */
+public class OnHeapStoreConfiguration implements ServiceConfiguration<OnHeapStore.Provider> {
+
+  /**
+   * The policies the on heap store can use to pick the mappings to evict.
+   * <p>
+   * Both policies honor the {@link org.ehcache.config.EvictionAdvisor} of the cache: mappings advised against eviction
+   * are only evicted when no other mapping can be.
+   */
+  public enum EvictionPolicy {
+    /**
+     * Evicts the least recently accessed mapping out of a small random sample.
+     */
+    SAMPLED_LRU,
+    /**
+     * Window TinyLFU: newly installed mappings enter a small admission window, and leave it only if they were requested
+     * more often than the mapping they would displace, as estimated by a compact frequency sketch.
+     * Resists one-off scans evicting a frequently accessed working set.
+     */
+    WINDOW_TINY_LFU
+  }
+
+  /**
+   * Default eviction policy
+   */
+  public static final EvictionPolicy DEFAULT_EVICTION_POLICY = EvictionPolicy.SAMPLED_LRU;
+
+  private final EvictionPolicy evictionPolicy;
+
+  /**
+   * Creates a new configuration instance using the provided eviction policy.
+   *
+   * @param evictionPolicy the eviction policy
+   */
+  public OnHeapStoreConfiguration(EvictionPolicy evictionPolicy) {
+    if (evictionPolicy == null) {
+      throw new NullPointerException("Eviction policy cannot be null");
+    }
+    this.evictionPolicy = evictionPolicy;
+  }
+
+  /**
+   * Returns the configured eviction policy.
+   *
+   * @return the eviction policy
+   */
+  public EvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<OnHeapStore.Provider> getServiceType() {
+    return OnHeapStore.Provider.class;
+  }
+}
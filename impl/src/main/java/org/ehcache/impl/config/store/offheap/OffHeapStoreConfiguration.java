@@ -0,0 +1,113 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.store.offheap;
+
+import org.ehcache.impl.internal.store.offheap.OffHeapStore;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} for the default {@link org.ehcache.core.spi.store.Store off heap store}.
+ * <p>
+ * The value encoding it configures is shared by the off heap and disk tiers of a cache, both storing values in the same
+ * binary form.
+ */
+public class OffHeapStoreConfiguration implements ServiceConfiguration<OffHeapStore.Provider> {
+
+  /**
+   * The codecs values can be compressed with before being stored.
+   */
+  public enum Compression {
+    /**
+     * Values are stored as serialized.
+     */
+    NONE,
+    /**
+     * Values are compressed in the LZ4 block format, trading a little CPU on each write and read for space.
+     * Values smaller than the compression threshold, or that would not shrink by at least an eighth, are stored as
+     * serialized.
+     */
+    LZ4
+  }
+
+  /**
+   * Default compression
+   */
+  public static final Compression DEFAULT_COMPRESSION = Compression.NONE;
+
+  /**
+   * Default size, in bytes, under which serialized values are not compressed
+   */
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = 64;
+
+  private final Compression compression;
+  private final int compressionThreshold;
+
+  /**
+   * Creates a new configuration instance using the provided compression and the
+   * {@link #DEFAULT_COMPRESSION_THRESHOLD default threshold}.
+   *
+   * @param compression the value compression
+   */
+  public OffHeapStoreConfiguration(Compression compression) {
+    this(compression, DEFAULT_COMPRESSION_THRESHOLD);
+  }
+
+  /**
+   * Creates a new configuration instance using the provided parameters.
+   * <p>
+   * Changing the compression of a persistent cache makes its persisted data unreadable: it then fails to initialize.
+   *
+   * @param compression the value compression
+   * @param compressionThreshold the size, in bytes, under which serialized values are not compressed
+   */
+  public OffHeapStoreConfiguration(Compression compression, int compressionThreshold) {
+    if (compression == null) {
+      throw new NullPointerException("Compression cannot be null");
+    }
+    if (compressionThreshold < 0) {
+      throw new IllegalArgumentException("Compression threshold cannot be negative: " + compressionThreshold);
+    }
+    this.compression = compression;
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  /**
+   * Returns the configured value compression.
+   *
+   * @return the compression
+   */
+  public Compression getCompression() {
+    return compression;
+  }
+
+  /**
+   * Returns the size, in bytes, under which serialized values are not compressed.
+   *
+   * @return the compression threshold
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<OffHeapStore.Provider> getServiceType() {
+    return OffHeapStore.Provider.class;
+  }
+}
@@ -40,6 +40,9 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Per-cache component that manages cache event listener registrations, and provides event delivery based on desired
@@ -50,6 +53,10 @@ import java.util.concurrent.Future;
  * <em>Note on event ordering guarantees:</em> Events are received and transmitted to register listeners through the
  * registration of a {@link StoreEventListener} on the linked {@link StoreEventSource} which is responsible for event
  * ordering.
+ * <p>
+ * When batching is enabled, events for asynchronous listeners are accumulated and dispatched in batches of at most
+ * {@code maxBatchSize} events, a batch being dispatched anyway once its first event waited for {@code maxBatchDelay}.
+ * Events for synchronous listeners are always dispatched one by one.
  */
 public class CacheEventDispatcherImpl<K, V> implements CacheEventDispatcher<K, V> {
 
@@ -61,6 +68,12 @@ public class CacheEventDispatcherImpl<K, V> implements CacheEventDispatcher<K, V
   private final List<EventListenerWrapper<K, V>> syncListenersList = new CopyOnWriteArrayList<>();
   private final List<EventListenerWrapper<K, V>> aSyncListenersList = new CopyOnWriteArrayList<>();
   private final StoreEventListener<K, V> eventListener = new StoreListener();
+  private final ScheduledExecutorService batchScheduler;
+  private final int maxBatchSize;
+  private final long maxBatchDelay;
+  private final TimeUnit maxBatchDelayUnit;
+  private final EventBatcher unOrderedBatcher;
+  private final EventBatcher orderedBatcher;
 
   private volatile Cache<K, V> listenerSource;
   private volatile StoreEventSource<K, V> storeEventSource;
@@ -73,8 +86,38 @@ public class CacheEventDispatcherImpl<K, V> implements CacheEventDispatcher<K, V
    * @param orderedExecutor the executor service used when ordering is required
    */
   public CacheEventDispatcherImpl(ExecutorService unOrderedExecutor, ExecutorService orderedExecutor) {
+    this(unOrderedExecutor, orderedExecutor, null, 1, 0, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a new {@link CacheEventDispatcher} instance that will use the provided {@link ExecutorService} to handle
+   * events firing, batching the events delivered to asynchronous listeners.
+   *
+   * @param unOrderedExecutor the executor service used when ordering is not required
+   * @param orderedExecutor the executor service used when ordering is required
+   * @param batchScheduler the scheduler used to dispatch batches that did not fill in time
+   * @param maxBatchSize the maximum number of events in a batch, {@code 1} disabling batching
+   * @param maxBatchDelay the maximum delay an event waits for its batch to fill
+   * @param maxBatchDelayUnit the unit of the maximum delay
+   */
+  public CacheEventDispatcherImpl(ExecutorService unOrderedExecutor, ExecutorService orderedExecutor,
+                                  ScheduledExecutorService batchScheduler, int maxBatchSize, long maxBatchDelay, TimeUnit maxBatchDelayUnit) {
     this.unOrderedExectuor = unOrderedExecutor;
     this.orderedExecutor = orderedExecutor;
+    this.batchScheduler = batchScheduler;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchDelay = maxBatchDelay;
+    this.maxBatchDelayUnit = maxBatchDelayUnit;
+    if (maxBatchSize > 1) {
+      if (batchScheduler == null) {
+        throw new NullPointerException("Batch scheduler cannot be null when batching events");
+      }
+      this.unOrderedBatcher = new EventBatcher(unOrderedExecutor);
+      this.orderedBatcher = new EventBatcher(orderedExecutor);
+    } else {
+      this.unOrderedBatcher = null;
+      this.orderedBatcher = null;
+    }
   }
 
   /**
@@ -161,6 +204,11 @@ public class CacheEventDispatcherImpl<K, V> implements CacheEventDispatcher<K, V
   public synchronized void shutdown() {
     storeEventSource.removeEventListener(eventListener);
     storeEventSource.setEventOrdering(false);
+    if (batchScheduler != null) {
+      unOrderedBatcher.flush();
+      orderedBatcher.flush();
+      batchScheduler.shutdownNow();
+    }
     syncListenersList.clear();
     aSyncListenersList.clear();
     unOrderedExectuor.shutdown();
@@ -177,13 +225,20 @@ public class CacheEventDispatcherImpl<K, V> implements CacheEventDispatcher<K, V
 
   void onEvent(CacheEvent<K, V> event) {
     ExecutorService executor;
+    EventBatcher batcher;
     if (storeEventSource.isEventOrdering()) {
       executor = orderedExecutor;
+      batcher = orderedBatcher;
     } else {
       executor = unOrderedExectuor;
+      batcher = unOrderedBatcher;
     }
     if (!aSyncListenersList.isEmpty()) {
-      executor.submit(new EventDispatchTask<>(event, aSyncListenersList));
+      if (batcher == null) {
+        executor.submit(new EventDispatchTask<>(event, aSyncListenersList));
+      } else {
+        batcher.add(event);
+      }
     }
     if (!syncListenersList.isEmpty()) {
       Future<?> future = executor.submit(new EventDispatchTask<>(event, syncListenersList));
@@ -213,6 +268,50 @@ public class CacheEventDispatcherImpl<K, V> implements CacheEventDispatcher<K, V
     return configurationChangeListenerList;
   }
 
+  /**
+   * Accumulates the events for asynchronous listeners, dispatching them to its executor once enough are collected or
+   * the first one waited long enough. Batches are handed to the executor under the batcher lock, so that an ordered
+   * executor receives them in firing order.
+   */
+  private final class EventBatcher {
+
+    private final ExecutorService executor;
+    private List<CacheEvent<K, V>> events;
+    private ScheduledFuture<?> expiry;
+
+    EventBatcher(ExecutorService executor) {
+      this.executor = executor;
+    }
+
+    synchronized void add(CacheEvent<K, V> event) {
+      if (events == null) {
+        List<CacheEvent<K, V>> batch = events = new ArrayList<>(maxBatchSize);
+        expiry = batchScheduler.schedule(() -> expire(batch), maxBatchDelay, maxBatchDelayUnit);
+      }
+      events.add(event);
+      if (events.size() >= maxBatchSize) {
+        flush();
+      }
+    }
+
+    private synchronized void expire(List<CacheEvent<K, V>> batch) {
+      if (events == batch) {
+        flush();
+      }
+    }
+
+    synchronized void flush() {
+      if (events != null) {
+        List<CacheEvent<K, V>> batch = events;
+        events = null;
+        expiry.cancel(false);
+        expiry = null;
+        // listeners are captured now, so that the batch flushed on shutdown still reaches them
+        executor.submit(new EventBatchDispatchTask<>(batch, new ArrayList<>(aSyncListenersList)));
+      }
+    }
+  }
+
   private final class StoreListener implements StoreEventListener<K, V> {
 
     @Override
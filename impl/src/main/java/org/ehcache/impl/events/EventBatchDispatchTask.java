@@ -0,0 +1,73 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.events;
+
+import org.ehcache.core.internal.events.EventListenerWrapper;
+import org.ehcache.event.CacheEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class EventBatchDispatchTask<K, V> implements Runnable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventBatchDispatchTask.class);
+  private final List<CacheEvent<K, V>> cacheEvents;
+  private final Iterable<EventListenerWrapper<K, V>> listenerWrappers;
+
+  EventBatchDispatchTask(List<CacheEvent<K, V>> cacheEvents, Iterable<EventListenerWrapper<K, V>> listener) {
+    if (cacheEvents == null) {
+      throw new NullPointerException("cache events cannot be null");
+    }
+    if (listener == null) {
+      throw new NullPointerException("listener cannot be null");
+    }
+    this.cacheEvents = cacheEvents;
+    this.listenerWrappers = listener;
+  }
+
+  @Override
+  public void run() {
+    for (EventListenerWrapper<K, V> listenerWrapper : listenerWrappers) {
+      if (listenerWrapper.isBatchListener()) {
+        List<CacheEvent<? extends K, ? extends V>> events = new ArrayList<>(cacheEvents.size());
+        for (CacheEvent<K, V> cacheEvent : cacheEvents) {
+          if (listenerWrapper.isForEventType(cacheEvent.getType())) {
+            events.add(cacheEvent);
+          }
+        }
+        if (!events.isEmpty()) {
+          try {
+            listenerWrapper.onEvents(events);
+          } catch (Exception e) {
+            LOGGER.warn(listenerWrapper.getListener() + " Failed to fire Events due to ", e);
+          }
+        }
+      } else {
+        for (CacheEvent<K, V> cacheEvent : cacheEvents) {
+          if (listenerWrapper.isForEventType(cacheEvent.getType())) {
+            try {
+              listenerWrapper.onEvent(cacheEvent);
+            } catch (Exception e) {
+              LOGGER.warn(listenerWrapper.getListener() + " Failed to fire Event due to ", e);
+            }
+          }
+        }
+      }
+    }
+  }
+}
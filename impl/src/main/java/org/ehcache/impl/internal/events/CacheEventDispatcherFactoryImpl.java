@@ -29,6 +29,7 @@ import org.ehcache.spi.service.ServiceDependencies;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
 
@@ -68,10 +69,16 @@ public class CacheEventDispatcherFactoryImpl implements CacheEventDispatcherFact
       threadPoolAlias = config.getThreadPoolAlias();
     }
 
-    ExecutorService orderedExecutor = executionService.getOrderedExecutor(threadPoolAlias, new LinkedBlockingQueue<>());
+    ExecutorService orderedExecutor = executionService.getOrderedExecutor(threadPoolAlias);
     ExecutorService unOrderedExecutor = executionService.getUnorderedExecutor(threadPoolAlias, new LinkedBlockingQueue<>());
 
-    return new CacheEventDispatcherImpl<>(unOrderedExecutor, orderedExecutor);
+    if (config != null && config.getMaxBatchSize() > 1) {
+      ScheduledExecutorService batchScheduler = executionService.getScheduledExecutor(threadPoolAlias);
+      return new CacheEventDispatcherImpl<>(unOrderedExecutor, orderedExecutor, batchScheduler,
+          config.getMaxBatchSize(), config.getMaxBatchDelay(), config.getMaxBatchDelayUnit());
+    } else {
+      return new CacheEventDispatcherImpl<>(unOrderedExecutor, orderedExecutor);
+    }
   }
 
   @Override
@@ -0,0 +1,155 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Unbounded lock-free multi-producer single-consumer queue, made of a chain of fixed size array chunks.
+ * <p>
+ * Producers claim a slot with a single atomic increment and publish their element in it, allocating the next chunk
+ * when their slot falls past the last one. The consumer reads the slots in order, stopping at the first slot claimed
+ * but not published yet, and unlinks the chunks it is done with.
+ * <p>
+ * {@link #poll()} and {@link #drain(Consumer, int)} must only be called by one thread at a time, with a
+ * happens-before edge between successive consumers. All the other methods can be called concurrently.
+ *
+ * @param <E> the element type
+ */
+final class MpscChunkedArrayQueue<E> {
+
+  static final int DEFAULT_CHUNK_SIZE = 1024;
+
+  private final int chunkSize;
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicReference<Chunk<E>> producerChunk;
+
+  private volatile long consumerIndex;
+  // only accessed by the consumer
+  private Chunk<E> consumerChunk;
+
+  MpscChunkedArrayQueue() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  MpscChunkedArrayQueue(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+    Chunk<E> first = new Chunk<>(0L, chunkSize, null);
+    this.producerChunk = new AtomicReference<>(first);
+    this.consumerChunk = first;
+  }
+
+  void offer(E element) {
+    requireNonNull(element);
+    long index = producerIndex.getAndIncrement();
+
+    Chunk<E> hint = producerChunk.get();
+    Chunk<E> chunk = hint;
+    // a producer delayed since claiming its slot may find the hint already moved past it: the consumer cannot have
+    // gone past that slot though, so the chunks back to it are still linked
+    while (index < chunk.base) {
+      chunk = chunk.prev;
+    }
+    while (index >= chunk.base + chunkSize) {
+      Chunk<E> next = chunk.next.get();
+      if (next == null) {
+        Chunk<E> created = new Chunk<>(chunk.base + chunkSize, chunkSize, chunk);
+        next = chunk.next.compareAndSet(null, created) ? created : chunk.next.get();
+      }
+      chunk = next;
+    }
+    if (chunk.base > hint.base) {
+      producerChunk.compareAndSet(hint, chunk);
+    }
+
+    chunk.slots.set((int) (index - chunk.base), element);
+  }
+
+  /**
+   * Consumer only.
+   *
+   * @return the head element, or {@code null} if none is published yet
+   */
+  E poll() {
+    long index = consumerIndex;
+    Chunk<E> chunk = consumerChunk;
+    if (index == chunk.base + chunkSize) {
+      Chunk<E> next = chunk.next.get();
+      if (next == null) {
+        return null;
+      }
+      next.prev = null;
+      consumerChunk = chunk = next;
+    }
+    int offset = (int) (index - chunk.base);
+    E element = chunk.slots.get(offset);
+    if (element != null) {
+      chunk.slots.lazySet(offset, null);
+      consumerIndex = index + 1;
+    }
+    return element;
+  }
+
+  /**
+   * Consumer only: hands over at most {@code limit} published elements, in order.
+   *
+   * @return the number of elements handed over
+   */
+  int drain(Consumer<? super E> consumer, int limit) {
+    int drained = 0;
+    E element;
+    while (drained < limit && (element = poll()) != null) {
+      consumer.accept(element);
+      drained++;
+    }
+    return drained;
+  }
+
+  /**
+   * Whether no element is claimed past the consumer, published or not.
+   */
+  boolean isEmpty() {
+    return consumerIndex >= producerIndex.get();
+  }
+
+  int size() {
+    long size = producerIndex.get() - consumerIndex;
+    return (int) Math.max(0L, Math.min(size, Integer.MAX_VALUE));
+  }
+
+  private static final class Chunk<E> {
+
+    private final long base;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicReference<Chunk<E>> next = new AtomicReference<>();
+    private volatile Chunk<E> prev;
+
+    Chunk(long base, int size, Chunk<E> prev) {
+      this.base = base;
+      this.slots = new AtomicReferenceArray<>(size);
+      this.prev = prev;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Ordered executor running its tasks on a shared pool, like {@link PartitionedOrderedExecutor}, but queueing them in a
+ * lock-free {@link MpscChunkedArrayQueue}.
+ * <p>
+ * At most one runner is submitted to the pool at a time, and it runs up to {@value #DRAIN_BATCH} tasks before handing
+ * the pool thread back, instead of being resubmitted after each task.
+ */
+class PartitionedMpscOrderedExecutor extends AbstractExecutorService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedMpscOrderedExecutor.class);
+
+  static final int DRAIN_BATCH = 64;
+
+  private final MpscChunkedArrayQueue<Runnable> queue = new MpscChunkedArrayQueue<>();
+  private final ExecutorService executor;
+  private final AtomicBoolean running = new AtomicBoolean();
+  // the queue is single consumer: held around each poll, so that shutdownNow can drain while a task runs
+  private final AtomicBoolean consuming = new AtomicBoolean();
+  private final CountDownLatch termination = new CountDownLatch(1);
+  private final Runnable runner = this::runTasks;
+
+  private volatile boolean shutdown;
+  private volatile Thread runnerThread;
+
+  PartitionedMpscOrderedExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    if (isTerminated()) {
+      termination.countDown();
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    if (isTerminated()) {
+      termination.countDown();
+      return emptyList();
+    } else {
+      List<Runnable> failed = new ArrayList<>(queue.size());
+      acquireConsumer();
+      try {
+        queue.drain(failed::add, Integer.MAX_VALUE);
+      } finally {
+        consuming.set(false);
+      }
+      Thread thread = runnerThread;
+      if (thread != null) {
+        thread.interrupt();
+      }
+      if (isTerminated()) {
+        termination.countDown();
+      }
+      return failed;
+    }
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return isShutdown() && queue.isEmpty() && !running.get();
+  }
+
+  @Override
+  public boolean awaitTermination(long time, TimeUnit unit) throws InterruptedException {
+    if (isTerminated()) {
+      return true;
+    } else {
+      return termination.await(time, unit);
+    }
+  }
+
+  @Override
+  public void execute(Runnable r) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor is shutting down");
+    }
+    queue.offer(r);
+    if (running.compareAndSet(false, true)) {
+      submitRunner();
+    }
+  }
+
+  private void submitRunner() {
+    try {
+      executor.submit(runner);
+    } catch (RejectedExecutionException e) {
+      running.set(false);
+      throw e;
+    }
+  }
+
+  private void runTasks() {
+    runnerThread = Thread.currentThread();
+    try {
+      for (int i = 0; i < DRAIN_BATCH; i++) {
+        Runnable task;
+        acquireConsumer();
+        try {
+          task = queue.poll();
+        } finally {
+          consuming.set(false);
+        }
+        if (task == null) {
+          break;
+        }
+        runTask(task);
+      }
+    } finally {
+      runnerThread = null;
+      if (queue.isEmpty()) {
+        running.set(false);
+        if (!queue.isEmpty() && running.compareAndSet(false, true)) {
+          submitRunner();
+        } else if (isTerminated()) {
+          termination.countDown();
+        }
+      } else {
+        submitRunner();
+      }
+    }
+  }
+
+  private void acquireConsumer() {
+    while (!consuming.compareAndSet(false, true)) {
+      Thread.yield();
+    }
+  }
+
+  private static void runTask(Runnable task) {
+    try {
+      task.run();
+    } catch (Throwable t) {
+      LOGGER.warn("Exception running ordered task {}", task, t);
+    }
+  }
+}
@@ -69,6 +69,12 @@ public class PooledExecutionService implements ExecutionService {
     return new PartitionedOrderedExecutor(queue, executor);
   }
 
+  @Override
+  public ExecutorService getOrderedExecutor(String poolAlias) {
+    ThreadPoolExecutor executor = getThreadPoolExecutor(poolAlias);
+    return new PartitionedMpscOrderedExecutor(executor);
+  }
+
   @Override
   public ExecutorService getUnorderedExecutor(String poolAlias, BlockingQueue<Runnable> queue) {
     ThreadPoolExecutor executor = getThreadPoolExecutor(poolAlias);
@@ -268,7 +268,7 @@ public class BatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBehind
     }
   }
 
-  private static <K, V> List<BatchOperation<K, V>> createMonomorphicBatches(Iterable<SingleOperation<K, V>> batch) {
+  static <K, V> List<BatchOperation<K, V>> createMonomorphicBatches(Iterable<SingleOperation<K, V>> batch) {
     final List<BatchOperation<K, V>> closedBatches = new ArrayList<>();
 
     Set<K> activeDeleteKeys = new HashSet<>();
@@ -0,0 +1,689 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.writebehind;
+
+import org.ehcache.impl.config.loaderwriter.writebehind.DurableWriteBehindConfiguration;
+import org.ehcache.impl.internal.concurrent.ConcurrentHashMap;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.BatchOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.DeleteOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.WriteOperation;
+import org.ehcache.core.spi.service.ExecutionService;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.CacheLoadingException;
+import org.ehcache.spi.loaderwriter.CacheWritingException;
+import org.ehcache.spi.loaderwriter.WriteBehindConfiguration.BatchingConfiguration;
+import org.ehcache.spi.serialization.Serializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.ehcache.impl.internal.executor.ExecutorUtil.shutdown;
+import static org.ehcache.impl.internal.executor.ExecutorUtil.shutdownNow;
+
+/**
+ * Write-behind queue appending pending operations to segment files instead of keeping them on heap.
+ * <p>
+ * Operations are written to the tail segment, and a writer only returns once its operation is on stable storage: the
+ * first writer to reach the sync point forces the segment for all the operations appended so far, the others finding
+ * their operation already covered (group commit). Only the keys of the pending operations and their position in the
+ * segments are kept on heap, and writers block once {@link DurableWriteBehindConfiguration#getMaxQueueSize()}
+ * operations are pending.
+ * <p>
+ * A single task drains the segments in order, and records the position up to which operations were acknowledged by
+ * the {@link CacheLoaderWriter} in an {@code ack} file. A failing batch is not acknowledged but retried with an
+ * exponential backoff, so that a short loader-writer outage stalls the queue instead of dropping operations. Once its
+ * retries are exhausted, the batch is appended to a {@code dead-letter} file, in the segment format, and acknowledged
+ * so that writers don't stay blocked on a full queue. Segments entirely acknowledged are deleted.
+ * When the queue is opened again, every operation past the acknowledged position is replayed: delivery is at least
+ * once, as the position is not forced on every acknowledgement.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class DiskSpillingWriteBehindQueue<K, V> extends AbstractWriteBehind<K, V> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiskSpillingWriteBehindQueue.class);
+
+  static final String ACK_FILE = "ack";
+  static final String DEAD_LETTER_FILE = "dead-letter";
+  private static final String SEGMENT_SUFFIX = ".segment";
+  private static final Pattern SEGMENT_PATTERN = Pattern.compile("(\\d{20})\\" + SEGMENT_SUFFIX);
+
+  private static final byte WRITE_RECORD = 0;
+  private static final byte DELETE_RECORD = 1;
+  // length and checksum of the body
+  private static final int HEADER_SIZE = 8;
+  // type, creation time and key length
+  private static final int MIN_BODY_SIZE = 13;
+  private static final long RETRY_DELAY_MS = 1000L;
+  private static final long MAX_RETRY_DELAY_MS = 60_000L;
+
+  private final CacheLoaderWriter<K, V> cacheLoaderWriter;
+  private final Serializer<K> keySerializer;
+  private final Serializer<V> valueSerializer;
+
+  private final File directory;
+  private final long segmentSize;
+  private final int maxQueueSize;
+  private final int batchSize;
+  private final long maxWriteDelayMs;
+  private final boolean batching;
+  private final boolean coalescing;
+  private final int maxRetries;
+  private final long retryDelayMs;
+
+  private final ExecutorService executor;
+  private final ScheduledExecutorService scheduledExecutor;
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+  private final ConcurrentMap<K, Long> latest = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final FileChannel ackChannel;
+  private final Object syncLock = new Object();
+
+  // guarded by this
+  private long appendPosition;
+  private int pending;
+  private boolean stopped;
+
+  private volatile long syncedPosition;
+  // only written by the drain task
+  private volatile long ackPosition;
+  // only accessed by the drain task
+  private int failedAttempts;
+
+  @SuppressWarnings("unchecked")
+  public DiskSpillingWriteBehindQueue(ExecutionService executionService, String defaultThreadPool, DurableWriteBehindConfiguration config,
+                                      File directory, CacheLoaderWriter<K, V> cacheLoaderWriter) throws IOException {
+    super(cacheLoaderWriter);
+    this.cacheLoaderWriter = cacheLoaderWriter;
+    this.keySerializer = (Serializer<K>) config.getKeySerializer();
+    this.valueSerializer = (Serializer<V>) config.getValueSerializer();
+    this.directory = directory;
+    this.segmentSize = config.getSegmentSize();
+    this.maxQueueSize = config.getMaxQueueSize();
+    this.maxRetries = config.getMaxRetries();
+    this.retryDelayMs = config.getRetryDelayUnit().toMillis(config.getRetryDelay());
+    BatchingConfiguration batchingConfig = config.getBatchingConfiguration();
+    if (batchingConfig == null) {
+      this.batching = false;
+      this.batchSize = 1;
+      this.maxWriteDelayMs = 0L;
+      this.coalescing = false;
+    } else {
+      this.batching = true;
+      this.batchSize = batchingConfig.getBatchSize();
+      this.maxWriteDelayMs = batchingConfig.getMaxDelayUnit().toMillis(batchingConfig.getMaxDelay());
+      this.coalescing = batchingConfig.isCoalescing();
+    }
+    String threadPool = config.getThreadPoolAlias() == null ? defaultThreadPool : config.getThreadPoolAlias();
+    this.executor = executionService.getOrderedExecutor(threadPool);
+    this.scheduledExecutor = executionService.getScheduledExecutor(threadPool);
+
+    this.ackChannel = FileChannel.open(new File(directory, ACK_FILE).toPath(), READ, WRITE, CREATE);
+    try {
+      recover();
+    } catch (IOException | RuntimeException e) {
+      closeChannels();
+      throw e;
+    }
+    if (pending > 0) {
+      LOGGER.info("Replaying {} write-behind operations from {}", pending, directory);
+      scheduleDrain();
+    }
+  }
+
+  @Override
+  protected SingleOperation<K, V> getOperation(K key) {
+    while (true) {
+      Long position = latest.get(key);
+      if (position == null) {
+        return null;
+      }
+      try {
+        return readRecord(position).operation;
+      } catch (IOException e) {
+        if (position.equals(latest.get(key))) {
+          throw new CacheLoadingException("Unable to read pending write-behind operation for key " + key, e);
+        }
+        // acknowledged and its segment deleted meanwhile: look again
+      } catch (ClassNotFoundException e) {
+        throw new CacheLoadingException(e);
+      }
+    }
+  }
+
+  @Override
+  protected void addOperation(SingleOperation<K, V> operation) {
+    ByteBuffer record = encode(operation);
+    long end;
+    boolean firstPending;
+    try {
+      synchronized (this) {
+        boolean interrupted = false;
+        try {
+          while (pending >= maxQueueSize && !stopped) {
+            try {
+              wait();
+            } catch (InterruptedException e) {
+              interrupted = true;
+            }
+          }
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        if (stopped) {
+          throw new IllegalStateException("Write-behind queue in " + directory + " is stopped");
+        }
+
+        Segment tail = segments.lastEntry().getValue();
+        long tailSize = appendPosition - tail.base;
+        if (tailSize > 0 && tailSize + record.remaining() > segmentSize) {
+          // the sync point only forces the tail, so the rolled segment is forced right away
+          tail.channel.force(false);
+          tail = openSegment(appendPosition);
+          segments.put(tail.base, tail);
+        }
+        long position = appendPosition;
+        writeFully(tail.channel, record, position - tail.base);
+        appendPosition = end = position + record.capacity();
+        latest.put(operation.getKey(), position);
+        firstPending = pending++ == 0;
+      }
+      sync(end);
+    } catch (IOException e) {
+      throw new CacheWritingException("Unable to append write-behind operation to " + directory, e);
+    }
+
+    if (!batching || firstPending || pendingCount() >= batchSize) {
+      scheduleDrain();
+    }
+  }
+
+  @Override
+  public void start() {
+    //no-op
+  }
+
+  @Override
+  public void stop() {
+    synchronized (this) {
+      stopped = true;
+      notifyAll();
+    }
+    try {
+      shutdownNow(scheduledExecutor);
+      shutdown(executor);
+    } finally {
+      try {
+        writeAck(ackPosition, true);
+      } catch (IOException e) {
+        LOGGER.warn("Unable to record acknowledged write-behind position in {}", directory, e);
+      } finally {
+        closeChannels();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of operations appended but not yet acknowledged by the loader-writer.
+   *
+   * @return the amount of elements still awaiting processing.
+   */
+  @Override
+  public long getQueueSize() {
+    return pendingCount();
+  }
+
+  private synchronized int pendingCount() {
+    return pending;
+  }
+
+  private void sync(long end) throws IOException {
+    synchronized (syncLock) {
+      if (syncedPosition >= end) {
+        return;
+      }
+      long target;
+      Segment tail;
+      synchronized (this) {
+        target = appendPosition;
+        tail = segments.lastEntry().getValue();
+      }
+      tail.channel.force(false);
+      syncedPosition = target;
+    }
+  }
+
+  private void scheduleDrain() {
+    if (drainScheduled.compareAndSet(false, true)) {
+      executor.submit(this::drain);
+    }
+  }
+
+  private void drain() {
+    drainScheduled.set(false);
+    while (!isStopped()) {
+      long limit = syncedPosition;
+      long position = ackPosition;
+      List<Record<K, V>> records = new ArrayList<>();
+      try {
+        while (records.size() < batchSize && position < limit) {
+          Record<K, V> record = readRecord(position);
+          records.add(record);
+          position = record.end;
+        }
+      } catch (IOException | ClassNotFoundException e) {
+        LOGGER.error("Unable to read write-behind operation at {} in {}", position, directory, e);
+        scheduleDrain(RETRY_DELAY_MS);
+        return;
+      }
+
+      if (records.isEmpty()) {
+        if (pendingCount() > 0) {
+          // operations being appended, their writers may not reach the sync point before we are gone
+          scheduleDrain(Math.max(maxWriteDelayMs, 1L));
+        }
+        return;
+      }
+      if (records.size() < batchSize) {
+        long delay = records.get(0).creationTime + maxWriteDelayMs - System.currentTimeMillis();
+        if (delay > 0) {
+          scheduleDrain(delay);
+          return;
+        }
+      }
+
+      try {
+        perform(records);
+      } catch (Exception e) {
+        if (failedAttempts < maxRetries) {
+          long delay = Math.min(retryDelayMs << Math.min(failedAttempts, 20), MAX_RETRY_DELAY_MS);
+          failedAttempts++;
+          LOGGER.warn("Exception while processing write-behind operations from {}, retrying in {}ms", directory, delay, e);
+          scheduleDrain(delay);
+          return;
+        }
+        try {
+          deadLetter(records);
+        } catch (IOException f) {
+          LOGGER.error("Unable to move failing write-behind operations to the dead-letter file in {}, retrying in {}ms",
+              directory, MAX_RETRY_DELAY_MS, f);
+          scheduleDrain(MAX_RETRY_DELAY_MS);
+          return;
+        }
+        LOGGER.error("Exception while processing write-behind operations from {}, {} operations moved to the dead-letter file after {} retries",
+            directory, records.size(), maxRetries, e);
+      }
+      failedAttempts = 0;
+      acknowledge(records, position);
+    }
+  }
+
+  private void perform(List<Record<K, V>> records) throws Exception {
+    if (!batching) {
+      for (Record<K, V> record : records) {
+        record.operation.performOperation(cacheLoaderWriter);
+      }
+      return;
+    }
+
+    Iterable<SingleOperation<K, V>> operations;
+    if (coalescing) {
+      Map<K, SingleOperation<K, V>> coalesced = new LinkedHashMap<>(records.size());
+      for (Record<K, V> record : records) {
+        coalesced.put(record.operation.getKey(), record.operation);
+      }
+      operations = coalesced.values();
+    } else {
+      List<SingleOperation<K, V>> all = new ArrayList<>(records.size());
+      for (Record<K, V> record : records) {
+        all.add(record.operation);
+      }
+      operations = all;
+    }
+    for (BatchOperation<K, V> batch : BatchingLocalHeapWriteBehindQueue.createMonomorphicBatches(operations)) {
+      batch.performOperation(cacheLoaderWriter);
+    }
+  }
+
+  /**
+   * Appends the given records, as found in their segment, to the dead-letter file and forces it.
+   */
+  private void deadLetter(List<Record<K, V>> records) throws IOException {
+    try (FileChannel deadLetters = FileChannel.open(new File(directory, DEAD_LETTER_FILE).toPath(), WRITE, CREATE, APPEND)) {
+      for (Record<K, V> record : records) {
+        Segment segment = segments.floorEntry(record.position).getValue();
+        ByteBuffer buffer = ByteBuffer.allocate((int) (record.end - record.position));
+        readFully(segment.channel, buffer, record.position - segment.base);
+        while (buffer.hasRemaining()) {
+          deadLetters.write(buffer);
+        }
+      }
+      deadLetters.force(false);
+    }
+  }
+
+  private void acknowledge(List<Record<K, V>> records, long position) {
+    ackPosition = position;
+    try {
+      writeAck(position, false);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to record acknowledged write-behind position in {}, operations will be replayed", directory, e);
+    }
+    for (Record<K, V> record : records) {
+      latest.remove(record.operation.getKey(), record.position);
+    }
+    synchronized (this) {
+      pending -= records.size();
+      notifyAll();
+    }
+
+    Long ackSegment = segments.floorKey(position);
+    for (Segment segment : segments.headMap(ackSegment).values()) {
+      segments.remove(segment.base);
+      try {
+        segment.channel.close();
+      } catch (IOException e) {
+        LOGGER.warn("Unable to close write-behind segment {}", segment.file, e);
+      }
+      if (!segment.file.delete()) {
+        LOGGER.warn("Unable to delete write-behind segment {}", segment.file);
+      }
+    }
+  }
+
+  private void scheduleDrain(long delay) {
+    if (!isStopped()) {
+      scheduledExecutor.schedule(() -> scheduleDrain(), delay, MILLISECONDS);
+    }
+  }
+
+  private synchronized boolean isStopped() {
+    return stopped;
+  }
+
+  private void recover() throws IOException {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+        if (matcher.matches()) {
+          long base = Long.parseLong(matcher.group(1));
+          segments.put(base, new Segment(base, file, FileChannel.open(file.toPath(), READ, WRITE)));
+        }
+      }
+    }
+
+    long acknowledged = readAck();
+    if (segments.isEmpty()) {
+      Segment segment = openSegment(acknowledged);
+      segments.put(segment.base, segment);
+      appendPosition = syncedPosition = ackPosition = acknowledged;
+      return;
+    }
+
+    Segment last = segments.lastEntry().getValue();
+    long position = Math.min(Math.max(acknowledged, segments.firstKey()), last.base + last.channel.size());
+    long replayFrom = position;
+    Long from = segments.floorKey(position);
+    for (Segment segment : segments.headMap(from).values()) {
+      segments.remove(segment.base);
+      segment.channel.close();
+      segment.file.delete();
+    }
+
+    while (true) {
+      Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+      Segment segment = entry.getValue();
+      if (position - segment.base >= segment.channel.size()) {
+        Long next = segments.higherKey(segment.base);
+        if (next == null) {
+          break;
+        } else if (next != position) {
+          LOGGER.warn("Write-behind segments in {} are not contiguous, discarding operations from {}", directory, position);
+          truncate(segment, position);
+          break;
+        }
+        position = next;
+        continue;
+      }
+      Record<K, V> record;
+      try {
+        record = readRecord(position);
+      } catch (IOException e) {
+        // a torn append: whatever follows was never acknowledged to a writer
+        LOGGER.warn("Discarding incomplete write-behind operations from {} in {}", position, directory);
+        truncate(segment, position);
+        break;
+      } catch (ClassNotFoundException e) {
+        throw new IOException("Unable to read write-behind operation at " + position + " in " + directory, e);
+      }
+      latest.put(record.operation.getKey(), record.position);
+      pending++;
+      position = record.end;
+    }
+
+    Segment tail = segments.lastEntry().getValue();
+    tail.channel.force(false);
+    appendPosition = syncedPosition = position;
+    ackPosition = replayFrom;
+  }
+
+  private void truncate(Segment segment, long position) throws IOException {
+    segment.channel.truncate(position - segment.base);
+    for (Segment later : segments.tailMap(segment.base, false).values()) {
+      segments.remove(later.base);
+      later.channel.close();
+      later.file.delete();
+    }
+  }
+
+  private long readAck() throws IOException {
+    if (ackChannel.size() < 12) {
+      return 0L;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(12);
+    readFully(ackChannel, buffer, 0L);
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, 8);
+    if ((int) crc.getValue() != buffer.getInt(8)) {
+      LOGGER.warn("Corrupt acknowledged write-behind position in {}, replaying all operations", directory);
+      return 0L;
+    }
+    return buffer.getLong(0);
+  }
+
+  private void writeAck(long position, boolean force) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(12);
+    buffer.putLong(0, position);
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, 8);
+    buffer.putInt(8, (int) crc.getValue());
+    writeFully(ackChannel, buffer, 0L);
+    if (force) {
+      ackChannel.force(false);
+    }
+  }
+
+  private Segment openSegment(long base) throws IOException {
+    File file = new File(directory, String.format("%020d", base) + SEGMENT_SUFFIX);
+    return new Segment(base, file, FileChannel.open(file.toPath(), READ, WRITE, CREATE));
+  }
+
+  private void closeChannels() {
+    for (Segment segment : segments.values()) {
+      try {
+        segment.channel.close();
+      } catch (IOException e) {
+        LOGGER.warn("Unable to close write-behind segment {}", segment.file, e);
+      }
+    }
+    try {
+      ackChannel.close();
+    } catch (IOException e) {
+      LOGGER.warn("Unable to close write-behind acknowledgements in {}", directory, e);
+    }
+  }
+
+  private ByteBuffer encode(SingleOperation<K, V> operation) {
+    ByteBuffer key = keySerializer.serialize(operation.getKey());
+    ByteBuffer value;
+    byte type;
+    if (operation instanceof WriteOperation) {
+      type = WRITE_RECORD;
+      value = valueSerializer.serialize(((WriteOperation<K, V>) operation).getValue());
+    } else if (operation instanceof DeleteOperation) {
+      type = DELETE_RECORD;
+      value = null;
+    } else {
+      throw new AssertionError();
+    }
+
+    int bodySize = MIN_BODY_SIZE + key.remaining() + (value == null ? 0 : value.remaining());
+    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + bodySize);
+    record.putInt(bodySize).putInt(0).put(type).putLong(System.currentTimeMillis()).putInt(key.remaining()).put(key);
+    if (value != null) {
+      record.put(value);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), HEADER_SIZE, bodySize);
+    record.putInt(4, (int) crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  private Record<K, V> readRecord(long position) throws IOException, ClassNotFoundException {
+    Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+    if (entry == null) {
+      throw new EOFException("No write-behind segment holds position " + position);
+    }
+    Segment segment = entry.getValue();
+    long offset = position - segment.base;
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    readFully(segment.channel, header, offset);
+    int bodySize = header.getInt(0);
+    if (bodySize < MIN_BODY_SIZE || bodySize > segment.channel.size() - offset - HEADER_SIZE) {
+      throw new IOException("Invalid write-behind record size " + bodySize + " at " + position);
+    }
+    ByteBuffer body = ByteBuffer.allocate(bodySize);
+    readFully(segment.channel, body, offset + HEADER_SIZE);
+    CRC32 crc = new CRC32();
+    crc.update(body.array(), 0, bodySize);
+    if ((int) crc.getValue() != header.getInt(4)) {
+      throw new IOException("Invalid write-behind record checksum at " + position);
+    }
+
+    byte type = body.get();
+    long creationTime = body.getLong();
+    int keySize = body.getInt();
+    if (keySize < 0 || keySize > body.remaining()) {
+      throw new IOException("Invalid write-behind key size " + keySize + " at " + position);
+    }
+    ByteBuffer keyBuffer = body.slice();
+    keyBuffer.limit(keySize);
+    K key = keySerializer.read(keyBuffer);
+    body.position(body.position() + keySize);
+
+    SingleOperation<K, V> operation;
+    switch (type) {
+      case WRITE_RECORD:
+        operation = new WriteOperation<>(key, valueSerializer.read(body.slice()), creationTime);
+        break;
+      case DELETE_RECORD:
+        operation = new DeleteOperation<>(key, creationTime);
+        break;
+      default:
+        throw new IOException("Invalid write-behind record type " + type + " at " + position);
+    }
+    return new Record<>(position, position + HEADER_SIZE + bodySize, creationTime, operation);
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new EOFException();
+      }
+      position += read;
+    }
+    buffer.flip();
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    ByteBuffer source = buffer.duplicate();
+    while (source.hasRemaining()) {
+      position += channel.write(source, position);
+    }
+  }
+
+  private static final class Segment {
+
+    private final long base;
+    private final File file;
+    private final FileChannel channel;
+
+    Segment(long base, File file, FileChannel channel) {
+      this.base = base;
+      this.file = file;
+      this.channel = channel;
+    }
+  }
+
+  private static final class Record<K, V> {
+
+    private final long position;
+    private final long end;
+    private final long creationTime;
+    private final SingleOperation<K, V> operation;
+
+    Record(long position, long end, long creationTime, SingleOperation<K, V> operation) {
+      this.position = position;
+      this.end = end;
+      this.creationTime = creationTime;
+      this.operation = operation;
+    }
+  }
+}
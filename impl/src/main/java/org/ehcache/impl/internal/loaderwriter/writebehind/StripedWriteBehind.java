@@ -50,6 +50,10 @@ public class StripedWriteBehind<K, V> implements WriteBehind<K, V> {
     }
   }
 
+  StripedWriteBehind(List<? extends WriteBehind<K, V>> stripes) {
+    this.stripes.addAll(stripes);
+  }
+
   private WriteBehind<K, V> getStripe(final Object key) {
     return stripes.get(Math.abs(key.hashCode() % stripes.size()));
   }
@@ -15,6 +15,10 @@
  */
 package org.ehcache.impl.internal.loaderwriter.writebehind;
 
+import org.ehcache.CachePersistenceException;
+import org.ehcache.core.spi.service.LocalPersistenceService;
+import org.ehcache.core.spi.service.LocalPersistenceService.SafeSpaceIdentifier;
+import org.ehcache.impl.config.loaderwriter.writebehind.DurableWriteBehindConfiguration;
 import org.ehcache.impl.config.loaderwriter.writebehind.WriteBehindProviderConfiguration;
 import org.ehcache.spi.service.ServiceProvider;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
@@ -26,6 +30,14 @@ import org.ehcache.spi.service.ServiceCreationConfiguration;
 import org.ehcache.spi.service.ServiceDependencies;
 import org.ehcache.core.spi.service.ServiceFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
 /**
  * @author Abhilash
  *
@@ -43,11 +55,16 @@ public class WriteBehindProviderFactory implements ServiceFactory<WriteBehindPro
     }
   }
 
-  @ServiceDependencies(ExecutionService.class)
+  @ServiceDependencies({ExecutionService.class, LocalPersistenceService.class})
   public static class Provider implements WriteBehindProvider {
 
+    static final String PERSISTENCE_SPACE_OWNER = "writebehind";
+    static final String STRIPES_FILE = "stripes";
+    private static final String STRIPE_PREFIX = "stripe-";
+
     private final String threadPoolAlias;
     private volatile ExecutionService executionService;
+    private volatile LocalPersistenceService persistenceService;
 
     protected Provider() {
       this(null);
@@ -66,6 +83,7 @@ public class WriteBehindProviderFactory implements ServiceFactory<WriteBehindPro
     @Override
     public void start(ServiceProvider<Service> serviceProvider) {
       executionService = serviceProvider.getService(ExecutionService.class);
+      persistenceService = serviceProvider.getService(LocalPersistenceService.class);
     }
 
     @Override
@@ -73,9 +91,72 @@ public class WriteBehindProviderFactory implements ServiceFactory<WriteBehindPro
       if (cacheLoaderWriter == null) {
         throw new NullPointerException("WriteBehind requires a non null CacheLoaderWriter.");
       }
+      if (configuration instanceof DurableWriteBehindConfiguration) {
+        return createDurableWriteBehind(cacheLoaderWriter, (DurableWriteBehindConfiguration) configuration);
+      }
       return new StripedWriteBehind<>(executionService, threadPoolAlias, configuration, cacheLoaderWriter);
     }
 
+    private <K, V> WriteBehind<K, V> createDurableWriteBehind(CacheLoaderWriter<K, V> cacheLoaderWriter, DurableWriteBehindConfiguration configuration) {
+      if (persistenceService == null) {
+        throw new IllegalStateException("Durable write-behind requires a persistence directory to be configured");
+      }
+      SafeSpaceIdentifier space = persistenceService.createSafeSpaceIdentifier(PERSISTENCE_SPACE_OWNER, configuration.getQueueName());
+      try {
+        persistenceService.createSafeSpace(space);
+      } catch (CachePersistenceException cpex) {
+        throw new RuntimeException("Unable to create persistence space for write-behind queue " + configuration.getQueueName(), cpex);
+      }
+
+      List<WriteBehind<K, V>> stripes = new ArrayList<>(configuration.getConcurrency());
+      try {
+        checkStripeCount(space.getRoot(), configuration.getConcurrency());
+        for (int i = 0; i < configuration.getConcurrency(); i++) {
+          File directory = new File(space.getRoot(), STRIPE_PREFIX + i);
+          if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+          }
+          stripes.add(new DiskSpillingWriteBehindQueue<>(executionService, threadPoolAlias, configuration, directory, cacheLoaderWriter));
+        }
+      } catch (IOException e) {
+        for (WriteBehind<K, V> stripe : stripes) {
+          stripe.stop();
+        }
+        throw new RuntimeException("Unable to open write-behind queue " + configuration.getQueueName(), e);
+      }
+      return new StripedWriteBehind<>(stripes);
+    }
+
+    /**
+     * Operations are routed to a stripe by key hash: replaying the stripes of a queue with another concurrency would
+     * leave stripes behind and reorder the operations of a key, so the stripe count is recorded on first use and
+     * enforced from then on.
+     */
+    static void checkStripeCount(File root, int concurrency) throws IOException {
+      File file = new File(root, STRIPES_FILE);
+      int persisted;
+      if (file.isFile()) {
+        String content = new String(Files.readAllBytes(file.toPath()), US_ASCII).trim();
+        try {
+          persisted = Integer.parseInt(content);
+        } catch (NumberFormatException e) {
+          throw new IOException("Corrupt write-behind stripe count in " + file + ": " + content, e);
+        }
+      } else {
+        // queues written before the stripe count was recorded
+        String[] existing = root.list((dir, name) -> name.startsWith(STRIPE_PREFIX));
+        persisted = existing == null ? 0 : existing.length;
+      }
+      if (persisted != 0 && persisted != concurrency) {
+        throw new IllegalStateException("Write-behind queue in " + root + " was created with a concurrency of " + persisted
+                                        + ", it cannot be opened with a concurrency of " + concurrency
+                                        + " - restore the original concurrency or destroy the persistent queue");
+      }
+      if (!file.isFile()) {
+        Files.write(file.toPath(), Integer.toString(concurrency).getBytes(US_ASCII));
+      }
+    }
+
     @Override
     public void releaseWriteBehindLoaderWriter(CacheLoaderWriter<?, ?> cacheLoaderWriter) {
       if(cacheLoaderWriter != null) {
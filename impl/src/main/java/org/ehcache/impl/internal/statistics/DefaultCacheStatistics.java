@@ -26,8 +26,10 @@ import org.ehcache.core.InternalCache;
 import org.ehcache.core.statistics.BulkOps;
 import org.ehcache.core.statistics.CacheOperationOutcomes;
 import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.LatencyHistogram;
 import org.ehcache.core.statistics.TierStatistics;
 import org.ehcache.core.statistics.TypedValueStatistic;
+import org.ehcache.impl.config.statistics.DefaultStatisticsServiceConfiguration;
 import org.terracotta.statistics.OperationStatistic;
 import org.terracotta.statistics.derived.LatencySampling;
 import org.terracotta.statistics.derived.MinMaxAverage;
@@ -63,9 +65,15 @@ class DefaultCacheStatistics implements CacheStatistics {
   private final Map<String, TierStatistics> tierStatistics;
   private final TierStatistics lowestTier;
 
+  private final Map<String, DefaultLatencyHistogram<?>> latencyHistograms = new HashMap<>();
+
   private final Map<String, TypedValueStatistic> knownStatistics;
 
   public DefaultCacheStatistics(InternalCache<?, ?> cache) {
+    this(cache, DefaultStatisticsServiceConfiguration.DEFAULT_LATENCY_SAMPLING_RATIO);
+  }
+
+  public DefaultCacheStatistics(InternalCache<?, ?> cache, double latencySamplingRatio) {
     bulkMethodEntries = cache.getBulkMethodEntries();
 
     get = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.GetOutcome.class, "get");
@@ -82,6 +90,15 @@ class DefaultCacheStatistics implements CacheStatistics {
     averageRemoveTime = new LatencyMonitor<>(allOf(CacheOperationOutcomes.RemoveOutcome.class));
     remove.addDerivedStatistic(averageRemoveTime);
 
+    if (latencySamplingRatio > 0) {
+      OperationStatistic<CacheOperationOutcomes.GetAllOutcome> getAll = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.GetAllOutcome.class, "getAll");
+      addLatencyHistogram("GetHitLatency", get, EnumSet.of(CacheOperationOutcomes.GetOutcome.HIT), latencySamplingRatio);
+      addLatencyHistogram("GetMissLatency", get, EnumSet.of(CacheOperationOutcomes.GetOutcome.MISS), latencySamplingRatio);
+      addLatencyHistogram("GetAllLatency", getAll, allOf(CacheOperationOutcomes.GetAllOutcome.class), latencySamplingRatio);
+      addLatencyHistogram("PutLatency", put, allOf(CacheOperationOutcomes.PutOutcome.class), latencySamplingRatio);
+      addLatencyHistogram("RemoveLatency", remove, allOf(CacheOperationOutcomes.RemoveOutcome.class), latencySamplingRatio);
+    }
+
     String[] tierNames = findTiers(cache);
 
     String lowestTierName = findLowestTier(tierNames);
@@ -89,7 +106,7 @@ class DefaultCacheStatistics implements CacheStatistics {
 
     tierStatistics = new HashMap<>(tierNames.length);
     for (String tierName : tierNames) {
-      TierStatistics tierStatistics = new DefaultTierStatistics(cache, tierName);
+      TierStatistics tierStatistics = new DefaultTierStatistics(cache, tierName, latencySamplingRatio);
       this.tierStatistics.put(tierName, tierStatistics);
       if (lowestTierName.equals(tierName)) {
         lowestTier = tierStatistics;
@@ -100,6 +117,12 @@ class DefaultCacheStatistics implements CacheStatistics {
     knownStatistics = createKnownStatistics();
   }
 
+  private <T extends Enum<T>> void addLatencyHistogram(String name, OperationStatistic<T> statistic, Set<T> targets, double latencySamplingRatio) {
+    DefaultLatencyHistogram<T> histogram = new DefaultLatencyHistogram<>(targets, latencySamplingRatio);
+    statistic.addDerivedStatistic(histogram);
+    latencyHistograms.put("Cache:" + name, histogram);
+  }
+
   private Map<String, TypedValueStatistic> createKnownStatistics() {
     Map<String, TypedValueStatistic> knownStatistics = new HashMap<>(30);
     knownStatistics.put("Cache:HitCount", new TypedValueStatistic(StatisticType.COUNTER) {
@@ -160,11 +183,22 @@ class DefaultCacheStatistics implements CacheStatistics {
     return Collections.unmodifiableMap(tierStatistics);
   }
 
+  public Map<String, LatencyHistogram> getLatencyHistograms() {
+    Map<String, LatencyHistogram> histograms = new HashMap<>(latencyHistograms);
+    for (TierStatistics tier : tierStatistics.values()) {
+      histograms.putAll(tier.getLatencyHistograms());
+    }
+    return Collections.unmodifiableMap(histograms);
+  }
+
   public void clear() {
     compensatingCounters = compensatingCounters.snapshot(this);
     averageGetTime.clear();
     averagePutTime.clear();
     averageRemoveTime.clear();
+    for (DefaultLatencyHistogram<?> histogram : latencyHistograms.values()) {
+      histogram.clear();
+    }
     for (TierStatistics t : tierStatistics.values()) {
       t.clear();
     }
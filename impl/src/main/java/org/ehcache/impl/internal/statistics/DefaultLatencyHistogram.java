@@ -0,0 +1,151 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.statistics;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.ehcache.core.statistics.LatencyHistogram;
+import org.terracotta.statistics.derived.LatencySampling;
+import org.terracotta.statistics.observer.ChainedEventObserver;
+import org.terracotta.statistics.observer.ChainedOperationObserver;
+
+/**
+ * Records sampled latencies of the targeted outcomes of an operation in a log-linear histogram.
+ * <p>
+ * Each power of two is split in {@code 16} linear buckets, bounding the error on the reported values to about 6%
+ * while recording in constant time and space.
+ */
+class DefaultLatencyHistogram<T extends Enum<T>> implements LatencyHistogram, ChainedOperationObserver<T> {
+
+  private final LatencySampling<T> sampling;
+  private volatile Buckets buckets;
+
+  DefaultLatencyHistogram(Set<T> targets, double samplingRatio) {
+    this.sampling = new LatencySampling<>(targets, samplingRatio);
+    this.buckets = new Buckets();
+    sampling.addDerivedStatistic(buckets);
+  }
+
+  @Override
+  public void begin(long time) {
+    sampling.begin(time);
+  }
+
+  @Override
+  public void end(long time, T result) {
+    sampling.end(time, result);
+  }
+
+  @Override
+  public void end(long time, T result, long... parameters) {
+    sampling.end(time, result, parameters);
+  }
+
+  @Override
+  public long getCount() {
+    return buckets.count();
+  }
+
+  @Override
+  public long getPercentile(double fraction) {
+    if (fraction < 0 || fraction > 1) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 1: " + fraction);
+    }
+    return buckets.percentile(fraction);
+  }
+
+  @Override
+  public long getMaximum() {
+    return buckets.percentile(1.0);
+  }
+
+  public synchronized void clear() {
+    sampling.removeDerivedStatistic(buckets);
+    buckets = new Buckets();
+    sampling.addDerivedStatistic(buckets);
+  }
+
+  static class Buckets implements ChainedEventObserver {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+
+    @Override
+    public void event(long time, long... parameters) {
+      record(parameters[0]);
+    }
+
+    void record(long latency) {
+      counts.incrementAndGet(indexOf(Math.max(0, latency)));
+    }
+
+    long count() {
+      long count = 0;
+      for (int i = 0; i < counts.length(); i++) {
+        count += counts.get(i);
+      }
+      return count;
+    }
+
+    long percentile(double fraction) {
+      long[] snapshot = new long[counts.length()];
+      long count = 0;
+      for (int i = 0; i < snapshot.length; i++) {
+        snapshot[i] = counts.get(i);
+        count += snapshot[i];
+      }
+      if (count == 0) {
+        return 0;
+      }
+
+      long rank = Math.max(1, (long) Math.ceil(fraction * count));
+      long seen = 0;
+      int last = 0;
+      for (int i = 0; i < snapshot.length; i++) {
+        if (snapshot[i] > 0) {
+          seen += snapshot[i];
+          last = i;
+          if (seen >= rank) {
+            return highestValueOf(i);
+          }
+        }
+      }
+      return highestValueOf(last);
+    }
+
+    static int indexOf(long value) {
+      if (value < SUB_BUCKETS) {
+        return (int) value;
+      }
+      int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+      return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+      int shift = (index >>> SUB_BUCKET_BITS) - 1;
+      long lowest = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+      return lowest + (1L << shift) - 1;
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.ehcache.core.spi.service.CacheManagerProviderService;
 import org.ehcache.core.spi.service.StatisticsService;
 import org.ehcache.core.spi.store.InternalCacheManager;
 import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.impl.config.statistics.DefaultStatisticsServiceConfiguration;
 import org.ehcache.spi.service.Service;
 import org.ehcache.spi.service.ServiceDependencies;
 import org.ehcache.spi.service.ServiceProvider;
@@ -44,10 +45,19 @@ public class DefaultStatisticsService implements StatisticsService, CacheManager
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultStatisticsService.class);
 
   private final ConcurrentMap<String, CacheStatistics> cacheStatistics = new ConcurrentHashMap<>();
+  private final double latencySamplingRatio;
 
   private volatile InternalCacheManager cacheManager;
   private volatile boolean started = false;
 
+  public DefaultStatisticsService() {
+    this(new DefaultStatisticsServiceConfiguration(DefaultStatisticsServiceConfiguration.DEFAULT_LATENCY_SAMPLING_RATIO));
+  }
+
+  public DefaultStatisticsService(DefaultStatisticsServiceConfiguration configuration) {
+    this.latencySamplingRatio = configuration.getLatencySamplingRatio();
+  }
+
   public CacheStatistics getCacheStatistics(String cacheName) {
     CacheStatistics stats = cacheStatistics.get(cacheName);
     if (stats == null) {
@@ -107,7 +117,7 @@ public class DefaultStatisticsService implements StatisticsService, CacheManager
   @Override
   public void cacheAdded(String alias, Cache<?, ?> cache) {
     LOGGER.debug("Cache added " + alias);
-    cacheStatistics.put(alias, new DefaultCacheStatistics((InternalCache<?, ?>) cache));
+    cacheStatistics.put(alias, new DefaultCacheStatistics((InternalCache<?, ?>) cache, latencySamplingRatio));
   }
 
   @Override
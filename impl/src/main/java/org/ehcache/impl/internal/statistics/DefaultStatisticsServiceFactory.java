@@ -18,13 +18,21 @@ package org.ehcache.impl.internal.statistics;
 
 import org.ehcache.core.spi.service.ServiceFactory;
 import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.impl.config.statistics.DefaultStatisticsServiceConfiguration;
 import org.ehcache.spi.service.ServiceCreationConfiguration;
 
 public class DefaultStatisticsServiceFactory implements ServiceFactory<StatisticsService> {
 
   @Override
   public StatisticsService create(ServiceCreationConfiguration<StatisticsService> serviceConfiguration) {
-    return new DefaultStatisticsService();
+    if (serviceConfiguration == null) {
+      return new DefaultStatisticsService();
+    } else if (serviceConfiguration instanceof DefaultStatisticsServiceConfiguration) {
+      return new DefaultStatisticsService((DefaultStatisticsServiceConfiguration) serviceConfiguration);
+    } else {
+      throw new IllegalArgumentException("Expected a configuration of type DefaultStatisticsServiceConfiguration but got "
+              + serviceConfiguration.getClass().getSimpleName());
+    }
   }
 
   @Override
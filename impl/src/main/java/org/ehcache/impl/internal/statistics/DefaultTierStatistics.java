@@ -20,12 +20,15 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.ehcache.Cache;
+import org.ehcache.core.statistics.LatencyHistogram;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.core.statistics.TierOperationOutcomes;
 import org.ehcache.core.statistics.TierStatistics;
 import org.ehcache.core.statistics.TypedValueStatistic;
+import org.ehcache.impl.config.statistics.DefaultStatisticsServiceConfiguration;
 import org.terracotta.statistics.ConstantValueStatistic;
 import org.terracotta.statistics.OperationStatistic;
 import org.terracotta.statistics.ValueStatistic;
@@ -45,6 +48,7 @@ class DefaultTierStatistics implements TierStatistics {
   private final String tierName;
 
   private final Map<String, TypedValueStatistic> knownStatistics;
+  private final Map<String, DefaultLatencyHistogram<?>> latencyHistograms = new HashMap<>();
 
   private final OperationStatistic<TierOperationOutcomes.GetOutcome> get;
   private final OperationStatistic<StoreOperationOutcomes.PutOutcome> put;
@@ -63,6 +67,10 @@ class DefaultTierStatistics implements TierStatistics {
   private final ValueStatistic<Long> occupiedMemory;
 
   public DefaultTierStatistics(Cache<?, ?> cache, String tierName) {
+    this(cache, tierName, DefaultStatisticsServiceConfiguration.DEFAULT_LATENCY_SAMPLING_RATIO);
+  }
+
+  public DefaultTierStatistics(Cache<?, ?> cache, String tierName, double latencySamplingRatio) {
     this.tierName = tierName;
 
     get = findOperationStatistic(cache, tierName, "tier", "get");
@@ -84,6 +92,20 @@ class DefaultTierStatistics implements TierStatistics {
 
     Map<String, TypedValueStatistic> knownStatistics = createKnownStatistics(tierName);
     this.knownStatistics = Collections.unmodifiableMap(knownStatistics);
+
+    if (latencySamplingRatio > 0) {
+      // a miss on a caching tier is a fault to the tier below it
+      addLatencyHistogram(tierName, "GetHitLatency", get, EnumSet.of(TierOperationOutcomes.GetOutcome.HIT), latencySamplingRatio);
+      addLatencyHistogram(tierName, "GetMissLatency", get, EnumSet.of(TierOperationOutcomes.GetOutcome.MISS), latencySamplingRatio);
+    }
+  }
+
+  private <T extends Enum<T>> void addLatencyHistogram(String tierName, String name, OperationStatistic<T> statistic, Set<T> targets, double latencySamplingRatio) {
+    if (!(statistic instanceof ZeroOperationStatistic)) {
+      DefaultLatencyHistogram<T> histogram = new DefaultLatencyHistogram<>(targets, latencySamplingRatio);
+      statistic.addDerivedStatistic(histogram);
+      latencyHistograms.put(tierName + ":" + name, histogram);
+    }
   }
 
   private Map<String, TypedValueStatistic> createKnownStatistics(String tierName) {
@@ -161,6 +183,10 @@ class DefaultTierStatistics implements TierStatistics {
     return knownStatistics;
   }
 
+  public Map<String, LatencyHistogram> getLatencyHistograms() {
+    return Collections.unmodifiableMap(latencyHistograms);
+  }
+
   private static void addKnownStatistic(Map<String, TypedValueStatistic> knownStatistics, String tierName, String name, Object stat, TypedValueStatistic statistic) {
     if (stat != NOT_AVAILABLE) {
       knownStatistics.put(tierName + ":" + name, statistic);
@@ -197,6 +223,9 @@ class DefaultTierStatistics implements TierStatistics {
    */
   public void clear() {
     compensatingCounters = compensatingCounters.snapshot(this);
+    for (DefaultLatencyHistogram<?> histogram : latencyHistograms.values()) {
+      histogram.clear();
+    }
   }
 
   public long getHits() {
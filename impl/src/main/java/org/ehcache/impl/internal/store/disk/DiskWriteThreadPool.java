@@ -21,7 +21,6 @@ import org.terracotta.offheapstore.util.Factory;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.ehcache.core.spi.service.ExecutionService;
 
@@ -44,7 +43,7 @@ public class DiskWriteThreadPool implements Factory<ExecutorService> {
   public ExecutorService newInstance() {
     ExecutorService writer;
     if (writers.size() < threads) {
-      writer = executionService.getOrderedExecutor(poolAlias, new LinkedBlockingQueue<>());
+      writer = executionService.getOrderedExecutor(poolAlias);
       writers.add(writer);
     } else {
       writer = writers.get(index++);
@@ -23,14 +23,27 @@ import org.terracotta.offheapstore.Metadata;
 import org.terracotta.offheapstore.MetadataTuple;
 import org.terracotta.offheapstore.Segment;
 import org.terracotta.offheapstore.disk.persistent.AbstractPersistentConcurrentOffHeapCache;
+import org.terracotta.offheapstore.disk.persistent.Persistent;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static org.ehcache.impl.internal.executor.ExecutorUtil.waitFor;
 import static org.ehcache.impl.internal.store.offheap.factories.EhcacheSegmentFactory.EhcacheSegment.ADVISED_AGAINST_EVICTION;
 import static org.terracotta.offheapstore.Metadata.PINNED;
 import static org.terracotta.offheapstore.MetadataTuple.metadataTuple;
@@ -41,22 +54,129 @@ import static org.terracotta.offheapstore.MetadataTuple.metadataTuple;
  */
 public class EhcachePersistentConcurrentOffHeapClockCache<K, V> extends AbstractPersistentConcurrentOffHeapCache<K, V> implements EhcacheOffHeapBackingMap<K, V> {
 
+  private static final MutationListener NO_LISTENER = new MutationListener() {
+    @Override
+    public void mutating() {
+    }
+
+    @Override
+    public void mutated() {
+    }
+  };
+
   private final EvictionAdvisor<? super K, ? super V> evictionAdvisor;
+  private final MutationListener mutationListener;
   private final AtomicLong[] counters;
 
   public EhcachePersistentConcurrentOffHeapClockCache(ObjectInput input, EvictionAdvisor<? super K, ? super V> evictionAdvisor, EhcachePersistentSegmentFactory<K, V> segmentFactory) throws IOException {
-    this(evictionAdvisor, segmentFactory, readSegmentCount(input));
+    this(input, evictionAdvisor, segmentFactory, NO_LISTENER);
+  }
+
+  public EhcachePersistentConcurrentOffHeapClockCache(ObjectInput input, EvictionAdvisor<? super K, ? super V> evictionAdvisor, EhcachePersistentSegmentFactory<K, V> segmentFactory, MutationListener mutationListener) throws IOException {
+    this(evictionAdvisor, segmentFactory, readSegmentCount(input), mutationListener);
   }
 
   public EhcachePersistentConcurrentOffHeapClockCache(EvictionAdvisor<? super K, ? super V> evictionAdvisor, EhcachePersistentSegmentFactory<K, V> segmentFactory, int concurrency) {
+    this(evictionAdvisor, segmentFactory, concurrency, NO_LISTENER);
+  }
+
+  public EhcachePersistentConcurrentOffHeapClockCache(EvictionAdvisor<? super K, ? super V> evictionAdvisor, EhcachePersistentSegmentFactory<K, V> segmentFactory, int concurrency, MutationListener mutationListener) {
     super(segmentFactory, concurrency);
     this.evictionAdvisor = evictionAdvisor;
+    this.mutationListener = mutationListener;
     this.counters = new AtomicLong[segments.length];
     for(int i = 0; i < segments.length; i++) {
       counters[i] = new AtomicLong();
     }
   }
 
+  /**
+   * Persists each segment as an independent length prefixed block.
+   * <p>
+   * Unlike {@link #persist(ObjectOutput)} the resulting blocks can be read back with {@link #readSegments(ObjectInput)}
+   * and bootstrapped concurrently through {@link #bootstrapSegments(List, ExecutorService)}.
+   *
+   * @param output the output to persist to
+   * @throws IOException if a segment cannot be persisted
+   */
+  public void persistSegments(ObjectOutput output) throws IOException {
+    output.writeInt(segments.length);
+    for (Segment<K, V> segment : segments) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream segmentOutput = new ObjectOutputStream(bytes)) {
+        ((Persistent) segment).persist(segmentOutput);
+      }
+      output.writeInt(bytes.size());
+      output.write(bytes.toByteArray());
+    }
+  }
+
+  /**
+   * Reads the segment blocks written by {@link #persistSegments(ObjectOutput)}.
+   *
+   * @param input the input to read from
+   * @return the persisted segments, in segment order
+   * @throws IOException if the blocks cannot be read
+   */
+  public static List<byte[]> readSegments(ObjectInput input) throws IOException {
+    int segmentCount = input.readInt();
+    List<byte[]> persistedSegments = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      byte[] persisted = new byte[input.readInt()];
+      input.readFully(persisted);
+      persistedSegments.add(persisted);
+    }
+    return persistedSegments;
+  }
+
+  /**
+   * Bootstraps every segment from its persisted block, using the given executor to recover segments concurrently.
+   * <p>
+   * This method returns once all segment bootstraps have completed, successfully or not.
+   *
+   * @param persistedSegments the blocks returned by {@link #readSegments(ObjectInput)}
+   * @param executor the executor running the segment bootstraps
+   * @throws IOException if a segment cannot be bootstrapped
+   */
+  public void bootstrapSegments(List<byte[]> persistedSegments, ExecutorService executor) throws IOException {
+    if (persistedSegments.size() != segments.length) {
+      throw new IOException("Index holds " + persistedSegments.size() + " segments while " + segments.length + " were expected");
+    }
+    List<Future<Void>> bootstraps = new ArrayList<>(segments.length);
+    for (int i = 0; i < segments.length; i++) {
+      Persistent segment = (Persistent) segments[i];
+      byte[] persisted = persistedSegments.get(i);
+      bootstraps.add(executor.submit(() -> {
+        try (ObjectInputStream segmentInput = new ObjectInputStream(new ByteArrayInputStream(persisted))) {
+          segment.bootstrap(segmentInput);
+        }
+        return null;
+      }));
+    }
+
+    Throwable failure = null;
+    for (Future<Void> bootstrap : bootstraps) {
+      try {
+        waitFor(bootstrap);
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        } else {
+          failure.addSuppressed(e.getCause());
+        }
+      }
+    }
+    if (failure instanceof IOException) {
+      throw (IOException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new IOException(failure);
+    }
+  }
+
   public long allocatedMemory() {
     long total = 0L;
     for (Segment<K, V> segment : segments) {
@@ -155,83 +275,247 @@ public class EhcachePersistentConcurrentOffHeapClockCache<K, V> extends Abstract
 
   @Override
   public V compute(K key, final BiFunction<K, V, V> mappingFunction, final boolean pin) {
-    MetadataTuple<V> result = computeWithMetadata(key, (k, current) -> {
-      V oldValue = current == null ? null : current.value();
-      V newValue = mappingFunction.apply(k, oldValue);
+    final Mutation mutation = new Mutation();
+    try {
+      MetadataTuple<V> result = computeWithMetadata(key, (k, current) -> {
+        V oldValue = current == null ? null : current.value();
+        V newValue = mappingFunction.apply(k, oldValue);
 
-      if (newValue == null) {
-        return null;
-      } else if (oldValue == newValue) {
-        return metadataTuple(newValue, (pin ? PINNED : 0) | current.metadata());
-      } else {
-        return metadataTuple(newValue, (pin ? PINNED : 0) | (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
-      }
-    });
-    return result == null ? null : result.value();
+        if (newValue == null) {
+          if (oldValue != null) {
+            mutation.begin();
+          }
+          return null;
+        } else if (oldValue == newValue) {
+          return metadataTuple(newValue, (pin ? PINNED : 0) | current.metadata());
+        } else {
+          mutation.begin();
+          return metadataTuple(newValue, (pin ? PINNED : 0) | (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
+        }
+      });
+      return result == null ? null : result.value();
+    } finally {
+      mutation.end();
+    }
   }
 
   @Override
   public V computeIfPresent(K key, final BiFunction<? super K, ? super V, ? extends V> mappingFunction) {
-    MetadataTuple<V> result = computeIfPresentWithMetadata(key, (k, current) -> {
-      V oldValue = current.value();
-      V newValue = mappingFunction.apply(k, oldValue);
+    final Mutation mutation = new Mutation();
+    try {
+      MetadataTuple<V> result = computeIfPresentWithMetadata(key, (k, current) -> {
+        V oldValue = current.value();
+        V newValue = mappingFunction.apply(k, oldValue);
 
-      if (newValue == null) {
-        return null;
-      } else if (oldValue == newValue) {
-        return current;
-      } else {
-        return metadataTuple(newValue, (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
-      }
-    });
-    return result == null ? null : result.value();
+        if (newValue == null) {
+          mutation.begin();
+          return null;
+        } else if (oldValue == newValue) {
+          return current;
+        } else {
+          mutation.begin();
+          return metadataTuple(newValue, (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
+        }
+      });
+      return result == null ? null : result.value();
+    } finally {
+      mutation.end();
+    }
   }
 
   @Override
   public V computeIfPresentAndPin(final K key, final BiFunction<K, V, V> mappingFunction) {
-    MetadataTuple<V> result = computeIfPresentWithMetadata(key, (k, current) -> {
-      V oldValue = current.value();
-      V newValue = mappingFunction.apply(k, oldValue);
+    final Mutation mutation = new Mutation();
+    try {
+      MetadataTuple<V> result = computeIfPresentWithMetadata(key, (k, current) -> {
+        V oldValue = current.value();
+        V newValue = mappingFunction.apply(k, oldValue);
 
-      if (newValue == null) {
-        return null;
-      } else if (oldValue == newValue) {
-        return metadataTuple(newValue, PINNED | current.metadata());
-      } else {
-        return metadataTuple(newValue, PINNED | (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
-      }
-    });
-    return result == null ? null : result.value();
+        if (newValue == null) {
+          mutation.begin();
+          return null;
+        } else if (oldValue == newValue) {
+          return metadataTuple(newValue, PINNED | current.metadata());
+        } else {
+          mutation.begin();
+          return metadataTuple(newValue, PINNED | (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
+        }
+      });
+      return result == null ? null : result.value();
+    } finally {
+      mutation.end();
+    }
   }
 
   @Override
   public boolean computeIfPinned(final K key, final BiFunction<K,V,V> remappingFunction, final Function<V,Boolean> unpinFunction) {
     final AtomicBoolean unpin = new AtomicBoolean();
-    computeIfPresentWithMetadata(key, (k, current) -> {
-      if ((current.metadata() & Metadata.PINNED) != 0) {
-        V oldValue = current.value();
-        V newValue = remappingFunction.apply(k, oldValue);
-        Boolean unpinLocal = unpinFunction.apply(oldValue);
+    final Mutation mutation = new Mutation();
+    try {
+      computeIfPresentWithMetadata(key, (k, current) -> {
+        if ((current.metadata() & Metadata.PINNED) != 0) {
+          V oldValue = current.value();
+          V newValue = remappingFunction.apply(k, oldValue);
+          Boolean unpinLocal = unpinFunction.apply(oldValue);
 
-        if (newValue == null) {
-          unpin.set(true);
-          return null;
-        } else if (oldValue == newValue) {
-          unpin.set(unpinLocal);
-          return metadataTuple(oldValue, current.metadata() & (unpinLocal ? ~Metadata.PINNED : -1));
+          if (newValue == null) {
+            mutation.begin();
+            unpin.set(true);
+            return null;
+          } else if (oldValue == newValue) {
+            unpin.set(unpinLocal);
+            return metadataTuple(oldValue, current.metadata() & (unpinLocal ? ~Metadata.PINNED : -1));
+          } else {
+            mutation.begin();
+            unpin.set(false);
+            return metadataTuple(newValue, (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
+          }
         } else {
-          unpin.set(false);
-          return metadataTuple(newValue, (evictionAdvisor.adviseAgainstEviction(k, newValue) ? ADVISED_AGAINST_EVICTION : 0));
+          return current;
         }
-      } else {
-        return current;
-      }
-    });
+      });
+    } finally {
+      mutation.end();
+    }
     return unpin.get();
   }
 
+  @Override
+  public V put(K key, V value) {
+    mutationListener.mutating();
+    try {
+      return super.put(key, value);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    mutationListener.mutating();
+    try {
+      return super.putIfAbsent(key, value);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    mutationListener.mutating();
+    try {
+      return super.remove(key);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    mutationListener.mutating();
+    try {
+      return super.remove(key, value);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    mutationListener.mutating();
+    try {
+      return super.replace(key, value);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    mutationListener.mutating();
+    try {
+      return super.replace(key, oldValue, newValue);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public void clear() {
+    mutationListener.mutating();
+    try {
+      super.clear();
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public Map<K, V> removeAllWithHash(int hash) {
+    mutationListener.mutating();
+    try {
+      return super.removeAllWithHash(hash);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
+  @Override
+  public boolean shrinkOthers(int excludedHash) {
+    mutationListener.mutating();
+    try {
+      return super.shrinkOthers(excludedHash);
+    } finally {
+      mutationListener.mutated();
+    }
+  }
+
   @Override
   public long nextIdFor(final K key) {
     return counters[getIndexFor(key.hashCode())].getAndIncrement();
   }
+
+  @Override
+  public int getSegmentIndexFor(K key) {
+    return getIndexFor(key.hashCode());
+  }
+
+  /**
+   * Listener notified around the operations changing the mappings held, as opposed to their metadata or the access
+   * statistics kept in place in the values.
+   */
+  public interface MutationListener {
+
+    /**
+     * Invoked before mappings get changed. A failure prevents the change.
+     */
+    void mutating();
+
+    /**
+     * Invoked once a change announced through {@link #mutating()} is complete.
+     */
+    void mutated();
+  }
+
+  /**
+   * Tracks whether a compute function changed a mapping, so that the listener can be notified once it completes.
+   */
+  private final class Mutation {
+
+    private boolean begun;
+
+    void begin() {
+      if (!begun) {
+        mutationListener.mutating();
+        begun = true;
+      }
+    }
+
+    void end() {
+      if (begun) {
+        begun = false;
+        mutationListener.mutated();
+      }
+    }
+  }
 }
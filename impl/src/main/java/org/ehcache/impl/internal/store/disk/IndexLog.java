@@ -0,0 +1,227 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.disk;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log telling whether the index of an {@link OffHeapDiskStore} can be trusted on recovery.
+ * <p>
+ * The index is snapshotted by {@link #checkpoint(IndexWriter) checkpoints}, each recorded with the timestamp written in
+ * the snapshot. Before the first change to the mappings following a checkpoint, a dirty record is appended and forced to
+ * disk: the data file can only diverge from the snapshot once the log says so. On recovery, the index is valid if and
+ * only if the last record is the checkpoint of that index.
+ * <p>
+ * Changes to access statistics or pinning are not tracked: they are written in place and do not invalidate the index.
+ * <p>
+ * The log is written through a {@link RandomAccessFile} rather than a {@link java.nio.channels.FileChannel}, so that
+ * interrupting a thread changing the store cannot close it.
+ */
+final class IndexLog implements EhcachePersistentConcurrentOffHeapClockCache.MutationListener, Closeable {
+
+  /**
+   * Returned by {@link #lastCheckpoint(File)} when the log does not end with a checkpoint.
+   */
+  static final long NO_CHECKPOINT = -1L;
+
+  private static final byte DIRTY = 0;
+  private static final byte CHECKPOINT = 1;
+  private static final int RECORD_SIZE = 1 + 8;
+  private static final long COMPACTION_THRESHOLD = 1024L * RECORD_SIZE;
+  private static final long MUTATION_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private enum State {
+    CLEAN, DIRTY, CHECKPOINTING
+  }
+
+  private final RandomAccessFile file;
+  private final AtomicInteger mutations = new AtomicInteger();
+  private final Object checkpointLock = new Object();
+
+  private volatile State state;
+  private long end;
+  private boolean closed;
+
+  /**
+   * Opens the log in the given file.
+   *
+   * @param file the log file
+   * @param checkpointed {@code true} if the index was recovered from the last checkpoint of the log, {@code false} if
+   *                     the store starts from an index not recorded in the log
+   * @throws IOException if the log cannot be opened
+   */
+  IndexLog(File file, boolean checkpointed) throws IOException {
+    this.file = new RandomAccessFile(file, "rw");
+    try {
+      if (checkpointed) {
+        // a torn record at the end can only be a dirty record whose mutation never started
+        this.end = (this.file.length() / RECORD_SIZE) * RECORD_SIZE;
+        this.file.setLength(end);
+        this.state = State.CLEAN;
+      } else {
+        this.end = 0;
+        writeRecord(DIRTY, 0L);
+        this.file.setLength(end);
+        this.file.getFD().sync();
+        this.state = State.DIRTY;
+      }
+    } catch (IOException e) {
+      this.file.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the timestamp of the index snapshot the given log ends with.
+   *
+   * @param file the log file
+   * @return the timestamp of the last checkpoint, {@link #NO_CHECKPOINT} if changes happened since or if there is none
+   * @throws IOException if the log cannot be read
+   */
+  static long lastCheckpoint(File file) throws IOException {
+    try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+      long records = input.length() / RECORD_SIZE;
+      if (records == 0) {
+        return NO_CHECKPOINT;
+      }
+      input.seek((records - 1) * RECORD_SIZE);
+      byte type = input.readByte();
+      long timestamp = input.readLong();
+      return type == CHECKPOINT ? timestamp : NO_CHECKPOINT;
+    }
+  }
+
+  @Override
+  public void mutating() {
+    mutations.incrementAndGet();
+    if (state != State.DIRTY) {
+      try {
+        markDirty();
+      } catch (IOException e) {
+        mutations.decrementAndGet();
+        throw new RuntimeException("Unable to record the pending change to the disk store index", e);
+      }
+    }
+  }
+
+  @Override
+  public void mutated() {
+    mutations.decrementAndGet();
+  }
+
+  private synchronized void markDirty() throws IOException {
+    if (state != State.DIRTY && !closed) {
+      writeRecord(DIRTY, 0L);
+      file.getFD().sync();
+      state = State.DIRTY;
+    }
+  }
+
+  /**
+   * Snapshots the index if it changed since the last checkpoint.
+   * <p>
+   * The snapshot is recorded only if no change happened while it was being written, it is otherwise left for the next
+   * checkpoint to replace.
+   *
+   * @param writer writes and forces to disk the index snapshot, with the given timestamp
+   * @return {@code true} if the last snapshot written is up to date
+   * @throws IOException if the snapshot or the log could not be written
+   */
+  boolean checkpoint(IndexWriter writer) throws IOException {
+    synchronized (checkpointLock) {
+      synchronized (this) {
+        if (closed || state == State.CLEAN) {
+          return state == State.CLEAN;
+        }
+        state = State.CHECKPOINTING;
+      }
+      try {
+        while (mutations.get() != 0) {
+          if (state != State.CHECKPOINTING) {
+            return false;
+          }
+          LockSupport.parkNanos(MUTATION_WAIT_NANOS);
+        }
+        long timestamp = System.currentTimeMillis();
+        writer.write(timestamp);
+        synchronized (this) {
+          if (state == State.CHECKPOINTING && !closed) {
+            appendCheckpoint(timestamp);
+            state = State.CLEAN;
+            return true;
+          }
+          return false;
+        }
+      } finally {
+        synchronized (this) {
+          if (state == State.CHECKPOINTING) {
+            state = State.DIRTY;
+          }
+        }
+      }
+    }
+  }
+
+  private void appendCheckpoint(long timestamp) throws IOException {
+    if (end >= COMPACTION_THRESHOLD) {
+      // a torn compaction leaves either the dirty tail or a stale first checkpoint, none matching the new index
+      end = 0;
+      writeRecord(CHECKPOINT, timestamp);
+      file.setLength(end);
+    } else {
+      writeRecord(CHECKPOINT, timestamp);
+    }
+    file.getFD().sync();
+  }
+
+  private void writeRecord(byte type, long timestamp) throws IOException {
+    file.seek(end);
+    file.writeByte(type);
+    file.writeLong(timestamp);
+    end += RECORD_SIZE;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (checkpointLock) {
+      synchronized (this) {
+        closed = true;
+        file.close();
+      }
+    }
+  }
+
+  /**
+   * Writes an index snapshot.
+   */
+  interface IndexWriter {
+
+    /**
+     * Writes the index snapshot and forces it to disk.
+     *
+     * @param timestamp the timestamp to record in the snapshot
+     * @throws IOException if the snapshot could not be written
+     */
+    void write(long timestamp) throws IOException;
+  }
+}
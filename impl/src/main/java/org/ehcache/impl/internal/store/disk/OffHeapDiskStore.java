@@ -25,6 +25,8 @@ import org.ehcache.core.spi.service.DiskResourceService;
 import org.ehcache.core.statistics.AuthoritativeTierOperationOutcomes;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.events.StoreEventDispatcher;
 import org.ehcache.CachePersistenceException;
@@ -35,7 +37,7 @@ import org.ehcache.impl.internal.store.offheap.EhcacheOffHeapBackingMap;
 import org.ehcache.impl.internal.store.offheap.SwitchableEvictionAdvisor;
 import org.ehcache.impl.internal.store.offheap.OffHeapValueHolder;
 import org.ehcache.impl.internal.store.offheap.portability.OffHeapValueHolderPortability;
-import org.ehcache.impl.internal.store.offheap.portability.SerializerPortability;
+import org.ehcache.impl.internal.store.offheap.portability.PrimitivePortability;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.core.spi.time.TimeSourceService;
 import org.ehcache.spi.persistence.PersistableResourceService.PersistenceSpaceIdentifier;
@@ -73,20 +75,29 @@ import java.io.ObjectOutputStream;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.Math.max;
 import static org.ehcache.config.Eviction.noAdvice;
 import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
+import static org.ehcache.impl.internal.executor.ExecutorUtil.shutdown;
+import static org.ehcache.impl.internal.store.offheap.OffHeapStoreUtils.getAdvancedLongConfigProperty;
 import static org.terracotta.offheapstore.util.MemoryUnit.BYTES;
 
 /**
@@ -100,6 +111,14 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
   private static final String KEY_TYPE_PROPERTY_NAME = "keyType";
   private static final String VALUE_TYPE_PROPERTY_NAME = "valueType";
+  private static final String VALUE_COMPRESSION_PROPERTY_NAME = "valueCompression";
+
+  /* delay in ms between two checkpoints of the index, periodic checkpoints are disabled if not positive */
+  private static final long INDEX_CHECKPOINT_INTERVAL = 30000L;
+  private static final String INDEX_CHECKPOINT_INTERVAL_PROPERTY = "diskIndexCheckpointInterval";
+
+  // leads indexes holding independently recoverable segments, legacy indexes start with their (positive) timestamp
+  private static final long SEGMENTED_INDEX_MARKER = Long.MIN_VALUE;
 
   protected final AtomicReference<Status> status = new AtomicReference<>(Status.UNINITIALIZED);
 
@@ -115,18 +134,37 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   private final String threadPoolAlias;
   private final int writerConcurrency;
   private final int diskSegments;
+  private final Compression compression;
+  private final int compressionThreshold;
 
   private volatile EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> map;
+  private volatile OffHeapValueHolderPortability<V> valuePortability;
+  private volatile IndexLog indexLog;
+  private volatile ScheduledExecutorService checkpointExecutor;
+  private volatile long recoveryDuration = -1L;
 
   public OffHeapDiskStore(FileBasedPersistenceContext fileBasedPersistenceContext,
                           ExecutionService executionService, String threadPoolAlias, int writerConcurrency, int diskSegments,
                           final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes) {
+    this(fileBasedPersistenceContext, executionService, threadPoolAlias, writerConcurrency, diskSegments, config, timeSource, eventDispatcher,
+      sizeInBytes, OffHeapStoreConfiguration.DEFAULT_COMPRESSION, OffHeapStoreConfiguration.DEFAULT_COMPRESSION_THRESHOLD);
+  }
+
+  public OffHeapDiskStore(FileBasedPersistenceContext fileBasedPersistenceContext,
+                          ExecutionService executionService, String threadPoolAlias, int writerConcurrency, int diskSegments,
+                          final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes,
+                          Compression compression, int compressionThreshold) {
     super(STATISTICS_TAG, config, timeSource, eventDispatcher);
+    if (compression == null) {
+      throw new NullPointerException("compression must not be null");
+    }
     this.fileBasedPersistenceContext = fileBasedPersistenceContext;
     this.executionService = executionService;
     this.threadPoolAlias = threadPoolAlias;
     this.writerConcurrency = writerConcurrency;
     this.diskSegments = diskSegments;
+    this.compression = compression;
+    this.compressionThreshold = compressionThreshold;
 
     EvictionAdvisor<? super K, ? super V> evictionAdvisor = config.getEvictionAdvisor();
     if (evictionAdvisor != null) {
@@ -141,6 +179,9 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
     this.valueSerializer = config.getValueSerializer();
     this.sizeInBytes = sizeInBytes;
 
+    Set<String> tags = new HashSet<>(Arrays.asList(STATISTICS_TAG, "tier"));
+    StatisticsManager.createPassThroughStatistic(this, "recoveryDuration", tags, () -> recoveryDuration);
+
     if (!status.compareAndSet(Status.UNINITIALIZED, Status.AVAILABLE)) {
       throw new AssertionError();
     }
@@ -172,8 +213,10 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   }
 
   private EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> recoverBackingMap(long size, Serializer<K> keySerializer, Serializer<V> valueSerializer, SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> evictionAdvisor) throws IOException {
+    long recoveryStart = System.nanoTime();
     File dataFile = getDataFile();
     File indexFile = getIndexFile();
+    File indexLogFile = getIndexLogFile();
     File metadataFile = getMetadataFile();
 
     Properties properties = new Properties();
@@ -196,28 +239,47 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
     } catch (ClassNotFoundException cnfe) {
       throw new IllegalStateException("Persisted value type class not found", cnfe);
     }
+    // stores persisted before compression was configurable hold uncompressed values
+    String persistedCompression = properties.getProperty(VALUE_COMPRESSION_PROPERTY_NAME, Compression.NONE.name());
+    if (!compression.name().equals(persistedCompression)) {
+      throw new IllegalArgumentException("Persisted value compression '" + persistedCompression + "' is not the same as the configured value compression '" + compression + "'");
+    }
 
     try (FileInputStream fin = new FileInputStream(indexFile)) {
       ObjectInputStream input = new ObjectInputStream(fin);
-      long dataTimestampFromIndex = input.readLong();
-      long dataTimestampFromFile = dataFile.lastModified();
-      long delta = dataTimestampFromFile - dataTimestampFromIndex;
-      if (delta < 0) {
-        LOGGER.info("The index for data file {} is more recent than the data file itself by {}ms : this is harmless.",
-          dataFile.getName(), -delta);
-      } else if (delta > TimeUnit.SECONDS.toMillis(1)) {
-        LOGGER.warn("The index for data file {} is out of date by {}ms, probably due to an unclean shutdown. Creating a new empty store.",
-          dataFile.getName(), delta);
-        return createBackingMap(size, keySerializer, valueSerializer, evictionAdvisor);
-      } else if (delta > 0) {
-        LOGGER.info("The index for data file {} is out of date by {}ms, assuming this small delta is a result of the OS/filesystem.",
-          dataFile.getName(), delta);
+      long header = input.readLong();
+      boolean segmented = header == SEGMENTED_INDEX_MARKER;
+      long dataTimestampFromIndex = segmented ? input.readLong() : header;
+      boolean logged = indexLogFile.isFile();
+      if (logged) {
+        // values get their access statistics updated in place, the data file timestamp tells nothing about the index
+        if (IndexLog.lastCheckpoint(indexLogFile) != dataTimestampFromIndex) {
+          LOGGER.warn("The index for data file {} was not checkpointed since the last changes to the store, probably due to an unclean shutdown. Creating a new empty store.",
+            dataFile.getName());
+          return createBackingMap(size, keySerializer, valueSerializer, evictionAdvisor);
+        }
+      } else {
+        long dataTimestampFromFile = dataFile.lastModified();
+        long delta = dataTimestampFromFile - dataTimestampFromIndex;
+        if (delta < 0) {
+          LOGGER.info("The index for data file {} is more recent than the data file itself by {}ms : this is harmless.",
+            dataFile.getName(), -delta);
+        } else if (delta > TimeUnit.SECONDS.toMillis(1)) {
+          LOGGER.warn("The index for data file {} is out of date by {}ms, probably due to an unclean shutdown. Creating a new empty store.",
+            dataFile.getName(), delta);
+          return createBackingMap(size, keySerializer, valueSerializer, evictionAdvisor);
+        } else if (delta > 0) {
+          LOGGER.info("The index for data file {} is out of date by {}ms, assuming this small delta is a result of the OS/filesystem.",
+            dataFile.getName(), delta);
+        }
       }
 
       MappedPageSource source = new MappedPageSource(dataFile, false, size);
+      IndexLog log = null;
       try {
-        PersistentPortability<K> keyPortability = persistent(new SerializerPortability<>(keySerializer));
-        PersistentPortability<OffHeapValueHolder<V>> elementPortability = persistent(new OffHeapValueHolderPortability<>(valueSerializer));
+        PersistentPortability<K> keyPortability = persistent(PrimitivePortability.forSerializer(keySerializer));
+        OffHeapValueHolderPortability<V> valueHolderPortability = new OffHeapValueHolderPortability<>(valueSerializer, compression, compressionThreshold);
+        PersistentPortability<OffHeapValueHolder<V>> elementPortability = persistent(valueHolderPortability);
         DiskWriteThreadPool writeWorkers = new DiskWriteThreadPool(executionService, threadPoolAlias, writerConcurrency);
 
         Factory<FileBackedStorageEngine<K, OffHeapValueHolder<V>>> storageEngineFactory = FileBackedStorageEngine.createFactory(source,
@@ -229,12 +291,32 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
           64,
           evictionAdvisor,
           mapEvictionListener, false);
-        EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> m = new EhcachePersistentConcurrentOffHeapClockCache<>(input, evictionAdvisor, factory);
-
-        m.bootstrap(input);
+        // an index recovered without a log was not checkpointed yet
+        log = new IndexLog(indexLogFile, logged);
+        EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> m;
+        if (segmented) {
+          List<byte[]> persistedSegments = EhcachePersistentConcurrentOffHeapClockCache.readSegments(input);
+          m = new EhcachePersistentConcurrentOffHeapClockCache<>(evictionAdvisor, factory, persistedSegments.size(), log);
+          ExecutorService recoveryExecutor = executionService.getUnorderedExecutor(threadPoolAlias, new LinkedBlockingQueue<>());
+          try {
+            m.bootstrapSegments(persistedSegments, recoveryExecutor);
+          } finally {
+            shutdown(recoveryExecutor);
+          }
+        } else {
+          m = new EhcachePersistentConcurrentOffHeapClockCache<>(input, evictionAdvisor, factory, log);
+          m.bootstrap(input);
+        }
+        indexLog = log;
+        valuePortability = valueHolderPortability;
+        recoveryDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - recoveryStart);
+        LOGGER.debug("Recovered the index for data file {} in {}ms", dataFile.getName(), recoveryDuration);
         return m;
-      } catch (IOException e) {
+      } catch (IOException | RuntimeException e) {
         source.close();
+        if (log != null) {
+          log.close();
+        }
         throw e;
       }
     } catch (Exception e) {
@@ -250,12 +332,16 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
       Properties properties = new Properties();
       properties.put(KEY_TYPE_PROPERTY_NAME, keyType.getName());
       properties.put(VALUE_TYPE_PROPERTY_NAME, valueType.getName());
+      properties.put(VALUE_COMPRESSION_PROPERTY_NAME, compression.name());
       properties.store(fos, "Key and value types");
     }
 
+    // the log must stop vouching for any previous index before the data file gets overwritten
+    IndexLog log = new IndexLog(getIndexLogFile(), false);
     MappedPageSource source = new MappedPageSource(getDataFile(), size);
-    PersistentPortability<K> keyPortability = persistent(new SerializerPortability<>(keySerializer));
-    PersistentPortability<OffHeapValueHolder<V>> elementPortability = persistent(new OffHeapValueHolderPortability<>(valueSerializer));
+    PersistentPortability<K> keyPortability = persistent(PrimitivePortability.forSerializer(keySerializer));
+    OffHeapValueHolderPortability<V> valueHolderPortability = new OffHeapValueHolderPortability<>(valueSerializer, compression, compressionThreshold);
+    PersistentPortability<OffHeapValueHolder<V>> elementPortability = persistent(valueHolderPortability);
     DiskWriteThreadPool writeWorkers = new DiskWriteThreadPool(executionService, threadPoolAlias, writerConcurrency);
 
     Factory<FileBackedStorageEngine<K, OffHeapValueHolder<V>>> storageEngineFactory = FileBackedStorageEngine.createFactory(source,
@@ -267,8 +353,59 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
       64,
       evictionAdvisor,
       mapEvictionListener, true);
-    return new EhcachePersistentConcurrentOffHeapClockCache<>(evictionAdvisor, factory, diskSegments);
+    indexLog = log;
+    valuePortability = valueHolderPortability;
+    return new EhcachePersistentConcurrentOffHeapClockCache<>(evictionAdvisor, factory, diskSegments, log);
+
+  }
+
+  private void writeIndex(EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> localMap, long timestamp) throws IOException {
+    localMap.flush();
+    File indexFile = getIndexFile();
+    File snapshotFile = new File(indexFile.getParentFile(), indexFile.getName() + ".snapshot");
+    try (FileOutputStream fos = new FileOutputStream(snapshotFile)) {
+      ObjectOutputStream output = new ObjectOutputStream(fos);
+      output.writeLong(SEGMENTED_INDEX_MARKER);
+      output.writeLong(timestamp);
+      localMap.persistSegments(output);
+      output.flush();
+      fos.getFD().sync();
+    }
+    try {
+      Files.move(snapshotFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(snapshotFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
 
+  private void startIndexCheckpoints() {
+    long interval = getAdvancedLongConfigProperty(INDEX_CHECKPOINT_INTERVAL_PROPERTY, INDEX_CHECKPOINT_INTERVAL);
+    if (interval > 0) {
+      ScheduledExecutorService executor = executionService.getScheduledExecutor(threadPoolAlias);
+      executor.scheduleWithFixedDelay(this::checkpointIndex, interval, interval, TimeUnit.MILLISECONDS);
+      checkpointExecutor = executor;
+    }
+  }
+
+  private void stopIndexCheckpoints() {
+    ScheduledExecutorService executor = checkpointExecutor;
+    if (executor != null) {
+      checkpointExecutor = null;
+      // no interruption: a running checkpoint is waited for by the final one
+      shutdown(executor);
+    }
+  }
+
+  void checkpointIndex() {
+    EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> localMap = map;
+    IndexLog localIndexLog = indexLog;
+    if (localMap != null) {
+      try {
+        localIndexLog.checkpoint(timestamp -> writeIndex(localMap, timestamp));
+      } catch (IOException | RuntimeException e) {
+        LOGGER.warn("Checkpointing the index for data file {} failed", getDataFile().getName(), e);
+      }
+    }
   }
 
   @Override
@@ -281,6 +418,11 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
     return evictionAdvisor;
   }
 
+  @Override
+  protected OffHeapValueHolderPortability<V> valuePortability() {
+    return valuePortability;
+  }
+
   private File getDataFile() {
     return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.data");
   }
@@ -289,6 +431,10 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
     return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.index");
   }
 
+  private File getIndexLogFile() {
+    return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.index.log");
+  }
+
   private File getMetadataFile() {
     return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.meta");
   }
@@ -367,6 +513,16 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
         writerConcurrency = config.getWriterConcurrency();
         diskSegments = config.getDiskSegments();
       }
+      Compression compression;
+      int compressionThreshold;
+      OffHeapStoreConfiguration offHeapStoreConfig = findSingletonAmongst(OffHeapStoreConfiguration.class, (Object[]) serviceConfigs);
+      if (offHeapStoreConfig == null) {
+        compression = OffHeapStoreConfiguration.DEFAULT_COMPRESSION;
+        compressionThreshold = OffHeapStoreConfiguration.DEFAULT_COMPRESSION_THRESHOLD;
+      } else {
+        compression = offHeapStoreConfig.getCompression();
+        compressionThreshold = offHeapStoreConfig.getCompressionThreshold();
+      }
       PersistenceSpaceIdentifier<?> space = findSingletonAmongst(PersistenceSpaceIdentifier.class, (Object[]) serviceConfigs);
       if (space == null) {
         throw new IllegalStateException("No LocalPersistenceService could be found - did you configure it at the CacheManager level?");
@@ -376,7 +532,7 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
         OffHeapDiskStore<K, V> offHeapStore = new OffHeapDiskStore<>(persistenceContext,
           executionService, threadPoolAlias, writerConcurrency, diskSegments,
-          storeConfig, timeSource, eventDispatcher, unit.toBytes(diskPool.getSize()));
+          storeConfig, timeSource, eventDispatcher, unit.toBytes(diskPool.getSize()), compression, compressionThreshold);
         createdStores.put(offHeapStore, space);
         return offHeapStore;
       } catch (CachePersistenceException cpex) {
@@ -403,10 +559,14 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
       EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> localMap = resource.map;
       if (localMap != null) {
         resource.map = null;
-        localMap.flush();
-        try (ObjectOutputStream output = new ObjectOutputStream(new FileOutputStream(resource.getIndexFile()))) {
-          output.writeLong(System.currentTimeMillis());
-          localMap.persist(output);
+        resource.stopIndexCheckpoints();
+        IndexLog localIndexLog = resource.indexLog;
+        resource.indexLog = null;
+        try {
+          localMap.flush();
+          localIndexLog.checkpoint(timestamp -> resource.writeIndex(localMap, timestamp));
+        } finally {
+          localIndexLog.close();
         }
         localMap.close();
       }
@@ -446,6 +606,7 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
     static <K, V> void init(final OffHeapDiskStore<K, V> resource) {
       resource.map = resource.getBackingMap(resource.sizeInBytes, resource.keySerializer, resource.valueSerializer, resource.evictionAdvisor);
+      resource.startIndexCheckpoints();
     }
 
     @Override
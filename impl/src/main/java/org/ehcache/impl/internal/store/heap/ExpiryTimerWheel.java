@@ -0,0 +1,258 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.heap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel indexing the expiration times of the mappings of an {@link OnHeapStore}, so that expired
+ * mappings can be reclaimed without waiting for an access to touch them.
+ * <p>
+ * Each of the {@value #LEVELS} levels has {@value #SLOTS} slots, a slot of a level spanning a full rotation of the level
+ * below, the lowest level slots spanning one tick. Timers are first appended to a concurrent queue by the threads
+ * installing mappings; the wheel itself is only touched by the single thread {@link #advance advancing} it, which
+ * moves due timers into a backlog from which at most a given number are handed over per call.
+ * <p>
+ * Timers only record the key and expiration time of a mapping, not the mapping itself: the consumer is expected to look
+ * the mapping up and check it still is the one holding the timer. A timer can be handed over to the mapping replacing
+ * the one it was created for, and is {@link #cancel cancelled} when its mapping goes away, so that the wheel holds at
+ * most one live timer per mapping. Cancelled timers drop their key at once and are purged from the wheel as soon as
+ * they make up half of it.
+ *
+ * @param <K> the key type
+ */
+final class ExpiryTimerWheel<K> {
+
+  static final int LEVELS = 4;
+  static final int SLOTS = 64;
+  private static final int SLOT_BITS = Integer.numberOfTrailingZeros(SLOTS);
+
+  private final long tickMillis;
+  private final Queue<Timer<K>> incoming = new ConcurrentLinkedQueue<>();
+  private final List<ArrayDeque<Timer<K>>> slots = new ArrayList<>(LEVELS * SLOTS);
+  private final ArrayDeque<Timer<K>> backlog = new ArrayDeque<>();
+  private final AtomicInteger cancelled = new AtomicInteger();
+  private long currentTick = -1;
+  private int held;
+
+  ExpiryTimerWheel(long tickMillis) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+    }
+    this.tickMillis = tickMillis;
+    for (int i = 0; i < LEVELS * SLOTS; i++) {
+      slots.add(new ArrayDeque<>());
+    }
+  }
+
+  long getTickMillis() {
+    return tickMillis;
+  }
+
+  /**
+   * Registers the expiration of a mapping. Can be called concurrently with any other method.
+   *
+   * @return the timer, to be cancelled if the mapping goes away before expiring
+   */
+  Timer<K> schedule(K key, long expirationTime) {
+    Timer<K> timer = new Timer<>(key, expirationTime);
+    incoming.add(timer);
+    return timer;
+  }
+
+  /**
+   * Registers again a timer that was handed over, for a later expiration time.
+   */
+  void reschedule(Timer<K> timer, long expirationTime) {
+    timer.expirationTime = expirationTime;
+    incoming.add(timer);
+  }
+
+  /**
+   * Cancels a timer, releasing its key. Can be called concurrently with any other method, and more than once.
+   */
+  void cancel(Timer<K> timer) {
+    if (timer.cancel()) {
+      cancelled.incrementAndGet();
+    }
+  }
+
+  /**
+   * Advances the wheel up to {@code now} and hands over at most {@code limit} due timers to the consumer, the others
+   * being kept for the next calls.
+   * <p>
+   * Must not be called concurrently.
+   *
+   * @return the number of timers handed over
+   */
+  int advance(long now, int limit, Consumer<Timer<K>> consumer) {
+    long nowTick = now / tickMillis;
+    if (currentTick < 0) {
+      currentTick = nowTick;
+    }
+
+    Timer<K> timer;
+    while ((timer = incoming.poll()) != null) {
+      if (timer.isCancelled()) {
+        cancelled.decrementAndGet();
+      } else {
+        insert(timer);
+        held++;
+      }
+    }
+    if (cancelled.get() > held / 2) {
+      purge();
+    }
+
+    if (nowTick - currentTick >= (long) SLOTS * SLOTS) {
+      // way behind: re-sort everything rather than walking each tick
+      List<Timer<K>> all = new ArrayList<>();
+      for (ArrayDeque<Timer<K>> slot : slots) {
+        all.addAll(slot);
+        slot.clear();
+      }
+      currentTick = nowTick;
+      for (Timer<K> t : all) {
+        insert(t);
+      }
+    } else {
+      while (currentTick < nowTick) {
+        currentTick++;
+        cascade(currentTick);
+      }
+    }
+
+    int handed = 0;
+    while (handed < limit && (timer = backlog.poll()) != null) {
+      held--;
+      if (timer.isCancelled()) {
+        cancelled.decrementAndGet();
+      } else {
+        consumer.accept(timer);
+        handed++;
+      }
+    }
+    return handed;
+  }
+
+  /**
+   * How many timers are waiting, due or not.
+   */
+  int size() {
+    int size = incoming.size() + backlog.size();
+    for (ArrayDeque<Timer<K>> slot : slots) {
+      size += slot.size();
+    }
+    return size;
+  }
+
+  private void purge() {
+    int purged = 0;
+    for (ArrayDeque<Timer<K>> slot : slots) {
+      purged += purge(slot);
+    }
+    purged += purge(backlog);
+    held -= purged;
+    if (cancelled.addAndGet(-purged) > held / 2) {
+      // timers cancelled after being handed over were never seen again
+      cancelled.set(0);
+    }
+  }
+
+  private static <K> int purge(ArrayDeque<Timer<K>> timers) {
+    int size = timers.size();
+    timers.removeIf(Timer::isCancelled);
+    return size - timers.size();
+  }
+
+  private void cascade(long tick) {
+    for (int level = LEVELS - 1; level > 0; level--) {
+      int shift = level * SLOT_BITS;
+      if ((tick & ((1L << shift) - 1)) == 0) {
+        ArrayDeque<Timer<K>> slot = slot(level, (int) (tick >>> shift) & (SLOTS - 1));
+        List<Timer<K>> timers = new ArrayList<>(slot);
+        slot.clear();
+        for (Timer<K> timer : timers) {
+          insert(timer);
+        }
+      }
+    }
+    ArrayDeque<Timer<K>> slot = slot(0, (int) tick & (SLOTS - 1));
+    backlog.addAll(slot);
+    slot.clear();
+  }
+
+  private void insert(Timer<K> timer) {
+    // rounded up, so that a timer is never due before its expiration time
+    long expirationTick = timer.expirationTime / tickMillis + (timer.expirationTime % tickMillis == 0 ? 0 : 1);
+    long delta = expirationTick - currentTick;
+    if (delta <= 0) {
+      backlog.add(timer);
+      return;
+    }
+    int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(delta)) / SLOT_BITS;
+    if (level >= LEVELS) {
+      // beyond the wheel horizon: parked in the farthest slot, and re-inserted when it cascades
+      level = LEVELS - 1;
+      expirationTick = currentTick + ((long) (SLOTS - 1) << (level * SLOT_BITS));
+    }
+    slot(level, (int) (expirationTick >>> (level * SLOT_BITS)) & (SLOTS - 1)).add(timer);
+  }
+
+  private ArrayDeque<Timer<K>> slot(int level, int index) {
+    return slots.get(level * SLOTS + index);
+  }
+
+  static final class Timer<K> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Timer, Object> KEY_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(Timer.class, Object.class, "key");
+
+    private volatile Object key;
+    private volatile long expirationTime;
+
+    Timer(K key, long expirationTime) {
+      this.key = key;
+      this.expirationTime = expirationTime;
+    }
+
+    @SuppressWarnings("unchecked")
+    K getKey() {
+      return (K) key;
+    }
+
+    long getExpirationTime() {
+      return expirationTime;
+    }
+
+    boolean isCancelled() {
+      return key == null;
+    }
+
+    private boolean cancel() {
+      return KEY_UPDATER.getAndSet(this, null) != null;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.heap;
+
+/**
+ * A count-min sketch estimating how often keys were accessed, in a bounded amount of memory.
+ * <p>
+ * Each key is mapped to four 4-bit counters, packed sixteen to a {@code long}; its frequency is the minimum of these.
+ * All counters are halved once the number of increments reaches ten times the table size, so that the estimates favor
+ * recent history.
+ * <p>
+ * Updates are not atomic: concurrent increments may get lost, which only makes the estimates slightly more approximate.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MAXIMUM_TABLE_SIZE = 1 << 24;
+
+  private final long[] table;
+  private final int sampleSize;
+  private int size;
+
+  /**
+   * Creates a sketch sized for the given number of keys. The sketch never grows: more keys only make its estimates
+   * more approximate.
+   *
+   * @param maximumSize the expected maximum number of keys
+   */
+  FrequencySketch(long maximumSize) {
+    int maximum = (int) Math.min(Math.max(maximumSize, 1L), MAXIMUM_TABLE_SIZE);
+    int tableSize = Math.max(Integer.highestOneBit(maximum - 1) << 1, 1);
+    this.sampleSize = 10 * tableSize;
+    this.table = new long[tableSize];
+  }
+
+  /**
+   * Returns the estimated number of accesses to the key of the given hash, at most 15.
+   *
+   * @param hashCode the key hash
+   * @return the estimated frequency
+   */
+  int frequency(int hashCode) {
+    long[] counters = table;
+    int hash = spread(hashCode);
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(counters, hash, i);
+      int count = (int) ((counters[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records an access to the key of the given hash.
+   *
+   * @param hashCode the key hash
+   */
+  void increment(int hashCode) {
+    long[] counters = table;
+    int hash = spread(hashCode);
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(counters, indexOf(counters, hash, i), start + i);
+    }
+    if (added && ++size >= sampleSize) {
+      reset(counters);
+    }
+  }
+
+  private static boolean incrementAt(long[] counters, int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((counters[index] & mask) != mask) {
+      counters[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset(long[] counters) {
+    int odd = 0;
+    for (int i = 0; i < counters.length; i++) {
+      odd += Long.bitCount(counters[i] & ONE_MASK);
+      counters[i] = (counters[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (odd >>> 2);
+  }
+
+  private static int indexOf(long[] counters, int hash, int depth) {
+    long h = (hash + SEEDS[depth]) * SEEDS[depth];
+    h += h >>> 32;
+    return ((int) h) & (counters.length - 1);
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
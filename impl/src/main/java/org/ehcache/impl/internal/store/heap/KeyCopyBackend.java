@@ -23,6 +23,7 @@ import org.ehcache.impl.internal.store.heap.holders.CopiedOnHeapKey;
 import org.ehcache.impl.internal.store.heap.holders.LookupOnlyOnHeapKey;
 import org.ehcache.impl.internal.store.heap.holders.OnHeapKey;
 import org.ehcache.impl.internal.store.heap.holders.OnHeapValueHolder;
+import org.ehcache.impl.internal.store.heap.holders.ReusableLookupOnHeapKey;
 import org.ehcache.spi.copy.Copier;
 
 import java.util.AbstractMap;
@@ -46,6 +47,7 @@ class KeyCopyBackend<K, V> implements Backend<K, V> {
   private final boolean byteSized;
   private final Copier<K> keyCopier;
   private final AtomicLong byteSize = new AtomicLong(0L);
+  private final ThreadLocal<ReusableLookupOnHeapKey<K>> getKey = ThreadLocal.withInitial(ReusableLookupOnHeapKey::new);
 
   KeyCopyBackend(boolean byteSized, Copier<K> keyCopier) {
     this.byteSized = byteSized;
@@ -190,7 +192,17 @@ class KeyCopyBackend<K, V> implements Backend<K, V> {
 
   @Override
   public OnHeapValueHolder<V> get(K key) {
-    return keyCopyMap.get(lookupOnlyKey(key));
+    // gets are the hot path, they reuse a per thread lookup key rather than allocating one
+    ReusableLookupOnHeapKey<K> lookupKey = getKey.get();
+    if (lookupKey.isInUse()) {
+      // a key's equals or hashCode is reading from this store
+      return keyCopyMap.get(lookupOnlyKey(key));
+    }
+    try {
+      return keyCopyMap.get(lookupKey.lookup(key));
+    } finally {
+      lookupKey.release();
+    }
   }
 
   @Override
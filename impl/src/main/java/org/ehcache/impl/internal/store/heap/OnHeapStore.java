@@ -31,6 +31,9 @@ import org.ehcache.core.spi.store.StoreAccessException;
 import org.ehcache.core.spi.store.heap.LimitExceededException;
 import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.store.heap.OnHeapExpiryReaperConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration.EvictionPolicy;
 import org.ehcache.impl.copy.IdentityCopier;
 import org.ehcache.impl.internal.concurrent.ConcurrentHashMap;
 import org.ehcache.impl.copy.SerializingCopier;
@@ -55,6 +58,7 @@ import org.ehcache.core.spi.store.tiering.HigherCachingTier;
 import org.ehcache.impl.internal.store.BinaryValueHolder;
 import org.ehcache.spi.copy.Copier;
 import org.ehcache.spi.copy.CopyProvider;
+import org.ehcache.core.spi.service.ExecutionService;
 import org.ehcache.spi.service.Service;
 import org.ehcache.spi.service.ServiceConfiguration;
 import org.ehcache.spi.service.ServiceDependencies;
@@ -72,6 +76,7 @@ import org.terracotta.statistics.MappedOperationStatistic;
 import org.terracotta.statistics.StatisticsManager;
 import org.terracotta.statistics.observer.OperationObserver;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -85,6 +90,7 @@ import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -94,6 +100,8 @@ import java.util.function.Supplier;
 
 import static org.ehcache.config.Eviction.noAdvice;
 import static org.ehcache.core.exceptions.StorePassThroughException.handleRuntimeException;
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
+import static org.ehcache.impl.internal.executor.ExecutorUtil.shutdown;
 import static org.ehcache.core.internal.util.ValueSuppliers.supplierOf;
 import static org.terracotta.statistics.StatisticBuilder.operation;
 
@@ -141,6 +149,8 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
   };
 
   static final int SAMPLE_SIZE = 8;
+  // average mapping size assumed when sizing the Window TinyLFU frequency sketch of byte sized stores
+  private static final long ESTIMATED_MAPPING_SIZE = 512;
   private volatile Backend<K, V> map;
 
   private final Class<K> keyType;
@@ -155,8 +165,12 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
   private final Expiry<? super K, ? super V> expiry;
   private final TimeSource timeSource;
   private final StoreEventDispatcher<K, V> storeEventDispatcher;
+  private final WindowTinyLfu<K> tinyLfu;
   @SuppressWarnings("unchecked")
   private volatile InvalidationListener<K, V> invalidationListener = (InvalidationListener<K, V>) NULL_INVALIDATION_LISTENER;
+  private volatile ExpiryTimerWheel<K> expiryTimerWheel;
+  private volatile ScheduledExecutorService reaperExecutor;
+  private volatile int maxExpirationsPerRun;
 
   private CacheConfigurationChangeListener cacheConfigurationChangeListener = new CacheConfigurationChangeListener() {
     @Override
@@ -201,6 +215,11 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
   private static final Supplier<Boolean> REPLACE_EQUALS_TRUE = () -> Boolean.TRUE;
 
   public OnHeapStore(final Configuration<K, V> config, final TimeSource timeSource, Copier<K> keyCopier, Copier<V> valueCopier, SizeOfEngine sizeOfEngine, StoreEventDispatcher<K, V> eventDispatcher) {
+    this(config, timeSource, keyCopier, valueCopier, sizeOfEngine, eventDispatcher, OnHeapStoreConfiguration.DEFAULT_EVICTION_POLICY);
+  }
+
+  public OnHeapStore(final Configuration<K, V> config, final TimeSource timeSource, Copier<K> keyCopier, Copier<V> valueCopier, SizeOfEngine sizeOfEngine,
+                     StoreEventDispatcher<K, V> eventDispatcher, EvictionPolicy evictionPolicy) {
     if (keyCopier == null) {
       throw new NullPointerException("keyCopier must not be null");
     }
@@ -217,6 +236,9 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     if (sizeOfEngine == null) {
       throw new NullPointerException("sizeOfEngine must not be null");
     }
+    if (evictionPolicy == null) {
+      throw new NullPointerException("evictionPolicy must not be null");
+    }
     this.sizeOfEngine = sizeOfEngine;
     this.byteSized = this.sizeOfEngine instanceof NoopSizeOfEngine ? false : true;
     this.capacity = byteSized ? ((MemoryUnit) heapPool.getUnit()).toBytes(heapPool.getSize()) : heapPool.getSize();
@@ -231,7 +253,15 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     this.expiry = config.getExpiry();
     this.valueCopier = valueCopier;
     this.storeEventDispatcher = eventDispatcher;
-    if (keyCopier instanceof IdentityCopier) {
+    if (evictionPolicy == EvictionPolicy.WINDOW_TINY_LFU) {
+      // byte sized stores can't tell how many mappings they will hold, their sketch is sized from an estimate
+      this.tinyLfu = new WindowTinyLfu<>(byteSized ? capacity / ESTIMATED_MAPPING_SIZE : capacity);
+    } else {
+      this.tinyLfu = null;
+    }
+    if (keyCopier instanceof IdentityCopier && PrimitiveKeyBackend.supports(keyType)) {
+      this.map = PrimitiveKeyBackend.create(keyType, byteSized);
+    } else if (keyCopier instanceof IdentityCopier) {
       this.map = new SimpleBackend<>(byteSized);
     } else {
       this.map = new KeyCopyBackend<>(byteSized, keyCopier);
@@ -277,8 +307,12 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
 
   private OnHeapValueHolder<V> internalGet(final K key, final boolean updateAccess) throws StoreAccessException {
     getObserver.begin();
+    if (updateAccess) {
+      recordAccess(key);
+    }
     try {
-      OnHeapValueHolder<V> mapping = getQuiet(key);
+      long now = timeSource.getTimeMillis();
+      OnHeapValueHolder<V> mapping = getQuiet(key, now);
 
       if (mapping == null) {
         getObserver.end(StoreOperationOutcomes.GetOutcome.MISS);
@@ -286,7 +320,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
       }
 
       if (updateAccess) {
-        setAccessTimeAndExpiryThenReturnMappingOutsideLock(key, mapping, timeSource.getTimeMillis());
+        setAccessTimeAndExpiryThenReturnMappingOutsideLock(key, mapping, now);
       }
       getObserver.end(StoreOperationOutcomes.GetOutcome.HIT);
       return mapping;
@@ -297,13 +331,17 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
   }
 
   private OnHeapValueHolder<V> getQuiet(final K key) throws StoreAccessException {
+    return getQuiet(key, timeSource.getTimeMillis());
+  }
+
+  private OnHeapValueHolder<V> getQuiet(final K key, final long now) throws StoreAccessException {
     try {
       OnHeapValueHolder<V> mapping = map.get(key);
       if (mapping == null) {
         return null;
       }
 
-      if (mapping.isExpired(timeSource.getTimeMillis(), TimeUnit.MILLISECONDS)) {
+      if (mapping.isExpired(now, TimeUnit.MILLISECONDS)) {
         expireMappingUnderLock(key, mapping);
         return null;
       }
@@ -391,6 +429,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
 
       map.computeIfPresent(key, (mappedKey, mappedValue) -> {
         updateUsageInBytesIfRequired(- mappedValue.size());
+        cancelExpiry(mappedValue);
         if (mappedValue.isExpired(now, TimeUnit.MILLISECONDS)) {
           fireOnExpirationEvent(mappedKey, mappedValue, eventSink);
           return null;
@@ -496,6 +535,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
           return null;
         } else if (value.equals(mappedValue.value())) {
           updateUsageInBytesIfRequired(- mappedValue.size());
+          cancelExpiry(mappedValue);
           eventSink.removed(mappedKey, mappedValue);
           outcome.set(RemoveStatus.REMOVED);
           return null;
@@ -635,6 +675,11 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
 
   @Override
   public void clear() {
+    ExpiryTimerWheel<K> wheel = expiryTimerWheel;
+    if (wheel != null) {
+      // swapped first, so that no mapping of the new backend ends up indexed by the discarded wheel
+      expiryTimerWheel = new ExpiryTimerWheel<>(wheel.getTickMillis());
+    }
     this.map = map.clear();
   }
 
@@ -671,6 +716,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
   public ValueHolder<V> getOrComputeIfAbsent(final K key, final Function<K, ValueHolder<V>> source) throws StoreAccessException {
     try {
       getOrComputeIfAbsentObserver.begin();
+      recordAccess(key);
       Backend<K, V> backEnd = map;
 
       // First try to find the value from heap
@@ -735,13 +781,19 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
 
       if (backEnd.replace(key, fault, newValue)) {
         getOrComputeIfAbsentObserver.end(CachingTierOperationOutcomes.GetOrComputeIfAbsentOutcome.FAULTED);
+        recordAdmission(key);
         updateUsageInBytesIfRequired(newValue.size());
         enforceCapacity();
         return newValue;
       }
 
+      // The fault got invalidated while in flight. A fault installed since then is a fresher fetch other threads are
+      // already waiting on: it is left in place so that they keep sharing it instead of each faulting again.
       final AtomicReference<ValueHolder<V>> invalidatedValue = new AtomicReference<>();
       backEnd.computeIfPresent(key, (mappedKey, mappedValue) -> {
+        if (mappedValue instanceof Fault) {
+          return mappedValue;
+        }
         notifyInvalidation(key, mappedValue);
         invalidatedValue.set(mappedValue);
         updateUsageInBytesIfRequired(mappedValue.size());
@@ -795,6 +847,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
           outcome.set(CachingTierOperationOutcomes.InvalidateOutcome.REMOVED);
         }
         updateUsageInBytesIfRequired(- present.size());
+        cancelExpiry(present);
         return null;
       });
       invalidateObserver.end(outcome.get());
@@ -816,6 +869,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
         OnHeapValueHolder<V> holderToPass = null;
         if (mappedValue != null) {
           size = mappedValue.size();
+          cancelExpiry(mappedValue);
           if (!(mappedValue instanceof Fault)) {
             holderToPass = mappedValue;
             outcome.set(HigherCachingTierOperationOutcomes.SilentInvalidateOutcome.REMOVED);
@@ -887,7 +941,10 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     int intHash = HashUtils.longHashToInt(hash);
     Map<K, OnHeapValueHolder<V>> removed = map.removeAllWithHash(intHash);
     for (Entry<K, OnHeapValueHolder<V>> entry : removed.entrySet()) {
-      biFunction.apply(entry.getKey(), entry.getValue());
+      OnHeapValueHolder<V> mappedValue = entry.getValue();
+      cancelExpiry(mappedValue);
+      // an in flight fault is dropped, its value must not leak to the lower tiers
+      biFunction.apply(entry.getKey(), mappedValue instanceof Fault ? null : mappedValue);
     }
     silentInvalidateAllWithHashObserver.end(HigherCachingTierOperationOutcomes.SilentInvalidateAllWithHashOutcome.SUCCESS);
   }
@@ -914,6 +971,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     int intHash = HashUtils.longHashToInt(hash);
     Map<K, OnHeapValueHolder<V>> removed = map.removeAllWithHash(intHash);
     for (Entry<K, OnHeapValueHolder<V>> entry : removed.entrySet()) {
+      cancelExpiry(entry.getValue());
       notifyInvalidation(entry.getKey(), entry.getValue());
     }
     LOG.debug("CLIENT: onheap store removed all with hash {}", intHash);
@@ -1091,6 +1149,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
             eventSink.removed(mappedKey, mappedValue);
             outcome.set(StoreOperationOutcomes.ComputeOutcome.REMOVED);
             updateUsageInBytesIfRequired(- mappedValue.size());
+            cancelExpiry(mappedValue);
           }
           return null;
         } else if ((eq(existingValue, computedValue)) && (!replaceEqual.get())) {
@@ -1313,6 +1372,72 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     return valueHolder;
   }
 
+  /**
+   * Starts reclaiming expired mappings in the background, every {@code interval}, examining at most
+   * {@code maxExpirationsPerRun} mappings per run.
+   * <p>
+   * Only mappings installed from then on are indexed, the others still expire when accessed.
+   */
+  void startExpiryReaping(ScheduledExecutorService executor, long interval, TimeUnit unit, int maxExpirationsPerRun) {
+    long tick = unit.toMillis(interval);
+    this.maxExpirationsPerRun = maxExpirationsPerRun;
+    this.expiryTimerWheel = new ExpiryTimerWheel<>(tick);
+    executor.scheduleWithFixedDelay(this::reapExpired, tick, tick, TimeUnit.MILLISECONDS);
+    this.reaperExecutor = executor;
+  }
+
+  void stopExpiryReaping() {
+    ScheduledExecutorService executor = reaperExecutor;
+    if (executor != null) {
+      reaperExecutor = null;
+      expiryTimerWheel = null;
+      shutdown(executor);
+    }
+  }
+
+  /**
+   * Removes the mappings whose expiration time was reached, as far as the timer wheel knows of them.
+   * <p>
+   * A timer is only acted upon if the mapping currently installed still holds it: one whose mapping was since removed
+   * or replaced by a mapping with its own timer is dropped, and one whose mapping had its expiration pushed back, on
+   * access or by a replacing mapping it was handed over to, is rescheduled.
+   */
+  void reapExpired() {
+    ExpiryTimerWheel<K> wheel = expiryTimerWheel;
+    if (wheel == null) {
+      return;
+    }
+    long now = timeSource.getTimeMillis();
+    wheel.advance(now, maxExpirationsPerRun, timer -> {
+      K key = timer.getKey();
+      if (key == null) {
+        return;
+      }
+      try {
+        OnHeapValueHolder<V> mapping = map.get(key);
+        if (mapping == null || mapping.getExpiryTimer() != timer) {
+          return;
+        }
+        if (mapping.isExpired(now, OnHeapValueHolder.TIME_UNIT)) {
+          expireMappingUnderLock(key, mapping);
+          // a replacing mapping may have been handed the timer meanwhile
+          mapping = map.get(key);
+          if (mapping == null || mapping.getExpiryTimer() != timer) {
+            return;
+          }
+        }
+        long expirationTime = mapping.expirationTime(OnHeapValueHolder.TIME_UNIT);
+        if (expirationTime != ValueHolder.NO_EXPIRE && expirationTime != Long.MAX_VALUE) {
+          wheel.reschedule(timer, expirationTime);
+        } else {
+          mapping.setExpiryTimer(null);
+        }
+      } catch (RuntimeException re) {
+        LOG.warn("Failed to reclaim expired mapping for key {}", key, re);
+      }
+    });
+  }
+
   private void expireMappingUnderLock(final K key, final ValueHolder<V> value) {
 
     final StoreEventSink<K, V> eventSink = storeEventDispatcher.eventSink();
@@ -1366,6 +1491,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     OnHeapValueHolder<V> holder = null;
     try {
       holder = makeValue(key, newValue, now, expirationTime, this.valueCopier);
+      recordAccess(key);
       eventSink.updated(key, oldValue, newValue);
     } catch (LimitExceededException e) {
       LOG.warn(e.getMessage());
@@ -1395,6 +1521,8 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     OnHeapValueHolder<V> holder = null;
     try {
       holder = makeValue(key, value, now, expirationTime, this.valueCopier);
+      recordAccess(key);
+      recordAdmission(key);
       eventSink.created(key, value);
     } catch (LimitExceededException e) {
       LOG.warn(e.getMessage());
@@ -1444,6 +1572,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     if (sizingEnabled) {
       clonedValueHolder.setSize(getSizeOfKeyValuePairs(key, clonedValueHolder));
     }
+    scheduleExpiry(key, clonedValueHolder);
     return clonedValueHolder;
   }
 
@@ -1463,9 +1592,52 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     if (size) {
       valueHolder.setSize(getSizeOfKeyValuePairs(key, valueHolder));
     }
+    scheduleExpiry(key, valueHolder);
     return valueHolder;
   }
 
+  /**
+   * Indexes the expiration of a mapping about to replace the one currently installed for the key, if any. The timer of
+   * the replaced mapping is handed over when it fires no later than the new expiration, it will then be rescheduled,
+   * and is cancelled otherwise: a key keeps a single timer however often it is updated.
+   */
+  private void scheduleExpiry(K key, OnHeapValueHolder<V> valueHolder) {
+    ExpiryTimerWheel<K> wheel = expiryTimerWheel;
+    if (wheel != null) {
+      long expirationTime = valueHolder.expirationTime(OnHeapValueHolder.TIME_UNIT);
+      boolean expires = expirationTime != ValueHolder.NO_EXPIRE && expirationTime != Long.MAX_VALUE;
+      ExpiryTimerWheel.Timer<K> replaced = expiryTimer(map.get(key));
+      if (replaced != null) {
+        if (expires && !replaced.isCancelled() && replaced.getExpirationTime() <= expirationTime) {
+          valueHolder.setExpiryTimer(replaced);
+          return;
+        }
+        wheel.cancel(replaced);
+      }
+      if (expires) {
+        valueHolder.setExpiryTimer(wheel.schedule(key, expirationTime));
+      }
+    }
+  }
+
+  private void cancelExpiry(OnHeapValueHolder<V> valueHolder) {
+    ExpiryTimerWheel<K> wheel = expiryTimerWheel;
+    ExpiryTimerWheel.Timer<K> timer = expiryTimer(valueHolder);
+    if (wheel != null && timer != null) {
+      wheel.cancel(timer);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> ExpiryTimerWheel.Timer<K> expiryTimer(OnHeapValueHolder<?> valueHolder) {
+    return valueHolder == null ? null : (ExpiryTimerWheel.Timer<K>) valueHolder.getExpiryTimer();
+  }
+
+  int pendingExpiryTimers() {
+    ExpiryTimerWheel<K> wheel = expiryTimerWheel;
+    return wheel == null ? 0 : wheel.size();
+  }
+
   private boolean checkEvictionAdvice(K key, V value) {
     try {
       return evictionAdvisor.adviseAgainstEviction(key, value);
@@ -1532,6 +1704,10 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
       candidate = map.getEvictionCandidate(random, SAMPLE_SIZE, EVICTION_PRIORITIZER, noAdvice());
     }
 
+    if (tinyLfu != null) {
+      candidate = applyAdmissionPolicy(candidate);
+    }
+
     if (candidate == null) {
       return false;
     } else {
@@ -1545,6 +1721,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
             invalidationListener.onInvalidation(mappedKey, evictionCandidate.getValue());
           }
           updateUsageInBytesIfRequired(-mappedValue.size());
+          cancelExpiry(mappedValue);
           return null;
         }
         return mappedValue;
@@ -1559,6 +1736,37 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     }
   }
 
+  /**
+   * Window TinyLFU: the oldest key of an overflowing admission window is evicted in place of the sampled victim, unless
+   * it was accessed more often. Keys advised against eviction never lose that competition.
+   */
+  private Map.Entry<K, OnHeapValueHolder<V>> applyAdmissionPolicy(Map.Entry<K, OnHeapValueHolder<V>> victim) {
+    K candidateKey = tinyLfu.pollAdmissionCandidate(map.mappingCount());
+    if (candidateKey == null) {
+      return victim;
+    }
+    OnHeapValueHolder<V> candidateValue = map.get(candidateKey);
+    if (candidateValue == null || candidateValue.evictionAdvice()) {
+      return victim;
+    }
+    if (victim == null || !tinyLfu.admit(candidateKey, victim.getKey())) {
+      return new AbstractMap.SimpleImmutableEntry<>(candidateKey, candidateValue);
+    }
+    return victim;
+  }
+
+  private void recordAccess(K key) {
+    if (tinyLfu != null) {
+      tinyLfu.recordAccess(key);
+    }
+  }
+
+  private void recordAdmission(K key) {
+    if (tinyLfu != null) {
+      tinyLfu.recordAdmission(key, map.mappingCount());
+    }
+  }
+
   private void checkKey(K keyObject) {
     if (keyObject == null) {
       throw new NullPointerException();
@@ -1588,7 +1796,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     return (o1 == o2) || (o1 != null && o1.equals(o2));
   }
 
-  @ServiceDependencies({TimeSourceService.class, CopyProvider.class, SizeOfEngineProvider.class})
+  @ServiceDependencies({TimeSourceService.class, CopyProvider.class, SizeOfEngineProvider.class, ExecutionService.class})
   public static class Provider implements Store.Provider, CachingTier.Provider, HigherCachingTier.Provider {
 
     private volatile ServiceProvider<Service> serviceProvider;
@@ -1640,7 +1848,15 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
       SizeOfEngineProvider sizeOfEngineProvider = serviceProvider.getService(SizeOfEngineProvider.class);
       SizeOfEngine sizeOfEngine = sizeOfEngineProvider.createSizeOfEngine(
           storeConfig.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getUnit(), serviceConfigs);
-      OnHeapStore<K, V> onHeapStore = new OnHeapStore<>(storeConfig, timeSource, keyCopier, valueCopier, sizeOfEngine, eventDispatcher);
+      OnHeapStoreConfiguration onHeapStoreConfig = findSingletonAmongst(OnHeapStoreConfiguration.class, (Object[]) serviceConfigs);
+      EvictionPolicy evictionPolicy = onHeapStoreConfig == null ? OnHeapStoreConfiguration.DEFAULT_EVICTION_POLICY : onHeapStoreConfig.getEvictionPolicy();
+      OnHeapStore<K, V> onHeapStore = new OnHeapStore<>(storeConfig, timeSource, keyCopier, valueCopier, sizeOfEngine, eventDispatcher, evictionPolicy);
+      OnHeapExpiryReaperConfiguration reaperConfig = findSingletonAmongst(OnHeapExpiryReaperConfiguration.class, (Object[]) serviceConfigs);
+      if (reaperConfig != null) {
+        ExecutionService executionService = serviceProvider.getService(ExecutionService.class);
+        onHeapStore.startExpiryReaping(executionService.getScheduledExecutor(reaperConfig.getThreadPoolAlias()),
+            reaperConfig.getInterval(), reaperConfig.getUnit(), reaperConfig.getMaxExpirationsPerRun());
+      }
       createdStores.put(onHeapStore, copiers);
       return onHeapStore;
     }
@@ -1667,6 +1883,7 @@ public class OnHeapStore<K, V> implements Store<K,V>, HigherCachingTier<K, V> {
     }
 
     static void close(final OnHeapStore onHeapStore) {
+      onHeapStore.stopExpiryReaping();
       onHeapStore.clear();
     }
 
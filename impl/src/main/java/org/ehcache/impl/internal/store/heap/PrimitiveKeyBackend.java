@@ -0,0 +1,641 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.heap;
+
+import org.ehcache.config.EvictionAdvisor;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.impl.internal.store.heap.holders.OnHeapValueHolder;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+/**
+ * Backend for {@code Long} and {@code Integer} keys, storing them unboxed in open addressing tables.
+ * <p>
+ * Mappings are spread over segments. Updates to a segment are serialized by its reentrant update lock, held across
+ * mapping functions so that these can still access the backend. Its {@link StampedLock} is only write locked around
+ * the table mutations themselves: gets are optimistic reads, which a mapping function being run never invalidates.
+ */
+class PrimitiveKeyBackend<K, V> implements Backend<K, V> {
+
+  private static final int SEGMENT_SHIFT = 28;
+  private static final int SEGMENT_COUNT = 1 << (32 - SEGMENT_SHIFT);
+  private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+  /**
+   * Marks slots whose mapping was removed, so that probing goes on past them.
+   */
+  private static final Object TOMBSTONE = new Object();
+
+  private final Keys<K> keys;
+  private final boolean byteSized;
+  private final AtomicLong byteSize = new AtomicLong(0L);
+  private final Segment[] segments;
+
+  /**
+   * Tells whether keys of the given type can be stored by this backend.
+   *
+   * @param keyType the key type
+   * @return {@code true} for {@code Long} and {@code Integer} keys
+   */
+  static boolean supports(Class<?> keyType) {
+    return keyType == Long.class || keyType == Integer.class;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K, V> PrimitiveKeyBackend<K, V> create(Class<K> keyType, boolean byteSized) {
+    if (keyType == Long.class) {
+      return new PrimitiveKeyBackend<>((Keys<K>) LONG_KEYS, byteSized);
+    } else if (keyType == Integer.class) {
+      return new PrimitiveKeyBackend<>((Keys<K>) INTEGER_KEYS, byteSized);
+    } else {
+      throw new IllegalArgumentException("Unsupported key type " + keyType.getName());
+    }
+  }
+
+  private PrimitiveKeyBackend(Keys<K> keys, boolean byteSized) {
+    this.keys = keys;
+    this.byteSized = byteSized;
+    this.segments = new Segment[SEGMENT_COUNT];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new Segment(keys);
+    }
+  }
+
+  @Override
+  public OnHeapValueHolder<V> get(K key) {
+    long primitive = keys.unbox(key);
+    int hash = spread(keys.hashCode(primitive));
+    return cast(segmentFor(hash).get(primitive, hash));
+  }
+
+  @Override
+  public OnHeapValueHolder<V> putIfAbsent(K key, OnHeapValueHolder<V> value) {
+    long primitive = keys.unbox(key);
+    int hash = spread(keys.hashCode(primitive));
+    Segment segment = segmentFor(hash);
+    segment.lock();
+    try {
+      Object existing = segment.find(primitive, hash);
+      if (existing == null) {
+        segment.store(primitive, hash, value);
+      }
+      return cast(existing);
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  public OnHeapValueHolder<V> remove(K key) {
+    long primitive = keys.unbox(key);
+    int hash = spread(keys.hashCode(primitive));
+    Segment segment = segmentFor(hash);
+    segment.lock();
+    try {
+      return cast(segment.delete(primitive, hash));
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(K key, OnHeapValueHolder<V> value) {
+    long primitive = keys.unbox(key);
+    int hash = spread(keys.hashCode(primitive));
+    Segment segment = segmentFor(hash);
+    segment.lock();
+    try {
+      Object existing = segment.find(primitive, hash);
+      if (existing != null && (existing == value || value.equals(existing))) {
+        segment.delete(primitive, hash);
+        return true;
+      } else {
+        return false;
+      }
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  public boolean replace(K key, OnHeapValueHolder<V> oldValue, OnHeapValueHolder<V> newValue) {
+    long primitive = keys.unbox(key);
+    int hash = spread(keys.hashCode(primitive));
+    Segment segment = segmentFor(hash);
+    segment.lock();
+    try {
+      Object existing = segment.find(primitive, hash);
+      if (existing != null && (existing == oldValue || oldValue.equals(existing))) {
+        segment.store(primitive, hash, newValue);
+        return true;
+      } else {
+        return false;
+      }
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  public OnHeapValueHolder<V> compute(K key, BiFunction<K, OnHeapValueHolder<V>, OnHeapValueHolder<V>> computeFunction) {
+    return compute(key, computeFunction, false);
+  }
+
+  @Override
+  public OnHeapValueHolder<V> computeIfPresent(K key, BiFunction<K, OnHeapValueHolder<V>, OnHeapValueHolder<V>> computeFunction) {
+    return compute(key, computeFunction, true);
+  }
+
+  private OnHeapValueHolder<V> compute(K key, BiFunction<K, OnHeapValueHolder<V>, OnHeapValueHolder<V>> computeFunction, boolean onlyIfPresent) {
+    long primitive = keys.unbox(key);
+    int hash = spread(keys.hashCode(primitive));
+    Segment segment = segmentFor(hash);
+    segment.lock();
+    try {
+      OnHeapValueHolder<V> existing = cast(segment.find(primitive, hash));
+      if (existing == null && onlyIfPresent) {
+        return null;
+      }
+      OnHeapValueHolder<V> computed = computeFunction.apply(key, existing);
+      // the function may have reentrantly updated the segment: store and delete probe again
+      if (computed == null) {
+        segment.delete(primitive, hash);
+      } else {
+        segment.store(primitive, hash, computed);
+      }
+      return computed;
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  public Backend<K, V> clear() {
+    return new PrimitiveKeyBackend<>(keys, byteSized);
+  }
+
+  @Override
+  public Map<K, OnHeapValueHolder<V>> removeAllWithHash(int keyHash) {
+    Map<K, OnHeapValueHolder<V>> removed = new HashMap<>();
+    int hash = spread(keyHash);
+    Segment segment = segmentFor(hash);
+    segment.lock();
+    try {
+      // mappings for keys of that hash all lie in the probe sequence starting at the hash
+      Table table = segment.table;
+      int mask = table.keys.length - 1;
+      for (int i = hash & mask, probes = 0; probes <= mask && table.values[i] != null; i = (i + 1) & mask, probes++) {
+        Object value = table.values[i];
+        long primitive = table.keys[i];
+        if (value != TOMBSTONE && keys.hashCode(primitive) == keyHash) {
+          removed.put(keys.box(primitive), cast(value));
+        }
+      }
+      for (K key : removed.keySet()) {
+        segment.delete(keys.unbox(key), hash);
+      }
+    } finally {
+      segment.unlock();
+    }
+    if (byteSized) {
+      long delta = 0L;
+      for (OnHeapValueHolder<V> value : removed.values()) {
+        delta -= value.size();
+      }
+      updateUsageInBytesIfRequired(delta);
+    }
+    return removed;
+  }
+
+  @Override
+  public Iterable<K> keySet() {
+    return () -> new Iterator<K>() {
+      private final Iterator<Map.Entry<K, OnHeapValueHolder<V>>> entries = entrySetIterator();
+
+      @Override
+      public boolean hasNext() {
+        return entries.hasNext();
+      }
+
+      @Override
+      public K next() {
+        return entries.next().getKey();
+      }
+    };
+  }
+
+  /**
+   * Returns a weakly consistent iterator, copying the mappings of one segment at a time.
+   */
+  @Override
+  public Iterator<Map.Entry<K, OnHeapValueHolder<V>>> entrySetIterator() {
+    return new Iterator<Map.Entry<K, OnHeapValueHolder<V>>>() {
+      private int nextSegment = 0;
+      private Iterator<Map.Entry<K, OnHeapValueHolder<V>>> current = advance();
+
+      private Iterator<Map.Entry<K, OnHeapValueHolder<V>>> advance() {
+        while (nextSegment < segments.length) {
+          List<Map.Entry<K, OnHeapValueHolder<V>>> snapshot = snapshot(segments[nextSegment++]);
+          if (!snapshot.isEmpty()) {
+            return snapshot.iterator();
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return current != null;
+      }
+
+      @Override
+      public Map.Entry<K, OnHeapValueHolder<V>> next() {
+        if (current == null) {
+          throw new NoSuchElementException();
+        }
+        Map.Entry<K, OnHeapValueHolder<V>> next = current.next();
+        if (!current.hasNext()) {
+          current = advance();
+        }
+        return next;
+      }
+    };
+  }
+
+  private List<Map.Entry<K, OnHeapValueHolder<V>>> snapshot(Segment segment) {
+    List<Map.Entry<K, OnHeapValueHolder<V>>> snapshot = new ArrayList<>();
+    long stamp = segment.readLock();
+    try {
+      Table table = segment.table;
+      for (int i = 0; i < table.values.length; i++) {
+        Object value = table.values[i];
+        if (value != null && value != TOMBSTONE) {
+          snapshot.add(new AbstractMap.SimpleImmutableEntry<>(keys.box(table.keys[i]), cast(value)));
+        }
+      }
+    } finally {
+      segment.unlockRead(stamp);
+    }
+    return snapshot;
+  }
+
+  @Override
+  public long mappingCount() {
+    long count = 0L;
+    for (Segment segment : segments) {
+      count += segment.size;
+    }
+    return count;
+  }
+
+  @Override
+  public long byteSize() {
+    if (byteSized) {
+      return byteSize.get();
+    } else {
+      throw new IllegalStateException("This store is not byte sized");
+    }
+  }
+
+  @Override
+  public long naturalSize() {
+    if (byteSized) {
+      return byteSize.get();
+    } else {
+      return mappingCount();
+    }
+  }
+
+  @Override
+  public void updateUsageInBytesIfRequired(long delta) {
+    if (byteSized) {
+      byteSize.addAndGet(delta);
+    }
+  }
+
+  /**
+   * Samples {@code size} mappings not advised against eviction, starting from a random slot, and returns the one
+   * ranking highest with the prioritizer.
+   */
+  @Override
+  public Map.Entry<K, OnHeapValueHolder<V>> getEvictionCandidate(Random random, int size, Comparator<? super Store.ValueHolder<V>> prioritizer, EvictionAdvisor<Object, ? super OnHeapValueHolder<?>> evictionAdvisor) {
+    if (size == 0) {
+      return null;
+    }
+    int start = random.nextInt(segments.length);
+    int startSlot = random.nextInt(Integer.MAX_VALUE);
+
+    K maxKey = null;
+    OnHeapValueHolder<V> maxValue = null;
+    int remaining = size;
+    for (int s = 0; s < segments.length && remaining > 0; s++) {
+      Segment segment = segments[(start + s) & (segments.length - 1)];
+      long stamp = segment.readLock();
+      try {
+        Table table = segment.table;
+        int mask = table.values.length - 1;
+        for (int i = 0, slot = startSlot & mask; i <= mask && remaining > 0; i++, slot = (slot + 1) & mask) {
+          Object value = table.values[slot];
+          if (value != null && value != TOMBSTONE) {
+            K key = keys.box(table.keys[slot]);
+            OnHeapValueHolder<V> valueHolder = cast(value);
+            if (!evictionAdvisor.adviseAgainstEviction(key, valueHolder)) {
+              if (maxKey == null || prioritizer.compare(valueHolder, maxValue) > 0) {
+                maxKey = key;
+                maxValue = valueHolder;
+              }
+              remaining--;
+            }
+          }
+        }
+      } finally {
+        segment.unlockRead(stamp);
+      }
+    }
+
+    if (maxKey == null) {
+      return null;
+    } else {
+      return new AbstractMap.SimpleImmutableEntry<>(maxKey, maxValue);
+    }
+  }
+
+  private Segment segmentFor(int hash) {
+    return segments[hash >>> SEGMENT_SHIFT];
+  }
+
+  @SuppressWarnings("unchecked")
+  private OnHeapValueHolder<V> cast(Object value) {
+    return (OnHeapValueHolder<V>) value;
+  }
+
+  /**
+   * Murmur3 finalizer: consecutive ids would otherwise share their segment and cluster in their table.
+   */
+  private static int spread(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  private static final class Table {
+
+    private final long[] keys;
+    private final Object[] values;
+
+    Table(int capacity) {
+      this.keys = new long[capacity];
+      this.values = new Object[capacity];
+    }
+  }
+
+  private static final class Segment {
+
+    private final ReentrantLock updates = new ReentrantLock();
+    private final StampedLock lock = new StampedLock();
+    private final Keys<?> hashCodes;
+
+    private Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+    private volatile int size;
+    // live and removed slots
+    private int used;
+
+    Segment(Keys<?> hashCodes) {
+      this.hashCodes = hashCodes;
+    }
+
+    Object get(long key, int hash) {
+      if (updates.isHeldByCurrentThread()) {
+        // no other thread can be mutating the table
+        return find(key, hash);
+      }
+      long optimisticStamp = lock.tryOptimisticRead();
+      if (optimisticStamp != 0L) {
+        Object value = find(key, hash);
+        if (lock.validate(optimisticStamp)) {
+          return value;
+        }
+      }
+      long readStamp = lock.readLock();
+      try {
+        return find(key, hash);
+      } finally {
+        lock.unlockRead(readStamp);
+      }
+    }
+
+    long readLock() {
+      return lock.readLock();
+    }
+
+    void unlockRead(long readStamp) {
+      lock.unlockRead(readStamp);
+    }
+
+    void lock() {
+      updates.lock();
+    }
+
+    void unlock() {
+      updates.unlock();
+    }
+
+    /**
+     * Looks a key up, this method can run concurrently with updates when reading optimistically: it must neither
+     * loop forever nor fail on inconsistent state.
+     */
+    Object find(long key, int hash) {
+      Table t = table;
+      long[] keys = t.keys;
+      Object[] values = t.values;
+      int mask = values.length - 1;
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Object value = values[i];
+        if (value == null) {
+          return null;
+        } else if (value != TOMBSTONE && keys[i] == key) {
+          return value;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Maps the key to the given value, the update lock must be held.
+     */
+    void store(long key, int hash, Object value) {
+      long stamp = lock.writeLock();
+      try {
+        doStore(key, hash, value);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    private void doStore(long key, int hash, Object value) {
+      Table t = table;
+      int mask = t.values.length - 1;
+      int free = -1;
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Object existing = t.values[i];
+        if (existing == null) {
+          if (free < 0) {
+            free = i;
+            used++;
+          }
+          break;
+        } else if (existing == TOMBSTONE) {
+          if (free < 0) {
+            free = i;
+          }
+        } else if (t.keys[i] == key) {
+          t.values[i] = value;
+          return;
+        }
+      }
+      t.keys[free] = key;
+      t.values[free] = value;
+      size++;
+      if (used > (mask >> 1) + (mask >> 2)) {
+        resize();
+      }
+    }
+
+    /**
+     * Removes the mapping of the key, the update lock must be held.
+     */
+    Object delete(long key, int hash) {
+      long stamp = lock.writeLock();
+      try {
+        return doDelete(key, hash);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    private Object doDelete(long key, int hash) {
+      Table t = table;
+      int mask = t.values.length - 1;
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Object value = t.values[i];
+        if (value == null) {
+          return null;
+        } else if (value != TOMBSTONE && t.keys[i] == key) {
+          if (t.values[(i + 1) & mask] == null) {
+            // ends a probe sequence: it can be emptied, and so can the removed slots preceding it
+            t.values[i] = null;
+            used--;
+            for (int j = (i - 1) & mask; t.values[j] == TOMBSTONE; j = (j - 1) & mask) {
+              t.values[j] = null;
+              used--;
+            }
+          } else {
+            t.values[i] = TOMBSTONE;
+          }
+          size--;
+          return value;
+        }
+      }
+      return null;
+    }
+
+    private void resize() {
+      Table old = table;
+      // doubles when mostly live, otherwise only gets rid of the removed slots
+      int capacity = size > (old.values.length >> 1) ? old.values.length << 1 : old.values.length;
+      Table resized = new Table(capacity);
+      int mask = capacity - 1;
+      for (int i = 0; i < old.values.length; i++) {
+        Object value = old.values[i];
+        if (value != null && value != TOMBSTONE) {
+          int slot = spread(hashCodes.hashCode(old.keys[i])) & mask;
+          while (resized.values[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          resized.keys[slot] = old.keys[i];
+          resized.values[slot] = value;
+        }
+      }
+      used = size;
+      table = resized;
+    }
+  }
+
+  /**
+   * Conversions between the boxed keys and their primitive representation.
+   */
+  private interface Keys<K> {
+
+    long unbox(K key);
+
+    K box(long key);
+
+    /**
+     * Returns the {@code hashCode} of the boxed key.
+     */
+    int hashCode(long key);
+  }
+
+  private static final Keys<Long> LONG_KEYS = new Keys<Long>() {
+    @Override
+    public long unbox(Long key) {
+      return key;
+    }
+
+    @Override
+    public Long box(long key) {
+      return key;
+    }
+
+    @Override
+    public int hashCode(long key) {
+      return Long.hashCode(key);
+    }
+  };
+
+  private static final Keys<Integer> INTEGER_KEYS = new Keys<Integer>() {
+    @Override
+    public long unbox(Integer key) {
+      return key;
+    }
+
+    @Override
+    public Integer box(long key) {
+      return (int) key;
+    }
+
+    @Override
+    public int hashCode(long key) {
+      return (int) key;
+    }
+  };
+}
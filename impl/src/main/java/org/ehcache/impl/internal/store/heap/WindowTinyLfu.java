@@ -0,0 +1,106 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.heap;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of the {@link org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration.EvictionPolicy#WINDOW_TINY_LFU
+ * Window TinyLFU} eviction policy of an {@link OnHeapStore}.
+ * <p>
+ * Newly installed keys are queued in an admission window holding about {@value #WINDOW_PERCENTAGE}% of the mappings.
+ * When the store must evict, the oldest key of an overflowing window competes with the victim sampled from the rest of
+ * the store: whichever the {@link FrequencySketch} reports as less frequently accessed gets evicted.
+ *
+ * @param <K> the key type
+ */
+final class WindowTinyLfu<K> {
+
+  static final int WINDOW_PERCENTAGE = 1;
+  private static final int MINIMUM_SKETCH_SIZE = 16;
+
+  private final FrequencySketch sketch;
+  private final Queue<K> window = new ConcurrentLinkedQueue<>();
+  private final AtomicLong windowSize = new AtomicLong();
+
+  /**
+   * Creates the policy state, with a frequency sketch sized once and for all.
+   *
+   * @param expectedSize the expected maximum number of mappings
+   */
+  WindowTinyLfu(long expectedSize) {
+    this.sketch = new FrequencySketch(Math.max(expectedSize, MINIMUM_SKETCH_SIZE));
+  }
+
+  /**
+   * Records a request for the given key, whether it is mapped or not.
+   */
+  void recordAccess(K key) {
+    sketch.increment(key.hashCode());
+  }
+
+  /**
+   * Records the installation of a new mapping for the given key.
+   *
+   * @param key the key now mapped
+   * @param mappingCount the number of mappings in the store
+   */
+  void recordAdmission(K key, long mappingCount) {
+    window.offer(key);
+    if (windowSize.incrementAndGet() > 2 * windowCapacity(mappingCount)) {
+      // the window overflows without evictions happening: the store has room, the oldest key just joins the main space
+      pollWindow();
+    }
+  }
+
+  /**
+   * Returns the oldest key of the window if the window overflows, removing it from the window.
+   *
+   * @param mappingCount the number of mappings in the store
+   * @return the key to compete for admission, {@code null} if the window does not overflow
+   */
+  K pollAdmissionCandidate(long mappingCount) {
+    if (windowSize.get() > windowCapacity(mappingCount)) {
+      return pollWindow();
+    }
+    return null;
+  }
+
+  /**
+   * Tells whether the candidate leaving the window should be kept in place of the given victim.
+   *
+   * @param candidate the key leaving the window
+   * @param victim the key sampled for eviction
+   * @return {@code true} if the victim should be evicted, {@code false} if the candidate should be
+   */
+  boolean admit(K candidate, K victim) {
+    return sketch.frequency(candidate.hashCode()) > sketch.frequency(victim.hashCode());
+  }
+
+  private K pollWindow() {
+    K key = window.poll();
+    if (key != null) {
+      windowSize.decrementAndGet();
+    }
+    return key;
+  }
+
+  private static long windowCapacity(long mappingCount) {
+    return Math.max(1L, mappingCount * WINDOW_PERCENTAGE / 100);
+  }
+}
@@ -17,6 +17,7 @@
 package org.ehcache.impl.internal.store.heap.holders;
 
 import org.ehcache.core.spi.store.AbstractValueHolder;
+import org.ehcache.sizeof.annotations.IgnoreSizeOf;
 
 import java.util.concurrent.TimeUnit;
 
@@ -29,6 +30,8 @@ public abstract class OnHeapValueHolder<V> extends AbstractValueHolder<V> {
 
   private final boolean evictionAdvice;
   private long size;
+  @IgnoreSizeOf
+  private volatile Object expiryTimer;
 
   protected OnHeapValueHolder(long id, long creationTime, boolean evictionAdvice) {
     super(id, creationTime);
@@ -55,6 +58,17 @@ public abstract class OnHeapValueHolder<V> extends AbstractValueHolder<V> {
     this.size = size;
   }
 
+  /**
+   * The handle indexing this mapping's expiration in the store it lives in, if any. Opaque to the holder.
+   */
+  public Object getExpiryTimer() {
+    return expiryTimer;
+  }
+
+  public void setExpiryTimer(Object expiryTimer) {
+    this.expiryTimer = expiryTimer;
+  }
+
   @Override
   final protected TimeUnit nativeTimeUnit() {
     return TIME_UNIT;
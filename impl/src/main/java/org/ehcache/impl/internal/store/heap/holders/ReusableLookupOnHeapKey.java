@@ -0,0 +1,66 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.heap.holders;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * A lookup key that can be pointed at successive keys, letting a thread look mappings up without allocating a new
+ * key each time.
+ * <p>
+ * Instances are not thread safe and must be released once the lookup is complete.
+ */
+public class ReusableLookupOnHeapKey<K> implements OnHeapKey<K> {
+
+  private K actualKeyObject;
+  private int hashCode;
+
+  public boolean isInUse() {
+    return actualKeyObject != null;
+  }
+
+  public ReusableLookupOnHeapKey<K> lookup(K actualKeyObject) {
+    this.hashCode = actualKeyObject.hashCode();
+    this.actualKeyObject = actualKeyObject;
+    return this;
+  }
+
+  public void release() {
+    actualKeyObject = null;
+  }
+
+  @Override
+  public K getActualKeyObject() {
+    return actualKeyObject;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @SuppressFBWarnings("EQ_CHECK_FOR_OPERAND_NOT_COMPATIBLE_WITH_THIS")
+  @Override
+  public boolean equals(Object other) {
+    if (other instanceof CopiedOnHeapKey) {
+      return actualKeyObject.equals(((CopiedOnHeapKey)other).getCopiedKey());
+    } else if (other instanceof OnHeapKey) {
+      return actualKeyObject.equals(((OnHeapKey)other).getActualKeyObject());
+    }
+    return false;
+  }
+}
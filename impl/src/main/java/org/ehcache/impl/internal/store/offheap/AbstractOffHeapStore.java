@@ -16,16 +16,19 @@
 
 package org.ehcache.impl.internal.store.offheap;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -39,6 +42,7 @@ import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.impl.internal.store.offheap.factories.EhcacheSegmentFactory;
+import org.ehcache.impl.internal.store.offheap.portability.OffHeapValueHolderPortability;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.events.StoreEventSource;
 import org.ehcache.core.spi.store.tiering.AuthoritativeTier;
@@ -51,6 +55,7 @@ import org.ehcache.impl.internal.store.BinaryValueHolder;
 import org.ehcache.impl.store.HashUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terracotta.offheapstore.Segment;
 import org.terracotta.offheapstore.exceptions.OversizeMappingException;
 import org.terracotta.statistics.StatisticsManager;
 import org.terracotta.statistics.observer.OperationObserver;
@@ -178,6 +183,14 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
       EhcacheOffHeapBackingMap<K, OffHeapValueHolder<V>> map = backingMap();
       return map == null ? -1L : map.tableCapacity();
     });
+    StatisticsManager.createPassThroughStatistic(this, "compressionInputBytes", tags, () -> {
+      OffHeapValueHolderPortability<V> portability = valuePortability();
+      return portability == null ? -1L : portability.getCompressionInputBytes();
+    });
+    StatisticsManager.createPassThroughStatistic(this, "compressionOutputBytes", tags, () -> {
+      OffHeapValueHolderPortability<V> portability = valuePortability();
+      return portability == null ? -1L : portability.getCompressionOutputBytes();
+    });
 
     this.mapEvictionListener = new BackingMapEvictionListener<>(eventDispatcher, evictionObserver);
   }
@@ -550,11 +563,36 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
   @Override
   public ValueHolder<V> compute(final K key, final BiFunction<? super K, ? super V, ? extends V> mappingFunction, final Supplier<Boolean> replaceEqual) throws StoreAccessException {
     computeObserver.begin();
+    return computeObserved(key, mappingFunction, replaceEqual);
+  }
+
+  /**
+   * Body of {@link #compute(Object, BiFunction, Supplier)}, ending the compute observation begun by the caller.
+   */
+  private ValueHolder<V> computeObserved(final K key, final BiFunction<? super K, ? super V, ? extends V> mappingFunction, final Supplier<Boolean> replaceEqual) throws StoreAccessException {
     checkKey(key);
 
+    final StoreEventSink<K, V> eventSink = eventDispatcher.eventSink();
+    try {
+      ValueHolder<V> result = computeWithEventSink(key, mappingFunction, replaceEqual, eventSink, true);
+      eventDispatcher.releaseEventSink(eventSink);
+      return result;
+    } catch (StoreAccessException | RuntimeException caex) {
+      eventDispatcher.releaseEventSinkAfterFailure(eventSink, caex);
+      throw caex;
+    }
+  }
+
+  /**
+   * Computes the mapping of the key, recording events in the given sink.
+   * <p>
+   * Without {@code retry} an {@link OversizeMappingException} is thrown back to the caller instead of being retried
+   * after invoking the valve, so that callers holding a segment lock can retry once they released it.
+   */
+  private ValueHolder<V> computeWithEventSink(final K key, final BiFunction<? super K, ? super V, ? extends V> mappingFunction, final Supplier<Boolean> replaceEqual,
+                                              final StoreEventSink<K, V> eventSink, boolean retry) throws StoreAccessException {
     final AtomicBoolean write = new AtomicBoolean(false);
     final AtomicReference<OffHeapValueHolder<V>> valueHeld = new AtomicReference<>();
-    final StoreEventSink<K, V> eventSink = eventDispatcher.eventSink();
     BiFunction<K, OffHeapValueHolder<V>, OffHeapValueHolder<V>> computeFunction = (mappedKey, mappedValue) -> {
       long now = timeSource.getTimeMillis();
       V existingValue = null;
@@ -599,28 +637,33 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
     };
 
     OffHeapValueHolder<V> result;
-    try {
+    if (retry) {
       result = computeWithRetry(key, computeFunction, false);
-      if (result == null && valueHeld.get() != null) {
-        result = valueHeld.get();
+    } else {
+      try {
+        result = backingMap().compute(key, computeFunction, false);
+      } catch (OversizeMappingException ex) {
+        throw ex;
+      } catch (RuntimeException re) {
+        handleRuntimeException(re);
+        return null;
       }
-      eventDispatcher.releaseEventSink(eventSink);
-      if (result == null) {
-        if (write.get()) {
-          computeObserver.end(StoreOperationOutcomes.ComputeOutcome.REMOVED);
-        } else {
-          computeObserver.end(StoreOperationOutcomes.ComputeOutcome.MISS);
-        }
-      } else if (write.get()) {
-        computeObserver.end(StoreOperationOutcomes.ComputeOutcome.PUT);
+    }
+    if (result == null && valueHeld.get() != null) {
+      result = valueHeld.get();
+    }
+    if (result == null) {
+      if (write.get()) {
+        computeObserver.end(StoreOperationOutcomes.ComputeOutcome.REMOVED);
       } else {
-        computeObserver.end(StoreOperationOutcomes.ComputeOutcome.HIT);
+        computeObserver.end(StoreOperationOutcomes.ComputeOutcome.MISS);
       }
-      return result;
-    } catch (StoreAccessException | RuntimeException caex) {
-      eventDispatcher.releaseEventSinkAfterFailure(eventSink, caex);
-      throw caex;
+    } else if (write.get()) {
+      computeObserver.end(StoreOperationOutcomes.ComputeOutcome.PUT);
+    } else {
+      computeObserver.end(StoreOperationOutcomes.ComputeOutcome.HIT);
     }
+    return result;
   }
 
   @Override
@@ -708,40 +751,88 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
     return bulkCompute(keys, remappingFunction, REPLACE_EQUALS_TRUE);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Keys are grouped per segment, and each segment lock is acquired once for all of its keys. Events are fired once
+   * the segment lock is released.
+   */
   @Override
   public Map<K, ValueHolder<V>> bulkCompute(Set<? extends K> keys, final Function<Iterable<? extends Map.Entry<? extends K, ? extends V>>, Iterable<? extends Map.Entry<? extends K, ? extends V>>> remappingFunction, Supplier<Boolean> replaceEqual) throws StoreAccessException {
-    Map<K, ValueHolder<V>> result = new HashMap<>();
+    EhcacheOffHeapBackingMap<K, OffHeapValueHolder<V>> map = backingMap();
+    Map<Integer, List<K>> keysBySegment = new HashMap<>();
     for (K key : keys) {
       checkKey(key);
-      BiFunction<K, V, V> biFunction = (k, v) -> {
-        Map.Entry<K, V> entry = new Map.Entry<K, V>() {
-          @Override
-          public K getKey() {
-            return k;
-          }
+      keysBySegment.computeIfAbsent(map.getSegmentIndexFor(key), index -> new ArrayList<>()).add(key);
+    }
 
-          @Override
-          public V getValue() {
-            return v;
-          }
+    BiFunction<K, V, V> biFunction = (k, v) -> {
+      Map.Entry<K, V> entry = new Map.Entry<K, V>() {
+        @Override
+        public K getKey() {
+          return k;
+        }
 
-          @Override
-          public V setValue(V value) {
-            throw new UnsupportedOperationException();
-          }
-        };
-        java.util.Iterator<? extends Map.Entry<? extends K, ? extends V>> iterator = remappingFunction.apply(Collections
-            .singleton(entry)).iterator();
-        Map.Entry<? extends K, ? extends V> result1 = iterator.next();
-        if (result1 != null) {
-          checkKey(result1.getKey());
-          return result1.getValue();
-        } else {
-          return null;
+        @Override
+        public V getValue() {
+          return v;
+        }
+
+        @Override
+        public V setValue(V value) {
+          throw new UnsupportedOperationException();
         }
       };
-      ValueHolder<V> computed = compute(key, biFunction, replaceEqual);
-      result.put(key, computed);
+      java.util.Iterator<? extends Map.Entry<? extends K, ? extends V>> iterator = remappingFunction.apply(Collections
+          .singleton(entry)).iterator();
+      Map.Entry<? extends K, ? extends V> result1 = iterator.next();
+      if (result1 != null) {
+        checkKey(result1.getKey());
+        return result1.getValue();
+      } else {
+        return null;
+      }
+    };
+
+    List<Segment<K, OffHeapValueHolder<V>>> segments = map.getSegments();
+    Map<K, ValueHolder<V>> result = new HashMap<>();
+    for (Map.Entry<Integer, List<K>> segmentKeys : keysBySegment.entrySet()) {
+      List<K> oversizedKeys = new ArrayList<>();
+      List<StoreEventSink<K, V>> eventSinks = new ArrayList<>(segmentKeys.getValue().size());
+      StoreEventSink<K, V> failedEventSink = null;
+      Exception failure = null;
+      Lock lock = segments.get(segmentKeys.getKey()).writeLock();
+      lock.lock();
+      try {
+        for (K key : segmentKeys.getValue()) {
+          computeObserver.begin();
+          StoreEventSink<K, V> eventSink = eventDispatcher.eventSink();
+          try {
+            result.put(key, computeWithEventSink(key, biFunction, replaceEqual, eventSink, false));
+            eventSinks.add(eventSink);
+          } catch (OversizeMappingException ex) {
+            // retried once the segment lock is released, as making room may need other segments
+            eventDispatcher.releaseEventSinkAfterFailure(eventSink, ex);
+            oversizedKeys.add(key);
+          } catch (StoreAccessException | RuntimeException caex) {
+            failedEventSink = eventSink;
+            failure = caex;
+            throw caex;
+          }
+        }
+      } finally {
+        lock.unlock();
+        for (StoreEventSink<K, V> eventSink : eventSinks) {
+          eventDispatcher.releaseEventSink(eventSink);
+        }
+        if (failedEventSink != null) {
+          eventDispatcher.releaseEventSinkAfterFailure(failedEventSink, failure);
+        }
+      }
+      for (K key : oversizedKeys) {
+        // ends the observation begun under the segment lock
+        result.put(key, computeObserved(key, biFunction, replaceEqual));
+      }
     }
     return result;
   }
@@ -1135,6 +1226,12 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
 
   protected abstract SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> evictionAdvisor();
 
+  /**
+   * Note to users of this method: this method can return null if called
+   * before the tier was initialized (i.e. by passthrough stats)
+   */
+  protected abstract OffHeapValueHolderPortability<V> valuePortability();
+
   protected static <K, V> SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> wrap(EvictionAdvisor<? super K, ? super V> delegate) {
     return new OffHeapEvictionAdvisorWrapper<>(delegate);
   }
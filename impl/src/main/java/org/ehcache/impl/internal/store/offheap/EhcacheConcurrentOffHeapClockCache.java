@@ -228,4 +228,9 @@ public class EhcacheConcurrentOffHeapClockCache<K, V> extends AbstractConcurrent
   public long nextIdFor(final K key) {
     return counters[getIndexFor(key.hashCode())].getAndIncrement();
   }
+
+  @Override
+  public int getSegmentIndexFor(K key) {
+    return getIndexFor(key.hashCode());
+  }
 }
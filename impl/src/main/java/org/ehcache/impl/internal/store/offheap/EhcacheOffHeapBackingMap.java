@@ -74,6 +74,14 @@ public interface EhcacheOffHeapBackingMap<K, V> extends ConcurrentMap<K, V>, Off
 
   List<Segment<K, V>> getSegments();
 
+  /**
+   * Returns the index in {@link #getSegments()} of the segment holding the given key.
+   *
+   * @param key the key
+   * @return the segment index
+   */
+  int getSegmentIndexFor(K key);
+
   boolean shrinkOthers(int excludedHash);
 
   Map<K, V> removeAllWithHash(int hash);
@@ -27,10 +27,12 @@ import org.ehcache.core.statistics.AuthoritativeTierOperationOutcomes;
 import org.ehcache.core.statistics.LowerCachingTierOperationsOutcome;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.core.events.NullStoreEventDispatcher;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.impl.internal.events.ThreadLocalStoreEventDispatcher;
 import org.ehcache.impl.internal.store.offheap.factories.EhcacheSegmentFactory;
 import org.ehcache.impl.internal.store.offheap.portability.OffHeapValueHolderPortability;
-import org.ehcache.impl.internal.store.offheap.portability.SerializerPortability;
+import org.ehcache.impl.internal.store.offheap.portability.PrimitivePortability;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.core.spi.time.TimeSourceService;
 import org.ehcache.impl.serialization.TransientStateRepository;
@@ -66,6 +68,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.ehcache.config.Eviction.noAdvice;
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
 import static org.ehcache.impl.internal.store.offheap.OffHeapStoreUtils.getBufferSource;
 
 /**
@@ -79,11 +82,22 @@ public class OffHeapStore<K, V> extends AbstractOffHeapStore<K, V> {
   private final Serializer<K> keySerializer;
   private final Serializer<V> valueSerializer;
   private final long sizeInBytes;
+  private final Compression compression;
+  private final int compressionThreshold;
 
   private volatile EhcacheConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> map;
+  private volatile OffHeapValueHolderPortability<V> valuePortability;
 
   public OffHeapStore(final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes) {
+    this(config, timeSource, eventDispatcher, sizeInBytes, OffHeapStoreConfiguration.DEFAULT_COMPRESSION, OffHeapStoreConfiguration.DEFAULT_COMPRESSION_THRESHOLD);
+  }
+
+  public OffHeapStore(final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes,
+                      Compression compression, int compressionThreshold) {
     super(STATISTICS_TAG, config, timeSource, eventDispatcher);
+    if (compression == null) {
+      throw new NullPointerException("compression must not be null");
+    }
     EvictionAdvisor<? super K, ? super V> evictionAdvisor = config.getEvictionAdvisor();
     if (evictionAdvisor != null) {
       this.evictionAdvisor = wrap(evictionAdvisor);
@@ -93,6 +107,8 @@ public class OffHeapStore<K, V> extends AbstractOffHeapStore<K, V> {
     this.keySerializer = config.getKeySerializer();
     this.valueSerializer = config.getValueSerializer();
     this.sizeInBytes = sizeInBytes;
+    this.compression = compression;
+    this.compressionThreshold = compressionThreshold;
   }
 
   @Override
@@ -103,8 +119,9 @@ public class OffHeapStore<K, V> extends AbstractOffHeapStore<K, V> {
   private EhcacheConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> createBackingMap(long size, Serializer<K> keySerializer, Serializer<V> valueSerializer, SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> evictionAdvisor) {
     HeuristicConfiguration config = new HeuristicConfiguration(size);
     PageSource source = new UpfrontAllocatingPageSource(getBufferSource(), config.getMaximumSize(), config.getMaximumChunkSize(), config.getMinimumChunkSize());
-    Portability<K> keyPortability = new SerializerPortability<>(keySerializer);
-    Portability<OffHeapValueHolder<V>> elementPortability = new OffHeapValueHolderPortability<>(valueSerializer);
+    Portability<K> keyPortability = PrimitivePortability.forSerializer(keySerializer);
+    OffHeapValueHolderPortability<V> elementPortability = new OffHeapValueHolderPortability<>(valueSerializer, compression, compressionThreshold);
+    this.valuePortability = elementPortability;
     Factory<OffHeapBufferStorageEngine<K, OffHeapValueHolder<V>>> storageEngineFactory = OffHeapBufferStorageEngine.createFactory(PointerSize.INT, source, config
         .getSegmentDataPageSize(), keyPortability, elementPortability, false, true);
 
@@ -128,6 +145,11 @@ public class OffHeapStore<K, V> extends AbstractOffHeapStore<K, V> {
     return evictionAdvisor;
   }
 
+  @Override
+  protected OffHeapValueHolderPortability<V> valuePortability() {
+    return valuePortability;
+  }
+
   @ServiceDependencies({TimeSourceService.class, SerializationProvider.class})
   public static class Provider implements Store.Provider, AuthoritativeTier.Provider, LowerCachingTier.Provider {
 
@@ -181,8 +203,18 @@ public class OffHeapStore<K, V> extends AbstractOffHeapStore<K, V> {
       MemoryUnit unit = (MemoryUnit)offHeapPool.getUnit();
 
 
+      OffHeapStoreConfiguration offHeapStoreConfig = findSingletonAmongst(OffHeapStoreConfiguration.class, (Object[]) serviceConfigs);
+      Compression compression;
+      int compressionThreshold;
+      if (offHeapStoreConfig == null) {
+        compression = OffHeapStoreConfiguration.DEFAULT_COMPRESSION;
+        compressionThreshold = OffHeapStoreConfiguration.DEFAULT_COMPRESSION_THRESHOLD;
+      } else {
+        compression = offHeapStoreConfig.getCompression();
+        compressionThreshold = offHeapStoreConfig.getCompressionThreshold();
+      }
       OffHeapStore<K, V> offHeapStore = new OffHeapStore<>(storeConfig, timeSource, eventDispatcher, unit.toBytes(offHeapPool
-        .getSize()));
+        .getSize()), compression, compressionThreshold);
       createdStores.add(offHeapStore);
       return offHeapStore;
     }
@@ -0,0 +1,197 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.offheap.portability;
+
+/**
+ * Compressor and decompressor for the LZ4 block format: a sequence of literal runs each followed by a back reference
+ * into the last 64kB of output.
+ * <p>
+ * The compressor does a single greedy pass, looking up earlier occurrences of each four bytes in a small hash table,
+ * favoring speed over compression ratio.
+ */
+final class LZ4BlockCodec {
+
+  private static final int MIN_MATCH = 4;
+  private static final int LAST_LITERALS = 5;
+  private static final int MATCH_FIND_LIMIT = 12;
+  private static final int MAX_DISTANCE = 65535;
+  private static final int HASH_LOG = 12;
+  private static final int RUN_MASK = 15;
+
+  private LZ4BlockCodec() {
+    // no instances
+  }
+
+  /**
+   * The size of a buffer guaranteed to hold the compressed form of {@code length} bytes.
+   */
+  static int maxCompressedLength(int length) {
+    return length + length / 255 + 16;
+  }
+
+  /**
+   * Compresses {@code srcLength} bytes of {@code src} into {@code dest}, which must have at least
+   * {@link #maxCompressedLength(int)} bytes available from {@code destOffset}.
+   *
+   * @return the compressed length
+   */
+  static int compress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset) {
+    int srcEnd = srcOffset + srcLength;
+    int dp = destOffset;
+    int anchor = srcOffset;
+
+    if (srcLength > MATCH_FIND_LIMIT) {
+      // positions are stored plus one, zero meaning empty
+      int[] table = new int[1 << HASH_LOG];
+      int matchFindLimit = srcEnd - MATCH_FIND_LIMIT;
+      int matchLimit = srcEnd - LAST_LITERALS;
+      int sp = srcOffset;
+      while (sp < matchFindLimit) {
+        int sequence = readInt(src, sp);
+        int hash = hash(sequence);
+        int ref = table[hash] - 1 + srcOffset;
+        table[hash] = sp - srcOffset + 1;
+        if (ref < srcOffset || sp - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+          sp++;
+          continue;
+        }
+
+        int matchLength = MIN_MATCH;
+        while (sp + matchLength < matchLimit && src[ref + matchLength] == src[sp + matchLength]) {
+          matchLength++;
+        }
+
+        int literalLength = sp - anchor;
+        int token = dp++;
+        dp = writeLength(literalLength, dest, dp);
+        System.arraycopy(src, anchor, dest, dp, literalLength);
+        dp += literalLength;
+        int offset = sp - ref;
+        dest[dp++] = (byte) offset;
+        dest[dp++] = (byte) (offset >>> 8);
+        dp = writeLength(matchLength - MIN_MATCH, dest, dp);
+        dest[token] = (byte) ((Math.min(literalLength, RUN_MASK) << 4) | Math.min(matchLength - MIN_MATCH, RUN_MASK));
+
+        sp += matchLength;
+        anchor = sp;
+      }
+    }
+
+    int literalLength = srcEnd - anchor;
+    dest[dp++] = (byte) (Math.min(literalLength, RUN_MASK) << 4);
+    dp = writeLength(literalLength, dest, dp);
+    System.arraycopy(src, anchor, dest, dp, literalLength);
+    dp += literalLength;
+    return dp - destOffset;
+  }
+
+  /**
+   * Decompresses {@code srcLength} bytes of {@code src} into exactly {@code destLength} bytes of {@code dest}.
+   *
+   * @throws IllegalArgumentException if the compressed form is malformed or does not decompress to {@code destLength}
+   */
+  static void decompress(byte[] src, int srcOffset, int srcLength, byte[] dest, int destOffset, int destLength) {
+    int sp = srcOffset;
+    int srcEnd = srcOffset + srcLength;
+    int dp = destOffset;
+    int destEnd = destOffset + destLength;
+
+    while (true) {
+      if (sp >= srcEnd) {
+        throw new IllegalArgumentException("Malformed LZ4 block: truncated at " + (sp - srcOffset));
+      }
+      int token = src[sp++] & 0xff;
+
+      int literalLength = token >>> 4;
+      if (literalLength == RUN_MASK) {
+        int b;
+        do {
+          if (sp >= srcEnd) {
+            throw new IllegalArgumentException("Malformed LZ4 block: truncated literal length");
+          }
+          b = src[sp++] & 0xff;
+          literalLength += b;
+        } while (b == 255);
+      }
+      if (literalLength > srcEnd - sp || literalLength > destEnd - dp) {
+        throw new IllegalArgumentException("Malformed LZ4 block: literals overflow at " + (sp - srcOffset));
+      }
+      System.arraycopy(src, sp, dest, dp, literalLength);
+      sp += literalLength;
+      dp += literalLength;
+
+      if (sp == srcEnd) {
+        break;
+      }
+
+      if (srcEnd - sp < 2) {
+        throw new IllegalArgumentException("Malformed LZ4 block: truncated offset");
+      }
+      int offset = (src[sp] & 0xff) | ((src[sp + 1] & 0xff) << 8);
+      sp += 2;
+      int ref = dp - offset;
+      if (offset == 0 || ref < destOffset) {
+        throw new IllegalArgumentException("Malformed LZ4 block: invalid offset " + offset);
+      }
+
+      int matchLength = token & RUN_MASK;
+      if (matchLength == RUN_MASK) {
+        int b;
+        do {
+          if (sp >= srcEnd) {
+            throw new IllegalArgumentException("Malformed LZ4 block: truncated match length");
+          }
+          b = src[sp++] & 0xff;
+          matchLength += b;
+        } while (b == 255);
+      }
+      matchLength += MIN_MATCH;
+      if (matchLength > destEnd - dp) {
+        throw new IllegalArgumentException("Malformed LZ4 block: match overflow at " + (sp - srcOffset));
+      }
+      // byte by byte, as the match can overlap the bytes it produces
+      for (int i = 0; i < matchLength; i++) {
+        dest[dp + i] = dest[ref + i];
+      }
+      dp += matchLength;
+    }
+
+    if (dp != destEnd) {
+      throw new IllegalArgumentException("Malformed LZ4 block: decompressed to " + (dp - destOffset) + " bytes instead of " + destLength);
+    }
+  }
+
+  private static int writeLength(int length, byte[] dest, int dp) {
+    if (length >= RUN_MASK) {
+      int remaining = length - RUN_MASK;
+      while (remaining >= 255) {
+        dest[dp++] = (byte) 255;
+        remaining -= 255;
+      }
+      dest[dp++] = (byte) remaining;
+    }
+    return dp;
+  }
+
+  private static int readInt(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24;
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> (Integer.SIZE - HASH_LOG);
+  }
+}
@@ -16,6 +16,7 @@
 
 package org.ehcache.impl.internal.store.offheap.portability;
 
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.impl.internal.store.BinaryValueHolder;
 import org.ehcache.impl.internal.store.offheap.LazyOffHeapValueHolder;
 import org.ehcache.impl.internal.store.offheap.OffHeapValueHolder;
@@ -24,9 +25,13 @@ import org.terracotta.offheapstore.storage.portability.WriteBackPortability;
 import org.terracotta.offheapstore.storage.portability.WriteContext;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * OffHeapValueHolderPortability
+ * <p>
+ * When compressing, the serialized value is preceded by an int: the decompressed length of the compressed value that
+ * follows, or {@code -1} for a value stored as serialized.
  */
 public class OffHeapValueHolderPortability<V> implements WriteBackPortability<OffHeapValueHolder<V>> {
 
@@ -36,11 +41,22 @@ public class OffHeapValueHolderPortability<V> implements WriteBackPortability<Of
 
   // 5 longs: id, access, expire, creation time, hits
   private static final int FIELDS_OVERHEAD = 40;
+  private static final int STORED_AS_SERIALIZED = -1;
 
   private final Serializer<V> serializer;
+  private final Compression compression;
+  private final int compressionThreshold;
+  private final LongAdder compressionInputBytes = new LongAdder();
+  private final LongAdder compressionOutputBytes = new LongAdder();
 
   public OffHeapValueHolderPortability(Serializer<V> serializer) {
+    this(serializer, Compression.NONE, 0);
+  }
+
+  public OffHeapValueHolderPortability(Serializer<V> serializer, Compression compression, int compressionThreshold) {
     this.serializer = serializer;
+    this.compression = compression;
+    this.compressionThreshold = compressionThreshold;
   }
 
   @Override
@@ -51,15 +67,57 @@ public class OffHeapValueHolderPortability<V> implements WriteBackPortability<Of
     } else {
       serialized = serializer.serialize(valueHolder.value());
     }
+    if (compression == Compression.LZ4) {
+      return encodeCompressed(valueHolder, serialized);
+    }
     ByteBuffer byteBuffer = ByteBuffer.allocate(serialized.remaining() + FIELDS_OVERHEAD);
+    putFields(valueHolder, byteBuffer);
+    byteBuffer.put(serialized);
+    byteBuffer.flip();
+    return byteBuffer;
+  }
+
+  private ByteBuffer encodeCompressed(OffHeapValueHolder<V> valueHolder, ByteBuffer serialized) {
+    int length = serialized.remaining();
+    compressionInputBytes.add(length);
+    if (length >= compressionThreshold) {
+      byte[] source;
+      int sourceOffset;
+      if (serialized.hasArray()) {
+        source = serialized.array();
+        sourceOffset = serialized.arrayOffset() + serialized.position();
+      } else {
+        source = new byte[length];
+        serialized.duplicate().get(source);
+        sourceOffset = 0;
+      }
+      byte[] encoded = new byte[FIELDS_OVERHEAD + 4 + LZ4BlockCodec.maxCompressedLength(length)];
+      int compressedLength = LZ4BlockCodec.compress(source, sourceOffset, length, encoded, FIELDS_OVERHEAD + 4);
+      // not worth decompressing on each read otherwise
+      if (compressedLength <= length - length / 8) {
+        compressionOutputBytes.add(compressedLength);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(encoded, 0, FIELDS_OVERHEAD + 4 + compressedLength);
+        putFields(valueHolder, byteBuffer);
+        byteBuffer.putInt(length);
+        byteBuffer.position(0);
+        return byteBuffer;
+      }
+    }
+    compressionOutputBytes.add(length);
+    ByteBuffer byteBuffer = ByteBuffer.allocate(length + FIELDS_OVERHEAD + 4);
+    putFields(valueHolder, byteBuffer);
+    byteBuffer.putInt(STORED_AS_SERIALIZED);
+    byteBuffer.put(serialized);
+    byteBuffer.flip();
+    return byteBuffer;
+  }
+
+  private static void putFields(OffHeapValueHolder<?> valueHolder, ByteBuffer byteBuffer) {
     byteBuffer.putLong(valueHolder.getId());
     byteBuffer.putLong(valueHolder.creationTime(OffHeapValueHolder.TIME_UNIT));
     byteBuffer.putLong(valueHolder.lastAccessTime(OffHeapValueHolder.TIME_UNIT));
     byteBuffer.putLong(valueHolder.expirationTime(OffHeapValueHolder.TIME_UNIT));
     byteBuffer.putLong(valueHolder.hits());
-    byteBuffer.put(serialized);
-    byteBuffer.flip();
-    return byteBuffer;
   }
 
   @Override
@@ -79,7 +137,41 @@ public class OffHeapValueHolderPortability<V> implements WriteBackPortability<Of
     long lastAccessTime = byteBuffer.getLong();
     long expireTime = byteBuffer.getLong();
     long hits = byteBuffer.getLong();
-    return new LazyOffHeapValueHolder<>(id, byteBuffer.slice(), serializer,
+    ByteBuffer binaryValue;
+    if (compression == Compression.LZ4) {
+      int length = byteBuffer.getInt();
+      if (length == STORED_AS_SERIALIZED) {
+        binaryValue = byteBuffer.slice();
+      } else {
+        byte[] compressed = new byte[byteBuffer.remaining()];
+        byteBuffer.get(compressed);
+        byte[] decompressed = new byte[length];
+        LZ4BlockCodec.decompress(compressed, 0, compressed.length, decompressed, 0, length);
+        binaryValue = ByteBuffer.wrap(decompressed);
+      }
+    } else {
+      binaryValue = byteBuffer.slice();
+    }
+    return new LazyOffHeapValueHolder<>(id, binaryValue, serializer,
       creationTime, expireTime, lastAccessTime, hits, writeContext);
   }
+
+  /**
+   * Returns how many serialized value bytes went through compression, {@code -1} if values are not compressed.
+   *
+   * @return the compression input bytes
+   */
+  public long getCompressionInputBytes() {
+    return compression == Compression.NONE ? -1L : compressionInputBytes.sum();
+  }
+
+  /**
+   * Returns how many bytes the values that went through compression were stored in, {@code -1} if values are not
+   * compressed.
+   *
+   * @return the compression output bytes
+   */
+  public long getCompressionOutputBytes() {
+    return compression == Compression.NONE ? -1L : compressionOutputBytes.sum();
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.offheap.portability;
+
+import org.ehcache.impl.serialization.IntegerSerializer;
+import org.ehcache.impl.serialization.LongSerializer;
+import org.ehcache.spi.serialization.Serializer;
+
+import org.terracotta.offheapstore.storage.portability.Portability;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Portability for {@code Long} and {@code Integer} keys, producing the same bytes as {@link LongSerializer} and
+ * {@link IntegerSerializer} but reading and comparing them in place.
+ */
+public abstract class PrimitivePortability<T> implements Portability<T> {
+
+  private PrimitivePortability() {
+  }
+
+  /**
+   * Returns the portability to use for the given serializer.
+   * <p>
+   * Only the built-in serializers are replaced, as a user provided serializer for these types may use its own format.
+   *
+   * @param serializer the serializer
+   * @param <T> the type handled
+   * @return a primitive portability or a {@link SerializerPortability}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Portability<T> forSerializer(Serializer<T> serializer) {
+    if (serializer.getClass() == LongSerializer.class) {
+      return (Portability<T>) LongPortability.INSTANCE;
+    } else if (serializer.getClass() == IntegerSerializer.class) {
+      return (Portability<T>) IntegerPortability.INSTANCE;
+    } else {
+      return new SerializerPortability<>(serializer);
+    }
+  }
+
+  /**
+   * Portability of {@code Long}, encoded as 8 big endian bytes.
+   */
+  public static final class LongPortability extends PrimitivePortability<Long> {
+
+    static final LongPortability INSTANCE = new LongPortability();
+
+    private LongPortability() {
+    }
+
+    @Override
+    public ByteBuffer encode(Long object) {
+      ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+      buffer.putLong(0, object);
+      return buffer;
+    }
+
+    @Override
+    public Long decode(ByteBuffer buffer) {
+      return buffer.getLong(buffer.position());
+    }
+
+    @Override
+    public boolean equals(Object object, ByteBuffer buffer) {
+      return object instanceof Long && (Long) object == buffer.getLong(buffer.position());
+    }
+  }
+
+  /**
+   * Portability of {@code Integer}, encoded as 4 big endian bytes.
+   */
+  public static final class IntegerPortability extends PrimitivePortability<Integer> {
+
+    static final IntegerPortability INSTANCE = new IntegerPortability();
+
+    private IntegerPortability() {
+    }
+
+    @Override
+    public ByteBuffer encode(Integer object) {
+      ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+      buffer.putInt(0, object);
+      return buffer;
+    }
+
+    @Override
+    public Integer decode(ByteBuffer buffer) {
+      return buffer.getInt(buffer.position());
+    }
+
+    @Override
+    public boolean equals(Object object, ByteBuffer buffer) {
+      return object instanceof Integer && (Integer) object == buffer.getInt(buffer.position());
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.tiering;
+
+import org.ehcache.core.spi.store.AsyncStore;
+import org.ehcache.core.spi.store.StoreAccessException;
+import org.ehcache.core.spi.store.tiering.AuthoritativeTier;
+import org.ehcache.core.spi.store.tiering.CachingTier;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A {@link TieredStore} whose {@link AuthoritativeTier} is an {@link AsyncStore}.
+ * <p>
+ * The caching tier is accessed synchronously: hits complete immediately while misses are served by the authority
+ * without being faulted into the caching tier, as invalidations can't be tracked across an asynchronous fetch.
+ */
+public class AsyncTieredStore<K, V> extends TieredStore<K, V> implements AsyncStore<K, V> {
+
+  private final AsyncStore<K, V> asyncAuthority;
+
+  @SuppressWarnings("unchecked")
+  public AsyncTieredStore(CachingTier<K, V> cachingTier, AuthoritativeTier<K, V> authoritativeTier) {
+    super(cachingTier, authoritativeTier);
+    if (!(authoritativeTier instanceof AsyncStore)) {
+      throw new IllegalArgumentException("Authoritative tier is not an AsyncStore: " + authoritativeTier);
+    }
+    this.asyncAuthority = (AsyncStore<K, V>) authoritativeTier;
+  }
+
+  @Override
+  public CompletionStage<ValueHolder<V>> getAsync(K key) {
+    try {
+      ValueHolder<V> cachedValue = cachingTier().getOrComputeIfAbsent(key, keyParam -> null);
+      if (cachedValue != null) {
+        return CompletableFuture.completedFuture(cachedValue);
+      }
+    } catch (StoreAccessException e) {
+      CompletableFuture<ValueHolder<V>> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return asyncAuthority.getAsync(key);
+  }
+
+  @Override
+  public CompletionStage<PutStatus> putAsync(K key, V value) {
+    return invalidateOnCompletion(asyncAuthority.putAsync(key, value), Collections.singleton(key));
+  }
+
+  @Override
+  public CompletionStage<Boolean> removeAsync(K key) {
+    return invalidateOnCompletion(asyncAuthority.removeAsync(key), Collections.singleton(key));
+  }
+
+  @Override
+  public CompletionStage<Map<K, ValueHolder<V>>> getAllAsync(Set<? extends K> keys) {
+    return invalidateOnCompletion(asyncAuthority.getAllAsync(keys), keys);
+  }
+
+  @Override
+  public CompletionStage<Void> putAllAsync(Map<? extends K, ? extends V> entries) {
+    return invalidateOnCompletion(asyncAuthority.putAllAsync(entries), entries.keySet());
+  }
+
+  /**
+   * Asynchronous counterpart of the {@code try { ... } finally { cachingTier().invalidate(key); }} of the synchronous
+   * operations.
+   */
+  private <T> CompletionStage<T> invalidateOnCompletion(CompletionStage<T> stage, Collection<? extends K> keys) {
+    return stage.handle((result, failure) -> {
+      StoreAccessException invalidationFailure = null;
+      for (K key : keys) {
+        try {
+          cachingTier().invalidate(key);
+        } catch (StoreAccessException e) {
+          invalidationFailure = e;
+        }
+      }
+      if (failure != null) {
+        throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+      } else if (invalidationFailure != null) {
+        throw new CompletionException(invalidationFailure);
+      }
+      return result;
+    });
+  }
+}
@@ -20,6 +20,7 @@ import org.ehcache.config.ResourcePools;
 import org.ehcache.config.ResourceType;
 import org.ehcache.core.CacheConfigurationChangeListener;
 import org.ehcache.core.collections.ConcurrentWeakIdentityHashMap;
+import org.ehcache.core.spi.store.AsyncStore;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.StoreAccessException;
 import org.ehcache.core.spi.store.events.StoreEventSource;
@@ -309,7 +310,7 @@ public class TieredStore<K, V> implements Store<K, V> {
     return configurationChangeListenerList;
   }
 
-  private CachingTier<K, V> cachingTier() {
+  CachingTier<K, V> cachingTier() {
     return cachingTierRef.get();
   }
 
@@ -387,7 +388,12 @@ public class TieredStore<K, V> implements Store<K, V> {
       CachingTier<K, V> cachingTier = cachingTierProvider.createCachingTier(storeConfig, configurations);
       AuthoritativeTier<K, V> authoritativeTier = authoritativeTierProvider.createAuthoritativeTier(storeConfig, configurations);
 
-      TieredStore<K, V> store = new TieredStore<>(cachingTier, authoritativeTier);
+      TieredStore<K, V> store;
+      if (authoritativeTier instanceof AsyncStore) {
+        store = new AsyncTieredStore<>(cachingTier, authoritativeTier);
+      } else {
+        store = new TieredStore<>(cachingTier, authoritativeTier);
+      }
       registerStore(store, cachingTierProvider, authoritativeTierProvider);
       return store;
     }
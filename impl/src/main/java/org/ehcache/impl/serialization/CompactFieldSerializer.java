@@ -0,0 +1,708 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.serialization;
+
+import java.io.Externalizable;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.ehcache.spi.persistence.StateHolder;
+import org.ehcache.spi.persistence.StateRepository;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import org.ehcache.spi.serialization.StatefulSerializer;
+
+/**
+ * A Java serialization compatible serializer writing the fields of plain serializable classes directly.
+ * <p>
+ * Strings, boxed primitives and instances of serializable classes that do not customize their serialized form
+ * (no {@code writeObject}, {@code readObject}, {@code writeReplace}, {@code readResolve} or
+ * {@code serialPersistentFields}) are written field by field, using per-class plans resolved once through reflection.
+ * The class schemas are indexed in the {@link StateRepository}, so that the binary form only carries an integer per
+ * class. Any other object graph, or one sharing references, is delegated as a whole to a {@link CompactJavaSerializer}.
+ * <p>
+ * The binary form of strings and boxed primitives can be compared by {@link #equals(Object, ByteBuffer)} without
+ * being deserialized.
+ */
+public class CompactFieldSerializer<T> implements StatefulSerializer<T> {
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte SHORT = 6;
+  private static final byte BYTE = 7;
+  private static final byte CHARACTER = 8;
+  private static final byte BOOLEAN = 9;
+  private static final byte FIELDS = 10;
+  private static final byte JAVA = 11;
+
+  private static final int INITIAL_BUFFER_SIZE = 512;
+  private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+  private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(Output::new);
+
+  private static final WritePlan UNSUPPORTED = new WritePlan(-1, new Field[0], new char[0]);
+
+  private static final Object REFLECTION_FACTORY;
+  private static final Method NEW_CONSTRUCTOR_FOR_SERIALIZATION;
+
+  static {
+    Object factory;
+    Method method;
+    try {
+      Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+      factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+      method = factoryClass.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      factory = null;
+      method = null;
+    }
+    REFLECTION_FACTORY = factory;
+    NEW_CONSTRUCTOR_FOR_SERIALIZATION = method;
+  }
+
+  private final CompactJavaSerializer<T> javaSerializer;
+  private final transient ClassLoader loader;
+
+  private volatile StateHolder<Integer, String[]> schemas;
+  private final ConcurrentMap<List<String>, Integer> schemaIndexes = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, WritePlan> writePlans = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Integer, ReadPlan> readPlans = new ConcurrentHashMap<>();
+
+  private final Lock lock = new ReentrantLock();
+  private int nextSchemaIndex = 0;
+
+  /**
+   * Constructor to enable this serializer as a transient one.
+   *
+   * @param loader the classloader to use
+   *
+   * @see Serializer
+   */
+  public CompactFieldSerializer(ClassLoader loader) {
+    this.loader = loader;
+    this.javaSerializer = new CompactJavaSerializer<>(loader);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> Class<? extends Serializer<T>> asTypedSerializer() {
+    return (Class) CompactFieldSerializer.class;
+  }
+
+  @Override
+  public void init(final StateRepository stateRepository) {
+    this.schemas = stateRepository.getPersistentStateHolder("CompactFieldSerializer-ClassSchemaIndex", Integer.class, String[].class);
+    for (Entry<Integer, String[]> entry : schemas.entrySet()) {
+      Integer index = entry.getKey();
+      if (schemaIndexes.putIfAbsent(Arrays.asList(entry.getValue()), index) != null) {
+        throw new AssertionError("Corrupted data " + schemas);
+      }
+      if (nextSchemaIndex < index + 1) {
+        nextSchemaIndex = index + 1;
+      }
+    }
+    javaSerializer.init(stateRepository);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer serialize(T object) throws SerializerException {
+    Output output = OUTPUT.get();
+    try {
+      writeValue(output, object);
+      return output.toByteBuffer();
+    } catch (UnsupportedGraphException e) {
+      // fall through to Java serialization
+    } finally {
+      output.reset();
+    }
+
+    ByteBuffer serialized = javaSerializer.serialize(object);
+    ByteBuffer binary = ByteBuffer.allocate(1 + serialized.remaining());
+    binary.put(JAVA).put(serialized).flip();
+    return binary;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T read(ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+    if (binary.get(binary.position()) == JAVA) {
+      binary.get();
+      return javaSerializer.read(binary);
+    } else {
+      @SuppressWarnings("unchecked")
+      T value = (T) readValue(binary);
+      return value;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean equals(T object, ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+    int position = binary.position();
+    byte tag = binary.get(position);
+    Class<?> type = object.getClass();
+    if (tag == STRING && type == String.class) {
+      String string = (String) object;
+      int length = binary.getInt(position + 1);
+      if (length != string.length()) {
+        return false;
+      }
+      for (int i = 0, offset = position + 5; i < length; i++, offset += 2) {
+        if (string.charAt(i) != binary.getChar(offset)) {
+          return false;
+        }
+      }
+      return true;
+    } else if (tag == INTEGER && type == Integer.class) {
+      return (Integer) object == binary.getInt(position + 1);
+    } else if (tag == LONG && type == Long.class) {
+      return (Long) object == binary.getLong(position + 1);
+    } else if (tag == DOUBLE && type == Double.class) {
+      return Double.doubleToLongBits((Double) object) == Double.doubleToLongBits(binary.getDouble(position + 1));
+    } else if (tag == FLOAT && type == Float.class) {
+      return Float.floatToIntBits((Float) object) == Float.floatToIntBits(binary.getFloat(position + 1));
+    } else if (tag == SHORT && type == Short.class) {
+      return (Short) object == binary.getShort(position + 1);
+    } else if (tag == BYTE && type == Byte.class) {
+      return (Byte) object == binary.get(position + 1);
+    } else if (tag == CHARACTER && type == Character.class) {
+      return (Character) object == binary.getChar(position + 1);
+    } else if (tag == BOOLEAN && type == Boolean.class) {
+      return (Boolean) object == (binary.get(position + 1) != 0);
+    } else if (isLeaf(type) && tag != JAVA) {
+      // equals of the leaf types never matches another type
+      return false;
+    } else {
+      return object.equals(read(binary));
+    }
+  }
+
+  private static boolean isLeaf(Class<?> type) {
+    return type == String.class || type == Integer.class || type == Long.class || type == Double.class
+           || type == Float.class || type == Short.class || type == Byte.class || type == Character.class
+           || type == Boolean.class;
+  }
+
+  private void writeValue(Output output, Object value) throws UnsupportedGraphException {
+    if (value == null) {
+      output.ensure(1).put(NULL);
+      return;
+    }
+
+    Class<?> type = value.getClass();
+    if (type == String.class) {
+      String string = (String) value;
+      int length = string.length();
+      ByteBuffer buffer = output.ensure(5 + 2 * length).put(STRING).putInt(length);
+      for (int i = 0; i < length; i++) {
+        buffer.putChar(string.charAt(i));
+      }
+    } else if (type == Integer.class) {
+      output.ensure(5).put(INTEGER).putInt((Integer) value);
+    } else if (type == Long.class) {
+      output.ensure(9).put(LONG).putLong((Long) value);
+    } else if (type == Double.class) {
+      output.ensure(9).put(DOUBLE).putDouble((Double) value);
+    } else if (type == Float.class) {
+      output.ensure(5).put(FLOAT).putFloat((Float) value);
+    } else if (type == Short.class) {
+      output.ensure(3).put(SHORT).putShort((Short) value);
+    } else if (type == Byte.class) {
+      output.ensure(2).put(BYTE).put((Byte) value);
+    } else if (type == Character.class) {
+      output.ensure(3).put(CHARACTER).putChar((Character) value);
+    } else if (type == Boolean.class) {
+      output.ensure(2).put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+    } else {
+      WritePlan plan = writePlans.computeIfAbsent(type, this::createWritePlan);
+      if (plan == UNSUPPORTED || output.visited.put(value, value) != null) {
+        // shared references and cycles are only preserved by Java serialization
+        throw UnsupportedGraphException.INSTANCE;
+      }
+      output.ensure(5).put(FIELDS).putInt(plan.index);
+      writeFields(output, value, plan);
+    }
+  }
+
+  private void writeFields(Output output, Object value, WritePlan plan) throws UnsupportedGraphException {
+    try {
+      for (int i = 0; i < plan.fields.length; i++) {
+        Field field = plan.fields[i];
+        switch (plan.types[i]) {
+          case 'Z':
+            output.ensure(1).put((byte) (field.getBoolean(value) ? 1 : 0));
+            break;
+          case 'B':
+            output.ensure(1).put(field.getByte(value));
+            break;
+          case 'C':
+            output.ensure(2).putChar(field.getChar(value));
+            break;
+          case 'S':
+            output.ensure(2).putShort(field.getShort(value));
+            break;
+          case 'I':
+            output.ensure(4).putInt(field.getInt(value));
+            break;
+          case 'J':
+            output.ensure(8).putLong(field.getLong(value));
+            break;
+          case 'F':
+            output.ensure(4).putFloat(field.getFloat(value));
+            break;
+          case 'D':
+            output.ensure(8).putDouble(field.getDouble(value));
+            break;
+          default:
+            writeValue(output, field.get(value));
+        }
+      }
+    } catch (IllegalAccessException e) {
+      throw new SerializerException(e);
+    }
+  }
+
+  private Object readValue(ByteBuffer binary) throws ClassNotFoundException {
+    byte tag = binary.get();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        char[] chars = new char[binary.getInt()];
+        for (int i = 0; i < chars.length; i++) {
+          chars[i] = binary.getChar();
+        }
+        return new String(chars);
+      case INTEGER:
+        return binary.getInt();
+      case LONG:
+        return binary.getLong();
+      case DOUBLE:
+        return binary.getDouble();
+      case FLOAT:
+        return binary.getFloat();
+      case SHORT:
+        return binary.getShort();
+      case BYTE:
+        return binary.get();
+      case CHARACTER:
+        return binary.getChar();
+      case BOOLEAN:
+        return binary.get() != 0;
+      case FIELDS:
+        return readFields(binary, getReadPlan(binary.getInt()));
+      default:
+        throw new SerializerException("Unexpected tag " + tag);
+    }
+  }
+
+  private Object readFields(ByteBuffer binary, ReadPlan plan) throws ClassNotFoundException {
+    try {
+      Object value = plan.constructor.newInstance();
+      for (int i = 0; i < plan.fields.length; i++) {
+        Field field = plan.fields[i];
+        switch (plan.types[i]) {
+          case 'Z': {
+            boolean read = binary.get() != 0;
+            if (field != null) {
+              field.setBoolean(value, read);
+            }
+            break;
+          }
+          case 'B': {
+            byte read = binary.get();
+            if (field != null) {
+              field.setByte(value, read);
+            }
+            break;
+          }
+          case 'C': {
+            char read = binary.getChar();
+            if (field != null) {
+              field.setChar(value, read);
+            }
+            break;
+          }
+          case 'S': {
+            short read = binary.getShort();
+            if (field != null) {
+              field.setShort(value, read);
+            }
+            break;
+          }
+          case 'I': {
+            int read = binary.getInt();
+            if (field != null) {
+              field.setInt(value, read);
+            }
+            break;
+          }
+          case 'J': {
+            long read = binary.getLong();
+            if (field != null) {
+              field.setLong(value, read);
+            }
+            break;
+          }
+          case 'F': {
+            float read = binary.getFloat();
+            if (field != null) {
+              field.setFloat(value, read);
+            }
+            break;
+          }
+          case 'D': {
+            double read = binary.getDouble();
+            if (field != null) {
+              field.setDouble(value, read);
+            }
+            break;
+          }
+          default: {
+            Object read = readValue(binary);
+            if (field != null) {
+              field.set(value, read);
+            }
+          }
+        }
+      }
+      return value;
+    } catch (ReflectiveOperationException | IllegalArgumentException e) {
+      throw new SerializerException(e);
+    }
+  }
+
+  private WritePlan createWritePlan(Class<?> type) {
+    List<Class<?>> hierarchy = serializableHierarchy(type);
+    if (hierarchy == null || serializationConstructor(type) == null) {
+      return UNSUPPORTED;
+    }
+
+    List<Field> fields = new ArrayList<>();
+    for (Class<?> klazz : hierarchy) {
+      fields.addAll(serialFields(klazz));
+    }
+
+    String[] schema = new String[fields.size() + 1];
+    char[] types = new char[fields.size()];
+    schema[0] = type.getName();
+    for (int i = 0; i < types.length; i++) {
+      Field field = fields.get(i);
+      types[i] = typeCode(field.getType());
+      schema[i + 1] = field.getDeclaringClass().getName() + "#" + field.getName() + ":" + types[i];
+    }
+    return new WritePlan(getOrAddSchema(schema), fields.toArray(new Field[fields.size()]), types);
+  }
+
+  private ReadPlan getReadPlan(int index) throws ClassNotFoundException {
+    ReadPlan plan = readPlans.get(index);
+    if (plan != null) {
+      return plan;
+    }
+
+    String[] schema = schemas.get(index);
+    if (schema == null) {
+      throw new SerializerException("Unknown class schema " + index);
+    }
+    Class<?> type = resolveClass(schema[0]);
+    List<Class<?>> hierarchy = serializableHierarchy(type);
+    Constructor<?> constructor = serializationConstructor(type);
+    if (hierarchy == null || constructor == null) {
+      throw new SerializerException("Class " + type.getName() + " can no longer be read field by field");
+    }
+
+    Field[] fields = new Field[schema.length - 1];
+    char[] types = new char[schema.length - 1];
+    for (int i = 0; i < fields.length; i++) {
+      String descriptor = schema[i + 1];
+      int hash = descriptor.indexOf('#');
+      int colon = descriptor.lastIndexOf(':');
+      String declaringClass = descriptor.substring(0, hash);
+      String name = descriptor.substring(hash + 1, colon);
+      types[i] = descriptor.charAt(colon + 1);
+      for (Class<?> klazz : hierarchy) {
+        if (klazz.getName().equals(declaringClass)) {
+          for (Field field : serialFields(klazz)) {
+            // fields removed or whose type changed since are skipped
+            if (field.getName().equals(name) && typeCode(field.getType()) == types[i]) {
+              fields[i] = field;
+            }
+          }
+        }
+      }
+    }
+    plan = new ReadPlan(constructor, fields, types);
+    ReadPlan existing = readPlans.putIfAbsent(index, plan);
+    return existing == null ? plan : existing;
+  }
+
+  private int getOrAddSchema(String[] schema) {
+    List<String> key = Arrays.asList(schema);
+    Integer index = schemaIndexes.get(key);
+    if (index != null) {
+      return index;
+    }
+
+    lock.lock();
+    try {
+      while (true) {
+        index = schemaIndexes.get(key);
+        if (index != null) {
+          return index;
+        }
+        index = nextSchemaIndex++;
+
+        String[] existing = schemas.putIfAbsent(index, schema);
+        if (existing == null) {
+          schemaIndexes.put(key, index);
+          return index;
+        } else {
+          schemaIndexes.putIfAbsent(Arrays.asList(existing), index);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Class<?> resolveClass(String name) throws ClassNotFoundException {
+    ClassLoader cl = loader == null ? Thread.currentThread().getContextClassLoader() : loader;
+    if (cl != null) {
+      try {
+        return Class.forName(name, false, cl);
+      } catch (ClassNotFoundException e) {
+        // fall back to this serializer's own loader
+      }
+    }
+    return Class.forName(name, false, CompactFieldSerializer.class.getClassLoader());
+  }
+
+  /**
+   * Returns the serializable classes of the hierarchy of {@code type}, from the top down, or {@code null} if any of
+   * them customizes its serialized form.
+   */
+  private static List<Class<?>> serializableHierarchy(Class<?> type) {
+    if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type) || type.isArray()
+        || type.isEnum() || Enum.class.isAssignableFrom(type) || Proxy.isProxyClass(type)) {
+      return null;
+    }
+    try {
+      List<Class<?>> hierarchy = new ArrayList<>();
+      for (Class<?> klazz = type; klazz != null; klazz = klazz.getSuperclass()) {
+        if (declaresMethod(klazz, "writeReplace") || declaresMethod(klazz, "readResolve")) {
+          return null;
+        }
+        if (Serializable.class.isAssignableFrom(klazz)) {
+          if (declaresMethod(klazz, "writeObject") || declaresMethod(klazz, "readObject")
+              || declaresMethod(klazz, "readObjectNoData") || declaresField(klazz, "serialPersistentFields")) {
+            return null;
+          }
+          hierarchy.add(0, klazz);
+        }
+      }
+      return hierarchy;
+    } catch (SecurityException e) {
+      return null;
+    }
+  }
+
+  private static boolean declaresMethod(Class<?> klazz, String name) {
+    for (Method method : klazz.getDeclaredMethods()) {
+      if (method.getName().equals(name) && !Modifier.isStatic(method.getModifiers())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean declaresField(Class<?> klazz, String name) {
+    for (Field field : klazz.getDeclaredFields()) {
+      if (field.getName().equals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<Field> serialFields(Class<?> klazz) {
+    List<Field> fields = new ArrayList<>();
+    for (Field field : klazz.getDeclaredFields()) {
+      int modifiers = field.getModifiers();
+      if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+        field.setAccessible(true);
+        fields.add(field);
+      }
+    }
+    fields.sort(Comparator.comparing(Field::getName));
+    return fields;
+  }
+
+  /**
+   * Returns a constructor creating {@code type} instances the way Java serialization does: running the no-arg
+   * constructor of the first non serializable super class only.
+   */
+  private static Constructor<?> serializationConstructor(Class<?> type) {
+    if (NEW_CONSTRUCTOR_FOR_SERIALIZATION == null) {
+      return null;
+    }
+    Class<?> initClass = type;
+    while (Serializable.class.isAssignableFrom(initClass)) {
+      initClass = initClass.getSuperclass();
+      if (initClass == null) {
+        return null;
+      }
+    }
+    try {
+      Constructor<?> initConstructor = initClass.getDeclaredConstructor();
+      int modifiers = initConstructor.getModifiers();
+      if (Modifier.isPrivate(modifiers) || (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers)
+          && !(initClass.getClassLoader() == type.getClassLoader() && packageOf(initClass).equals(packageOf(type))))) {
+        return null;
+      }
+      Constructor<?> constructor = (Constructor<?>) NEW_CONSTRUCTOR_FOR_SERIALIZATION.invoke(REFLECTION_FACTORY, type, initConstructor);
+      constructor.setAccessible(true);
+      return constructor;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static String packageOf(Class<?> klazz) {
+    String name = klazz.getName();
+    int dot = name.lastIndexOf('.');
+    return dot < 0 ? "" : name.substring(0, dot);
+  }
+
+  private static char typeCode(Class<?> type) {
+    if (type == boolean.class) {
+      return 'Z';
+    } else if (type == byte.class) {
+      return 'B';
+    } else if (type == char.class) {
+      return 'C';
+    } else if (type == short.class) {
+      return 'S';
+    } else if (type == int.class) {
+      return 'I';
+    } else if (type == long.class) {
+      return 'J';
+    } else if (type == float.class) {
+      return 'F';
+    } else if (type == double.class) {
+      return 'D';
+    } else {
+      return 'L';
+    }
+  }
+
+  private static final class WritePlan {
+    private final int index;
+    private final Field[] fields;
+    private final char[] types;
+
+    WritePlan(int index, Field[] fields, char[] types) {
+      this.index = index;
+      this.fields = fields;
+      this.types = types;
+    }
+  }
+
+  private static final class ReadPlan {
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+    private final char[] types;
+
+    ReadPlan(Constructor<?> constructor, Field[] fields, char[] types) {
+      this.constructor = constructor;
+      this.fields = fields;
+      this.types = types;
+    }
+  }
+
+  /**
+   * A per thread scratch buffer, copied out once a value is fully written.
+   */
+  private static final class Output {
+
+    private final Map<Object, Object> visited = new IdentityHashMap<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    ByteBuffer ensure(int bytes) {
+      if (buffer.remaining() < bytes) {
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < bytes) {
+          capacity <<= 1;
+        }
+        buffer.flip();
+        buffer = ByteBuffer.allocate(capacity).put(buffer);
+      }
+      return buffer;
+    }
+
+    ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    void reset() {
+      if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+        buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+      } else {
+        buffer.clear();
+      }
+      if (!visited.isEmpty()) {
+        visited.clear();
+      }
+    }
+  }
+
+  private static final class UnsupportedGraphException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    static final UnsupportedGraphException INSTANCE = new UnsupportedGraphException();
+
+    private UnsupportedGraphException() {
+      super(null, null, false, false);
+    }
+  }
+}
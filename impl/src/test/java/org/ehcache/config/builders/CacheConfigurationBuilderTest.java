@@ -24,9 +24,15 @@ import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.impl.config.copy.DefaultCopierConfiguration;
+import org.ehcache.impl.config.event.DefaultCacheEventDispatcherConfiguration;
 import org.ehcache.impl.config.loaderwriter.DefaultCacheLoaderWriterConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapExpiryReaperConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration;
+import org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration.EvictionPolicy;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.impl.internal.classes.ClassInstanceConfiguration;
 import org.ehcache.spi.copy.Copier;
 import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
@@ -41,6 +47,7 @@ import org.junit.Test;
 
 import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
 import static org.hamcrest.Matchers.*;
@@ -266,6 +273,77 @@ public class CacheConfigurationBuilderTest {
 
   }
 
+  @Test
+  public void testHeapEvictionPolicy() {
+    CacheConfigurationBuilder<String, String> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, heap(10));
+
+    CacheConfiguration<String, String> configuration = builder.withHeapEvictionPolicy(EvictionPolicy.WINDOW_TINY_LFU).build();
+
+    OnHeapStoreConfiguration onHeapStoreConfiguration = ServiceUtils.findSingletonAmongst(OnHeapStoreConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(onHeapStoreConfiguration, notNullValue());
+    assertThat(onHeapStoreConfiguration.getEvictionPolicy(), is(EvictionPolicy.WINDOW_TINY_LFU));
+
+    configuration = builder.withHeapEvictionPolicy(EvictionPolicy.WINDOW_TINY_LFU).withHeapEvictionPolicy(EvictionPolicy.SAMPLED_LRU).build();
+
+    onHeapStoreConfiguration = ServiceUtils.findSingletonAmongst(OnHeapStoreConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(onHeapStoreConfiguration.getEvictionPolicy(), is(EvictionPolicy.SAMPLED_LRU));
+  }
+
+  @Test
+  public void testEventBatching() {
+    CacheConfigurationBuilder<String, String> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, heap(10));
+
+    CacheConfiguration<String, String> configuration = builder.withEventListenersThreadPool("events").withEventBatching(64, 10, TimeUnit.MILLISECONDS).build();
+
+    DefaultCacheEventDispatcherConfiguration dispatcherConfiguration = ServiceUtils.findSingletonAmongst(DefaultCacheEventDispatcherConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(dispatcherConfiguration.getThreadPoolAlias(), is("events"));
+    assertThat(dispatcherConfiguration.getMaxBatchSize(), is(64));
+    assertThat(dispatcherConfiguration.getMaxBatchDelay(), is(10L));
+    assertThat(dispatcherConfiguration.getMaxBatchDelayUnit(), is(TimeUnit.MILLISECONDS));
+
+    configuration = builder.withEventBatching(64, 10, TimeUnit.MILLISECONDS).withEventListenersThreadPool("other").build();
+
+    dispatcherConfiguration = ServiceUtils.findSingletonAmongst(DefaultCacheEventDispatcherConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(dispatcherConfiguration.getThreadPoolAlias(), is("other"));
+    assertThat(dispatcherConfiguration.getMaxBatchSize(), is(64));
+  }
+
+  @Test
+  public void testHeapExpiryReaper() {
+    CacheConfigurationBuilder<String, String> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, heap(10));
+
+    CacheConfiguration<String, String> configuration = builder.withHeapExpiryReaper(1, TimeUnit.SECONDS).build();
+
+    OnHeapExpiryReaperConfiguration reaperConfiguration = ServiceUtils.findSingletonAmongst(OnHeapExpiryReaperConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(reaperConfiguration, notNullValue());
+    assertThat(reaperConfiguration.getInterval(), is(1L));
+    assertThat(reaperConfiguration.getUnit(), is(TimeUnit.SECONDS));
+    assertThat(reaperConfiguration.getMaxExpirationsPerRun(), is(OnHeapExpiryReaperConfiguration.DEFAULT_MAX_EXPIRATIONS_PER_RUN));
+
+    configuration = builder.withHeapExpiryReaper(1, TimeUnit.SECONDS).withHeapExpiryReaper(100, TimeUnit.MILLISECONDS).build();
+
+    reaperConfiguration = ServiceUtils.findSingletonAmongst(OnHeapExpiryReaperConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(reaperConfiguration.getInterval(), is(100L));
+    assertThat(reaperConfiguration.getUnit(), is(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testValueCompression() {
+    CacheConfigurationBuilder<String, String> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, heap(10));
+
+    CacheConfiguration<String, String> configuration = builder.withValueCompression(Compression.LZ4).build();
+
+    OffHeapStoreConfiguration offHeapStoreConfiguration = ServiceUtils.findSingletonAmongst(OffHeapStoreConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(offHeapStoreConfiguration, notNullValue());
+    assertThat(offHeapStoreConfiguration.getCompression(), is(Compression.LZ4));
+    assertThat(offHeapStoreConfiguration.getCompressionThreshold(), is(OffHeapStoreConfiguration.DEFAULT_COMPRESSION_THRESHOLD));
+
+    configuration = builder.withValueCompression(Compression.LZ4).withValueCompression(Compression.NONE).build();
+
+    offHeapStoreConfiguration = ServiceUtils.findSingletonAmongst(OffHeapStoreConfiguration.class, configuration.getServiceConfigurations());
+    assertThat(offHeapStoreConfiguration.getCompression(), is(Compression.NONE));
+  }
+
   @Test
   public void testCopyingOfExistingConfiguration() {
     Class<Integer> keyClass = Integer.class;
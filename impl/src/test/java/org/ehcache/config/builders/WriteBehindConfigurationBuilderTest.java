@@ -17,9 +17,15 @@
 package org.ehcache.config.builders;
 
 import java.util.concurrent.TimeUnit;
+
+import org.ehcache.impl.config.loaderwriter.writebehind.DurableWriteBehindConfiguration;
+import org.ehcache.impl.serialization.LongSerializer;
+import org.ehcache.impl.serialization.StringSerializer;
+import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
 import static org.ehcache.config.builders.WriteBehindConfigurationBuilder.newBatchedWriteBehindConfiguration;
 import static org.ehcache.config.builders.WriteBehindConfigurationBuilder.newUnBatchedWriteBehindConfiguration;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -122,4 +128,23 @@ public class WriteBehindConfigurationBuilderTest {
     }
   }
 
+  @Test
+  public void testDurableBatchedQueue() {
+    WriteBehindConfiguration config = newBatchedWriteBehindConfiguration(1, TimeUnit.MINUTES, 10)
+        .durable("metering", new LongSerializer(), new StringSerializer())
+        .concurrencyLevel(2)
+        .build();
+    assertThat(config, instanceOf(DurableWriteBehindConfiguration.class));
+    DurableWriteBehindConfiguration durable = (DurableWriteBehindConfiguration) config;
+    assertThat(durable.getQueueName(), is("metering"));
+    assertThat(durable.getConcurrency(), is(2));
+    assertThat(durable.getBatchingConfiguration().getBatchSize(), is(10));
+    assertThat(durable.getSegmentSize(), is(DurableWriteBehindConfiguration.DEFAULT_SEGMENT_SIZE));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testDurableQueueRequiresSerializers() {
+    newUnBatchedWriteBehindConfiguration().durable("metering", null, new StringSerializer());
+  }
+
 }
@@ -17,6 +17,7 @@
 package org.ehcache.impl.events;
 
 import org.ehcache.event.CacheEvent;
+import org.ehcache.event.CacheEventBatchListener;
 import org.ehcache.event.CacheEventListener;
 import org.ehcache.event.EventFiring;
 import org.ehcache.event.EventOrdering;
@@ -31,12 +32,21 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
@@ -183,10 +193,104 @@ public class CacheEventDispatcherImplTest {
     inOrder.verifyNoMoreInteractions();
   }
 
+  @Test
+  public void testBatchListenerReceivesFullBatch() throws Exception {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      eventService = new CacheEventDispatcherImpl<>(executor, executor, scheduler, 3, 1, TimeUnit.HOURS);
+      eventService.setStoreEventSource(storeEventDispatcher);
+      RecordingBatchListener batchListener = new RecordingBatchListener(1);
+      eventService.registerCacheEventListener(batchListener, EventOrdering.UNORDERED, EventFiring.ASYNCHRONOUS, EnumSet.of(EventType.CREATED, EventType.REMOVED));
+
+      CacheEvent<Number, String> create = eventOfType(EventType.CREATED);
+      CacheEvent<Number, String> evict = eventOfType(EventType.EVICTED);
+      CacheEvent<Number, String> remove = eventOfType(EventType.REMOVED);
+      eventService.onEvent(create);
+      eventService.onEvent(evict);
+      assertThat(batchListener.batches, empty());
+      eventService.onEvent(remove);
+
+      assertTrue(batchListener.latch.await(2, TimeUnit.SECONDS));
+      assertThat(batchListener.batches, contains(asList(create, remove)));
+    } finally {
+      scheduler.shutdownNow();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testPartialBatchIsDispatchedAfterDelay() throws Exception {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      eventService = new CacheEventDispatcherImpl<>(executor, executor, scheduler, 100, 10, TimeUnit.MILLISECONDS);
+      eventService.setStoreEventSource(storeEventDispatcher);
+      CountDownLatch latch = new CountDownLatch(2);
+      List<CacheEvent<?, ?>> received = Collections.synchronizedList(new ArrayList<>());
+      doAnswer(invocation -> {
+        received.add((CacheEvent<?, ?>) invocation.getArguments()[0]);
+        latch.countDown();
+        return null;
+      }).when(listener).onEvent(any(CacheEvent.class));
+      eventService.registerCacheEventListener(listener, EventOrdering.UNORDERED, EventFiring.ASYNCHRONOUS, EnumSet.allOf(EventType.class));
+
+      CacheEvent<Number, String> create = eventOfType(EventType.CREATED);
+      CacheEvent<Number, String> update = eventOfType(EventType.UPDATED);
+      eventService.onEvent(create);
+      eventService.onEvent(update);
+
+      assertTrue(latch.await(2, TimeUnit.SECONDS));
+      assertThat(received, contains(create, update));
+    } finally {
+      scheduler.shutdownNow();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testShutdownDispatchesPendingBatch() throws Exception {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    eventService = new CacheEventDispatcherImpl<>(executor, executor, scheduler, 100, 1, TimeUnit.HOURS);
+    eventService.setStoreEventSource(storeEventDispatcher);
+    RecordingBatchListener batchListener = new RecordingBatchListener(1);
+    eventService.registerCacheEventListener(batchListener, EventOrdering.UNORDERED, EventFiring.ASYNCHRONOUS, EnumSet.allOf(EventType.class));
+
+    CacheEvent<Number, String> create = eventOfType(EventType.CREATED);
+    eventService.onEvent(create);
+    eventService.shutdown();
+
+    assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+    assertTrue(scheduler.isShutdown());
+    assertThat(batchListener.batches, contains(Collections.singletonList(create)));
+  }
+
   private static <K, V> CacheEvent<K, V> eventOfType(EventType type) {
     CacheEvent<K, V> event = mock(CacheEvent.class, type.name());
     when(event.getType()).thenReturn(type);
     when(event.getKey()).thenReturn((K)new Object());
     return event;
   }
+
+  private static class RecordingBatchListener implements CacheEventBatchListener<Number, String> {
+
+    private final List<List<CacheEvent<? extends Number, ? extends String>>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch latch;
+
+    RecordingBatchListener(int expectedBatches) {
+      this.latch = new CountDownLatch(expectedBatches);
+    }
+
+    @Override
+    public void onEvents(List<CacheEvent<? extends Number, ? extends String>> events) {
+      batches.add(events);
+      latch.countDown();
+    }
+
+    @Override
+    public void onEvent(CacheEvent<? extends Number, ? extends String> event) {
+      throw new AssertionError("Batched events should be delivered through onEvents");
+    }
+  }
 }
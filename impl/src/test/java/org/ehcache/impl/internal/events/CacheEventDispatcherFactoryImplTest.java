@@ -63,7 +63,7 @@ public class CacheEventDispatcherFactoryImplTest {
     ServiceProvider<Service> serviceProvider = mock(ServiceProvider.class);
     ExecutionService executionService = mock(ExecutionService.class);
     when(serviceProvider.getService(ExecutionService.class)).thenReturn(executionService);
-    when(executionService.getOrderedExecutor(eq("myAlias"), any(BlockingQueue.class))).thenThrow(IllegalArgumentException.class);
+    when(executionService.getOrderedExecutor("myAlias")).thenThrow(IllegalArgumentException.class);
     when(executionService.getUnorderedExecutor(eq("myAlias"), any(BlockingQueue.class))).thenThrow(IllegalArgumentException.class);
 
     CacheEventDispatcherFactoryImpl cacheEventDispatcherFactory = new CacheEventDispatcherFactoryImpl();
@@ -85,7 +85,7 @@ public class CacheEventDispatcherFactoryImplTest {
     ServiceProvider<Service> serviceProvider = mock(ServiceProvider.class);
     ExecutionService executionService = mock(ExecutionService.class);
     when(serviceProvider.getService(ExecutionService.class)).thenReturn(executionService);
-    when(executionService.getOrderedExecutor(eq("myAlias"), any(BlockingQueue.class))).thenReturn(mock(ExecutorService.class));
+    when(executionService.getOrderedExecutor("myAlias")).thenReturn(mock(ExecutorService.class));
     when(executionService.getUnorderedExecutor(eq("myAlias"), any(BlockingQueue.class))).thenReturn(mock(ExecutorService.class));
 
     CacheEventDispatcherFactoryImpl cacheEventDispatcherFactory = new CacheEventDispatcherFactoryImpl();
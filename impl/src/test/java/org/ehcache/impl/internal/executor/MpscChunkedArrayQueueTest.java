@@ -0,0 +1,106 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.executor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MpscChunkedArrayQueueTest {
+
+  @Test
+  public void testEmptyQueue() {
+    MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(4);
+    assertThat(queue.isEmpty(), is(true));
+    assertThat(queue.size(), is(0));
+    assertThat(queue.poll(), nullValue());
+  }
+
+  @Test
+  public void testElementsAreDrainedInOrderAcrossChunks() {
+    MpscChunkedArrayQueue<Integer> queue = new MpscChunkedArrayQueue<>(4);
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    assertThat(queue.size(), is(10));
+
+    List<Integer> drained = new ArrayList<>();
+    assertThat(queue.drain(drained::add, 3), is(3));
+    assertThat(queue.drain(drained::add, Integer.MAX_VALUE), is(7));
+    assertThat(drained, contains(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+    assertThat(queue.isEmpty(), is(true));
+
+    queue.offer(10);
+    assertThat(queue.poll(), is(10));
+    assertThat(queue.poll(), nullValue());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testNullElementsAreRejected() {
+    new MpscChunkedArrayQueue<>().offer(null);
+  }
+
+  @Test
+  public void testConcurrentProducersKeepTheirOrder() throws Exception {
+    final int producers = 4;
+    final int count = 100000;
+    MpscChunkedArrayQueue<int[]> queue = new MpscChunkedArrayQueue<>(16);
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < producers; p++) {
+        final int producer = p;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < count; i++) {
+            queue.offer(new int[] {producer, i});
+          }
+        }));
+      }
+
+      int[] next = new int[producers];
+      int received = 0;
+      while (received < producers * count) {
+        int[] element = queue.poll();
+        if (element == null) {
+          Thread.yield();
+        } else {
+          assertThat(element[1], is(next[element[0]]));
+          next[element[0]]++;
+          received++;
+        }
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      assertThat(queue.isEmpty(), is(true));
+      for (int p = 0; p < producers; p++) {
+        assertThat(next[p], is(count));
+      }
+      assertThat(queue.poll(), nullValue());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
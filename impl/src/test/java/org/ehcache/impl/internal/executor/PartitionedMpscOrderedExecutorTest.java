@@ -0,0 +1,316 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class PartitionedMpscOrderedExecutorTest {
+
+  @Test
+  public void testShutdownOfIdleExecutor() throws InterruptedException {
+    ExecutorService service = mock(ExecutorService.class);
+    PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+    executor.shutdown();
+    assertThat(executor.isShutdown(), is(true));
+    assertThat(executor.awaitTermination(2, TimeUnit.MINUTES), is(true));
+    assertThat(executor.isTerminated(), is(true));
+  }
+
+  @Test
+  public void testShutdownNowOfIdleExecutor() throws InterruptedException {
+    ExecutorService service = mock(ExecutorService.class);
+    PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+    assertThat(executor.shutdownNow(), empty());
+    assertThat(executor.isShutdown(), is(true));
+    assertThat(executor.awaitTermination(2, TimeUnit.MINUTES), is(true));
+    assertThat(executor.isTerminated(), is(true));
+  }
+
+  @Test
+  public void testTerminatedExecutorRejectsJob() throws InterruptedException {
+    ExecutorService service = mock(ExecutorService.class);
+    PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+    executor.shutdown();
+    assertThat(executor.awaitTermination(2, TimeUnit.MINUTES), is(true));
+
+    try {
+      executor.execute(() -> {
+        //no-op
+      });
+      fail("Expected RejectedExecutionException");
+    } catch (RejectedExecutionException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testShutdownButNonTerminatedExecutorRejectsJob() throws InterruptedException {
+    ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final Semaphore semaphore = new Semaphore(0);
+      executor.execute(semaphore::acquireUninterruptibly);
+      executor.shutdown();
+      try {
+        executor.execute(() -> {
+          throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        });
+        fail("Expected RejectedExecutionException");
+      } catch (RejectedExecutionException e) {
+        //expected
+      }
+
+      semaphore.release();
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testShutdownLeavesJobRunning() throws InterruptedException {
+    ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final Semaphore semaphore = new Semaphore(0);
+      executor.execute(semaphore::acquireUninterruptibly);
+      executor.shutdown();
+      assertThat(executor.awaitTermination(100, MILLISECONDS), is(false));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(false));
+
+      semaphore.release();
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(true));
+
+      assertThat(semaphore.availablePermits(), is(0));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testQueuedJobRunsAfterShutdown() throws InterruptedException {
+    ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final Semaphore jobSemaphore = new Semaphore(0);
+      final Semaphore testSemaphore = new Semaphore(0);
+
+      executor.submit(() -> {
+        testSemaphore.release();
+        jobSemaphore.acquireUninterruptibly();
+      });
+      executor.submit((Runnable) jobSemaphore::acquireUninterruptibly);
+      testSemaphore.acquireUninterruptibly();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(100, MILLISECONDS), is(false));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(false));
+
+      jobSemaphore.release();
+      assertThat(executor.awaitTermination(100, MILLISECONDS), is(false));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(false));
+
+      jobSemaphore.release();
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(true));
+
+      assertThat(jobSemaphore.availablePermits(), is(0));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testQueuedJobIsStoppedAfterShutdownNow() throws InterruptedException {
+    ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final Semaphore jobSemaphore = new Semaphore(0);
+      final Semaphore testSemaphore = new Semaphore(0);
+
+      executor.submit(() -> {
+        testSemaphore.release();
+        jobSemaphore.acquireUninterruptibly();
+      });
+      final AtomicBoolean called = new AtomicBoolean();
+      Callable<?> leftBehind = (Callable<Void>) () -> {
+        called.set(true);
+        return null;
+      };
+      executor.submit(leftBehind);
+      testSemaphore.acquireUninterruptibly();
+      assertThat(executor.shutdownNow(), hasSize(1));
+      assertThat(executor.awaitTermination(100, MILLISECONDS), is(false));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(false));
+
+      jobSemaphore.release();
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(true));
+
+      assertThat(jobSemaphore.availablePermits(), is(0));
+      assertThat(called.get(), is(false));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testRunningJobIsInterruptedAfterShutdownNow() throws InterruptedException {
+    ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final Semaphore jobSemaphore = new Semaphore(0);
+      final Semaphore testSemaphore = new Semaphore(0);
+      final AtomicBoolean interrupted = new AtomicBoolean();
+
+      executor.submit(() -> {
+        testSemaphore.release();
+        try {
+          jobSemaphore.acquire();
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+        }
+      });
+      testSemaphore.acquireUninterruptibly();
+      assertThat(executor.shutdownNow(), empty());
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+      assertThat(executor.isShutdown(), is(true));
+      assertThat(executor.isTerminated(), is(true));
+
+      assertThat(jobSemaphore.availablePermits(), is(0));
+      assertThat(interrupted.get(), is(true));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testJobsAreExecutedInOrder() throws InterruptedException, ExecutionException {
+    ExecutorService service = Executors.newFixedThreadPool(2);
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final AtomicInteger sequence = new AtomicInteger(-1);
+      List<Future<?>> tasks = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        final int index = i;
+        tasks.add(executor.submit(() -> {
+          assertThat(sequence.getAndSet(index), is(index -1));
+          return null;
+        }));
+      }
+
+      for (Future<?> task : tasks) {
+        task.get();
+      }
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testJobsOfEachProducerAreExecutedInOrder() throws Exception {
+    ExecutorService service = Executors.newFixedThreadPool(2);
+    ExecutorService producers = Executors.newFixedThreadPool(4);
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final int[] last = new int[4];
+      final AtomicInteger failures = new AtomicInteger();
+      List<Future<?>> submissions = new ArrayList<>();
+      for (int p = 0; p < 4; p++) {
+        final int producer = p;
+        last[producer] = -1;
+        submissions.add(producers.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            final int index = i;
+            executor.execute(() -> {
+              if (last[producer] != index - 1) {
+                failures.incrementAndGet();
+              }
+              last[producer] = index;
+            });
+          }
+        }));
+      }
+      for (Future<?> submission : submissions) {
+        submission.get();
+      }
+      executor.shutdown();
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+
+      assertThat(failures.get(), is(0));
+      for (int p = 0; p < 4; p++) {
+        assertThat(last[p], is(9999));
+      }
+    } finally {
+      producers.shutdown();
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailingJobDoesNotStopTheFollowingOnes() throws Exception {
+    ExecutorService service = Executors.newSingleThreadExecutor();
+    try {
+      PartitionedMpscOrderedExecutor executor = new PartitionedMpscOrderedExecutor(service);
+
+      final AtomicBoolean called = new AtomicBoolean();
+      executor.execute(() -> {
+        throw new IllegalStateException("Failing job");
+      });
+      executor.execute(() -> called.set(true));
+      executor.shutdown();
+      assertThat(executor.awaitTermination(2, MINUTES), is(true));
+      assertThat(called.get(), is(true));
+    } finally {
+      service.shutdown();
+    }
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.writebehind;
+
+import org.ehcache.impl.config.loaderwriter.writebehind.DefaultBatchingConfiguration;
+import org.ehcache.impl.config.loaderwriter.writebehind.DurableWriteBehindConfiguration;
+import org.ehcache.impl.internal.executor.OnDemandExecutionService;
+import org.ehcache.impl.serialization.LongSerializer;
+import org.ehcache.impl.serialization.StringSerializer;
+import org.ehcache.spi.loaderwriter.WriteBehindConfiguration.BatchingConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DiskSpillingWriteBehindQueueTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final OnDemandExecutionService executionService = new OnDemandExecutionService();
+
+  @Test
+  public void testOperationsAreWritten() throws Exception {
+    File directory = folder.newFolder();
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<>();
+    CountDownLatch latch = new CountDownLatch(3);
+    loaderWriter.setLatch(latch);
+
+    DiskSpillingWriteBehindQueue<Long, String> queue = newQueue(directory, null, loaderWriter);
+    try {
+      queue.write(1L, "one");
+      queue.write(2L, "two");
+      queue.delete(1L);
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      queue.stop();
+    }
+
+    assertThat(loaderWriter.getData().get(1L), contains("one", null));
+    assertThat(loaderWriter.getData().get(2L), contains("two"));
+  }
+
+  @Test
+  public void testPendingOperationsAreReadFromDisk() throws Exception {
+    File directory = folder.newFolder();
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<>();
+
+    DiskSpillingWriteBehindQueue<Long, String> queue = newQueue(directory, longDelayBatching(), loaderWriter);
+    try {
+      queue.write(1L, "one");
+      queue.write(2L, "two");
+      queue.delete(2L);
+
+      assertThat(queue.getQueueSize(), is(3L));
+      assertThat(queue.load(1L), is("one"));
+      assertThat(queue.load(2L), nullValue());
+      assertThat(loaderWriter.getData().isEmpty(), is(true));
+    } finally {
+      queue.stop();
+    }
+  }
+
+  @Test
+  public void testUnacknowledgedOperationsAreReplayed() throws Exception {
+    File directory = folder.newFolder();
+    CountDownLatch attempted = new CountDownLatch(1);
+    WriteBehindTestLoaderWriter<Long, String> failing = new WriteBehindTestLoaderWriter<Long, String>() {
+      @Override
+      public void writeAll(Iterable<? extends Map.Entry<? extends Long, ? extends String>> entries) throws Exception {
+        attempted.countDown();
+        throw new Exception("Database unavailable");
+      }
+    };
+
+    DiskSpillingWriteBehindQueue<Long, String> queue = newQueue(directory, new DefaultBatchingConfiguration(10, MILLISECONDS, 2, false), failing);
+    try {
+      queue.write(1L, "one");
+      queue.write(2L, "two");
+      assertTrue(attempted.await(10, SECONDS));
+    } finally {
+      queue.stop();
+    }
+    assertThat(failing.getData().isEmpty(), is(true));
+
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<>();
+    CountDownLatch latch = new CountDownLatch(2);
+    loaderWriter.setLatch(latch);
+    DiskSpillingWriteBehindQueue<Long, String> reopened = newQueue(directory, null, loaderWriter);
+    try {
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      reopened.stop();
+    }
+    assertThat(loaderWriter.getData().get(1L), contains("one"));
+    assertThat(loaderWriter.getData().get(2L), contains("two"));
+  }
+
+  @Test
+  public void testAcknowledgedOperationsAreNotReplayed() throws Exception {
+    File directory = folder.newFolder();
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<>();
+    CountDownLatch latch = new CountDownLatch(1);
+    loaderWriter.setLatch(latch);
+
+    DiskSpillingWriteBehindQueue<Long, String> queue = newQueue(directory, null, loaderWriter);
+    try {
+      queue.write(1L, "one");
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      queue.stop();
+    }
+
+    DiskSpillingWriteBehindQueue<Long, String> reopened = newQueue(directory, longDelayBatching(), new WriteBehindTestLoaderWriter<>());
+    try {
+      assertThat(reopened.getQueueSize(), is(0L));
+    } finally {
+      reopened.stop();
+    }
+  }
+
+  @Test
+  public void testTornAppendIsDiscarded() throws Exception {
+    File directory = folder.newFolder();
+    DiskSpillingWriteBehindQueue<Long, String> queue = newQueue(directory, longDelayBatching(), new WriteBehindTestLoaderWriter<>());
+    try {
+      queue.write(1L, "one");
+    } finally {
+      queue.stop();
+    }
+
+    File[] segments = directory.listFiles((dir, name) -> name.endsWith(".segment"));
+    assertThat(segments.length, is(1));
+    appendGarbage(segments[0]);
+
+    DiskSpillingWriteBehindQueue<Long, String> reopened = newQueue(directory, longDelayBatching(), new WriteBehindTestLoaderWriter<>());
+    try {
+      assertThat(reopened.getQueueSize(), is(1L));
+      reopened.write(2L, "two");
+      assertThat(reopened.load(1L), is("one"));
+      assertThat(reopened.load(2L), is("two"));
+    } finally {
+      reopened.stop();
+    }
+  }
+
+  @Test
+  public void testSegmentsRollAndAreDeletedOnceAcknowledged() throws Exception {
+    File directory = folder.newFolder();
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<>();
+    CountDownLatch latch = new CountDownLatch(50);
+    loaderWriter.setLatch(latch);
+
+    DurableWriteBehindConfiguration config = new DurableWriteBehindConfiguration(null, 1, Integer.MAX_VALUE, null,
+        "test", new LongSerializer(), new StringSerializer(), 128);
+    DiskSpillingWriteBehindQueue<Long, String> queue = new DiskSpillingWriteBehindQueue<>(executionService, null, config, directory, loaderWriter);
+    try {
+      for (long i = 0; i < 50; i++) {
+        queue.write(i, "value-" + i);
+      }
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      queue.stop();
+    }
+
+    assertThat(directory.listFiles((dir, name) -> name.endsWith(".segment")).length, is(1));
+    assertThat(loaderWriter.getData().get(49L), contains("value-49"));
+  }
+
+  @Test
+  public void testBatchedOperationsAreCoalesced() throws Exception {
+    File directory = folder.newFolder();
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<>();
+    CountDownLatch latch = new CountDownLatch(2);
+    loaderWriter.setLatch(latch);
+
+    BatchingConfiguration batching = new DefaultBatchingConfiguration(1, SECONDS, 3, true);
+    DiskSpillingWriteBehindQueue<Long, String> queue = newQueue(directory, batching, loaderWriter);
+    try {
+      queue.writeAll(asList(entry(1L, "one"), entry(1L, "uno"), entry(2L, "two")));
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      queue.stop();
+    }
+
+    assertThat(loaderWriter.getData().get(1L), contains("uno"));
+    assertThat(loaderWriter.getData().get(2L), contains("two"));
+  }
+
+  @Test
+  public void testExhaustedRetriesMoveOperationsToDeadLetterFile() throws Exception {
+    File directory = folder.newFolder();
+    CountDownLatch attempted = new CountDownLatch(3);
+    CountDownLatch written = new CountDownLatch(1);
+    WriteBehindTestLoaderWriter<Long, String> loaderWriter = new WriteBehindTestLoaderWriter<Long, String>() {
+      @Override
+      public synchronized void write(Long key, String value) throws Exception {
+        if (key == 1L) {
+          attempted.countDown();
+          throw new Exception("Rejected");
+        }
+        super.write(key, value);
+      }
+    };
+    loaderWriter.setLatch(written);
+
+    DurableWriteBehindConfiguration config = new DurableWriteBehindConfiguration(null, 1, Integer.MAX_VALUE, null,
+        "test", new LongSerializer(), new StringSerializer(), DurableWriteBehindConfiguration.DEFAULT_SEGMENT_SIZE, 2, 10, MILLISECONDS);
+    DiskSpillingWriteBehindQueue<Long, String> queue = new DiskSpillingWriteBehindQueue<>(executionService, null, config, directory, loaderWriter);
+    try {
+      queue.write(1L, "one");
+      queue.write(2L, "two");
+      // the rejected operation is tried once, retried twice, then the queue moves on
+      assertTrue(attempted.await(10, SECONDS));
+      assertTrue(written.await(10, SECONDS));
+    } finally {
+      queue.stop();
+    }
+
+    assertThat(loaderWriter.getData().get(1L), nullValue());
+    assertThat(loaderWriter.getData().get(2L), contains("two"));
+    assertThat(new File(directory, DiskSpillingWriteBehindQueue.DEAD_LETTER_FILE).length() > 0L, is(true));
+  }
+
+  private DiskSpillingWriteBehindQueue<Long, String> newQueue(File directory, BatchingConfiguration batching,
+                                                              WriteBehindTestLoaderWriter<Long, String> loaderWriter) throws IOException {
+    DurableWriteBehindConfiguration config = new DurableWriteBehindConfiguration(null, 1, Integer.MAX_VALUE, batching,
+        "test", new LongSerializer(), new StringSerializer(), DurableWriteBehindConfiguration.DEFAULT_SEGMENT_SIZE);
+    return new DiskSpillingWriteBehindQueue<>(executionService, null, config, directory, loaderWriter);
+  }
+
+  private static BatchingConfiguration longDelayBatching() {
+    return new DefaultBatchingConfiguration(1, HOURS, 100, false);
+  }
+
+  private static void appendGarbage(File file) throws IOException {
+    try (FileOutputStream out = new FileOutputStream(file, true)) {
+      out.write(new byte[] {0, 0, 0, 42, 1, 2, 3});
+    }
+  }
+
+  private static Map.Entry<Long, String> entry(Long key, String value) {
+    return new SimpleEntry<>(key, value);
+  }
+}
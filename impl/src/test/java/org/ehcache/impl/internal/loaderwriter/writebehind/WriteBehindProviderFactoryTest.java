@@ -29,12 +29,15 @@ import org.hamcrest.core.IsCollectionContaining;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.Map;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertThat;
 
@@ -46,6 +49,9 @@ public class WriteBehindProviderFactoryTest {
   @Rule
   public ExpectedException expectedEx = ExpectedException.none();
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @SuppressWarnings("unchecked")
   @Test
   public void testAddingWriteBehindConfigurationAtCacheLevel() {
@@ -76,6 +82,28 @@ public class WriteBehindProviderFactoryTest {
     factory.create(null).createWriteBehindLoaderWriter(null, null);
   }
 
+  @Test
+  public void testDurableQueueStripeCountIsRecorded() throws Exception {
+    File root = folder.newFolder();
+    WriteBehindProviderFactory.Provider.checkStripeCount(root, 4);
+    WriteBehindProviderFactory.Provider.checkStripeCount(root, 4);
+
+    expectedEx.expect(IllegalStateException.class);
+    expectedEx.expectMessage("created with a concurrency of 4");
+    WriteBehindProviderFactory.Provider.checkStripeCount(root, 2);
+  }
+
+  @Test
+  public void testDurableQueueStripeCountIsInferredFromExistingStripes() throws Exception {
+    File root = folder.newFolder();
+    assertThat(new File(root, "stripe-0").mkdir(), is(true));
+    assertThat(new File(root, "stripe-1").mkdir(), is(true));
+
+    expectedEx.expect(IllegalStateException.class);
+    expectedEx.expectMessage("created with a concurrency of 2");
+    WriteBehindProviderFactory.Provider.checkStripeCount(root, 3);
+  }
+
   public static class SampleLoaderWriter<K, V> implements CacheLoaderWriter<K, V> {
 
     @Override
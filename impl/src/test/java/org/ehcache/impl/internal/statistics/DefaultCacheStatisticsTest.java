@@ -163,6 +163,25 @@ public class DefaultCacheStatisticsTest {
     assertThat(cacheStatistics.getCacheAverageRemoveTime()).isGreaterThan(0);
   }
 
+  @Test
+  public void getLatencyHistograms() throws Exception {
+    DefaultCacheStatistics sampledStatistics = new DefaultCacheStatistics(cache, 1.0);
+
+    cache.put(1L, "a");
+    cache.get(1L);
+    cache.get(2L);
+
+    assertThat(cacheStatistics.getLatencyHistograms()).isEmpty();
+    assertThat(sampledStatistics.getLatencyHistograms()).containsOnlyKeys("Cache:GetHitLatency", "Cache:GetMissLatency",
+      "Cache:GetAllLatency", "Cache:PutLatency", "Cache:RemoveLatency", "OnHeap:GetHitLatency", "OnHeap:GetMissLatency");
+    assertThat(sampledStatistics.getLatencyHistograms().get("Cache:GetHitLatency").getCount()).isEqualTo(1L);
+    assertThat(sampledStatistics.getLatencyHistograms().get("Cache:GetHitLatency").getPercentile(0.99)).isGreaterThan(0L);
+    assertThat(sampledStatistics.getLatencyHistograms().get("Cache:PutLatency").getCount()).isEqualTo(1L);
+
+    sampledStatistics.clear();
+    assertThat(sampledStatistics.getLatencyHistograms().get("Cache:GetHitLatency").getCount()).isEqualTo(0L);
+  }
+
   private AbstractObjectAssert<?, Number> assertStat(String key) {
     return assertThat(cacheStatistics.getKnownStatistics().get(key).value());
   }
@@ -0,0 +1,70 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.statistics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultLatencyHistogramTest {
+
+  @Test
+  public void emptyHistogram() {
+    DefaultLatencyHistogram.Buckets buckets = new DefaultLatencyHistogram.Buckets();
+
+    assertThat(buckets.count()).isEqualTo(0L);
+    assertThat(buckets.percentile(0.99)).isEqualTo(0L);
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long value = 0; value < 32; value++) {
+      assertThat(DefaultLatencyHistogram.Buckets.highestValueOf(DefaultLatencyHistogram.Buckets.indexOf(value))).isEqualTo(value);
+    }
+  }
+
+  @Test
+  public void bucketsBoundTheRelativeError() {
+    for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+      long highest = DefaultLatencyHistogram.Buckets.highestValueOf(DefaultLatencyHistogram.Buckets.indexOf(value));
+      assertThat(highest).isGreaterThanOrEqualTo(value);
+      assertThat((double) (highest - value) / value).isLessThan(0.07);
+    }
+    assertThat(DefaultLatencyHistogram.Buckets.highestValueOf(DefaultLatencyHistogram.Buckets.indexOf(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void percentiles() {
+    DefaultLatencyHistogram.Buckets buckets = new DefaultLatencyHistogram.Buckets();
+    for (long latency = 1; latency <= 1000; latency++) {
+      buckets.record(latency * 1000);
+    }
+
+    assertThat(buckets.count()).isEqualTo(1000L);
+    assertThat(buckets.percentile(0.5)).isBetween(500_000L, 540_000L);
+    assertThat(buckets.percentile(0.99)).isBetween(990_000L, 1_060_000L);
+    assertThat(buckets.percentile(1.0)).isBetween(1_000_000L, 1_070_000L);
+  }
+
+  @Test
+  public void negativeLatenciesAreRecordedAsZero() {
+    DefaultLatencyHistogram.Buckets buckets = new DefaultLatencyHistogram.Buckets();
+    buckets.record(-5);
+
+    assertThat(buckets.percentile(1.0)).isEqualTo(0L);
+  }
+}
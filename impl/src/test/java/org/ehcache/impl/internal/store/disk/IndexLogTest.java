@@ -0,0 +1,95 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.disk;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class IndexLogTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testNewLogHasNoCheckpoint() throws Exception {
+    File file = folder.newFile();
+    try (IndexLog log = new IndexLog(file, false)) {
+      assertThat(IndexLog.lastCheckpoint(file), is(IndexLog.NO_CHECKPOINT));
+    }
+  }
+
+  @Test
+  public void testCheckpointIsRecorded() throws Exception {
+    File file = folder.newFile();
+    AtomicLong written = new AtomicLong();
+    try (IndexLog log = new IndexLog(file, false)) {
+      assertThat(log.checkpoint(written::set), is(true));
+    }
+    assertThat(IndexLog.lastCheckpoint(file), is(written.get()));
+  }
+
+  @Test
+  public void testMutationInvalidatesCheckpoint() throws Exception {
+    File file = folder.newFile();
+    try (IndexLog log = new IndexLog(file, false)) {
+      log.checkpoint(timestamp -> {});
+      log.mutating();
+      assertThat(IndexLog.lastCheckpoint(file), is(IndexLog.NO_CHECKPOINT));
+      log.mutated();
+    }
+  }
+
+  @Test
+  public void testCheckpointIsAbandonedOnConcurrentMutation() throws Exception {
+    File file = folder.newFile();
+    try (IndexLog log = new IndexLog(file, false)) {
+      assertThat(log.checkpoint(timestamp -> {
+        log.mutating();
+        log.mutated();
+      }), is(false));
+      assertThat(IndexLog.lastCheckpoint(file), is(IndexLog.NO_CHECKPOINT));
+
+      assertThat(log.checkpoint(timestamp -> {}), is(true));
+    }
+  }
+
+  @Test
+  public void testRecoveredLogSkipsCheckpointUntilMutated() throws Exception {
+    File file = folder.newFile();
+    AtomicLong written = new AtomicLong();
+    try (IndexLog log = new IndexLog(file, false)) {
+      log.checkpoint(written::set);
+    }
+    try (IndexLog log = new IndexLog(file, true)) {
+      assertThat(log.checkpoint(timestamp -> fail("Index should not be rewritten")), is(true));
+      assertThat(IndexLog.lastCheckpoint(file), is(written.get()));
+
+      log.mutating();
+      log.mutated();
+      assertThat(log.checkpoint(written::set), is(true));
+    }
+    assertThat(IndexLog.lastCheckpoint(file), is(written.get()));
+  }
+}
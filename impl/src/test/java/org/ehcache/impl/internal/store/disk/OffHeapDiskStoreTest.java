@@ -30,6 +30,8 @@ import org.ehcache.core.statistics.LowerCachingTierOperationsOutcome;
 import org.ehcache.CachePersistenceException;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.impl.internal.events.TestStoreEventDispatcher;
 import org.ehcache.impl.internal.executor.OnDemandExecutionService;
 import org.ehcache.impl.internal.persistence.TestDiskResourceService;
@@ -57,9 +59,12 @@ import org.terracotta.context.query.Matcher;
 import org.terracotta.context.query.Query;
 import org.terracotta.context.query.QueryBuilder;
 import org.terracotta.statistics.OperationStatistic;
+import org.terracotta.statistics.ValueStatistic;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -86,6 +91,8 @@ import static org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.D
 import static org.ehcache.impl.internal.spi.TestServiceProvider.providerContaining;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -120,6 +127,99 @@ public class OffHeapDiskStoreTest extends AbstractOffHeapStoreTest {
     }
   }
 
+  @Test
+  public void testRecoveryOfAllSegmentsIsTimed() throws Exception {
+    OffHeapDiskStore<String, String> offHeapDiskStore = createAndInitStore(SystemTimeSource.INSTANCE, noExpiration());
+    try {
+      assertThat(recoveryDuration(offHeapDiskStore), is(-1L));
+      for (int i = 0; i < 100; i++) {
+        offHeapDiskStore.put("key" + i, "value" + i);
+      }
+
+      OffHeapDiskStore.Provider.close(offHeapDiskStore);
+
+      OffHeapDiskStore.Provider.init(offHeapDiskStore);
+      assertThat(recoveryDuration(offHeapDiskStore), greaterThanOrEqualTo(0L));
+      for (int i = 0; i < 100; i++) {
+        assertThat(offHeapDiskStore.get("key" + i).value(), is("value" + i));
+      }
+    } finally {
+      destroyStore(offHeapDiskStore);
+    }
+  }
+
+  private static long recoveryDuration(OffHeapDiskStore<?, ?> store) {
+    @SuppressWarnings("unchecked")
+    ValueStatistic<Long> recoveryDuration = (ValueStatistic<Long>) QueryBuilder.queryBuilder()
+      .descendants()
+      .filter(context(attributes(hasAttribute("name", "recoveryDuration"))))
+      .ensureUnique()
+      .build()
+      .execute(singleton(nodeFor(store)))
+      .iterator()
+      .next()
+      .getContext()
+      .attributes()
+      .get("this");
+    return recoveryDuration.value();
+  }
+
+  @Test
+  public void testRecoveryFromCheckpointAfterUncleanShutdown() throws Exception {
+    FileBasedPersistenceContext persistenceContext = getPersistenceContext();
+    OffHeapDiskStore<String, String> offHeapDiskStore = createAndInitStore(persistenceContext, SystemTimeSource.INSTANCE, noExpiration());
+    try {
+      offHeapDiskStore.put("key1", "value1");
+      offHeapDiskStore.checkpointIndex();
+      assertThat(offHeapDiskStore.get("key1"), notNullValue());
+
+      File crashedDirectory = copyOf(persistenceContext);
+      OffHeapDiskStore<String, String> recoveredStore = createAndInitStore(() -> crashedDirectory, SystemTimeSource.INSTANCE, noExpiration());
+      try {
+        assertThat(recoveredStore.get("key1").value(), is("value1"));
+      } finally {
+        destroyStore(recoveredStore);
+      }
+    } finally {
+      destroyStore(offHeapDiskStore);
+    }
+  }
+
+  @Test
+  public void testNoRecoveryOfChangesSinceLastCheckpointAfterUncleanShutdown() throws Exception {
+    FileBasedPersistenceContext persistenceContext = getPersistenceContext();
+    OffHeapDiskStore<String, String> offHeapDiskStore = createAndInitStore(persistenceContext, SystemTimeSource.INSTANCE, noExpiration());
+    try {
+      offHeapDiskStore.put("key1", "value1");
+      offHeapDiskStore.checkpointIndex();
+      offHeapDiskStore.put("key2", "value2");
+
+      File crashedDirectory = copyOf(persistenceContext);
+      OffHeapDiskStore<String, String> recoveredStore = createAndInitStore(() -> crashedDirectory, SystemTimeSource.INSTANCE, noExpiration());
+      try {
+        assertThat(recoveredStore.get("key1"), nullValue());
+        assertThat(recoveredStore.get("key2"), nullValue());
+      } finally {
+        destroyStore(recoveredStore);
+      }
+    } finally {
+      destroyStore(offHeapDiskStore);
+    }
+  }
+
+  /**
+   * Copies the store files as they are on disk, like after a crash.
+   */
+  private File copyOf(FileBasedPersistenceContext persistenceContext) throws IOException {
+    File copy = temporaryFolder.newFolder();
+    for (File file : persistenceContext.getDirectory().listFiles()) {
+      if (file.isFile()) {
+        Files.copy(file.toPath(), new File(copy, file.getName()).toPath());
+      }
+    }
+    return copy;
+  }
+
   @Test
   public void testRecoveryFailureWhenValueTypeChangesToIncompatibleClass() throws Exception {
     OffHeapDiskStore.Provider provider = new OffHeapDiskStore.Provider();
@@ -170,6 +270,40 @@ public class OffHeapDiskStoreTest extends AbstractOffHeapStoreTest {
     }
   }
 
+  @Test
+  public void testRecoveryFailureWhenValueCompressionChanges() throws Exception {
+    OffHeapDiskStore.Provider provider = new OffHeapDiskStore.Provider();
+    ServiceLocator serviceLocator = dependencySet().with(diskResourceService).with(provider).build();
+    serviceLocator.startAllServices();
+
+    CacheConfiguration cacheConfiguration = mock(CacheConfiguration.class);
+    when(cacheConfiguration.getResourcePools()).thenReturn(newResourcePoolsBuilder().disk(1, MemoryUnit.MB, false).build());
+    PersistenceSpaceIdentifier space = diskResourceService.getPersistenceSpaceIdentifier("cache", cacheConfiguration);
+
+    @SuppressWarnings("unchecked")
+    Store.Configuration<Long, String> storeConfig = mock(Store.Configuration.class);
+    when(storeConfig.getKeyType()).thenReturn(Long.class);
+    when(storeConfig.getValueType()).thenReturn(String.class);
+    when(storeConfig.getResourcePools()).thenReturn(ResourcePoolsBuilder.newResourcePoolsBuilder()
+        .disk(10, MB)
+        .build());
+    when(storeConfig.getDispatcherConcurrency()).thenReturn(1);
+    when(storeConfig.getClassLoader()).thenReturn(ClassLoader.getSystemClassLoader());
+
+    OffHeapDiskStore<Long, String> offHeapDiskStore1 = provider.createStore(storeConfig, space, new OffHeapStoreConfiguration(Compression.LZ4));
+    provider.initStore(offHeapDiskStore1);
+    destroyStore(offHeapDiskStore1);
+
+    OffHeapDiskStore<Long, String> offHeapDiskStore2 = provider.createStore(storeConfig, space);
+    try {
+      provider.initStore(offHeapDiskStore2);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), containsString("compression"));
+    }
+    destroyStore(offHeapDiskStore2);
+  }
+
   @Test
   public void testRecoveryWithArrayType() throws Exception {
     OffHeapDiskStore.Provider provider = new OffHeapDiskStore.Provider();
@@ -243,6 +377,10 @@ public class OffHeapDiskStoreTest extends AbstractOffHeapStoreTest {
 
   @Override
   protected OffHeapDiskStore<String, String> createAndInitStore(final TimeSource timeSource, final Expiry<? super String, ? super String> expiry) {
+    return createAndInitStore(getPersistenceContext(), timeSource, expiry);
+  }
+
+  private OffHeapDiskStore<String, String> createAndInitStore(FileBasedPersistenceContext persistenceContext, TimeSource timeSource, Expiry<? super String, ? super String> expiry) {
     try {
       SerializationProvider serializationProvider = new DefaultSerializationProvider(null);
       serializationProvider.start(providerContaining(diskResourceService));
@@ -252,7 +390,7 @@ public class OffHeapDiskStoreTest extends AbstractOffHeapStoreTest {
       StoreConfigurationImpl<String, String> storeConfiguration = new StoreConfigurationImpl<>(String.class, String.class,
         null, classLoader, expiry, null, 0, keySerializer, valueSerializer);
       OffHeapDiskStore<String, String> offHeapStore = new OffHeapDiskStore<>(
-        getPersistenceContext(),
+        persistenceContext,
         new OnDemandExecutionService(), null, DEFAULT_WRITER_CONCURRENCY, DEFAULT_DISK_SEGMENTS,
         storeConfiguration, timeSource,
         new TestStoreEventDispatcher<>(),
@@ -27,6 +27,7 @@ import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.impl.copy.IdentityCopier;
 import org.ehcache.impl.internal.store.heap.holders.CopiedOnHeapValueHolder;
+import org.ehcache.impl.store.HashUtils;
 import org.ehcache.core.spi.time.SystemTimeSource;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.impl.internal.util.StatisticsTestUtils;
@@ -52,7 +53,9 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Exchanger;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -221,6 +224,124 @@ public abstract class BaseOnHeapStoreTest {
     StatisticsTestUtils.validateStats(store, EnumSet.of(StoreOperationOutcomes.GetOutcome.HIT));
   }
 
+  @Test
+  public void testReapExpired() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    timeSource.advanceTime(1000L);
+    StoreEventSink<String, String> eventSink = getStoreEventSink();
+    OnHeapStore<String, String> store = newStore(timeSource,
+        Expirations.timeToLiveExpiration(new Duration(10, TimeUnit.MILLISECONDS)));
+    store.startExpiryReaping(mock(ScheduledExecutorService.class), 5, TimeUnit.MILLISECONDS, 100);
+    store.put("key", "value");
+
+    timeSource.advanceTime(9);
+    store.reapExpired();
+    verify(eventSink, never()).expired(anyString(), anyValueSupplier());
+
+    timeSource.advanceTime(1);
+    store.reapExpired();
+    checkExpiryEvent(eventSink, "key", "value");
+    StatisticsTestUtils.validateStats(store, EnumSet.of(StoreOperationOutcomes.ExpirationOutcome.SUCCESS));
+    assertThat(store.get("key"), nullValue());
+  }
+
+  @Test
+  public void testReapReschedulesMappingsWhoseExpirationWasPostponed() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    timeSource.advanceTime(1000L);
+    StoreEventSink<String, String> eventSink = getStoreEventSink();
+    OnHeapStore<String, String> store = newStore(timeSource,
+        Expirations.timeToIdleExpiration(new Duration(10, TimeUnit.MILLISECONDS)));
+    store.startExpiryReaping(mock(ScheduledExecutorService.class), 1, TimeUnit.MILLISECONDS, 100);
+    store.put("key", "value");
+
+    timeSource.advanceTime(5);
+    assertThat(store.get("key").value(), equalTo("value"));
+    timeSource.advanceTime(6);
+    store.reapExpired();
+    verify(eventSink, never()).expired(anyString(), anyValueSupplier());
+
+    timeSource.advanceTime(4);
+    store.reapExpired();
+    checkExpiryEvent(eventSink, "key", "value");
+  }
+
+  @Test
+  public void testReapIgnoresReplacedMappings() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    timeSource.advanceTime(1000L);
+    StoreEventSink<String, String> eventSink = getStoreEventSink();
+    OnHeapStore<String, String> store = newStore(timeSource,
+        Expirations.timeToLiveExpiration(new Duration(10, TimeUnit.MILLISECONDS)));
+    store.startExpiryReaping(mock(ScheduledExecutorService.class), 1, TimeUnit.MILLISECONDS, 100);
+    store.put("key", "value");
+
+    timeSource.advanceTime(5);
+    store.put("key", "value2");
+    timeSource.advanceTime(5);
+    store.reapExpired();
+    verify(eventSink, never()).expired(anyString(), anyValueSupplier());
+    assertThat(store.get("key").value(), equalTo("value2"));
+  }
+
+  @Test
+  public void testRepeatedUpdatesKeepASingleTimer() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    timeSource.advanceTime(1000L);
+    OnHeapStore<String, String> store = newStore(timeSource,
+        Expirations.timeToLiveExpiration(new Duration(10, TimeUnit.MILLISECONDS)));
+    store.startExpiryReaping(mock(ScheduledExecutorService.class), 1, TimeUnit.MILLISECONDS, 100);
+
+    for (int i = 0; i < 1000; i++) {
+      store.put("key", "value" + i);
+      timeSource.advanceTime(1);
+      store.reapExpired();
+      assertThat(store.pendingExpiryTimers(), is(1));
+    }
+    assertThat(store.get("key").value(), equalTo("value999"));
+  }
+
+  @Test
+  public void testRemovedMappingsReleaseTheirTimer() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    timeSource.advanceTime(1000L);
+    StoreEventSink<String, String> eventSink = getStoreEventSink();
+    OnHeapStore<String, String> store = newStore(timeSource,
+        Expirations.timeToLiveExpiration(new Duration(10, TimeUnit.MILLISECONDS)));
+    store.startExpiryReaping(mock(ScheduledExecutorService.class), 1, TimeUnit.MILLISECONDS, 100);
+    for (int i = 0; i < 10; i++) {
+      store.put("key" + i, "value");
+    }
+    for (int i = 0; i < 10; i++) {
+      store.remove("key" + i);
+    }
+
+    store.reapExpired();
+    assertThat(store.pendingExpiryTimers(), is(0));
+    timeSource.advanceTime(10);
+    store.reapExpired();
+    verify(eventSink, never()).expired(anyString(), anyValueSupplier());
+  }
+
+  @Test
+  public void testReapIsBoundedPerRun() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    timeSource.advanceTime(1000L);
+    StoreEventSink<String, String> eventSink = getStoreEventSink();
+    OnHeapStore<String, String> store = newStore(timeSource,
+        Expirations.timeToLiveExpiration(new Duration(10, TimeUnit.MILLISECONDS)));
+    store.startExpiryReaping(mock(ScheduledExecutorService.class), 1, TimeUnit.MILLISECONDS, 2);
+    store.put("key1", "value");
+    store.put("key2", "value");
+    store.put("key3", "value");
+
+    timeSource.advanceTime(10);
+    store.reapExpired();
+    verify(eventSink, times(2)).expired(anyString(), anyValueSupplier());
+    store.reapExpired();
+    verify(eventSink, times(3)).expired(anyString(), anyValueSupplier());
+  }
+
   @Test
   public void testAccessTime() throws Exception {
     TestTimeSource timeSource = new TestTimeSource();
@@ -1167,6 +1288,112 @@ public abstract class BaseOnHeapStoreTest {
     }
   }
 
+  @Test
+  public void testFaultInvalidatedInFlightLeavesNewerFaultShared() throws Exception {
+    final OnHeapStore<String, String> store = newStore();
+    final AtomicInteger faults = new AtomicInteger();
+
+    final CountDownLatch staleFaulting = new CountDownLatch(1);
+    final CountDownLatch staleRelease = new CountDownLatch(1);
+    Thread staleThread = new Thread(() -> {
+      try {
+        store.getOrComputeIfAbsent("42", key -> {
+          faults.incrementAndGet();
+          staleFaulting.countDown();
+          awaitQuietly(staleRelease);
+          return new CopiedOnHeapValueHolder<>("stale", System.currentTimeMillis(), false, new IdentityCopier<>());
+        });
+      } catch (StoreAccessException e) {
+        e.printStackTrace();
+      }
+    });
+    staleThread.start();
+    assertThat(staleFaulting.await(5, TimeUnit.SECONDS), is(true));
+
+    store.invalidateAllWithHash(HashUtils.intHashToLong("42".hashCode()));
+
+    final CountDownLatch freshFaulting = new CountDownLatch(1);
+    final CountDownLatch freshRelease = new CountDownLatch(1);
+    final AtomicReference<ValueHolder<String>> freshValue = new AtomicReference<>();
+    Thread freshThread = new Thread(() -> {
+      try {
+        freshValue.set(store.getOrComputeIfAbsent("42", key -> {
+          faults.incrementAndGet();
+          freshFaulting.countDown();
+          awaitQuietly(freshRelease);
+          return new CopiedOnHeapValueHolder<>("fresh", System.currentTimeMillis(), false, new IdentityCopier<>());
+        }));
+      } catch (StoreAccessException e) {
+        e.printStackTrace();
+      }
+    });
+    freshThread.start();
+    assertThat(freshFaulting.await(5, TimeUnit.SECONDS), is(true));
+
+    staleRelease.countDown();
+    staleThread.join(5000);
+
+    final AtomicReference<ValueHolder<String>> sharedValue = new AtomicReference<>();
+    Thread sharingThread = new Thread(() -> {
+      try {
+        sharedValue.set(store.getOrComputeIfAbsent("42", key -> {
+          faults.incrementAndGet();
+          return new CopiedOnHeapValueHolder<>("other", System.currentTimeMillis(), false, new IdentityCopier<>());
+        }));
+      } catch (StoreAccessException e) {
+        e.printStackTrace();
+      }
+    });
+    sharingThread.start();
+    freshRelease.countDown();
+    freshThread.join(5000);
+    sharingThread.join(5000);
+
+    assertThat(faults.get(), is(2));
+    assertThat(freshValue.get().value(), is("fresh"));
+    assertThat(sharedValue.get().value(), is("fresh"));
+  }
+
+  @Test
+  public void testSilentInvalidateAllWithHashDoesNotLeakFault() throws Exception {
+    final OnHeapStore<String, String> store = newStore();
+
+    final CountDownLatch faulting = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Thread thread = new Thread(() -> {
+      try {
+        store.getOrComputeIfAbsent("42", key -> {
+          faulting.countDown();
+          awaitQuietly(release);
+          return new CopiedOnHeapValueHolder<>("TheAnswer!", System.currentTimeMillis(), false, new IdentityCopier<>());
+        });
+      } catch (StoreAccessException e) {
+        e.printStackTrace();
+      }
+    });
+    thread.start();
+    assertThat(faulting.await(5, TimeUnit.SECONDS), is(true));
+
+    final AtomicReference<ValueHolder<String>> invalidated = new AtomicReference<>();
+    store.silentInvalidateAllWithHash(HashUtils.intHashToLong("42".hashCode()), (key, valueHolder) -> {
+      invalidated.set(valueHolder);
+      return null;
+    });
+    release.countDown();
+    thread.join(5000);
+
+    assertThat(invalidated.get(), nullValue());
+    assertThat(store.get("42"), nullValue());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   @Test(timeout = 2000L)
   public void testEvictionDoneUnderEvictedKeyLockScope() throws Exception {
     final OnHeapStore<String, String> store = newStore();
@@ -0,0 +1,160 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.heap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ExpiryTimerWheelTest {
+
+  @Test
+  public void testTimersAreHandedOverOnceDue() {
+    ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(10);
+    wheel.advance(0, 100, timer -> { });
+    wheel.schedule("a", 25);
+    wheel.schedule("b", 40);
+
+    assertThat(advance(wheel, 29, 100), empty());
+    assertThat(advance(wheel, 30, 100), contains("a"));
+    assertThat(advance(wheel, 39, 100), empty());
+    assertThat(advance(wheel, 40, 100), contains("b"));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void testTimersAlreadyDueAreHandedOverImmediately() {
+    ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(10);
+    wheel.advance(100, 100, timer -> { });
+    wheel.schedule("a", 50);
+
+    assertThat(advance(wheel, 100, 100), contains("a"));
+  }
+
+  @Test
+  public void testHandOverIsBounded() {
+    ExpiryTimerWheel<Integer> wheel = new ExpiryTimerWheel<>(1);
+    wheel.advance(0, 100, timer -> { });
+    for (int i = 0; i < 5; i++) {
+      wheel.schedule(i, 10);
+    }
+
+    assertThat(advance(wheel, 10, 2).size(), is(2));
+    assertThat(advance(wheel, 10, 2).size(), is(2));
+    assertThat(advance(wheel, 10, 2).size(), is(1));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void testTimersCascadeThroughLevels() {
+    ExpiryTimerWheel<Long> wheel = new ExpiryTimerWheel<>(1);
+    wheel.advance(0, 100, timer -> { });
+    long[] expirations = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 300_000};
+    for (long expiration : expirations) {
+      wheel.schedule(expiration, expiration);
+    }
+
+    List<Long> handed = new ArrayList<>();
+    for (long now = 1; now <= 300_000; now++) {
+      long current = now;
+      wheel.advance(now, 100, timer -> {
+        assertThat(timer.getExpirationTime(), is(current));
+        handed.add(timer.getKey());
+      });
+    }
+    assertThat(handed.size(), is(expirations.length));
+  }
+
+  @Test
+  public void testTimersBeyondTheHorizonAreParked() {
+    long horizon = 1L << (ExpiryTimerWheel.LEVELS * 6);
+    ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(1);
+    wheel.advance(0, 100, timer -> { });
+    wheel.schedule("far", 3 * horizon);
+
+    assertThat(advance(wheel, horizon, 100), empty());
+    assertThat(advance(wheel, 3 * horizon - 1, 100), empty());
+    assertThat(advance(wheel, 3 * horizon, 100), contains("far"));
+  }
+
+  @Test
+  public void testLaggingWheelCatchesUp() {
+    ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(1);
+    wheel.advance(0, 100, timer -> { });
+    wheel.schedule("a", 1000);
+    wheel.schedule("b", 100_000);
+    wheel.schedule("c", 1_000_000);
+
+    assertThat(advance(wheel, 500_000, 100), containsInAnyOrder("a", "b"));
+    assertThat(advance(wheel, 999_999, 100), empty());
+    assertThat(advance(wheel, 1_000_000, 100), contains("c"));
+  }
+
+  @Test
+  public void testCancelledTimersAreNotHandedOver() {
+    ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(10);
+    wheel.advance(0, 100, timer -> { });
+    ExpiryTimerWheel.Timer<String> a = wheel.schedule("a", 20);
+    wheel.schedule("b", 20);
+    wheel.cancel(a);
+    wheel.cancel(a);
+
+    assertThat(a.getKey(), nullValue());
+    assertThat(advance(wheel, 20, 100), contains("b"));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void testCancelledTimersArePurgedBeforeTheyAreDue() {
+    ExpiryTimerWheel<Integer> wheel = new ExpiryTimerWheel<>(1);
+    wheel.advance(0, 100, timer -> { });
+    List<ExpiryTimerWheel.Timer<Integer>> timers = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      timers.add(wheel.schedule(i, 1000));
+    }
+    wheel.advance(1, 100, timer -> { });
+    timers.subList(0, 60).forEach(wheel::cancel);
+
+    assertThat(advance(wheel, 2, 100), empty());
+    assertThat(wheel.size(), is(40));
+  }
+
+  @Test
+  public void testRescheduledTimersAreHandedOverAgain() {
+    ExpiryTimerWheel<String> wheel = new ExpiryTimerWheel<>(10);
+    wheel.advance(0, 100, timer -> { });
+    wheel.schedule("a", 20);
+
+    wheel.advance(20, 100, timer -> wheel.reschedule(timer, 50));
+    assertThat(advance(wheel, 40, 100), empty());
+    assertThat(advance(wheel, 50, 100), contains("a"));
+  }
+
+  private static <K> List<K> advance(ExpiryTimerWheel<K> wheel, long now, int limit) {
+    List<K> keys = new ArrayList<>();
+    wheel.advance(now, limit, timer -> keys.add(timer.getKey()));
+    return keys;
+  }
+}
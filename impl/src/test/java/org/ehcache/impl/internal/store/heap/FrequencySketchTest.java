@@ -0,0 +1,57 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.heap;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class FrequencySketchTest {
+
+  @Test
+  public void testFrequencyIncreasesWithIncrements() {
+    FrequencySketch sketch = new FrequencySketch(512);
+    assertThat(sketch.frequency(42), is(0));
+    for (int i = 1; i <= 5; i++) {
+      sketch.increment(42);
+      assertThat(sketch.frequency(42), greaterThanOrEqualTo(i));
+    }
+  }
+
+  @Test
+  public void testFrequencyIsCapped() {
+    FrequencySketch sketch = new FrequencySketch(512);
+    for (int i = 0; i < 100; i++) {
+      sketch.increment(42);
+    }
+    assertThat(sketch.frequency(42), is(15));
+  }
+
+  @Test
+  public void testFrequenciesAreHalvedOnceTheSampleIsReached() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment(42);
+    }
+    for (int i = 0; i < 16 * 10; i++) {
+      sketch.increment(1000 + i);
+    }
+    assertThat(sketch.frequency(42), lessThan(10));
+  }
+}
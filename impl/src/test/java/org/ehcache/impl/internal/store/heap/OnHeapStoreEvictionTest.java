@@ -25,6 +25,7 @@ import org.ehcache.core.spi.store.events.StoreEventListener;
 import org.ehcache.event.EventType;
 import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.store.heap.OnHeapStoreConfiguration.EvictionPolicy;
 import org.ehcache.impl.copy.IdentityCopier;
 import org.ehcache.core.events.NullStoreEventDispatcher;
 import org.ehcache.impl.internal.events.TestStoreEventDispatcher;
@@ -52,6 +53,7 @@ import static org.ehcache.config.Eviction.noAdvice;
 import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
 import static org.ehcache.config.builders.ResourcePoolsBuilder.newResourcePoolsBuilder;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 
 public class OnHeapStoreEvictionTest {
@@ -128,6 +130,40 @@ public class OnHeapStoreEvictionTest {
     store.put("other", "otherValue");
   }
 
+  @Test
+  public void testWindowTinyLfuKeepsFrequentlyAccessedMappingsThroughScans() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+    StoreConfigurationImpl<String, String> configuration = new StoreConfigurationImpl<>(
+      String.class, String.class, noAdvice(),
+      getClass().getClassLoader(), Expirations.noExpiration(), heap(100).build(), 1, null, null);
+    OnHeapStore<String, String> store = new OnHeapStore<>(configuration, timeSource,
+      new IdentityCopier<>(), new IdentityCopier<>(), new NoopSizeOfEngine(), NullStoreEventDispatcher.<String, String>nullStoreEventDispatcher(),
+      EvictionPolicy.WINDOW_TINY_LFU);
+
+    for (int i = 0; i < 50; i++) {
+      timeSource.advanceTime(1L);
+      store.put("hot" + i, "value");
+    }
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 50; i++) {
+        timeSource.advanceTime(1L);
+        store.get("hot" + i);
+      }
+    }
+    for (int i = 0; i < 1000; i++) {
+      timeSource.advanceTime(1L);
+      store.put("scan" + i, "value");
+    }
+
+    int hotMappings = 0;
+    for (int i = 0; i < 50; i++) {
+      if (store.get("hot" + i) != null) {
+        hotMappings++;
+      }
+    }
+    assertThat(hotMappings, greaterThanOrEqualTo(45));
+  }
+
   protected <K, V> OnHeapStoreForTests<K, V> newStore(final TimeSource timeSource,
       final EvictionAdvisor<? super K, ? super V> evictionAdvisor) {
     return new OnHeapStoreForTests<>(new Store.Configuration<K, V>() {
@@ -0,0 +1,233 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.heap;
+
+import org.ehcache.impl.copy.IdentityCopier;
+import org.ehcache.impl.internal.store.heap.holders.CopiedOnHeapValueHolder;
+import org.ehcache.impl.internal.store.heap.holders.OnHeapValueHolder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.ehcache.config.Eviction.noAdvice;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PrimitiveKeyBackendTest {
+
+  @Test
+  public void testSupportedKeyTypes() {
+    assertThat(PrimitiveKeyBackend.supports(Long.class), is(true));
+    assertThat(PrimitiveKeyBackend.supports(Integer.class), is(true));
+    assertThat(PrimitiveKeyBackend.supports(String.class), is(false));
+    assertThat(PrimitiveKeyBackend.supports(Number.class), is(false));
+  }
+
+  @Test
+  public void testMappingsSurviveGrowthAndRemovals() {
+    Backend<Long, String> backend = PrimitiveKeyBackend.create(Long.class, false);
+    Map<Long, OnHeapValueHolder<String>> expected = new HashMap<>();
+    for (long key = -5000L; key < 5000L; key++) {
+      OnHeapValueHolder<String> value = valueHolder("value" + key);
+      assertThat(backend.putIfAbsent(key, value), nullValue());
+      expected.put(key, value);
+    }
+    for (long key = -5000L; key < 5000L; key += 3) {
+      assertThat(backend.remove(key), sameInstance(expected.remove(key)));
+    }
+
+    assertThat(backend.mappingCount(), is((long) expected.size()));
+    for (long key = -5000L; key < 5000L; key++) {
+      assertThat(backend.get(key), sameInstance(expected.get(key)));
+    }
+
+    Set<Long> iterated = new HashSet<>();
+    for (Iterator<Map.Entry<Long, OnHeapValueHolder<String>>> it = backend.entrySetIterator(); it.hasNext(); ) {
+      Map.Entry<Long, OnHeapValueHolder<String>> entry = it.next();
+      assertThat(entry.getValue(), sameInstance(expected.get(entry.getKey())));
+      iterated.add(entry.getKey());
+    }
+    assertThat(iterated, is(expected.keySet()));
+  }
+
+  @Test
+  public void testConditionalOperations() {
+    Backend<Integer, String> backend = PrimitiveKeyBackend.create(Integer.class, false);
+    OnHeapValueHolder<String> foo = valueHolder("foo");
+    OnHeapValueHolder<String> bar = valueHolder("bar");
+
+    assertThat(backend.putIfAbsent(-1, foo), nullValue());
+    assertThat(backend.putIfAbsent(-1, bar), sameInstance(foo));
+    assertThat(backend.replace(-1, bar, foo), is(false));
+    assertThat(backend.replace(-1, foo, bar), is(true));
+    assertThat(backend.remove(-1, foo), is(false));
+    assertThat(backend.remove(-1, bar), is(true));
+    assertThat(backend.get(-1), nullValue());
+    assertThat(backend.mappingCount(), is(0L));
+  }
+
+  @Test
+  public void testComputeIsReentrant() {
+    Backend<Long, String> backend = PrimitiveKeyBackend.create(Long.class, false);
+    OnHeapValueHolder<String> foo = valueHolder("foo");
+    OnHeapValueHolder<String> bar = valueHolder("bar");
+
+    assertThat(backend.computeIfPresent(1L, (k, v) -> foo), nullValue());
+    assertThat(backend.compute(1L, (k, v) -> {
+      // same segment, updated from within the mapping function
+      assertThat(backend.get(1L), nullValue());
+      backend.putIfAbsent(1L, bar);
+      assertThat(backend.get(1L), sameInstance(bar));
+      return foo;
+    }), sameInstance(foo));
+    assertThat(backend.get(1L), sameInstance(foo));
+
+    assertThat(backend.computeIfPresent(1L, (k, v) -> null), nullValue());
+    assertThat(backend.get(1L), nullValue());
+    assertThat(backend.mappingCount(), is(0L));
+  }
+
+  @Test
+  public void testGetDoesNotWaitOnMappingFunction() throws Exception {
+    Backend<Long, String> backend = PrimitiveKeyBackend.create(Long.class, false);
+    OnHeapValueHolder<String> foo = valueHolder("foo");
+    OnHeapValueHolder<String> bar = valueHolder("bar");
+    backend.putIfAbsent(1L, foo);
+
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<OnHeapValueHolder<String>> compute = executor.submit(() -> backend.compute(1L, (k, v) -> {
+        computing.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        return bar;
+      }));
+      computing.await();
+
+      assertThat(executor.submit(() -> backend.get(1L)).get(10, TimeUnit.SECONDS), sameInstance(foo));
+
+      release.countDown();
+      assertThat(compute.get(10, TimeUnit.SECONDS), sameInstance(bar));
+      assertThat(backend.get(1L), sameInstance(bar));
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testOptimisticGetsDuringConcurrentUpdates() throws Exception {
+    Backend<Long, String> backend = PrimitiveKeyBackend.create(Long.class, false);
+    int keyCount = 2048;
+    AtomicBoolean done = new AtomicBoolean();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < 2; w++) {
+        long seed = w;
+        futures.add(executor.submit(() -> {
+          // grows, shrinks and reuses removed slots while the readers run
+          Random random = new Random(seed);
+          for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(keyCount);
+            if (random.nextBoolean()) {
+              backend.compute(key, (k, v) -> valueHolder("value" + k));
+            } else {
+              backend.remove(key);
+            }
+          }
+          done.set(true);
+        }));
+      }
+      for (int r = 0; r < 2; r++) {
+        futures.add(executor.submit(() -> {
+          Random random = new Random();
+          while (!done.get()) {
+            long key = random.nextInt(keyCount);
+            OnHeapValueHolder<String> value = backend.get(key);
+            if (value != null) {
+              assertThat(value.value(), is("value" + key));
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testRemoveAllWithHash() {
+    Backend<Long, String> backend = PrimitiveKeyBackend.create(Long.class, false);
+    long collidingKey = (1L << 32) | 1L;
+    assertThat(Long.hashCode(collidingKey), is(Long.hashCode(0L)));
+    backend.putIfAbsent(0L, valueHolder("zero"));
+    backend.putIfAbsent(collidingKey, valueHolder("colliding"));
+    backend.putIfAbsent(1L, valueHolder("one"));
+
+    Map<Long, OnHeapValueHolder<String>> removed = backend.removeAllWithHash(Long.hashCode(0L));
+
+    assertThat(removed.keySet(), containsInAnyOrder(0L, collidingKey));
+    assertThat(backend.get(0L), nullValue());
+    assertThat(backend.get(collidingKey), nullValue());
+    assertThat(backend.get(1L), notNullValue());
+  }
+
+  @Test
+  public void testEvictionCandidate() {
+    Backend<Long, String> backend = PrimitiveKeyBackend.create(Long.class, false);
+    assertThat(backend.getEvictionCandidate(new Random(), 8, (a, b) -> 0, noAdvice()), nullValue());
+
+    for (long key = 0L; key < 100L; key++) {
+      backend.putIfAbsent(key, valueHolder("value" + key));
+    }
+    Map.Entry<Long, OnHeapValueHolder<String>> candidate = backend.getEvictionCandidate(new Random(), 8, (a, b) -> 0, noAdvice());
+    assertThat(candidate, notNullValue());
+    assertThat(backend.get(candidate.getKey()), sameInstance(candidate.getValue()));
+
+    assertThat(backend.getEvictionCandidate(new Random(), 8, (a, b) -> 0, (k, v) -> true), nullValue());
+  }
+
+  private static OnHeapValueHolder<String> valueHolder(String value) {
+    return new CopiedOnHeapValueHolder<>(value, 0L, false, new IdentityCopier<>());
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.heap;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class WindowTinyLfuTest {
+
+  @Test
+  public void testFrequenciesSurviveAdmissionsBeyondTheExpectedSize() {
+    WindowTinyLfu<Integer> tinyLfu = new WindowTinyLfu<>(16);
+    for (int i = 0; i < 5; i++) {
+      tinyLfu.recordAccess(42);
+    }
+    for (int i = 0; i < 1000; i++) {
+      tinyLfu.recordAdmission(1000 + i, i + 1);
+    }
+    assertThat(tinyLfu.admit(42, 43), is(true));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.heap.holders;
+
+import org.ehcache.impl.copy.IdentityCopier;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReusableLookupOnHeapKeyTest {
+
+  @Test
+  public void testLookupMatchesCopiedKeys() {
+    CopiedOnHeapKey<String> foo = new CopiedOnHeapKey<>("foo", new IdentityCopier<>());
+    CopiedOnHeapKey<String> bar = new CopiedOnHeapKey<>("bar", new IdentityCopier<>());
+    ReusableLookupOnHeapKey<String> lookupKey = new ReusableLookupOnHeapKey<>();
+
+    assertThat(lookupKey.lookup("foo").equals(foo), is(true));
+    assertThat(lookupKey.hashCode(), is(foo.hashCode()));
+    assertThat(lookupKey.equals(bar), is(false));
+    lookupKey.release();
+
+    assertThat(lookupKey.lookup("bar").equals(bar), is(true));
+    assertThat(lookupKey.hashCode(), is(bar.hashCode()));
+    assertThat(lookupKey.equals(foo), is(false));
+    lookupKey.release();
+  }
+
+  @Test
+  public void testInUseUntilReleased() {
+    ReusableLookupOnHeapKey<String> lookupKey = new ReusableLookupOnHeapKey<>();
+    assertThat(lookupKey.isInUse(), is(false));
+
+    lookupKey.lookup("foo");
+    assertThat(lookupKey.isInUse(), is(true));
+    assertThat(lookupKey.getActualKeyObject(), is("foo"));
+
+    lookupKey.release();
+    assertThat(lookupKey.isInUse(), is(false));
+  }
+}
@@ -21,9 +21,12 @@ import org.ehcache.config.ResourceType;
 import org.ehcache.core.internal.store.StoreConfigurationImpl;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.statistics.StoreOperationOutcomes;
+import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.impl.internal.events.TestStoreEventDispatcher;
 import org.ehcache.impl.internal.spi.serialization.DefaultSerializationProvider;
+import org.ehcache.core.spi.time.SystemTimeSource;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.impl.internal.util.UnmatchedResourceType;
 import org.ehcache.spi.serialization.SerializationProvider;
@@ -31,15 +34,30 @@ import org.ehcache.spi.serialization.Serializer;
 import org.ehcache.spi.serialization.UnsupportedTypeException;
 import org.ehcache.spi.service.ServiceConfiguration;
 import org.junit.Test;
+import org.terracotta.context.ContextElement;
+import org.terracotta.context.TreeNode;
+import org.terracotta.context.query.QueryBuilder;
+import org.terracotta.offheapstore.exceptions.OversizeMappingException;
+import org.terracotta.statistics.OperationStatistic;
+import org.terracotta.statistics.StatisticsManager;
+import org.terracotta.statistics.observer.ChainedOperationObserver;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.EMPTY_LIST;
 import static org.ehcache.impl.internal.spi.TestServiceProvider.providerContaining;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 
 public class OffHeapStoreTest extends AbstractOffHeapStoreTest {
 
@@ -106,6 +124,93 @@ public class OffHeapStoreTest extends AbstractOffHeapStoreTest {
     assertRank(provider, 0, ResourceType.Core.OFFHEAP, new UnmatchedResourceType());
   }
 
+  @Test
+  public void testBulkComputeRetriesOversizeMappingsInTheSameObservation() throws Exception {
+    OffHeapStore<String, String> store = createOversizingStore("oversized");
+    try {
+      AtomicInteger begins = new AtomicInteger();
+      AtomicInteger ends = new AtomicInteger();
+      getComputeStatistic(store).addDerivedStatistic(new ChainedOperationObserver<StoreOperationOutcomes.ComputeOutcome>() {
+        @Override
+        public void begin(long time) {
+          begins.incrementAndGet();
+        }
+
+        @Override
+        public void end(long time, StoreOperationOutcomes.ComputeOutcome result) {
+          ends.incrementAndGet();
+        }
+
+        @Override
+        public void end(long time, StoreOperationOutcomes.ComputeOutcome result, long... parameters) {
+          ends.incrementAndGet();
+        }
+      });
+
+      Map<String, Store.ValueHolder<String>> result = store.bulkCompute(new HashSet<>(Arrays.asList("oversized", "other")), entries -> {
+        Map<String, String> computed = new HashMap<>();
+        for (Map.Entry<? extends String, ? extends String> entry : entries) {
+          computed.put(entry.getKey(), entry.getKey() + "-value");
+        }
+        return computed.entrySet();
+      });
+
+      assertThat(result.get("oversized").value(), is("oversized-value"));
+      assertThat(result.get("other").value(), is("other-value"));
+      assertThat(begins.get(), is(2));
+      assertThat(ends.get(), is(2));
+      assertThat(getComputeStatistic(store).count(StoreOperationOutcomes.ComputeOutcome.PUT), is(2L));
+    } finally {
+      destroyStore(store);
+    }
+  }
+
+  /**
+   * Creates a store whose first non retried compute of {@code oversizedKey} fails as if its mapping did not fit.
+   */
+  private OffHeapStore<String, String> createOversizingStore(String oversizedKey) throws UnsupportedTypeException {
+    SerializationProvider serializationProvider = new DefaultSerializationProvider(null);
+    serializationProvider.start(providerContaining());
+    ClassLoader classLoader = getClass().getClassLoader();
+    Serializer<String> keySerializer = serializationProvider.createKeySerializer(String.class, classLoader);
+    Serializer<String> valueSerializer = serializationProvider.createValueSerializer(String.class, classLoader);
+    StoreConfigurationImpl<String, String> storeConfiguration = new StoreConfigurationImpl<>(String.class, String.class,
+      null, classLoader, Expirations.noExpiration(), null, 0, keySerializer, valueSerializer);
+    OffHeapStore<String, String> offHeapStore = new OffHeapStore<String, String>(storeConfiguration, SystemTimeSource.INSTANCE,
+      new TestStoreEventDispatcher<>(), MemoryUnit.MB.toBytes(1)) {
+
+      private EhcacheOffHeapBackingMap<String, OffHeapValueHolder<String>> oversizing;
+
+      @Override
+      @SuppressWarnings("unchecked")
+      protected EhcacheOffHeapBackingMap<String, OffHeapValueHolder<String>> backingMap() {
+        if (oversizing == null) {
+          EhcacheOffHeapBackingMap<String, OffHeapValueHolder<String>> map = super.backingMap();
+          oversizing = mock(EhcacheOffHeapBackingMap.class, delegatesTo(map));
+          doThrow(new OversizeMappingException(oversizedKey)).doAnswer(delegatesTo(map))
+            .when(oversizing).compute(eq(oversizedKey), any(), eq(false));
+        }
+        return oversizing;
+      }
+    };
+    OffHeapStore.Provider.init(offHeapStore);
+    return offHeapStore;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static OperationStatistic<StoreOperationOutcomes.ComputeOutcome> getComputeStatistic(Store<?, ?> store) {
+    StatisticsManager statisticsManager = new StatisticsManager();
+    statisticsManager.root(store);
+    TreeNode treeNode = statisticsManager.queryForSingleton(QueryBuilder.queryBuilder()
+        .descendants()
+        .filter(org.terracotta.context.query.Matchers.context(
+            org.terracotta.context.query.Matchers.<ContextElement>allOf(org.terracotta.context.query.Matchers.identifier(org.terracotta.context.query.Matchers
+                .subclassOf(OperationStatistic.class)),
+                org.terracotta.context.query.Matchers.attributes(org.terracotta.context.query.Matchers.hasAttribute("name", "compute")))))
+        .build());
+    return (OperationStatistic<StoreOperationOutcomes.ComputeOutcome>) treeNode.getContext().attributes().get("this");
+  }
+
   private void assertRank(final Store.Provider provider, final int expectedRank, final ResourceType<?>... resources) {
     assertThat(provider.rank(
       new HashSet<>(Arrays.asList(resources)),
@@ -16,6 +16,7 @@
 
 package org.ehcache.impl.internal.store.offheap;
 
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.impl.internal.store.offheap.portability.OffHeapValueHolderPortability;
 import org.ehcache.core.spi.store.AbstractValueHolder;
 import org.ehcache.impl.internal.spi.serialization.DefaultSerializationProvider;
@@ -28,10 +29,13 @@ import org.terracotta.offheapstore.storage.portability.WriteContext;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import static org.ehcache.impl.internal.spi.TestServiceProvider.providerContaining;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -39,6 +43,7 @@ import static org.mockito.Mockito.verify;
 public class OffHeapValueHolderPortabilityTest {
 
   private OffHeapValueHolderPortability<String> valueHolderPortability;
+  private OffHeapValueHolderPortability<String> compressingPortability;
   private OffHeapValueHolder<String> originalValue;
 
   @Before
@@ -47,6 +52,8 @@ public class OffHeapValueHolderPortabilityTest {
     provider.start(providerContaining());
     valueHolderPortability = new OffHeapValueHolderPortability<>(provider
       .createValueSerializer(String.class, getClass().getClassLoader()));
+    compressingPortability = new OffHeapValueHolderPortability<>(provider
+      .createValueSerializer(String.class, getClass().getClassLoader()), Compression.LZ4, 64);
 
     originalValue = new BasicOffHeapValueHolder<>(-1, "aValue", 1L, 2L, 3L, 0);
 
@@ -80,4 +87,71 @@ public class OffHeapValueHolderPortabilityTest {
     verify(writeContext).setLong(OffHeapValueHolderPortability.HITS_OFFSET, 8L);
   }
 
+  @Test
+  public void testCompressedEncodeDecode() {
+    OffHeapValueHolder<String> value = new BasicOffHeapValueHolder<>(-1, repeat("aCompressibleValue", 50), 1L, 2L, 3L, 0);
+
+    ByteBuffer encoded = compressingPortability.encode(value);
+    assertThat(encoded.remaining(), lessThan(valueHolderPortability.encode(value).remaining() / 4));
+
+    OffHeapValueHolder<String> decoded = compressingPortability.decode(encoded);
+    assertThat(decoded, equalTo(value));
+    assertThat(decoded.value(), equalTo(value.value()));
+    assertThat(compressingPortability.getCompressionOutputBytes(), lessThan(compressingPortability.getCompressionInputBytes() / 4));
+  }
+
+  @Test
+  public void testValuesUnderTheThresholdAreNotCompressed() {
+    ByteBuffer encoded = compressingPortability.encode(originalValue);
+    assertThat(encoded.remaining(), is(valueHolderPortability.encode(originalValue).remaining() + 4));
+
+    OffHeapValueHolder<String> decoded = compressingPortability.decode(encoded);
+    assertThat(decoded.value(), equalTo(originalValue.value()));
+    assertThat(compressingPortability.getCompressionOutputBytes(), is(compressingPortability.getCompressionInputBytes()));
+  }
+
+  @Test
+  public void testIncompressibleValuesAreNotCompressed() {
+    char[] chars = new char[500];
+    Random random = new Random(42);
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) random.nextInt(Character.MIN_SURROGATE);
+    }
+    OffHeapValueHolder<String> value = new BasicOffHeapValueHolder<>(-1, new String(chars), 1L, 2L, 3L, 0);
+
+    ByteBuffer encoded = compressingPortability.encode(value);
+    assertThat(encoded.remaining(), is(valueHolderPortability.encode(value).remaining() + 4));
+    assertThat(compressingPortability.decode(encoded).value(), equalTo(value.value()));
+  }
+
+  @Test
+  public void testCompressedWriteBackSupport() {
+    OffHeapValueHolder<String> value = new BasicOffHeapValueHolder<>(-1, repeat("aCompressibleValue", 50), 1L, 2L, 3L, 0);
+    ByteBuffer encoded = compressingPortability.encode(value);
+    WriteContext writeContext = mock(WriteContext.class);
+    OffHeapValueHolder<String> decoded = compressingPortability.decode(encoded, writeContext);
+
+    decoded.setExpirationTime(4L, TimeUnit.MILLISECONDS);
+    decoded.setLastAccessTime(6L, TimeUnit.MILLISECONDS);
+
+    decoded.writeBack();
+    verify(writeContext).setLong(OffHeapValueHolderPortability.ACCESS_TIME_OFFSET, 6L);
+    verify(writeContext).setLong(OffHeapValueHolderPortability.EXPIRE_TIME_OFFSET, 4L);
+  }
+
+  @Test
+  public void testCompressionStatisticsAreUnavailableWithoutCompression() {
+    valueHolderPortability.encode(originalValue);
+    assertThat(valueHolderPortability.getCompressionInputBytes(), is(-1L));
+    assertThat(valueHolderPortability.getCompressionOutputBytes(), is(-1L));
+  }
+
+  private static String repeat(String s, int times) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      sb.append(s).append(i);
+    }
+    return sb.toString();
+  }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.offheap.portability;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class LZ4BlockCodecTest {
+
+  @Test
+  public void testRoundTripOfEmptyInput() {
+    assertRoundTrip(new byte[0]);
+  }
+
+  @Test
+  public void testRoundTripOfShortInputs() {
+    for (int length = 1; length < 20; length++) {
+      byte[] bytes = new byte[length];
+      Arrays.fill(bytes, (byte) 'a');
+      assertRoundTrip(bytes);
+    }
+  }
+
+  @Test
+  public void testRepetitiveInputCompresses() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      sb.append("{\"id\":").append(i).append(",\"name\":\"some name\",\"enabled\":true}");
+    }
+    byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+    int compressedLength = assertRoundTrip(bytes);
+    assertThat(compressedLength, lessThan(bytes.length / 4));
+  }
+
+  @Test
+  public void testLongRunsCompress() {
+    byte[] bytes = new byte[100_000];
+    Arrays.fill(bytes, (byte) 7);
+
+    int compressedLength = assertRoundTrip(bytes);
+    assertThat(compressedLength, lessThan(1000));
+  }
+
+  @Test
+  public void testRandomInputDoesNotExceedMaxCompressedLength() {
+    Random random = new Random(42);
+    for (int length : new int[] {13, 100, 1000, 70_000}) {
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+      assertThat(assertRoundTrip(bytes), lessThanOrEqualTo(LZ4BlockCodec.maxCompressedLength(length)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecompressingToTheWrongLengthFails() {
+    byte[] bytes = "some bytes to compress, some bytes to compress".getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(bytes.length)];
+    int compressedLength = LZ4BlockCodec.compress(bytes, 0, bytes.length, compressed, 0);
+
+    LZ4BlockCodec.decompress(compressed, 0, compressedLength, new byte[bytes.length + 1], 0, bytes.length + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecompressingTruncatedInputFails() {
+    byte[] bytes = "some bytes to compress, some bytes to compress".getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(bytes.length)];
+    int compressedLength = LZ4BlockCodec.compress(bytes, 0, bytes.length, compressed, 0);
+
+    LZ4BlockCodec.decompress(compressed, 0, compressedLength - 3, new byte[bytes.length], 0, bytes.length);
+  }
+
+  private static int assertRoundTrip(byte[] bytes) {
+    byte[] compressed = new byte[3 + LZ4BlockCodec.maxCompressedLength(bytes.length)];
+    int compressedLength = LZ4BlockCodec.compress(bytes, 0, bytes.length, compressed, 3);
+
+    byte[] decompressed = new byte[bytes.length + 2];
+    LZ4BlockCodec.decompress(compressed, 3, compressedLength, decompressed, 2, bytes.length);
+    assertThat(Arrays.copyOfRange(decompressed, 2, decompressed.length), is(bytes));
+    return compressedLength;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.offheap.portability;
+
+import org.ehcache.impl.serialization.CompactJavaSerializer;
+import org.ehcache.impl.serialization.IntegerSerializer;
+import org.ehcache.impl.serialization.LongSerializer;
+import org.junit.Test;
+import org.terracotta.offheapstore.storage.portability.Portability;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PrimitivePortabilityTest {
+
+  @Test
+  public void testLongEncodingMatchesSerializer() throws Exception {
+    LongSerializer serializer = new LongSerializer();
+    Portability<Long> portability = PrimitivePortability.forSerializer(serializer);
+    assertThat(portability, instanceOf(PrimitivePortability.LongPortability.class));
+
+    for (long key : new long[] {Long.MIN_VALUE, -1L, 0L, 42L, Long.MAX_VALUE}) {
+      ByteBuffer encoded = portability.encode(key);
+      assertThat(encoded, is(serializer.serialize(key)));
+      assertThat(serializer.read(encoded.duplicate()), is(key));
+      assertThat(portability.decode(serializer.serialize(key)), is(key));
+      assertThat(portability.equals(key, encoded), is(true));
+      assertThat(portability.equals(key + 1, encoded), is(false));
+    }
+  }
+
+  @Test
+  public void testIntegerEncodingMatchesSerializer() throws Exception {
+    IntegerSerializer serializer = new IntegerSerializer();
+    Portability<Integer> portability = PrimitivePortability.forSerializer(serializer);
+    assertThat(portability, instanceOf(PrimitivePortability.IntegerPortability.class));
+
+    for (int key : new int[] {Integer.MIN_VALUE, -1, 0, 42, Integer.MAX_VALUE}) {
+      ByteBuffer encoded = portability.encode(key);
+      assertThat(encoded, is(serializer.serialize(key)));
+      assertThat(serializer.read(encoded.duplicate()), is(key));
+      assertThat(portability.decode(serializer.serialize(key)), is(key));
+      assertThat(portability.equals(key, encoded), is(true));
+      assertThat(portability.equals(key + 1, encoded), is(false));
+    }
+  }
+
+  @Test
+  public void testOtherSerializersAreKept() {
+    Portability<Long> portability = PrimitivePortability.forSerializer(new CompactJavaSerializer<>(getClass().getClassLoader()));
+    assertThat(portability, instanceOf(SerializerPortability.class));
+  }
+}
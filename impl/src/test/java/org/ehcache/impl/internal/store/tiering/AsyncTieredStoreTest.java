@@ -0,0 +1,107 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.tiering;
+
+import org.ehcache.core.spi.store.AsyncStore;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.store.tiering.AuthoritativeTier;
+import org.ehcache.core.spi.store.tiering.CachingTier;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests for {@link AsyncTieredStore}.
+ */
+public class AsyncTieredStoreTest {
+
+  @Mock
+  private CachingTier<String, String> cachingTier;
+
+  private AuthoritativeTier<String, String> authoritativeTier;
+  private AsyncStore<String, String> asyncAuthority;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() throws Exception {
+    MockitoAnnotations.initMocks(this);
+    authoritativeTier = mock(AuthoritativeTier.class, withSettings().extraInterfaces(AsyncStore.class));
+    asyncAuthority = (AsyncStore<String, String>) authoritativeTier;
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testGetAsyncHitsCachingTier() throws Exception {
+    Store.ValueHolder<String> valueHolder = mock(Store.ValueHolder.class);
+    when(valueHolder.value()).thenReturn("one");
+    when(cachingTier.getOrComputeIfAbsent(eq("1"), any(Function.class))).thenReturn(valueHolder);
+
+    AsyncTieredStore<String, String> tieredStore = new AsyncTieredStore<>(cachingTier, authoritativeTier);
+
+    CompletableFuture<Store.ValueHolder<String>> get = tieredStore.getAsync("1").toCompletableFuture();
+    assertThat(get.isDone(), is(true));
+    assertThat(get.get().value(), is("one"));
+    verify(asyncAuthority, never()).getAsync(any(String.class));
+  }
+
+  @Test
+  public void testGetAsyncMissGoesToAuthority() throws Exception {
+    CompletableFuture<Store.ValueHolder<String>> pending = new CompletableFuture<>();
+    when(asyncAuthority.getAsync("1")).thenReturn(pending);
+
+    AsyncTieredStore<String, String> tieredStore = new AsyncTieredStore<>(cachingTier, authoritativeTier);
+
+    CompletableFuture<Store.ValueHolder<String>> get = tieredStore.getAsync("1").toCompletableFuture();
+    assertThat(get.isDone(), is(false));
+    pending.complete(null);
+    assertThat(get.get(), nullValue());
+  }
+
+  @Test
+  public void testPutAsyncInvalidatesCachingTierOnCompletion() throws Exception {
+    CompletableFuture<Store.PutStatus> pending = new CompletableFuture<>();
+    when(asyncAuthority.putAsync("1", "one")).thenReturn(pending);
+
+    AsyncTieredStore<String, String> tieredStore = new AsyncTieredStore<>(cachingTier, authoritativeTier);
+
+    CompletableFuture<Store.PutStatus> put = tieredStore.putAsync("1", "one").toCompletableFuture();
+    verify(cachingTier, never()).invalidate(any(String.class));
+    pending.complete(Store.PutStatus.PUT);
+    assertThat(put.get(), is(Store.PutStatus.PUT));
+    verify(cachingTier).invalidate("1");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("unchecked")
+  public void testRequiresAsyncAuthority() {
+    new AsyncTieredStore<>(cachingTier, mock(AuthoritativeTier.class));
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.serialization;
+
+import org.ehcache.spi.persistence.StateRepository;
+import org.ehcache.spi.serialization.StatefulSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * CompactFieldSerializerTest
+ */
+public class CompactFieldSerializerTest {
+
+  private StateRepository stateRepository;
+  private StatefulSerializer<Serializable> serializer;
+
+  @Before
+  public void setUp() {
+    stateRepository = new TransientStateRepository();
+    serializer = new CompactFieldSerializer<>(null);
+    serializer.init(stateRepository);
+  }
+
+  @Test
+  public void testLeafValues() throws ClassNotFoundException {
+    for (Serializable value : Arrays.<Serializable>asList("", "foo\u00e9\u4e2d", 42, 42L, 4.2d, 4.2f, (short) 42, (byte) 42, 'x', true)) {
+      assertThat(serializer.read(serializer.serialize(value)), is(value));
+    }
+  }
+
+  @Test
+  public void testFieldByFieldObject() throws ClassNotFoundException {
+    Person input = new Person("alice", 42, new Address("main street", 1234));
+
+    Person result = (Person) serializer.read(serializer.serialize(input));
+
+    assertThat(result, not(sameInstance(input)));
+    assertThat(result.name, is("alice"));
+    assertThat(result.age, is(42));
+    assertThat(result.address.street, is("main street"));
+    assertThat(result.address.zip, is(1234L));
+    assertThat(result.cached, nullValue());
+  }
+
+  @Test
+  public void testNullFields() throws ClassNotFoundException {
+    Person result = (Person) serializer.read(serializer.serialize(new Person(null, 0, null)));
+
+    assertThat(result.name, nullValue());
+    assertThat(result.address, nullValue());
+  }
+
+  @Test
+  public void testSharedReferencesArePreserved() throws ClassNotFoundException {
+    Address address = new Address("main street", 1234);
+    Couple input = new Couple(new Person("alice", 42, address), new Person("bob", 43, address));
+
+    Couple result = (Couple) serializer.read(serializer.serialize(input));
+
+    assertThat(result.first.address, sameInstance(result.second.address));
+  }
+
+  @Test
+  public void testCustomSerializedFormFallsBack() throws ClassNotFoundException {
+    ArrayList<String> input = new ArrayList<>(Arrays.asList("one", "two"));
+
+    assertThat(serializer.read(serializer.serialize(input)), is(input));
+  }
+
+  @Test
+  public void testSchemasAreSharedThroughTheStateRepository() throws ClassNotFoundException {
+    ByteBuffer binary = serializer.serialize(new Person("alice", 42, new Address("main street", 1234)));
+
+    StatefulSerializer<Serializable> other = new CompactFieldSerializer<>(null);
+    other.init(stateRepository);
+
+    Person result = (Person) other.read(binary);
+    assertThat(result.name, is("alice"));
+    assertThat(result.address.zip, is(1234L));
+  }
+
+  @Test
+  public void testEquals() throws ClassNotFoundException {
+    assertThat(serializer.equals("foo", serializer.serialize("foo")), is(true));
+    assertThat(serializer.equals("foo", serializer.serialize("bar")), is(false));
+    assertThat(serializer.equals("foo", serializer.serialize("fooo")), is(false));
+    assertThat(serializer.equals(42, serializer.serialize(42)), is(true));
+    assertThat(serializer.equals(42, serializer.serialize(42L)), is(false));
+    assertThat(serializer.equals(Double.NaN, serializer.serialize(Double.NaN)), is(true));
+
+    List<String> list = new ArrayList<>(Arrays.asList("one", "two"));
+    assertThat(serializer.equals((Serializable) list, serializer.serialize((Serializable) list)), is(true));
+  }
+
+  static class Base implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final String name;
+
+    Base(String name) {
+      this.name = name;
+    }
+  }
+
+  static class Person extends Base {
+    private static final long serialVersionUID = 1L;
+
+    final int age;
+    final Address address;
+    transient Object cached = new Object();
+
+    Person(String name, int age, Address address) {
+      super(name);
+      this.age = age;
+      this.address = address;
+    }
+  }
+
+  static class Address implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final String street;
+    final long zip;
+
+    Address(String street, long zip) {
+      this.street = street;
+      this.zip = zip;
+    }
+  }
+
+  static class Couple implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final Person first;
+    final Person second;
+
+    Couple(Person first, Person second) {
+      this.first = first;
+      this.second = second;
+    }
+  }
+}
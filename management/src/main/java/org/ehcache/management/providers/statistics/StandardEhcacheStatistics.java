@@ -17,12 +17,14 @@ package org.ehcache.management.providers.statistics;
 
 import org.ehcache.core.spi.service.StatisticsService;
 import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.LatencyHistogram;
 import org.ehcache.core.statistics.TypedValueStatistic;
 import org.ehcache.management.ManagementRegistryServiceConfiguration;
 import org.ehcache.management.providers.CacheBinding;
 import org.ehcache.management.providers.ExposedCacheBinding;
 import org.terracotta.management.model.capabilities.descriptors.StatisticDescriptor;
 import org.terracotta.management.registry.collect.StatisticRegistry;
+import org.terracotta.statistics.extended.StatisticType;
 
 import java.util.Collection;
 import java.util.Map;
@@ -54,6 +56,23 @@ public class StandardEhcacheStatistics extends ExposedCacheBinding {
           throw new IllegalArgumentException("Unsupported statistic type: " + valueStatistic.getType());
       }
     }
+
+    for (Map.Entry<String, LatencyHistogram> histogram : cacheStatistics.getLatencyHistograms().entrySet()) {
+      String name = histogram.getKey();
+      LatencyHistogram latencyHistogram = histogram.getValue();
+      statisticRegistry.registerCounter(name + "P50", percentile(latencyHistogram, 0.5));
+      statisticRegistry.registerCounter(name + "P99", percentile(latencyHistogram, 0.99));
+      statisticRegistry.registerCounter(name + "P999", percentile(latencyHistogram, 0.999));
+    }
+  }
+
+  private static TypedValueStatistic percentile(LatencyHistogram histogram, double fraction) {
+    return new TypedValueStatistic(StatisticType.COUNTER) {
+      @Override
+      public Number value() {
+        return histogram.getPercentile(fraction);
+      }
+    };
   }
 
   public Number queryStatistic(String fullStatisticName) {
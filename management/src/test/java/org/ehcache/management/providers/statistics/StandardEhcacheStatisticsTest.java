@@ -23,6 +23,7 @@ import org.ehcache.config.builders.CacheManagerBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.config.statistics.DefaultStatisticsServiceConfiguration;
 import org.ehcache.management.ManagementRegistryService;
 import org.ehcache.management.registry.DefaultManagementRegistryConfiguration;
 import org.ehcache.management.registry.DefaultManagementRegistryService;
@@ -83,4 +84,47 @@ public class StandardEhcacheStatisticsTest {
       }
     }
   }
+
+  @Test
+  public void latencyPercentilesTest() {
+    CacheConfiguration<Long, String> cacheConfiguration = CacheConfigurationBuilder.newCacheConfigurationBuilder(Long.class, String.class,
+        ResourcePoolsBuilder.newResourcePoolsBuilder().heap(1, EntryUnit.ENTRIES).offheap(10, MemoryUnit.MB))
+        .build();
+
+    DefaultManagementRegistryConfiguration registryConfiguration = new DefaultManagementRegistryConfiguration().setCacheManagerAlias("myCacheManager4");
+    ManagementRegistryService managementRegistry = new DefaultManagementRegistryService(registryConfiguration);
+
+    CacheManager cacheManager = null;
+
+    try {
+      cacheManager = CacheManagerBuilder.newCacheManagerBuilder()
+        .withCache("dCache", cacheConfiguration)
+        .using(managementRegistry)
+        .using(new DefaultStatisticsServiceConfiguration(1.0))
+        .build(true);
+
+      Cache<Long, String> aCache = cacheManager.getCache("dCache", Long.class, String.class);
+      aCache.put(1L, "one");
+      aCache.get(1L);
+
+      Context context = StatsUtil.createContext(managementRegistry);
+
+      ContextualStatistics percentiles = managementRegistry.withCapability("StatisticsCapability")
+        .queryStatistics(Arrays.asList("Cache:GetHitLatencyP50", "Cache:GetHitLatencyP999", "OffHeap:GetHitLatencyP99"))
+        .on(context)
+        .build()
+        .execute()
+        .getSingleResult();
+
+      assertThat(percentiles.size(), Matchers.is(3));
+      assertThat(percentiles.getStatistic("Cache:GetHitLatencyP50").longValue(), Matchers.greaterThan(0L));
+      assertThat(percentiles.getStatistic("Cache:GetHitLatencyP999").longValue(),
+        Matchers.greaterThanOrEqualTo(percentiles.getStatistic("Cache:GetHitLatencyP50").longValue()));
+    }
+    finally {
+      if(cacheManager != null) {
+        cacheManager.close();
+      }
+    }
+  }
 }
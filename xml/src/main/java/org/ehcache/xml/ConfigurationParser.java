@@ -21,6 +21,7 @@ import org.ehcache.config.ResourceUnit;
 import org.ehcache.config.SizedResourcePool;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration.Compression;
 import org.ehcache.core.config.SizedResourcePoolImpl;
 import org.ehcache.xml.exceptions.XmlConfigurationException;
 import org.ehcache.xml.model.BaseCacheType;
@@ -40,6 +41,7 @@ import org.ehcache.xml.model.ListenersType;
 import org.ehcache.xml.model.MemoryType;
 import org.ehcache.xml.model.ObjectFactory;
 import org.ehcache.xml.model.Offheap;
+import org.ehcache.xml.model.OffheapStoreSettingsType;
 import org.ehcache.xml.model.PersistableMemoryType;
 import org.ehcache.xml.model.PersistenceType;
 import org.ehcache.xml.model.ResourceType;
@@ -81,6 +83,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -451,6 +454,16 @@ class ConfigurationParser {
             }
           }
 
+          @Override
+          public OffHeapStoreSettings offHeapStoreSettings() {
+            OffheapStoreSettingsType value = null;
+            for (BaseCacheType source : sources) {
+              value = source.getOffheapStoreSettings();
+              if (value != null) break;
+            }
+            return value != null ? new XmlOffHeapStoreSettings(value) : null;
+          }
+
           @Override
           public SizeOfEngineLimits heapStoreSettings() {
             SizeofType sizeofType = null;
@@ -577,6 +590,12 @@ class ConfigurationParser {
             return diskStoreSettings == null ? null : new XmlDiskStoreSettings(diskStoreSettings);
           }
 
+          @Override
+          public OffHeapStoreSettings offHeapStoreSettings() {
+            final OffheapStoreSettingsType offHeapStoreSettings = cacheTemplate.getOffheapStoreSettings();
+            return offHeapStoreSettings == null ? null : new XmlOffHeapStoreSettings(offHeapStoreSettings);
+          }
+
           @Override
           public SizeOfEngineLimits heapStoreSettings() {
             SizeofType type = cacheTemplate.getHeapStoreSettings();
@@ -716,6 +735,8 @@ class ConfigurationParser {
 
     DiskStoreSettings diskStoreSettings();
 
+    OffHeapStoreSettings offHeapStoreSettings();
+
     SizeOfEngineLimits heapStoreSettings();
 
   }
@@ -794,6 +815,13 @@ class ConfigurationParser {
     int diskSegments();
   }
 
+  interface OffHeapStoreSettings {
+
+    Compression compression();
+
+    int compressionThreshold();
+  }
+
 
   interface SizeOfEngineLimits {
 
@@ -1056,4 +1084,23 @@ class ConfigurationParser {
     }
   }
 
+  private static class XmlOffHeapStoreSettings implements OffHeapStoreSettings {
+
+    private final OffheapStoreSettingsType offHeapStoreSettings;
+
+    private XmlOffHeapStoreSettings(OffheapStoreSettingsType offHeapStoreSettings) {
+      this.offHeapStoreSettings = offHeapStoreSettings;
+    }
+
+    @Override
+    public Compression compression() {
+      return Compression.valueOf(this.offHeapStoreSettings.getCompression().value().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public int compressionThreshold() {
+      return this.offHeapStoreSettings.getCompressionThreshold().intValue();
+    }
+  }
+
 }
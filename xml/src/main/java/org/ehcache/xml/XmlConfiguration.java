@@ -47,6 +47,7 @@ import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineProviderConfiguration;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreProviderConfiguration;
 import org.ehcache.spi.copy.Copier;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
@@ -291,6 +292,10 @@ public class XmlConfiguration implements Configuration {
       if (parsedExpiry != null) {
         builder = builder.withExpiry(getExpiry(cacheClassLoader, parsedExpiry));
       }
+      final ConfigurationParser.OffHeapStoreSettings parsedOffHeapStoreSettings = cacheDefinition.offHeapStoreSettings();
+      if (parsedOffHeapStoreSettings != null) {
+        builder = builder.add(new OffHeapStoreConfiguration(parsedOffHeapStoreSettings.compression(), parsedOffHeapStoreSettings.compressionThreshold()));
+      }
       final ConfigurationParser.DiskStoreSettings parsedDiskStoreSettings = cacheDefinition.diskStoreSettings();
       if (parsedDiskStoreSettings != null) {
         builder = builder.add(new OffHeapDiskStoreConfiguration(parsedDiskStoreSettings.threadPool(), parsedDiskStoreSettings.writerConcurrency(), parsedDiskStoreSettings.diskSegments()));
@@ -523,6 +528,10 @@ public class XmlConfiguration implements Configuration {
       builder = builder.add(new DefaultSizeOfEngineConfiguration(cacheTemplate.heapStoreSettings().getMaxObjectSize(), cacheTemplate.heapStoreSettings().getUnit(),
         cacheTemplate.heapStoreSettings().getMaxObjectGraphSize()));
     }
+    final ConfigurationParser.OffHeapStoreSettings offHeapStoreSettings = cacheTemplate.offHeapStoreSettings();
+    if (offHeapStoreSettings != null) {
+      builder = builder.add(new OffHeapStoreConfiguration(offHeapStoreSettings.compression(), offHeapStoreSettings.compressionThreshold()));
+    }
     final String loaderWriter = cacheTemplate.loaderWriter();
     if(loaderWriter!= null) {
       final Class<CacheLoaderWriter<?, ?>> cacheLoaderWriterClass = (Class<CacheLoaderWriter<?,?>>)getClassForName(loaderWriter, defaultClassLoader);
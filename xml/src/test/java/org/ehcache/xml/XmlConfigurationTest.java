@@ -36,6 +36,7 @@ import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializationProviderConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.config.store.offheap.OffHeapStoreConfiguration;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineProviderConfiguration;
 import org.ehcache.impl.copy.SerializingCopier;
@@ -604,6 +605,19 @@ public class XmlConfigurationTest {
     assertThat(diskConfig.getDiskSegments(), is(4));
   }
 
+  @Test
+  public void testOffHeapStoreSettings() throws Exception {
+    final URL resource = XmlConfigurationTest.class.getResource("/configs/resources-caches.xml");
+    XmlConfiguration xmlConfig = new XmlConfiguration(resource);
+
+    CacheConfiguration<?, ?> cacheConfig = xmlConfig.getCacheConfigurations().get("tieredOffHeap");
+
+    OffHeapStoreConfiguration offHeapConfig = findSingletonAmongst(OffHeapStoreConfiguration.class, cacheConfig.getServiceConfigurations().toArray());
+
+    assertThat(offHeapConfig.getCompression(), is(OffHeapStoreConfiguration.Compression.LZ4));
+    assertThat(offHeapConfig.getCompressionThreshold(), is(128));
+  }
+
   @Test
   public void testNullUrlInConstructorThrowsNPE() throws Exception {
     thrown.expect(NullPointerException.class);